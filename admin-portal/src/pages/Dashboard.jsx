@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { adminAPI } from '../services/api';
+import { adminAPI, streamDashboard } from '../services/api';
 
 export default function Dashboard() {
   const [data, setData] = useState(null);
@@ -12,7 +12,9 @@ export default function Dashboard() {
       .then((res) => { if (!cancelled) setData(res.data?.data || res.data); })
       .catch((err) => { if (!cancelled) setError(err.response?.data?.message || err.message); })
       .finally(() => { if (!cancelled) setLoading(false); });
-    return () => { cancelled = true; };
+    // Live updates pushed by the server instead of polling
+    const stop = streamDashboard((stats) => { if (!cancelled) setData(stats); });
+    return () => { cancelled = true; stop(); };
   }, []);
 
   if (loading) return <div className="loading"><div className="spinner" /></div>;
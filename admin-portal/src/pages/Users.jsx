@@ -4,19 +4,35 @@ import { adminAPI } from '../services/api';
 export default function Users() {
   const [users, setUsers] = useState({ content: [] });
   const [search, setSearch] = useState('');
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
 
-  const load = () => {
-    setLoading(true);
+  // Empty search lists newest users; otherwise fuzzy, ranked search with cursor paging
+  const load = (cursor) => {
+    const q = search.trim();
+    if (!cursor) setLoading(true);
     setError(null);
-    adminAPI.getUsers(search, { page: 0, size: 50 })
-      .then((res) => setUsers(res.data?.data || res.data))
+    const request = q
+      ? adminAPI.searchUsers(q, cursor).then((res) => {
+        const data = res.data?.data || res.data;
+        setUsers((prev) => ({ content: cursor ? [...(prev.content || []), ...data.users] : data.users }));
+        setNextCursor(data.nextCursor);
+      })
+      : adminAPI.getUsers('', { page: 0, size: 50 }).then((res) => {
+        setUsers(res.data?.data || res.data);
+        setNextCursor(null);
+      });
+    request
       .catch((err) => setError(err.response?.data?.message || err.message))
       .finally(() => setLoading(false));
   };
 
-  useEffect(() => { load(); }, []);
+  // Initial load, then search as you type (debounced)
+  useEffect(() => {
+    const timer = setTimeout(() => load(), 250);
+    return () => clearTimeout(timer);
+  }, [search]);
 
   const handleAction = (id, action) => {
     const fn = { suspend: adminAPI.suspendUser, unsuspend: adminAPI.unsuspendUser, lock: adminAPI.lockUser, unlock: adminAPI.unlockUser }[action];
@@ -38,7 +54,7 @@ export default function Users() {
             onChange={(e) => setSearch(e.target.value)}
             style={{ maxWidth: '280px' }}
           />
-          <button type="button" className="btn-primary" onClick={load}>Search</button>
+          <button type="button" className="btn-primary" onClick={() => load()}>Search</button>
         </div>
         {loading ? (
           <div className="loading"><div className="spinner" /></div>
@@ -85,6 +101,11 @@ export default function Users() {
                 ))}
               </tbody>
             </table>
+            {nextCursor && (
+              <button type="button" className="btn-primary btn-sm" style={{ marginTop: '1rem' }} onClick={() => load(nextCursor)}>
+                Load more
+              </button>
+            )}
           </div>
         )}
       </div>
@@ -39,6 +39,7 @@ export const authAPI = {
 export const adminAPI = {
   getDashboard: () => api.get('/admin/dashboard'),
   getUsers: (search, params) => api.get('/admin/users', { params: { ...params, search: search || undefined } }),
+  searchUsers: (q, cursor, size = 50) => api.get('/admin/users/search', { params: { q, cursor: cursor || undefined, size } }),
   suspendUser: (id) => api.put(`/admin/users/${id}/suspend`),
   unsuspendUser: (id) => api.put(`/admin/users/${id}/unsuspend`),
   lockUser: (id) => api.put(`/admin/users/${id}/lock`),
@@ -54,6 +55,57 @@ export const adminAPI = {
   deactivateCategory: (id) => api.put(`/admin/categories/${id}/deactivate`),
 };
 
+/**
+ * Subscribe to the dashboard SSE stream. EventSource cannot send the bearer header, so
+ * this reads the stream with fetch. Calls onData with each snapshot; reconnects with
+ * backoff until the returned function is called.
+ */
+export function streamDashboard(onData, onError) {
+  const controller = new AbortController();
+  let retryMs = 1000;
+
+  const connect = async () => {
+    try {
+      const res = await fetch(`${API_BASE}/admin/dashboard/stream`, {
+        headers: {
+          Accept: 'text/event-stream',
+          Authorization: `Bearer ${localStorage.getItem('admin_accessToken')}`,
+        },
+        signal: controller.signal,
+      });
+      if (!res.ok || !res.body) throw new Error(`Stream failed (${res.status})`);
+      retryMs = 1000;
+      const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value;
+        let idx;
+        while ((idx = buffer.indexOf('\n\n')) >= 0) {
+          const event = buffer.slice(0, idx);
+          buffer = buffer.slice(idx + 2);
+          const data = event.split('\n')
+            .filter((line) => line.startsWith('data:'))
+            .map((line) => line.slice(5).trim())
+            .join('\n');
+          if (data) onData(JSON.parse(data));
+        }
+      }
+    } catch (err) {
+      if (controller.signal.aborted) return;
+      if (onError) onError(err);
+    }
+    if (!controller.signal.aborted) {
+      setTimeout(connect, retryMs);
+      retryMs = Math.min(retryMs * 2, 30000);
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+}
+
 export const categoryAPI = {
   getAll: () => api.get('/categories'),
 };
@@ -0,0 +1,211 @@
+package com.marketplace.StoneRidgeMarketplace.benchmark;
+
+import com.marketplace.StoneRidgeMarketplace.dto.response.ProductImageDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.ProductSummaryDto;
+import com.marketplace.StoneRidgeMarketplace.entity.Category;
+import com.marketplace.StoneRidgeMarketplace.entity.Product;
+import com.marketplace.StoneRidgeMarketplace.entity.ProductImage;
+import com.marketplace.StoneRidgeMarketplace.entity.User;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductCondition;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductStatus;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.Role;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Deterministic entities and DTOs for the benchmarks: every generator takes a seeded
+ * {@link Random} and timestamps are fixed, so two runs measure identical inputs.
+ */
+public final class SyntheticData {
+
+    public static final long SEED = 20240601L;
+    public static final LocalDateTime EPOCH = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private static final String[] WORDS = {
+            "vintage", "oak", "desk", "lamp", "bike", "road", "sofa", "grey", "linen", "chair",
+            "monitor", "27in", "kettle", "steel", "plant", "pot", "rug", "wool", "bookshelf", "white"
+    };
+    private static final ProductCondition[] CONDITIONS = ProductCondition.values();
+
+    private SyntheticData() {
+    }
+
+    public static User user(long id, Random random) {
+        return User.builder()
+                .id(id)
+                .firstName("First" + id)
+                .lastName("Last" + id)
+                .displayName(random.nextBoolean() ? "Neighbour " + id : null)
+                .email("user" + id + "@example.com")
+                .username("user" + id)
+                .apartmentNumber(String.valueOf(100 + random.nextInt(900)))
+                .buildingName("Building " + (char) ('A' + random.nextInt(6)))
+                .role(Role.USER)
+                .enabled(true)
+                .accountNonLocked(true)
+                .trustedDevices(new HashSet<>())
+                .createdAt(EPOCH.minusDays(random.nextInt(365)))
+                .build();
+    }
+
+    /** A tree depth levels deep with fanout active children per node; ids are assigned breadth-first from 1. */
+    public static Category categoryTree(int depth, int fanout) {
+        long[] nextId = {1};
+        Category root = category(nextId[0]++, null);
+        List<Category> level = List.of(root);
+        for (int d = 1; d < depth; d++) {
+            List<Category> next = new ArrayList<>();
+            for (Category parent : level) {
+                for (int i = 0; i < fanout; i++) {
+                    Category child = category(nextId[0]++, parent);
+                    parent.getSubcategories().add(child);
+                    next.add(child);
+                }
+            }
+            level = next;
+        }
+        return root;
+    }
+
+    private static Category category(long id, Category parent) {
+        return Category.builder()
+                .id(id)
+                .name("Category " + id)
+                .description("Synthetic category " + id)
+                .iconUrl("http://localhost:8080/uploads/categories/" + id + ".png")
+                .parent(parent)
+                .subcategories(new HashSet<>())
+                .products(new HashSet<>())
+                .active(true)
+                .createdAt(EPOCH)
+                .build();
+    }
+
+    public static Product product(long id, Category category, User seller, Random random) {
+        return Product.builder()
+                .id(id)
+                .title(title(random))
+                .description("Lightly used, collect from the lobby. " + title(random) + " " + title(random))
+                .price(BigDecimal.valueOf(500 + random.nextInt(50_000), 2))
+                .originalPrice(random.nextBoolean() ? BigDecimal.valueOf(60_000 + random.nextInt(50_000), 2) : null)
+                .condition(CONDITIONS[random.nextInt(CONDITIONS.length)])
+                .status(ProductStatus.ACTIVE)
+                .category(category)
+                .seller(seller)
+                .images(new HashSet<>())
+                .chats(new HashSet<>())
+                .viewCount(random.nextInt(2_000))
+                .negotiable(random.nextBoolean())
+                .locationDetails("Lobby, " + seller.getBuildingName())
+                .createdAt(EPOCH.minusHours(random.nextInt(24 * 90)))
+                .updatedAt(EPOCH)
+                .build();
+    }
+
+    /** count processed images for product, the first one primary. */
+    public static List<ProductImage> images(Product product, int count) {
+        List<ProductImage> images = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String base = "http://localhost:8080/uploads/products/ab/cd/" + digest(product.getId() * 31 + i);
+            images.add(ProductImage.builder()
+                    .id(product.getId() * 100 + i)
+                    .product(product)
+                    .imageUrl(base + ".jpg")
+                    .thumbnailUrl(base + "-thumb.jpg")
+                    .cardUrl(base + "-card.jpg")
+                    .fullUrl(base + "-full.jpg")
+                    .width(1600)
+                    .height(1200)
+                    .fileName("IMG_" + (1000 + i) + ".jpg")
+                    .fileSize(350_000L)
+                    .primary(i == 0)
+                    .displayOrder(i)
+                    .createdAt(EPOCH)
+                    .build());
+        }
+        return images;
+    }
+
+    /** A page of summaries shaped like the product listing endpoints return. */
+    public static List<ProductSummaryDto> productSummaries(int count, Random random) {
+        List<ProductSummaryDto> summaries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String base = "http://localhost:8080/uploads/products/ab/cd/" + digest(i);
+            summaries.add(ProductSummaryDto.builder()
+                    .id((long) i + 1)
+                    .title(title(random))
+                    .price(BigDecimal.valueOf(500 + random.nextInt(50_000), 2))
+                    .condition(CONDITIONS[random.nextInt(CONDITIONS.length)])
+                    .status(ProductStatus.ACTIVE)
+                    .primaryImageUrl(base + "-card.jpg")
+                    .primaryThumbnailUrl(base + "-thumb.jpg")
+                    .categoryName("Category " + (1 + random.nextInt(20)))
+                    .sellerName("Neighbour " + random.nextInt(500))
+                    .sellerBuilding("Building " + (char) ('A' + random.nextInt(6)))
+                    .viewCount(random.nextInt(2_000))
+                    .negotiable(random.nextBoolean())
+                    .createdAt(EPOCH.minusHours(random.nextInt(24 * 90)))
+                    .isOwner(false)
+                    .build());
+        }
+        return summaries;
+    }
+
+    public static ProductImageDto imageDto(ProductImage image) {
+        return ProductImageDto.builder()
+                .id(image.getId())
+                .imageUrl(image.getImageUrl())
+                .thumbnailUrl(image.getThumbnailUrl())
+                .cardUrl(image.getCardUrl())
+                .fullUrl(image.getFullUrl())
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .fileName(image.getFileName())
+                .primary(image.isPrimary())
+                .displayOrder(image.getDisplayOrder())
+                .build();
+    }
+
+    /**
+     * A repository (or any interface) answering the named methods and failing on anything
+     * else, so a benchmark cannot silently measure an unexpected call. A proxy rather than a
+     * mocking library keeps per-call overhead to a map lookup.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> "stub " + type.getSimpleName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+    }
+
+    private static String title(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String digest(long seed) {
+        StringBuilder hex = new StringBuilder(64);
+        Random random = new Random(seed);
+        while (hex.length() < 64) {
+            hex.append(Long.toHexString(random.nextLong() | Long.MIN_VALUE));
+        }
+        return hex.substring(0, 64);
+    }
+}
@@ -0,0 +1,54 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.benchmark.SyntheticData;
+import com.marketplace.StoneRidgeMarketplace.dto.response.CategoryDto;
+import com.marketplace.StoneRidgeMarketplace.entity.Category;
+import com.marketplace.StoneRidgeMarketplace.repository.CategoryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Recursive mapping of the category tree (the navigation menu), product counts answered from memory. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class CategoryTreeBenchmark {
+
+    /** depth x fanout: 3x4 is 21 categories, 4x6 is 259. */
+    @Param({"3x4", "4x6"})
+    public String shape;
+
+    private CategoryService categoryService;
+    private Category root;
+
+    @Setup
+    public void setUp() {
+        String[] dimensions = shape.split("x");
+        root = SyntheticData.categoryTree(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+        CategoryRepository categoryRepository = SyntheticData.stub(CategoryRepository.class, Map.of(
+                "countActiveProductsByCategoryIn", args -> ((Collection<?>) args[0]).stream()
+                        .map(id -> new Object[]{id, (Long) id % 17})
+                        .toList()));
+        categoryService = new CategoryService(categoryRepository, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public CategoryDto mapTree() {
+        return categoryService.mapToCategoryDto(root);
+    }
+}
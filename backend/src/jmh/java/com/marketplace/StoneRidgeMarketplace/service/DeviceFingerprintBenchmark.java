@@ -0,0 +1,45 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/** Fingerprint of a typical browser request behind the reverse proxy (login and trusted-device checks). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class DeviceFingerprintBenchmark {
+
+    private DeviceFingerprintServiceImpl fingerprintService;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        fingerprintService = new DeviceFingerprintServiceImpl();
+        request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.addHeader("User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 14_5) AppleWebKit/605.1.15 "
+                + "(KHTML, like Gecko) Version/17.5 Safari/605.1.15");
+        request.addHeader("Accept-Language", "en-GB,en;q=0.9");
+        request.addHeader("Accept-Encoding", "gzip, deflate, br");
+        request.addHeader("X-Forwarded-For", "203.0.113.24, 10.0.0.2");
+        request.setRemoteAddr("10.0.0.2");
+    }
+
+    @Benchmark
+    public String generateFingerprint() {
+        return fingerprintService.generateFingerprint(request);
+    }
+}
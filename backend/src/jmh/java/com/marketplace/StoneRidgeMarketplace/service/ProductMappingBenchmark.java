@@ -0,0 +1,86 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.benchmark.SyntheticData;
+import com.marketplace.StoneRidgeMarketplace.dto.response.ProductDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.ProductSummaryDto;
+import com.marketplace.StoneRidgeMarketplace.entity.Category;
+import com.marketplace.StoneRidgeMarketplace.entity.Product;
+import com.marketplace.StoneRidgeMarketplace.entity.ProductImage;
+import com.marketplace.StoneRidgeMarketplace.entity.User;
+import com.marketplace.StoneRidgeMarketplace.repository.ChatRepository;
+import com.marketplace.StoneRidgeMarketplace.repository.ProductImageRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping of a listing page (20 summaries) and of a product detail view.
+ * Repositories answer from memory, so this measures the mapping itself, not the queries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final long VIEWER_ID = 7L;
+
+    @Param({"1", "8"})
+    public int imagesPerProduct;
+
+    private ProductService productService;
+    private List<Product> page;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SyntheticData.SEED);
+        Category category = SyntheticData.categoryTree(3, 3).getSubcategories().iterator().next();
+        page = new ArrayList<>(PAGE_SIZE);
+        Map<Long, List<ProductImage>> images = new HashMap<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            User seller = SyntheticData.user(1000 + id % 5, random);
+            Product product = SyntheticData.product(id, category, seller, random);
+            page.add(product);
+            images.put(id, SyntheticData.images(product, imagesPerProduct));
+        }
+
+        ProductImageRepository productImageRepository = SyntheticData.stub(ProductImageRepository.class, Map.of(
+                "findByProductIdOrderByDisplayOrderAsc", args -> images.get((Long) args[0]),
+                "findByProductIdInAndPrimaryTrue", args -> ((Collection<?>) args[0]).stream()
+                        .map(id -> images.get((Long) id).get(0))
+                        .toList()));
+        ChatRepository chatRepository = SyntheticData.stub(ChatRepository.class, Map.of(
+                "countActiveChatsForProduct", args -> 3));
+        productService = new ProductService(null, productImageRepository, null, null, chatRepository,
+                null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<ProductSummaryDto> summaryPage() {
+        return productService.mapToProductSummaryDtos(page, VIEWER_ID);
+    }
+
+    @Benchmark
+    public ProductDto detail() {
+        return productService.mapToProductDto(page.get(0), VIEWER_ID);
+    }
+}
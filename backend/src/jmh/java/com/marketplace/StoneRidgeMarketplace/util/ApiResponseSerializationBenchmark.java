@@ -0,0 +1,104 @@
+package com.marketplace.StoneRidgeMarketplace.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.marketplace.StoneRidgeMarketplace.benchmark.SyntheticData;
+import com.marketplace.StoneRidgeMarketplace.dto.response.ProductDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.ProductSummaryDto;
+import com.marketplace.StoneRidgeMarketplace.entity.Category;
+import com.marketplace.StoneRidgeMarketplace.entity.Product;
+import com.marketplace.StoneRidgeMarketplace.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Response bodies as the message converter writes them: a listing page and a product detail
+ * wrapped in {@link ApiResponse}, with an ObjectMapper configured like Spring Boot's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<Page<ProductSummaryDto>> listingPage;
+    private ApiResponse<ProductDto> productDetail;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        Random random = new Random(SyntheticData.SEED);
+        listingPage = ApiResponse.<Page<ProductSummaryDto>>builder()
+                .success(true)
+                .data(new PageImpl<>(SyntheticData.productSummaries(20, random), PageRequest.of(0, 20), 347))
+                .timestamp(1_717_243_200_000L)
+                .build();
+
+        Category category = SyntheticData.categoryTree(2, 3).getSubcategories().iterator().next();
+        User seller = SyntheticData.user(1001, random);
+        Product product = SyntheticData.product(1, category, seller, random);
+        productDetail = ApiResponse.<ProductDto>builder()
+                .success(true)
+                .data(ProductDto.builder()
+                        .id(product.getId())
+                        .title(product.getTitle())
+                        .description(product.getDescription())
+                        .price(product.getPrice())
+                        .originalPrice(product.getOriginalPrice())
+                        .condition(product.getCondition())
+                        .status(product.getStatus())
+                        .categoryId(category.getId())
+                        .categoryName(category.getName())
+                        .categoryPath(category.getFullPath())
+                        .sellerId(seller.getId())
+                        .sellerName(seller.getFullName())
+                        .sellerDisplayName(seller.getEffectiveDisplayName())
+                        .sellerBuilding(seller.getBuildingName())
+                        .sellerApartment(seller.getApartmentNumber())
+                        .images(SyntheticData.images(product, 6).stream()
+                                .map(SyntheticData::imageDto)
+                                .collect(Collectors.toList()))
+                        .viewCount(product.getViewCount())
+                        .negotiable(product.isNegotiable())
+                        .locationDetails(product.getLocationDetails())
+                        .activeChatsCount(3)
+                        .createdAt(product.getCreatedAt())
+                        .updatedAt(product.getUpdatedAt())
+                        .canChat(true)
+                        .build())
+                .timestamp(1_717_243_200_000L)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] listingPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listingPage);
+    }
+
+    @Benchmark
+    public byte[] productDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productDetail);
+    }
+}
@@ -0,0 +1,50 @@
+package com.marketplace.StoneRidgeMarketplace.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Building and serializing the JSON text frames pushed to chat participants. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class ChatFrameBenchmark {
+
+    private ChatWebSocketHandler handler;
+    private ChatWebSocketHandler.ChatMessageNotification chatMessage;
+    private ChatWebSocketHandler.NegotiationNotification negotiation;
+
+    @Setup
+    public void setUp() {
+        handler = new ChatWebSocketHandler(new SimpleMeterRegistry());
+        chatMessage = new ChatWebSocketHandler.ChatMessageNotification(1234L, 42L, "Neighbour 42",
+                "Hi! Is the oak desk still available? I could pick it up tonight after 6pm.",
+                "2024-06-01T12:00:00");
+        negotiation = new ChatWebSocketHandler.NegotiationNotification(77L, 1234L, "COUNTERED",
+                "Would you take 45 instead?", "2024-06-01T12:00:05");
+    }
+
+    @Benchmark
+    public String chatMessageFrame() throws JsonProcessingException {
+        return handler.toJson(ChatWebSocketHandler.chatMessageFrame(chatMessage));
+    }
+
+    @Benchmark
+    public String negotiationFrame() throws JsonProcessingException {
+        return handler.toJson(ChatWebSocketHandler.negotiationFrame(negotiation));
+    }
+}
@@ -0,0 +1,45 @@
+package com.marketplace.StoneRidgeMarketplace.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-route token-bucket policies, bound from app.rate-limit.*.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** local (in-memory, per node) or database (shared across nodes). */
+    private String mode = "local";
+
+    /** Buckets untouched for this long are dropped (they would be full again anyway). */
+    private Duration idleEviction = Duration.ofMinutes(30);
+
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    public enum KeyType {
+        /** Client IP (X-Forwarded-For aware). */
+        IP,
+        /** Authenticated principal id, falling back to client IP. */
+        USER
+    }
+
+    @Data
+    public static class Policy {
+        private String method = "POST";
+        private String path;
+        private KeyType key = KeyType.IP;
+        private int capacity = 10;
+        private int refillTokens = 10;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
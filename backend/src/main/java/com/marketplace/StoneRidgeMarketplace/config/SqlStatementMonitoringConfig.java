@@ -0,0 +1,34 @@
+package com.marketplace.StoneRidgeMarketplace.config;
+
+import com.marketplace.StoneRidgeMarketplace.monitoring.SqlStatementEventListener;
+import com.marketplace.StoneRidgeMarketplace.monitoring.SqlStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the per-request SQL statement accounting with Hibernate: a statement inspector
+ * for counts and shapes, and a session listener for JDBC execution time. The same hooks
+ * open the JDBC spans of sampled traces, so they stay registered while tracing is on.
+ */
+@Configuration
+public class SqlStatementMonitoringConfig {
+
+    @Value("${app.monitoring.sql.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.tracing.enabled:true}")
+    private boolean tracingEnabled;
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementMonitoringCustomizer() {
+        return properties -> {
+            if (enabled || tracingEnabled) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+                properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatementEventListener.class.getName());
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.marketplace.StoneRidgeMarketplace.config;
+
+import com.marketplace.StoneRidgeMarketplace.repository.UserRepository;
+import com.marketplace.StoneRidgeMarketplace.service.InMemoryUserSearchIndex;
+import com.marketplace.StoneRidgeMarketplace.service.PostgresTrigramUserSearch;
+import com.marketplace.StoneRidgeMarketplace.service.UserSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Picks the admin user search backend. app.search.users.mode: auto (pg_trgm on
+ * PostgreSQL, in-memory trigram index otherwise), trigram, or memory.
+ */
+@Configuration
+@Slf4j
+public class UserSearchConfig {
+
+    @Value("${app.search.users.mode:auto}")
+    private String mode;
+
+    @Value("${app.search.users.threshold:0.3}")
+    private double threshold;
+
+    // EntityManagerFactory parameter: the migrations (which Hibernate validation waits for)
+    // must have run before the indexes are checked
+    @Bean
+    public UserSearchIndex userSearchIndex(DataSource dataSource, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, UserRepository userRepository,
+            EntityManagerFactory entityManagerFactory) {
+        boolean wantTrigram = "trigram".equalsIgnoreCase(mode)
+                || ("auto".equalsIgnoreCase(mode) && isPostgres(dataSource));
+        if (wantTrigram) {
+            PostgresTrigramUserSearch trigram = new PostgresTrigramUserSearch(jdbcTemplate, transactionTemplate, threshold);
+            if (trigram.initialize()) {
+                log.info("Admin user search: pg_trgm");
+                return trigram;
+            }
+        }
+        log.info("Admin user search: in-memory trigram index");
+        return new InMemoryUserSearchIndex(userRepository, threshold);
+    }
+
+    private boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
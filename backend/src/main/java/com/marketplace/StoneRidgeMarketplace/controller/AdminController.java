@@ -1,31 +1,62 @@
 package com.marketplace.StoneRidgeMarketplace.controller;
 
+import com.marketplace.StoneRidgeMarketplace.dto.request.AdminBulkProductRequest;
+import com.marketplace.StoneRidgeMarketplace.dto.request.AdminBulkUserRequest;
 import com.marketplace.StoneRidgeMarketplace.dto.request.AdminCategoryCreateRequest;
 import com.marketplace.StoneRidgeMarketplace.dto.request.AdminCategoryUpdateRequest;
 import com.marketplace.StoneRidgeMarketplace.dto.request.CategoryRequestDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.AdminAuditPageDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.AdminBulkJobDto;
 import com.marketplace.StoneRidgeMarketplace.dto.response.AdminDashboardDto;
 import com.marketplace.StoneRidgeMarketplace.dto.response.AdminUserDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.AdminUserSearchDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.AnalyticsResponseDto;
 import com.marketplace.StoneRidgeMarketplace.dto.response.CategoryDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.FlightRecordingDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.PasswordHashingStatsDto;
 import com.marketplace.StoneRidgeMarketplace.dto.response.ProductSummaryDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.SqlStatementStatsDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.TraceDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.TraceListDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.UploadGcReportDto;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
+import com.marketplace.StoneRidgeMarketplace.monitoring.FlightRecorderService;
+import com.marketplace.StoneRidgeMarketplace.monitoring.SqlStatementStats;
+import com.marketplace.StoneRidgeMarketplace.monitoring.Tracer;
+import com.marketplace.StoneRidgeMarketplace.security.PasswordHashingService;
 import com.marketplace.StoneRidgeMarketplace.security.PrincipalWithId;
+import com.marketplace.StoneRidgeMarketplace.service.AdminAuditLog;
+import com.marketplace.StoneRidgeMarketplace.service.AdminBulkService;
+import com.marketplace.StoneRidgeMarketplace.service.AdminDashboardStream;
 import com.marketplace.StoneRidgeMarketplace.service.AdminService;
+import com.marketplace.StoneRidgeMarketplace.service.AnalyticsService;
 import com.marketplace.StoneRidgeMarketplace.service.CategoryService;
 import com.marketplace.StoneRidgeMarketplace.service.ProductService;
+import com.marketplace.StoneRidgeMarketplace.service.UploadGarbageCollector;
 import com.marketplace.StoneRidgeMarketplace.util.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -39,6 +70,15 @@ public class AdminController {
     private final CategoryService categoryService;
     private final AdminService adminService;
     private final ProductService productService;
+    private final PasswordHashingService passwordHashingService;
+    private final AdminDashboardStream dashboardStream;
+    private final AnalyticsService analyticsService;
+    private final AdminBulkService bulkService;
+    private final AdminAuditLog auditLog;
+    private final UploadGarbageCollector uploadGarbageCollector;
+    private final SqlStatementStats sqlStatementStats;
+    private final Tracer tracer;
+    private final FlightRecorderService flightRecorder;
 
     // ---------- Dashboard ----------
     @GetMapping("/dashboard")
@@ -52,6 +92,32 @@ public class AdminController {
                         .build());
     }
 
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream dashboard stats (server-sent events, pushed on change)")
+    public SseEmitter streamDashboard() {
+        return dashboardStream.subscribe();
+    }
+
+    // ---------- Analytics ----------
+    @GetMapping("/analytics")
+    @Operation(summary = "Time-series analytics (listings, sales, chats, offers, signups) from rollups")
+    public ResponseEntity<ApiResponse<AnalyticsResponseDto>> getAnalytics(
+            @RequestParam(required = false) AnalyticsMetric metric,
+            @RequestParam(required = false) AnalyticsService.Granularity granularity,
+            @RequestParam(required = false) AnalyticsService.GroupBy groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String building) {
+        AnalyticsResponseDto analytics = analyticsService.getAnalytics(
+                metric, granularity, groupBy, from, to, categoryId, building);
+        return ResponseEntity.ok(
+                ApiResponse.<AnalyticsResponseDto>builder()
+                        .success(true)
+                        .data(analytics)
+                        .build());
+    }
+
     // ---------- User management ----------
     @GetMapping("/users")
     @Operation(summary = "List users (optional search by email/username)")
@@ -66,6 +132,20 @@ public class AdminController {
                         .build());
     }
 
+    @GetMapping("/users/search")
+    @Operation(summary = "Fuzzy user search by email/username, ranked by similarity, keyset paged")
+    public ResponseEntity<ApiResponse<AdminUserSearchDto>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        AdminUserSearchDto result = adminService.searchUsers(q, cursor, size);
+        return ResponseEntity.ok(
+                ApiResponse.<AdminUserSearchDto>builder()
+                        .success(true)
+                        .data(result)
+                        .build());
+    }
+
     @PutMapping("/users/{id}/suspend")
     @Operation(summary = "Suspend user (disable login)")
     public ResponseEntity<ApiResponse<Void>> suspendUser(
@@ -118,6 +198,20 @@ public class AdminController {
                         .build());
     }
 
+    @PostMapping("/users/bulk")
+    @Operation(summary = "Bulk suspend/unsuspend/lock/unlock/delete users by ids or search filter (async job)")
+    public ResponseEntity<ApiResponse<AdminBulkJobDto>> bulkUsers(
+            @Valid @RequestBody AdminBulkUserRequest request,
+            @AuthenticationPrincipal PrincipalWithId principal) {
+        AdminBulkJobDto job = bulkService.submitUserJob(request, principal.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+                ApiResponse.<AdminBulkJobDto>builder()
+                        .success(true)
+                        .message("Bulk job queued")
+                        .data(job)
+                        .build());
+    }
+
     // ---------- Listing moderation ----------
     @GetMapping("/products")
     @Operation(summary = "List all products (any status) for moderation")
@@ -133,8 +227,10 @@ public class AdminController {
 
     @PutMapping("/products/{id}/deactivate")
     @Operation(summary = "Deactivate product (hide from listing)")
-    public ResponseEntity<ApiResponse<Void>> deactivateProduct(@PathVariable Long id) {
-        productService.adminDeactivateProduct(id);
+    public ResponseEntity<ApiResponse<Void>> deactivateProduct(
+            @PathVariable Long id,
+            @AuthenticationPrincipal PrincipalWithId principal) {
+        productService.adminDeactivateProduct(id, principal.getId());
         return ResponseEntity.ok(
                 ApiResponse.<Void>builder()
                         .success(true)
@@ -144,8 +240,10 @@ public class AdminController {
 
     @DeleteMapping("/products/{id}")
     @Operation(summary = "Delete product (admin)")
-    public ResponseEntity<ApiResponse<Void>> deleteProduct(@PathVariable Long id) {
-        productService.adminDeleteProduct(id);
+    public ResponseEntity<ApiResponse<Void>> deleteProduct(
+            @PathVariable Long id,
+            @AuthenticationPrincipal PrincipalWithId principal) {
+        productService.adminDeleteProduct(id, principal.getId());
         return ResponseEntity.ok(
                 ApiResponse.<Void>builder()
                         .success(true)
@@ -153,6 +251,57 @@ public class AdminController {
                         .build());
     }
 
+    @PostMapping("/products/bulk")
+    @Operation(summary = "Bulk deactivate/delete products by ids or filter (seller, status, category) (async job)")
+    public ResponseEntity<ApiResponse<AdminBulkJobDto>> bulkProducts(
+            @Valid @RequestBody AdminBulkProductRequest request,
+            @AuthenticationPrincipal PrincipalWithId principal) {
+        AdminBulkJobDto job = bulkService.submitProductJob(request, principal.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+                ApiResponse.<AdminBulkJobDto>builder()
+                        .success(true)
+                        .message("Bulk job queued")
+                        .data(job)
+                        .build());
+    }
+
+    // ---------- Bulk jobs ----------
+    @GetMapping("/bulk-jobs")
+    @Operation(summary = "Recent bulk moderation jobs with progress")
+    public ResponseEntity<ApiResponse<List<AdminBulkJobDto>>> getBulkJobs() {
+        return ResponseEntity.ok(
+                ApiResponse.<List<AdminBulkJobDto>>builder()
+                        .success(true)
+                        .data(bulkService.getRecentJobs())
+                        .build());
+    }
+
+    @GetMapping("/bulk-jobs/{id}")
+    @Operation(summary = "Bulk moderation job progress")
+    public ResponseEntity<ApiResponse<AdminBulkJobDto>> getBulkJob(@PathVariable String id) {
+        return ResponseEntity.ok(
+                ApiResponse.<AdminBulkJobDto>builder()
+                        .success(true)
+                        .data(bulkService.getJob(id))
+                        .build());
+    }
+
+    // ---------- Audit trail ----------
+    @GetMapping("/audit")
+    @Operation(summary = "Admin audit trail by target and/or actor, newest first, keyset paged by id")
+    public ResponseEntity<ApiResponse<AdminAuditPageDto>> getAuditLog(
+            @RequestParam(required = false) String targetType,
+            @RequestParam(required = false) Long targetId,
+            @RequestParam(required = false) Long actorId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(
+                ApiResponse.<AdminAuditPageDto>builder()
+                        .success(true)
+                        .data(auditLog.find(targetType, targetId, actorId, cursor, size))
+                        .build());
+    }
+
     // ---------- Category requests (existing) ----------
     @GetMapping("/category-requests/pending")
     @Operation(summary = "Get pending category requests")
@@ -235,4 +384,148 @@ public class AdminController {
                         .message("Category deactivated")
                         .build());
     }
+
+    // ---------- System ----------
+    @GetMapping("/system/password-hashing")
+    @Operation(summary = "Password hashing pool queue depth and latency")
+    public ResponseEntity<ApiResponse<PasswordHashingStatsDto>> getPasswordHashingStats() {
+        return ResponseEntity.ok(
+                ApiResponse.<PasswordHashingStatsDto>builder()
+                        .success(true)
+                        .data(passwordHashingService.getStats())
+                        .build());
+    }
+
+    @GetMapping("/system/sql-statements")
+    @Operation(summary = "SQL statements and JDBC time per endpoint, with likely N+1 shapes")
+    public ResponseEntity<ApiResponse<SqlStatementStatsDto>> getSqlStatementStats() {
+        return ResponseEntity.ok(
+                ApiResponse.<SqlStatementStatsDto>builder()
+                        .success(true)
+                        .data(sqlStatementStats.getStats())
+                        .build());
+    }
+
+    @DeleteMapping("/system/sql-statements")
+    @Operation(summary = "Reset the per-endpoint SQL statement counters")
+    public ResponseEntity<ApiResponse<Void>> resetSqlStatementStats() {
+        sqlStatementStats.reset();
+        return ResponseEntity.ok(
+                ApiResponse.<Void>builder()
+                        .success(true)
+                        .message("SQL statement counters reset")
+                        .build());
+    }
+
+    @GetMapping("/system/traces")
+    @Operation(summary = "Recent sampled traces, newest first, optionally filtered by duration and name")
+    public ResponseEntity<ApiResponse<TraceListDto>> getTraces(
+            @RequestParam(defaultValue = "0") double minDurationMs,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(
+                ApiResponse.<TraceListDto>builder()
+                        .success(true)
+                        .data(tracer.getTraces(minDurationMs, name, limit))
+                        .build());
+    }
+
+    @GetMapping("/system/traces/{traceId}")
+    @Operation(summary = "All spans of one trace: controller, service, repository, JDBC and async work")
+    public ResponseEntity<ApiResponse<TraceDto>> getTrace(@PathVariable String traceId) {
+        return ResponseEntity.ok(
+                ApiResponse.<TraceDto>builder()
+                        .success(true)
+                        .data(tracer.getTrace(traceId))
+                        .build());
+    }
+
+    @PutMapping("/system/traces/sample-rate")
+    @Operation(summary = "Change the trace sample rate (0 to 1) until the next restart")
+    public ResponseEntity<ApiResponse<Void>> setTraceSampleRate(@RequestParam double rate) {
+        tracer.setSampleRate(rate);
+        return ResponseEntity.ok(
+                ApiResponse.<Void>builder()
+                        .success(true)
+                        .message("Trace sample rate set to " + tracer.getSampleRate())
+                        .build());
+    }
+
+    @DeleteMapping("/system/traces")
+    @Operation(summary = "Discard the buffered traces")
+    public ResponseEntity<ApiResponse<Void>> clearTraces() {
+        tracer.clear();
+        return ResponseEntity.ok(
+                ApiResponse.<Void>builder()
+                        .success(true)
+                        .message("Traces cleared")
+                        .build());
+    }
+
+    @PostMapping("/system/jfr/recordings")
+    @Operation(summary = "Start a Java Flight Recorder recording (DEFAULT, PROFILE, LOCKS or ALLOCATION preset)")
+    public ResponseEntity<ApiResponse<FlightRecordingDto>> startFlightRecording(
+            @RequestParam(defaultValue = "DEFAULT") FlightRecorderService.Preset preset,
+            @RequestParam(defaultValue = "60") long durationSeconds) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                ApiResponse.<FlightRecordingDto>builder()
+                        .success(true)
+                        .message("Flight recording started")
+                        .data(flightRecorder.start(preset, durationSeconds))
+                        .build());
+    }
+
+    @GetMapping("/system/jfr/recordings")
+    @Operation(summary = "List flight recordings, newest first")
+    public ResponseEntity<ApiResponse<List<FlightRecordingDto>>> getFlightRecordings() {
+        return ResponseEntity.ok(
+                ApiResponse.<List<FlightRecordingDto>>builder()
+                        .success(true)
+                        .data(flightRecorder.list())
+                        .build());
+    }
+
+    @PostMapping("/system/jfr/recordings/{id}/stop")
+    @Operation(summary = "Stop a running flight recording and write its file")
+    public ResponseEntity<ApiResponse<FlightRecordingDto>> stopFlightRecording(@PathVariable long id) {
+        return ResponseEntity.ok(
+                ApiResponse.<FlightRecordingDto>builder()
+                        .success(true)
+                        .message("Flight recording stopped")
+                        .data(flightRecorder.stop(id))
+                        .build());
+    }
+
+    @GetMapping("/system/jfr/recordings/{id}/file")
+    @Operation(summary = "Download a recording as a .jfr file (a snapshot if it is still running)")
+    public ResponseEntity<Resource> downloadFlightRecording(@PathVariable long id) {
+        Path file = flightRecorder.file(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+
+    @DeleteMapping("/system/jfr/recordings/{id}")
+    @Operation(summary = "Discard a flight recording and its file")
+    public ResponseEntity<ApiResponse<Void>> deleteFlightRecording(@PathVariable long id) {
+        flightRecorder.delete(id);
+        return ResponseEntity.ok(
+                ApiResponse.<Void>builder()
+                        .success(true)
+                        .message("Flight recording deleted")
+                        .build());
+    }
+
+    @PostMapping("/system/uploads/gc")
+    @Operation(summary = "Delete unreferenced uploads past the grace period (dry run by default)")
+    public ResponseEntity<ApiResponse<UploadGcReportDto>> collectUploads(
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        return ResponseEntity.ok(
+                ApiResponse.<UploadGcReportDto>builder()
+                        .success(true)
+                        .data(uploadGarbageCollector.collect(dryRun))
+                        .build());
+    }
 }
@@ -1,9 +1,16 @@
 package com.marketplace.StoneRidgeMarketplace.controller;
 
+import com.marketplace.StoneRidgeMarketplace.dto.request.DirectUploadCompleteRequest;
+import com.marketplace.StoneRidgeMarketplace.dto.request.DirectUploadRequest;
+import com.marketplace.StoneRidgeMarketplace.dto.response.FileUploadResultDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.PresignedUploadDto;
 import com.marketplace.StoneRidgeMarketplace.service.FileStorageService;
+import com.marketplace.StoneRidgeMarketplace.service.ImageProcessingService;
+import com.marketplace.StoneRidgeMarketplace.service.UploadProcessingService;
 import com.marketplace.StoneRidgeMarketplace.util.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -11,9 +18,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/files")
@@ -24,28 +29,64 @@ import java.util.Map;
 public class FileUploadController {
     
     private final FileStorageService fileStorageService;
+    private final UploadProcessingService uploadProcessingService;
+    private final ImageProcessingService imageProcessingService;
     
     @PostMapping("/upload/product-images")
-    @Operation(summary = "Upload product images")
-    public ResponseEntity<ApiResponse<List<String>>> uploadProductImages(
+    @Operation(summary = "Upload product images (one result per file; failed files do not fail the batch)")
+    public ResponseEntity<ApiResponse<List<FileUploadResultDto>>> uploadProductImages(
             @RequestParam("files") MultipartFile[] files) {
         
-        List<String> imageUrls = new ArrayList<>();
+        List<FileUploadResultDto> results = uploadProcessingService.storeImages(files, "products");
+        long stored = results.stream().filter(FileUploadResultDto::isSuccess).count();
+        results.stream()
+                .filter(FileUploadResultDto::isSuccess)
+                .forEach(result -> imageProcessingService.submit(result.getUrl()));
         
-        for (MultipartFile file : files) {
-            if (!fileStorageService.isValidImageFile(file)) {
-                throw new IllegalArgumentException("Invalid image file: " + file.getOriginalFilename());
-            }
-            
-            String imageUrl = fileStorageService.storeFile(file, "products");
-            imageUrls.add("http://localhost:8080/uploads" + imageUrl); // Configure base URL properly
+        return ResponseEntity.ok(
+                ApiResponse.<List<FileUploadResultDto>>builder()
+                        .success(stored > 0)
+                        .message(stored == results.size()
+                                ? "Images uploaded successfully"
+                                : stored + " of " + results.size() + " images uploaded")
+                        .data(results)
+                        .build()
+        );
+    }
+    
+    @PostMapping("/upload/product-images/presign")
+    @Operation(summary = "Presign a direct-to-storage product image upload (object storage backends only)")
+    public ResponseEntity<ApiResponse<PresignedUploadDto>> presignProductImage(
+            @Valid @RequestBody DirectUploadRequest request) {
+        
+        PresignedUploadDto upload = uploadProcessingService.presignImage(request, "products");
+        if (upload.isAlreadyStored()) {
+            imageProcessingService.submit(upload.getUrl());
         }
         
         return ResponseEntity.ok(
-                ApiResponse.<List<String>>builder()
+                ApiResponse.<PresignedUploadDto>builder()
                         .success(true)
-                        .message("Images uploaded successfully")
-                        .data(imageUrls)
+                        .data(upload)
+                        .build()
+        );
+    }
+    
+    @PostMapping("/upload/product-images/complete")
+    @Operation(summary = "Verify a product image uploaded through a presigned URL")
+    public ResponseEntity<ApiResponse<FileUploadResultDto>> completeProductImage(
+            @Valid @RequestBody DirectUploadCompleteRequest request) {
+        
+        FileUploadResultDto result = uploadProcessingService.completeImage(request, "products");
+        if (result.isSuccess()) {
+            imageProcessingService.submit(result.getUrl());
+        }
+        
+        return ResponseEntity.ok(
+                ApiResponse.<FileUploadResultDto>builder()
+                        .success(result.isSuccess())
+                        .message(result.isSuccess() ? "Image uploaded successfully" : result.getError())
+                        .data(result)
                         .build()
         );
     }
@@ -55,12 +96,7 @@ public class FileUploadController {
     public ResponseEntity<ApiResponse<String>> uploadCategoryIcon(
             @RequestParam("file") MultipartFile file) {
         
-        if (!fileStorageService.isValidImageFile(file)) {
-            throw new IllegalArgumentException("Invalid image file");
-        }
-        
-        String iconUrl = fileStorageService.storeFile(file, "categories");
-        String fullUrl = "http://localhost:8080/uploads" + iconUrl; // Configure base URL properly
+        String fullUrl = uploadProcessingService.publicUrl(fileStorageService.storeImage(file, "categories"));
         
         return ResponseEntity.ok(
                 ApiResponse.<String>builder()
@@ -0,0 +1,199 @@
+package com.marketplace.StoneRidgeMarketplace.controller;
+
+import com.marketplace.StoneRidgeMarketplace.service.UploadServingService;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves {@code /uploads/**} with validators, long-lived caching for content-addressed files,
+ * conditional requests and single byte ranges. Large bodies go out through Tomcat's sendfile
+ * when the connector supports it and the file is not a cached copy of a remote object,
+ * otherwise via {@link FileChannel#transferTo}; hot small files are written from memory.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@Hidden
+public class UploadServingController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final UploadServingService uploadServingService;
+
+    @Value("${app.uploads.mutable-max-age-seconds:3600}")
+    private long mutableMaxAgeSeconds;
+
+    @Value("${app.uploads.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String uri = UriUtils.decode(request.getRequestURI(), StandardCharsets.UTF_8);
+        String prefix = request.getContextPath() + "/uploads/";
+        UploadServingService.ServedFile file = uri.startsWith(prefix)
+                ? uploadServingService.lookup(uri.substring(prefix.length()))
+                : null;
+        if (file == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        try (file) {
+            write(request, response, file);
+        }
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response,
+                       UploadServingService.ServedFile file) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, file.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, file.immutable()
+                ? "public, max-age=31536000, immutable"
+                : "public, max-age=" + mutableMaxAgeSeconds);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (notModified(request, file)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = file.size(); // exclusive
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, file)) {
+            long[] bounds = parseRange(range, file.size());
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size());
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + file.size());
+            }
+        }
+        response.setContentType(file.contentType().toString());
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (file.bytes() != null) {
+            response.getOutputStream().write(file.bytes(), (int) start, (int) (end - start));
+        } else if (end - start >= sendfileMinBytes && !file.local().cached()
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat opens and streams the file once the request returns, after our pin on a
+            // cached copy is gone, so only files that outlive the handle go out this way
+            request.setAttribute(SENDFILE_FILENAME, file.local().path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+        } else {
+            transfer(file, start, end, response.getOutputStream());
+        }
+    }
+
+    private static void transfer(UploadServingService.ServedFile file, long start, long end, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.local().path(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, target);
+                if (sent <= 0) {
+                    break; // file shrank underneath us
+                }
+                position += sent;
+            }
+        }
+    }
+
+    /** If-None-Match wins over If-Modified-Since, as the spec requires. */
+    private static boolean notModified(HttpServletRequest request, UploadServingService.ServedFile file) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(file.etag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && file.lastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /** A Range is honoured only if If-Range is absent or still matches (strong ETag or exact date). */
+    private static boolean ifRangeMatches(HttpServletRequest request, UploadServingService.ServedFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(file.etag());
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && date / 1000 == file.lastModified() / 1000;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parses a single "bytes=a-b", "bytes=a-" or "bytes=-n" range into [start, end). Returns an
+     * empty array to serve the whole file (multiple or malformed ranges), null if unsatisfiable.
+     */
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                return suffix <= 0 || size == 0 ? null : new long[]{Math.max(0, size - suffix), size};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size : Math.min(size, Long.parseLong(last) + 1);
+            if (start >= size || end <= start) {
+                return start >= size ? null : new long[0];
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
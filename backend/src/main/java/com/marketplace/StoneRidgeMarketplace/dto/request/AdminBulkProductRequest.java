@@ -0,0 +1,30 @@
+package com.marketplace.StoneRidgeMarketplace.dto.request;
+
+import com.marketplace.StoneRidgeMarketplace.entity.enums.BulkProductAction;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Either explicit productIds or at least one filter (e.g. all ACTIVE products of a seller).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdminBulkProductRequest {
+    @NotNull
+    private BulkProductAction action;
+
+    @Size(max = 10000)
+    private List<Long> productIds;
+
+    private Long sellerId;
+
+    private ProductStatus status;
+
+    private Long categoryId;
+}
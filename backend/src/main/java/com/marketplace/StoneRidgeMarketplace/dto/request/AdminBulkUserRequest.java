@@ -0,0 +1,26 @@
+package com.marketplace.StoneRidgeMarketplace.dto.request;
+
+import com.marketplace.StoneRidgeMarketplace.entity.enums.BulkUserAction;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Either explicit userIds or a search filter (same matching as the user list search).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdminBulkUserRequest {
+    @NotNull
+    private BulkUserAction action;
+
+    @Size(max = 10000)
+    private List<Long> userIds;
+
+    @Size(min = 2, max = 100)
+    private String search;
+}
@@ -0,0 +1,16 @@
+package com.marketplace.StoneRidgeMarketplace.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DirectUploadCompleteRequest {
+
+    @NotBlank(message = "Key is required")
+    private String key;
+
+    private String fileName;
+}
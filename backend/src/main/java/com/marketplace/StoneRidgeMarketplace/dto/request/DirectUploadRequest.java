@@ -0,0 +1,29 @@
+package com.marketplace.StoneRidgeMarketplace.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+/**
+ * An image the client will PUT straight to object storage; it hashes the file first so the
+ * storage key (and deduplication) is known before any bytes move.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DirectUploadRequest {
+
+    private String fileName;
+
+    @NotBlank(message = "Content type is required")
+    private String contentType;
+
+    @Positive
+    private long size;
+
+    @NotBlank
+    @Pattern(regexp = "[0-9a-f]{64}", message = "sha256 must be 64 lower-case hex digits")
+    private String sha256;
+}
@@ -0,0 +1,22 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AuditAction;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdminAuditEntryDto {
+    private Long id;
+    private LocalDateTime createdAt;
+    private Long actorId;
+    private AuditAction action;
+    private String targetType;
+    private Long targetId;
+    private JsonNode before;
+    private JsonNode after;
+}
@@ -0,0 +1,14 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdminAuditPageDto {
+    private List<AdminAuditEntryDto> entries;
+    private Long nextCursor; // id to pass as cursor for the next (older) page; null on the last page
+}
@@ -0,0 +1,25 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import com.marketplace.StoneRidgeMarketplace.entity.enums.BulkJobStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdminBulkJobDto {
+    private String id;
+    private String target; // USERS or PRODUCTS
+    private String action;
+    private BulkJobStatus status;
+    private int total;
+    private int processed;
+    private int affected; // rows actually changed (already-suspended users etc. are skipped)
+    private String error;
+    private Long requestedByAdminId;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
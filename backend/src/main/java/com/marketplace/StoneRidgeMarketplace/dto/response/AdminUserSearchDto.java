@@ -0,0 +1,15 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdminUserSearchDto {
+    private List<AdminUserDto> users;
+    private String nextCursor; // null on the last page
+    private String mode; // trigram or memory
+}
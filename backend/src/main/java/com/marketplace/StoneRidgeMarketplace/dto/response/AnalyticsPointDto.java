@@ -0,0 +1,14 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsPointDto {
+    private LocalDateTime bucket;
+    private long count;
+}
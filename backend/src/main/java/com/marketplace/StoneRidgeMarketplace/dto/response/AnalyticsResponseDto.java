@@ -0,0 +1,18 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsResponseDto {
+    private String granularity;
+    private String groupBy;
+    private LocalDate from;
+    private LocalDate to;
+    private List<AnalyticsSeriesDto> series;
+}
@@ -0,0 +1,18 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsSeriesDto {
+    private AnalyticsMetric metric;
+    private String key; // category id or building name; null when not grouped
+    private String label;
+    private long total;
+    private List<AnalyticsPointDto> points;
+}
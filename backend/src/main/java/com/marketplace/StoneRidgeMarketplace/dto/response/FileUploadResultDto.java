@@ -0,0 +1,14 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileUploadResultDto {
+    private String fileName;
+    private boolean success;
+    private String url;
+    private String error;
+}
@@ -0,0 +1,21 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightRecordingDto {
+    private long id;
+    private String name;
+    private String preset; // DEFAULT, PROFILE, LOCKS or ALLOCATION
+    private String state; // NEW, DELAYED, RUNNING, STOPPED or CLOSED
+    private LocalDateTime startedAt;
+    private long durationSeconds;
+    /** Bytes recorded so far, or the size of the written file once stopped */
+    private long sizeBytes;
+    private boolean downloadable;
+}
@@ -0,0 +1,24 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Where to PUT a direct upload. When alreadyStored is set the bytes are already there: use url
+ * right away and skip both the upload and the complete call.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PresignedUploadDto {
+    private String key;
+    private String url;
+    private boolean alreadyStored;
+    private String uploadUrl;
+    private String method;
+    private Map<String, String> headers;
+    private Instant expiresAt;
+}
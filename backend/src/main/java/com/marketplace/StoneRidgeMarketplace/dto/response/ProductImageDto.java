@@ -8,7 +8,12 @@ import lombok.*;
 @Builder
 public class ProductImageDto {
     private Long id;
-    private String imageUrl;
+    private String imageUrl; // original upload
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String fullUrl;
+    private Integer width;
+    private Integer height;
     private String fileName;
     private boolean primary;
     private Integer displayOrder;
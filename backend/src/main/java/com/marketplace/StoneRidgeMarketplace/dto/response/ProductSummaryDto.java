@@ -17,7 +17,8 @@ public class ProductSummaryDto {
     private BigDecimal price;
     private ProductCondition condition;
     private ProductStatus status;
-    private String primaryImageUrl;
+    private String primaryImageUrl; // card-size variant once processed, else the original
+    private String primaryThumbnailUrl;
     private String categoryName;
     private String sellerName;
     private String sellerBuilding;
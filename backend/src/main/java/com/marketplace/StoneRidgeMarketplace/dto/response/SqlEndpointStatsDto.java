@@ -0,0 +1,21 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SqlEndpointStatsDto {
+    private String endpoint; // "GET /api/products/{id}"
+    private long requests;
+    private long statements;
+    private double averageStatements;
+    private int maxStatements;
+    private double averageJdbcMillis;
+    private double maxJdbcMillis;
+    /** Requests where one statement shape ran at least the threshold number of times */
+    private long repeatedShapeRequests;
+    private String lastRepeatedShape;
+    private int lastRepeatedCount;
+}
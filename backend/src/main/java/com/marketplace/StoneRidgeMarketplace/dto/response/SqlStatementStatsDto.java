@@ -0,0 +1,15 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SqlStatementStatsDto {
+    private boolean enabled;
+    private int repeatedShapeThreshold;
+    private List<SqlEndpointStatsDto> endpoints;
+}
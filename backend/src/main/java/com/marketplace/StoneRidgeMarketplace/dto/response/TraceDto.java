@@ -0,0 +1,20 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TraceDto {
+    private String traceId;
+    private String name;
+    private LocalDateTime startedAt;
+    private double durationMillis;
+    /** Spans beyond app.tracing.max-spans-per-trace */
+    private int droppedSpans;
+    private List<TraceSpanDto> spans; // by start time
+}
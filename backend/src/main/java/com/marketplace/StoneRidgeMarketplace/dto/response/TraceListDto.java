@@ -0,0 +1,16 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TraceListDto {
+    private boolean enabled;
+    private double sampleRate;
+    private int bufferSize;
+    private List<TraceSummaryDto> traces; // newest first
+}
@@ -0,0 +1,22 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TraceSpanDto {
+    private String spanId;
+    private String parentSpanId;
+    private String name;
+    private String kind; // SERVER, CLIENT or INTERNAL
+    private String thread;
+    /** Start relative to the trace start */
+    private double offsetMillis;
+    private double durationMillis;
+    private boolean error;
+    private Map<String, String> attributes;
+}
@@ -0,0 +1,19 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TraceSummaryDto {
+    private String traceId;
+    private String name; // "GET /api/products/{id}" or "scheduled ScheduledTasks.expireOffers"
+    private LocalDateTime startedAt;
+    private double durationMillis;
+    private int spans;
+    private int droppedSpans;
+    private boolean error;
+}
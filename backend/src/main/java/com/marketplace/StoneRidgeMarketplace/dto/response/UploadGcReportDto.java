@@ -0,0 +1,22 @@
+package com.marketplace.StoneRidgeMarketplace.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadGcReportDto {
+    private boolean dryRun;
+    private LocalDateTime startedAt;
+    private long durationMillis;
+    private int referencedPaths;
+    private long scannedFiles;
+    private long recentFiles;
+    /** Unreferenced and past the grace period: deleted, or would be in a dry run */
+    private long orphanedFiles;
+    private long orphanedBytes;
+    private long deletedFiles;
+}
@@ -0,0 +1,44 @@
+package com.marketplace.StoneRidgeMarketplace.entity;
+
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Event counts per day, metric, category and building, compacted from
+ * {@link AnalyticsHourlyRollup}.
+ * Missing dimensions are stored as category 0 / building "" so they can be part of the
+ * unique key.
+ */
+@Entity
+@Table(name = "analytics_daily", uniqueConstraints = @UniqueConstraint(
+        name = "uk_analytics_daily_key", columnNames = {"bucket_day", "metric", "category_id", "building"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "analytics_daily_seq")
+    @SequenceGenerator(name = "analytics_daily_seq", sequenceName = "analytics_daily_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "bucket_day", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 24)
+    private AnalyticsMetric metric;
+
+    @Column(name = "category_id", nullable = false)
+    private long categoryId;
+
+    @Column(nullable = false, length = 100)
+    private String building;
+
+    @Column(name = "event_count", nullable = false)
+    private long count;
+}
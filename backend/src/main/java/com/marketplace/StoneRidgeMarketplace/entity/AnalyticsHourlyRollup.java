@@ -0,0 +1,45 @@
+package com.marketplace.StoneRidgeMarketplace.entity;
+
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event counts per hour, metric, category and building. Written by the analytics
+ * recorder's periodic flush; rows older than the hourly retention are folded into
+ * {@link AnalyticsDailyRollup} and deleted.
+ * Missing dimensions are stored as category 0 / building "" so they can be part of the
+ * unique key.
+ */
+@Entity
+@Table(name = "analytics_hourly", uniqueConstraints = @UniqueConstraint(
+        name = "uk_analytics_hourly_key", columnNames = {"bucket_start", "metric", "category_id", "building"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsHourlyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "analytics_hourly_seq")
+    @SequenceGenerator(name = "analytics_hourly_seq", sequenceName = "analytics_hourly_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 24)
+    private AnalyticsMetric metric;
+
+    @Column(name = "category_id", nullable = false)
+    private long categoryId;
+
+    @Column(nullable = false, length = 100)
+    private String building;
+
+    @Column(name = "event_count", nullable = false)
+    private long count;
+}
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 @Builder
 public class CategoryRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_requests_seq")
+    @SequenceGenerator(name = "category_requests_seq", sequenceName = "category_requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
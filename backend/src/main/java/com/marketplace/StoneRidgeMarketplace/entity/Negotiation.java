@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Negotiation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "negotiations_seq")
+    @SequenceGenerator(name = "negotiations_seq", sequenceName = "negotiations_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
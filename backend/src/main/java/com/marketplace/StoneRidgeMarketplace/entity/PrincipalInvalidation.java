@@ -0,0 +1,36 @@
+package com.marketplace.StoneRidgeMarketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cross-node principal cache invalidation. Rows are short-lived: every node polls for
+ * rows newer than the last one it applied, re-checks the ids it skipped (they may commit
+ * late), and old rows are purged.
+ */
+@Entity
+@Table(name = "principal_invalidations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrincipalInvalidation {
+    @Id
+    // Identity rather than a pooled sequence. Not for ordering, whatever the V10 header says:
+    // identity ids are not in commit order either, and pollers are correct because they
+    // re-check the ids they skipped. Per-node blocks would only leave long-lived gaps to track.
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -8,7 +8,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "product_images")
+@Table(name = "product_images", indexes = {
+        @Index(name = "idx_product_images_url", columnList = "image_url")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -17,7 +19,8 @@ import java.time.LocalDateTime;
 @Builder
 public class ProductImage {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_images_seq")
+    @SequenceGenerator(name = "product_images_seq", sequenceName = "product_images_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,6 +42,21 @@ public class ProductImage {
     @Column(name = "display_order")
     private Integer displayOrder;
 
+    // Resized, metadata-free JPEG variants; null until the image pipeline has processed the upload
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    @Column(name = "card_url")
+    private String cardUrl;
+
+    @Column(name = "full_url")
+    private String fullUrl;
+
+    // Dimensions of the full variant (aspect ratio for layout)
+    private Integer width;
+
+    private Integer height;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,28 @@
+package com.marketplace.StoneRidgeMarketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Shared token bucket used when app.rate-limit.mode=database. Tokens are stored in
+ * thousandths of a token; updatedAt is epoch milliseconds so the refill arithmetic can
+ * run inside a single UPDATE on any database.
+ */
+@Entity
+@Table(name = "rate_limit_buckets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateLimitBucket {
+    @Id
+    @Column(name = "bucket_key", length = 200)
+    private String bucketKey;
+
+    @Column(nullable = false)
+    private long tokens;
+
+    @Column(name = "updated_at", nullable = false)
+    private long updatedAt;
+}
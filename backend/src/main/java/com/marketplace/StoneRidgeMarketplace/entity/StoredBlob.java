@@ -0,0 +1,47 @@
+package com.marketplace.StoneRidgeMarketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One content-addressed upload on disk. The path is derived from the SHA-256 digest of the
+ * bytes, so identical uploads share a row and a file; refCount counts the rows (product
+ * images) that point at it.
+ */
+@Entity
+@Table(name = "stored_blobs", indexes = {
+        @Index(name = "idx_stored_blobs_digest", columnList = "digest"),
+        @Index(name = "idx_stored_blobs_unreferenced", columnList = "ref_count, last_uploaded_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredBlob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stored_blobs_seq")
+    @SequenceGenerator(name = "stored_blobs_seq", sequenceName = "stored_blobs_seq", allocationSize = 50)
+    private Long id;
+
+    /** Relative to the upload directory, e.g. products/ab/cd/abcd...ef.jpg */
+    @Column(nullable = false, unique = true)
+    private String path;
+
+    @Column(nullable = false, length = 64)
+    private String digest;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_uploaded_at", nullable = false)
+    private LocalDateTime lastUploadedAt;
+}
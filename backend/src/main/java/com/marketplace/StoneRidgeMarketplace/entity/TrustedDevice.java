@@ -5,7 +5,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "trusted_devices")
+@Table(name = "trusted_devices", indexes = {
+        @Index(name = "idx_trusted_devices_user_active", columnList = "user_id, active, last_used_at"),
+        @Index(name = "idx_trusted_devices_user_fingerprint", columnList = "user_id, device_fingerprint")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,7 +16,8 @@ import java.time.LocalDateTime;
 @Builder
 public class TrustedDevice {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trusted_devices_seq")
+    @SequenceGenerator(name = "trusted_devices_seq", sequenceName = "trusted_devices_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
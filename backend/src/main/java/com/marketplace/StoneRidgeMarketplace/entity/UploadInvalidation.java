@@ -0,0 +1,37 @@
+package com.marketplace.StoneRidgeMarketplace.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cross-node invalidation of a deleted upload's cached bytes. Short-lived like
+ * {@link PrincipalInvalidation}, and polled the same way.
+ */
+@Entity
+@Table(name = "upload_invalidations", indexes = {
+        @Index(name = "idx_upload_invalidations_created", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadInvalidation {
+    @Id
+    // Identity, as for PrincipalInvalidation (see there): polling re-checks skipped ids, and
+    // pooled blocks would leave long-lived gaps
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Storage key, e.g. products/ab/cd/abcd...ef-thumb.jpg */
+    @Column(name = "upload_key", nullable = false, length = 512)
+    private String uploadKey;
+
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,10 @@
+package com.marketplace.StoneRidgeMarketplace.entity.enums;
+
+public enum AnalyticsMetric {
+    LISTINGS_CREATED,
+    ITEMS_SOLD,
+    CHATS_STARTED,
+    OFFERS_MADE,
+    OFFERS_ACCEPTED,
+    SIGNUPS
+}
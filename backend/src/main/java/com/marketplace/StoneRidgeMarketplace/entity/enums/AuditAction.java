@@ -0,0 +1,17 @@
+package com.marketplace.StoneRidgeMarketplace.entity.enums;
+
+public enum AuditAction {
+    USER_SUSPENDED,
+    USER_UNSUSPENDED,
+    USER_LOCKED,
+    USER_UNLOCKED,
+    USER_DELETED,
+    PRODUCT_DEACTIVATED,
+    PRODUCT_DELETED,
+    CATEGORY_REQUEST_APPROVED,
+    CATEGORY_REQUEST_REJECTED,
+    CATEGORY_CREATED,
+    CATEGORY_UPDATED,
+    CATEGORY_DEACTIVATED,
+    BULK_JOB_SUBMITTED
+}
@@ -0,0 +1,8 @@
+package com.marketplace.StoneRidgeMarketplace.entity.enums;
+
+public enum BulkJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
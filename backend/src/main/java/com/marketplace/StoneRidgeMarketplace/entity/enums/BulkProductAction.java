@@ -0,0 +1,6 @@
+package com.marketplace.StoneRidgeMarketplace.entity.enums;
+
+public enum BulkProductAction {
+    DEACTIVATE,
+    DELETE
+}
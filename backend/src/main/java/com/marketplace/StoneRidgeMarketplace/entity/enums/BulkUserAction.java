@@ -0,0 +1,9 @@
+package com.marketplace.StoneRidgeMarketplace.entity.enums;
+
+public enum BulkUserAction {
+    SUSPEND,
+    UNSUSPEND,
+    LOCK,
+    UNLOCK,
+    DELETE
+}
@@ -0,0 +1,33 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One chat message stored and its chat touched. Emitted only while a flight recording is running. */
+@Name("marketplace.ChatSend")
+@Label("Chat Send")
+@Category({"Marketplace", "Chat"})
+@Description("Sending a chat message")
+public class ChatSendEvent extends jdk.jfr.Event {
+
+    @Label("Chat Id")
+    private long chatId;
+
+    @Label("Sender Id")
+    private long senderId;
+
+    @Label("Length")
+    @Description("Message length in characters")
+    private int length;
+
+    public void finish(long chatId, long senderId, int length) {
+        if (shouldCommit()) {
+            this.chatId = chatId;
+            this.senderId = senderId;
+            this.length = length;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import com.marketplace.StoneRidgeMarketplace.dto.response.FlightRecordingDto;
+import com.marketplace.StoneRidgeMarketplace.exception.ResourceNotFoundException;
+import com.marketplace.StoneRidgeMarketplace.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-demand Java Flight Recorder recordings for the admin API. One recording runs at a
+ * time, always with a duration and size cap so a forgotten recording stops on its own; the
+ * file lands in app.jfr.directory and only the newest app.jfr.max-recordings are kept.
+ * The marketplace.* events (listings, chat sends, offer accepts, token verification) are
+ * enabled in every preset, so they line up with GC, lock and allocation events.
+ */
+@Component
+@Slf4j
+public class FlightRecorderService {
+
+    public enum Preset {
+        /** JDK "default" settings, around 1% overhead; safe on a loaded instance. */
+        DEFAULT("default", Map.of()),
+        /** JDK "profile" settings: denser method sampling, allocation and I/O events, around 2%. */
+        PROFILE("profile", Map.of()),
+        /** Default plus every monitor enter/wait and park over 1 ms, for lock contention. */
+        LOCKS("default", Map.of(
+                "jdk.JavaMonitorEnter#threshold", "1 ms",
+                "jdk.JavaMonitorWait#threshold", "1 ms",
+                "jdk.ThreadPark#threshold", "1 ms",
+                "jdk.JavaMonitorInflate#enabled", "true")),
+        /** Profile plus denser allocation sampling and old-object samples with stacks, for heap growth. */
+        ALLOCATION("profile", Map.of(
+                "jdk.ObjectAllocationSample#throttle", "1000/s",
+                "jdk.OldObjectSample#cutoff", "10 s"));
+
+        private final String configuration;
+        private final Map<String, String> overrides;
+
+        Preset(String configuration, Map<String, String> overrides) {
+            this.configuration = configuration;
+            this.overrides = overrides;
+        }
+
+        Map<String, String> settings() throws IOException, ParseException {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(configuration).getSettings());
+            settings.putAll(overrides);
+            return settings;
+        }
+    }
+
+    private record Entry(Recording recording, Preset preset, Path file, LocalDateTime startedAt) {
+    }
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${app.jfr.directory:./recordings}")
+    private String directory;
+
+    @Value("${app.jfr.max-duration-seconds:1800}")
+    private long maxDurationSeconds;
+
+    @Value("${app.jfr.max-size-mb:250}")
+    private long maxSizeMb;
+
+    @Value("${app.jfr.max-recordings:5}")
+    private int maxRecordings;
+
+    private Path recordingDir;
+    private final Map<Long, Entry> recordings = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        recordingDir = Paths.get(directory).toAbsolutePath().normalize();
+        if (FlightRecorder.isAvailable()) {
+            FlightRecorder.register(ListingQueryEvent.class);
+            FlightRecorder.register(ChatSendEvent.class);
+            FlightRecorder.register(OfferAcceptEvent.class);
+            FlightRecorder.register(TokenVerificationEvent.class);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Stopping writes whatever was recorded to the destination file
+        recordings.values().stream()
+                .filter(entry -> entry.recording().getState() == RecordingState.RUNNING)
+                .forEach(entry -> entry.recording().stop());
+    }
+
+    public synchronized FlightRecordingDto start(Preset preset, long durationSeconds) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new ServiceBusyException("Flight recorder is not available in this JVM");
+        }
+        recordings.values().stream()
+                .filter(entry -> isActive(entry.recording()))
+                .findFirst()
+                .ifPresent(entry -> {
+                    throw new ServiceBusyException("Flight recording " + entry.recording().getId() + " is already running");
+                });
+        prune();
+
+        long seconds = Math.max(1, Math.min(durationSeconds, maxDurationSeconds));
+        Recording recording;
+        try {
+            recording = new Recording(preset.settings());
+            Files.createDirectories(recordingDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare flight recording", e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JFR configuration " + preset, e);
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        Path file = recordingDir.resolve("marketplace-" + recording.getId() + "-" + preset.name().toLowerCase(Locale.ROOT)
+                + "-" + startedAt.format(FILE_TIMESTAMP) + ".jfr");
+        recording.setName("marketplace-" + preset.name().toLowerCase(Locale.ROOT));
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.setDuration(Duration.ofSeconds(seconds));
+        try {
+            recording.setDestination(file);
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException("Cannot write flight recordings to " + recordingDir, e);
+        }
+        recording.start();
+        Entry entry = new Entry(recording, preset, file, startedAt);
+        recordings.put(recording.getId(), entry);
+        log.info("Flight recording {} started: preset {}, {} s, writing to {}", recording.getId(), preset, seconds, file);
+        return toDto(entry);
+    }
+
+    public synchronized FlightRecordingDto stop(long id) {
+        Entry entry = find(id);
+        if (isActive(entry.recording())) {
+            entry.recording().stop();
+            deleteSnapshot(entry);
+            log.info("Flight recording {} stopped, {} bytes", id, size(entry));
+        }
+        return toDto(entry);
+    }
+
+    public List<FlightRecordingDto> list() {
+        return recordings.values().stream()
+                .sorted(Comparator.comparingLong((Entry entry) -> entry.recording().getId()).reversed())
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * The recording's file. A running recording is dumped to a snapshot file first, so
+     * data can be pulled without ending the recording.
+     */
+    public Path file(long id) {
+        Entry entry = find(id);
+        if (entry.recording().getState() == RecordingState.RUNNING) {
+            Path snapshot = snapshotFile(entry);
+            try {
+                entry.recording().dump(snapshot);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot dump flight recording " + id, e);
+            }
+            return snapshot;
+        }
+        if (!Files.isRegularFile(entry.file())) {
+            throw new ResourceNotFoundException("Flight recording " + id + " has no data yet");
+        }
+        return entry.file();
+    }
+
+    public synchronized void delete(long id) {
+        Entry entry = find(id);
+        recordings.remove(id);
+        discard(entry);
+    }
+
+    private Entry find(long id) {
+        Entry entry = recordings.get(id);
+        if (entry == null) {
+            throw new ResourceNotFoundException("Flight recording not found");
+        }
+        return entry;
+    }
+
+    /** Keeps room for one more recording by discarding the oldest finished ones. */
+    private void prune() {
+        recordings.values().stream()
+                .filter(entry -> !isActive(entry.recording()))
+                .sorted(Comparator.comparingLong(entry -> entry.recording().getId()))
+                .limit(Math.max(0, recordings.size() - Math.max(1, maxRecordings) + 1))
+                .toList()
+                .forEach(entry -> {
+                    recordings.remove(entry.recording().getId());
+                    discard(entry);
+                });
+    }
+
+    private void discard(Entry entry) {
+        entry.recording().close();
+        try {
+            Files.deleteIfExists(entry.file());
+            Files.deleteIfExists(snapshotFile(entry));
+        } catch (IOException e) {
+            log.warn("Failed to delete flight recording files for {}", entry.recording().getId(), e);
+        }
+    }
+
+    private FlightRecordingDto toDto(Entry entry) {
+        Recording recording = entry.recording();
+        Duration duration = recording.getDuration();
+        return FlightRecordingDto.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .preset(entry.preset().name())
+                .state(recording.getState().name())
+                .startedAt(recording.getStartTime() != null
+                        ? LocalDateTime.ofInstant(recording.getStartTime(), ZoneId.systemDefault())
+                        : entry.startedAt())
+                .durationSeconds(duration != null ? duration.toSeconds() : 0)
+                .sizeBytes(size(entry))
+                .downloadable(isActive(recording) || Files.isRegularFile(entry.file()))
+                .build();
+    }
+
+    private static long size(Entry entry) {
+        try {
+            if (Files.isRegularFile(entry.file())) {
+                return Files.size(entry.file());
+            }
+        } catch (IOException ignored) {
+            // fall through to the in-memory figure
+        }
+        return entry.recording().getState() == RecordingState.CLOSED ? 0 : entry.recording().getSize();
+    }
+
+    private void deleteSnapshot(Entry entry) {
+        try {
+            Files.deleteIfExists(snapshotFile(entry));
+        } catch (IOException e) {
+            log.warn("Failed to delete flight recording snapshot for {}", entry.recording().getId(), e);
+        }
+    }
+
+    private static boolean isActive(Recording recording) {
+        return recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED;
+    }
+
+    private static Path snapshotFile(Entry entry) {
+        return entry.file().resolveSibling("marketplace-" + entry.recording().getId() + "-snapshot.jfr");
+    }
+}
@@ -0,0 +1,46 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A product listing page: the page query plus mapping every row to a summary, so per-row
+ * lookups show up in its duration. Emitted only while a flight recording is running.
+ */
+@Name("marketplace.ListingQuery")
+@Label("Listing Query")
+@Category({"Marketplace", "Listings"})
+@Description("Product listing page query and mapping")
+@StackTrace(false)
+public class ListingQueryEvent extends jdk.jfr.Event {
+
+    @Label("Query")
+    @Description("all, category, search, filters or building")
+    private String query;
+
+    @Label("Page Number")
+    private int pageNumber;
+
+    @Label("Page Size")
+    private int pageSize;
+
+    @Label("Rows Returned")
+    private int returned;
+
+    @Label("Total Matches")
+    private long total;
+
+    public void finish(String query, int pageNumber, int pageSize, int returned, long total) {
+        if (shouldCommit()) {
+            this.query = query;
+            this.pageNumber = pageNumber;
+            this.pageSize = pageSize;
+            this.returned = returned;
+            this.total = total;
+            commit();
+        }
+    }
+}
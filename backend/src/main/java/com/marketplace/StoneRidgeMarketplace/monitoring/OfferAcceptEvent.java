@@ -0,0 +1,39 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A seller accepting an offer: marking the product sold, the confirmation message and
+ * rejecting the competing offers. Emitted only while a flight recording is running.
+ */
+@Name("marketplace.OfferAccept")
+@Label("Offer Accept")
+@Category({"Marketplace", "Negotiations"})
+@Description("Accepting an offer and selling the product")
+public class OfferAcceptEvent extends jdk.jfr.Event {
+
+    @Label("Negotiation Id")
+    private long negotiationId;
+
+    @Label("Product Id")
+    private long productId;
+
+    @Label("Price")
+    private double price;
+
+    @Label("Competing Offers Rejected")
+    private int rejected;
+
+    public void finish(long negotiationId, long productId, double price, int rejected) {
+        if (shouldCommit()) {
+            this.negotiationId = negotiationId;
+            this.productId = productId;
+            this.price = price;
+            this.rejected = rejected;
+            commit();
+        }
+    }
+}
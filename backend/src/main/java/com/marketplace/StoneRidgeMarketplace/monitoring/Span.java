@@ -0,0 +1,255 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * One timed operation within a {@link Trace}, modelled on OpenTelemetry spans: W3C-sized
+ * ids, a kind, attributes and an OK/ERROR status. Spans are bound to the thread that
+ * opened them and must be closed on it, normally with try-with-resources.
+ * <p>
+ * Only sampled spans ever become current, so when a request is not sampled (or tracing is
+ * off) {@link #child} and {@link #wrap} cost one thread-local read and return {@link #NOOP}
+ * or the task unchanged.
+ */
+public final class Span implements AutoCloseable {
+
+    public enum Kind { SERVER, CLIENT, INTERNAL }
+
+    /** Returned whenever nothing is being recorded; every method is a no-op. */
+    public static final Span NOOP = new Span();
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final int MAX_ATTRIBUTE_LENGTH = 1000;
+
+    private final Trace trace;
+    private final String spanId;
+    private final String parentSpanId;
+    private final Kind kind;
+    private final String thread;
+    private final long startNanos;
+    private final Span previous;
+    private volatile String name;
+    private long endNanos;
+    private boolean error;
+    private Map<String, String> attributes;
+
+    private Span() {
+        trace = null;
+        spanId = null;
+        parentSpanId = null;
+        kind = Kind.INTERNAL;
+        thread = null;
+        startNanos = 0;
+        previous = null;
+        name = "noop";
+    }
+
+    private Span(Trace trace, String parentSpanId, String name, Kind kind) {
+        this.trace = trace;
+        this.spanId = newId();
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.thread = Thread.currentThread().getName();
+        this.startNanos = System.nanoTime();
+        this.previous = CURRENT.get();
+        CURRENT.set(this);
+    }
+
+    /** Opens the root span of a sampled trace on the calling thread. */
+    static Span root(Trace trace, String remoteParentSpanId, String name, Kind kind) {
+        return new Span(trace, remoteParentSpanId, name, kind);
+    }
+
+    /** True when the calling thread is inside a sampled span. */
+    public static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    /** The innermost open span on this thread, or {@link #NOOP}. */
+    public static Span current() {
+        Span current = CURRENT.get();
+        return current != null ? current : NOOP;
+    }
+
+    /** Opens a child of the current span; {@link #NOOP} when nothing is being recorded. */
+    public static Span child(String name, Kind kind) {
+        Span parent = CURRENT.get();
+        return parent != null ? new Span(parent.trace, parent.spanId, name, kind) : NOOP;
+    }
+
+    /**
+     * Carries the current span over to an executor: the task runs in a child span named
+     * name on whichever thread picks it up. Returns the task itself when not recording.
+     */
+    public static Runnable wrap(String name, Runnable task) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            Span span = parent.asyncChild(name);
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                span.error(e);
+                throw e;
+            } finally {
+                span.close();
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(String name, Callable<T> task) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            Span span = parent.asyncChild(name);
+            try {
+                return task.call();
+            } catch (Exception | Error e) {
+                span.error(e);
+                throw e;
+            } finally {
+                span.close();
+            }
+        };
+    }
+
+    public static <T> Supplier<T> wrap(String name, Supplier<T> task) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            Span span = parent.asyncChild(name);
+            try {
+                return task.get();
+            } catch (RuntimeException | Error e) {
+                span.error(e);
+                throw e;
+            } finally {
+                span.close();
+            }
+        };
+    }
+
+    private Span asyncChild(String name) {
+        return new Span(trace, spanId, name, Kind.INTERNAL);
+    }
+
+    public Span attribute(String key, Object value) {
+        if (trace == null || value == null) {
+            return this;
+        }
+        String text = String.valueOf(value);
+        if (text.length() > MAX_ATTRIBUTE_LENGTH) {
+            text = text.substring(0, MAX_ATTRIBUTE_LENGTH) + "...";
+        }
+        if (attributes == null) {
+            attributes = new LinkedHashMap<>(4);
+        }
+        attributes.put(key, text);
+        return this;
+    }
+
+    /** Marks the span as failed and records the exception type and message. */
+    public Span error(Throwable cause) {
+        if (trace == null) {
+            return this;
+        }
+        error = true;
+        attribute("exception.type", cause.getClass().getName());
+        return attribute("exception.message", cause.getMessage());
+    }
+
+    public Span markError() {
+        error = trace != null;
+        return this;
+    }
+
+    /** Route templates are only known once the handler has been matched. */
+    public void rename(String name) {
+        if (trace != null) {
+            this.name = name;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (trace == null || endNanos != 0) {
+            return;
+        }
+        endNanos = System.nanoTime();
+        if (CURRENT.get() == this) {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        trace.finished(this);
+    }
+
+    // ---------- Read side (after close) ----------
+
+    Trace getTrace() {
+        return trace;
+    }
+
+    public String getTraceId() {
+        return trace != null ? trace.getTraceId() : null;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getDurationNanos() {
+        return endNanos == 0 ? 0 : endNanos - startNanos;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes != null ? attributes : Collections.emptyMap();
+    }
+
+    static String newId() {
+        return hex(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE));
+    }
+
+    static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0000000000000000".substring(digits.length()) + digits;
+    }
+}
@@ -0,0 +1,104 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements executed by one request: how many, how long they spent in JDBC, and how
+ * often each statement shape (the SQL with literals and IN lists normalized) repeated.
+ * Bound to the request thread by {@link SqlStatementFilter}; statements run on other
+ * threads (async work, scheduled tasks) are not attributed to any request.
+ */
+public final class SqlStatementContext {
+
+    /** Request attribute holding the finished context, read by tests and error handlers. */
+    public static final String REQUEST_ATTRIBUTE = SqlStatementContext.class.getName();
+
+    /** Shapes tracked per request; statements beyond this still count but are not grouped. */
+    private static final int MAX_SHAPES = 64;
+
+    private static final ThreadLocal<SqlStatementContext> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private int statements;
+    private long jdbcNanos;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    static SqlStatementContext begin() {
+        SqlStatementContext context = new SqlStatementContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /** The context of the request running on this thread, or null. */
+    static SqlStatementContext current() {
+        return CURRENT.get();
+    }
+
+    void statement(String sql) {
+        statements++;
+        String shape = shape(sql);
+        if (shapes.size() < MAX_SHAPES || shapes.containsKey(shape)) {
+            shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    void jdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /** Shapes executed at least minCount times, most repeated first. */
+    public Map<String, Integer> repeatedShapes(int minCount) {
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shapes.entrySet()) {
+            if (entry.getValue() >= minCount) {
+                repeated.add(entry);
+            }
+        }
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()));
+        Map<String, Integer> result = new LinkedHashMap<>();
+        repeated.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    /** Executions of the most repeated shape (0 when nothing ran). */
+    public int maxRepeat() {
+        int max = 0;
+        for (int count : shapes.values()) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    /**
+     * Hibernate binds parameters, so its SQL is already mostly a shape; this also folds
+     * literals from native queries and padded IN lists of different lengths together.
+     */
+    static String shape(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("(?, ...)");
+    }
+}
@@ -0,0 +1,59 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the time spent executing JDBC statements and batches to the current request's
+ * {@link SqlStatementContext}, and in a sampled trace wraps each execution in a CLIENT span
+ * carrying the statement shape. Hibernate creates one instance per session.
+ */
+public class SqlStatementEventListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+    private Span statementSpan = Span.NOOP;
+    private Span batchSpan = Span.NOOP;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+        statementSpan = span("jdbc.execute");
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+        statementSpan.close();
+        statementSpan = Span.NOOP;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+        batchSpan = span("jdbc.batch");
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+        batchSpan.close();
+        batchSpan = Span.NOOP;
+    }
+
+    private void record(long start) {
+        SqlStatementContext context = SqlStatementContext.current();
+        if (context != null && start != 0) {
+            context.jdbcTime(System.nanoTime() - start);
+        }
+    }
+
+    private static Span span(String name) {
+        if (!Span.isRecording()) {
+            return Span.NOOP;
+        }
+        String sql = SqlStatementInspector.takePending();
+        return Span.child(name, Span.Kind.CLIENT)
+                .attribute("db.system", "jdbc")
+                .attribute("db.statement", sql != null ? SqlStatementContext.shape(sql) : null);
+    }
+}
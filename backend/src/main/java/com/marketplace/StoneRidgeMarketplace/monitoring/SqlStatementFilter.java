@@ -0,0 +1,54 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link SqlStatementContext} around each request, ahead of the security filters
+ * so principal and device lookups are counted too, and records it under the matched route
+ * once the handler has run. The finished context is left on the request as
+ * {@link SqlStatementContext#REQUEST_ATTRIBUTE}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private final SqlStatementStats stats;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !stats.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementContext context = SqlStatementContext.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementContext.end();
+            request.setAttribute(SqlStatementContext.REQUEST_ATTRIBUTE, context);
+            stats.record(endpoint(request), context);
+        }
+    }
+
+    /** Method and route template; requests that matched no handler share one key per method. */
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "(unmapped)");
+    }
+}
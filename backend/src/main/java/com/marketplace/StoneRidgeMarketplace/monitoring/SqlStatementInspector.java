@@ -0,0 +1,32 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares against the current request's
+ * {@link SqlStatementContext}, and in a sampled trace remembers it for the JDBC span that
+ * {@link SqlStatementEventListener} opens when it executes. The SQL is returned unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<String> PENDING = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementContext context = SqlStatementContext.current();
+        if (context != null) {
+            context.statement(sql);
+        }
+        if (Span.isRecording()) {
+            PENDING.set(sql);
+        }
+        return sql;
+    }
+
+    /** The statement most recently prepared on this thread while tracing, if any. */
+    static String takePending() {
+        String sql = PENDING.get();
+        PENDING.remove();
+        return sql;
+    }
+}
@@ -0,0 +1,152 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import com.marketplace.StoneRidgeMarketplace.dto.response.SqlEndpointStatsDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.SqlStatementStatsDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint SQL statement counts and JDBC time, keyed by route template
+ * ("GET /api/products/{id}"). A request in which one statement shape ran at least
+ * app.monitoring.sql.repeated-statement-threshold times is logged as a likely N+1.
+ * The same figures are published as marketplace.sql.* meters tagged by endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SqlStatementStats {
+
+    /** Guards against unbounded keys; route templates are a small fixed set. */
+    private static final int MAX_ENDPOINTS = 1000;
+    private static final int MAX_LOGGED_SQL = 300;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.monitoring.sql.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.monitoring.sql.repeated-statement-threshold:10}")
+    private int repeatedShapeThreshold;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    private static final class Endpoint {
+        final DistributionSummary statementsPerRequest;
+        final Timer jdbcTime;
+        final Counter repeatedShapes;
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder jdbcNanos = new LongAdder();
+        final AtomicInteger maxStatements = new AtomicInteger();
+        final AtomicLong maxJdbcNanos = new AtomicLong();
+        final LongAdder repeatedShapeRequests = new LongAdder();
+        volatile String lastRepeatedShape;
+        volatile int lastRepeatedCount;
+
+        Endpoint(String endpoint, MeterRegistry registry) {
+            statementsPerRequest = DistributionSummary.builder("marketplace.sql.statements")
+                    .description("SQL statements executed per request")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+            jdbcTime = Timer.builder("marketplace.sql.jdbc")
+                    .description("Time spent executing JDBC statements per request")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+            repeatedShapes = Counter.builder("marketplace.sql.repeated")
+                    .description("Requests in which one statement shape reached the repeat threshold")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRepeatedShapeThreshold() {
+        return repeatedShapeThreshold;
+    }
+
+    void record(String endpoint, SqlStatementContext context) {
+        if (context.getStatements() == 0) {
+            return;
+        }
+        Endpoint stats = endpoints.get(endpoint);
+        if (stats == null) {
+            if (endpoints.size() >= MAX_ENDPOINTS) {
+                return;
+            }
+            stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint(key, meterRegistry));
+        }
+        stats.requests.increment();
+        stats.statements.add(context.getStatements());
+        stats.jdbcNanos.add(context.getJdbcNanos());
+        stats.maxStatements.accumulateAndGet(context.getStatements(), Math::max);
+        stats.maxJdbcNanos.accumulateAndGet(context.getJdbcNanos(), Math::max);
+        stats.statementsPerRequest.record(context.getStatements());
+        stats.jdbcTime.record(context.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (context.maxRepeat() >= repeatedShapeThreshold) {
+            Map.Entry<String, Integer> worst = context.repeatedShapes(repeatedShapeThreshold).entrySet().iterator().next();
+            stats.repeatedShapeRequests.increment();
+            stats.repeatedShapes.increment();
+            stats.lastRepeatedShape = worst.getKey();
+            stats.lastRepeatedCount = worst.getValue();
+            log.warn("Possible N+1 on {}: {} statements ({} ms JDBC), {}x {}",
+                    endpoint, context.getStatements(), context.getJdbcNanos() / 1_000_000,
+                    worst.getValue(), abbreviate(worst.getKey()));
+        }
+    }
+
+    public SqlStatementStatsDto getStats() {
+        List<SqlEndpointStatsDto> rows = endpoints.entrySet().stream()
+                .map(entry -> toDto(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(SqlEndpointStatsDto::getStatements).reversed())
+                .toList();
+        return SqlStatementStatsDto.builder()
+                .enabled(enabled)
+                .repeatedShapeThreshold(repeatedShapeThreshold)
+                .endpoints(rows)
+                .build();
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    private static SqlEndpointStatsDto toDto(String endpoint, Endpoint stats) {
+        long requests = stats.requests.sum();
+        long statements = stats.statements.sum();
+        return SqlEndpointStatsDto.builder()
+                .endpoint(endpoint)
+                .requests(requests)
+                .statements(statements)
+                .averageStatements(requests == 0 ? 0 : (double) statements / requests)
+                .maxStatements(stats.maxStatements.get())
+                .averageJdbcMillis(requests == 0 ? 0 : stats.jdbcNanos.sum() / 1_000_000.0 / requests)
+                .maxJdbcMillis(stats.maxJdbcNanos.get() / 1_000_000.0)
+                .repeatedShapeRequests(stats.repeatedShapeRequests.sum())
+                .lastRepeatedShape(stats.lastRepeatedShape)
+                .lastRepeatedCount(stats.lastRepeatedCount)
+                .build();
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL ? sql : sql.substring(0, MAX_LOGGED_SQL) + "...";
+    }
+}
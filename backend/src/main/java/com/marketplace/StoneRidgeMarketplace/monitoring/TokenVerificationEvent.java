@@ -0,0 +1,35 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Verification of one bearer token, from the verified-token cache or by parsing and
+ * HMAC-checking it. Emitted only while a flight recording is running.
+ */
+@Name("marketplace.TokenVerification")
+@Label("Token Verification")
+@Category({"Marketplace", "Security"})
+@Description("Bearer token verification")
+@StackTrace(false)
+public class TokenVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Cached")
+    @Description("Served from the verified-token cache without parsing")
+    private boolean cached;
+
+    @Label("Outcome")
+    @Description("valid, expired or invalid")
+    private String outcome;
+
+    public void finish(boolean cached, String outcome) {
+        if (shouldCommit()) {
+            this.cached = cached;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The spans of one sampled request or scheduled run. Spans are added as they close; the
+ * trace is handed to the {@link Tracer} when its root closes. Async work that finishes after
+ * the root is still appended here and exported on its own.
+ */
+final class Trace {
+
+    private final Tracer tracer;
+    private final String traceId;
+    private final Instant startedAt;
+    private final long startNanos;
+    private final boolean dropIfIdle;
+    private final int maxSpans;
+    private final List<Span> spans = new ArrayList<>();
+    private Span root;
+    private boolean complete;
+    private int dropped;
+
+    Trace(Tracer tracer, String traceId, boolean dropIfIdle, int maxSpans) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+        this.dropIfIdle = dropIfIdle;
+        this.maxSpans = maxSpans;
+    }
+
+    void start(Span root) {
+        this.root = root;
+    }
+
+    void finished(Span span) {
+        boolean late;
+        synchronized (this) {
+            if (spans.size() >= maxSpans && span != root) {
+                dropped++;
+                return;
+            }
+            spans.add(span);
+            late = complete;
+            if (span == root) {
+                complete = true;
+            }
+        }
+        if (span == root) {
+            tracer.complete(this);
+        } else if (late) {
+            tracer.completeLate(span);
+        }
+    }
+
+    String getTraceId() {
+        return traceId;
+    }
+
+    Instant getStartedAt() {
+        return startedAt;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    /** Wall-clock time of a System.nanoTime() reading taken during this trace. */
+    long epochNanos(long nanoTime) {
+        return startedAt.getEpochSecond() * 1_000_000_000L + startedAt.getNano() + (nanoTime - startNanos);
+    }
+
+    Span getRoot() {
+        return root;
+    }
+
+    /** Scheduled ticks that touched nothing traced are not worth keeping. */
+    boolean isIdle() {
+        return dropIfIdle && spanCount() <= 1;
+    }
+
+    synchronized List<Span> getSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    synchronized int spanCount() {
+        return spans.size();
+    }
+
+    synchronized int getDropped() {
+        return dropped;
+    }
+}
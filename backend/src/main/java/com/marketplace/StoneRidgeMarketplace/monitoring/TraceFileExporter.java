@@ -0,0 +1,180 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.StoneRidgeMarketplace.util.MpscRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends finished spans to app.tracing.file as JSON lines, one span per line in the
+ * OpenTelemetry shape (traceId, spanId, parentSpanId, start/end in epoch nanos, attributes).
+ * Request threads only offer to a {@link MpscRingBuffer}; a background thread does the I/O,
+ * and spans are dropped (and counted) rather than blocking when it falls behind. The file is
+ * rolled to "&lt;file&gt;.1" once it passes app.tracing.file-max-mb.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TraceFileExporter {
+
+    private static final int BUFFER_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 512;
+    private static final long FLUSH_INTERVAL_MS = 500;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.tracing.enabled:true}")
+    private boolean tracingEnabled;
+
+    @Value("${app.tracing.file:}")
+    private String file;
+
+    @Value("${app.tracing.file-max-mb:100}")
+    private long fileMaxMb;
+
+    private Path path;
+    private Writer writer;
+    private long fileBytes;
+    private MpscRingBuffer<Span> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final AtomicLong exported = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!tracingEnabled || file == null || file.isBlank()) {
+            return;
+        }
+        path = Paths.get(file).toAbsolutePath();
+        try {
+            open();
+        } catch (IOException e) {
+            log.error("Trace file {} cannot be opened; spans will only be kept in memory", path, e);
+            return;
+        }
+        buffer = new MpscRingBuffer<>(BUFFER_CAPACITY);
+        running = true;
+        writerThread = new Thread(this::runWriter, "trace-file-exporter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Exporting trace spans to {}", path);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        log.info("Trace file exporter stopped: {} spans written, {} dropped", exported.get(), dropped.get());
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    void export(List<Span> spans) {
+        if (!running) {
+            return;
+        }
+        for (Span span : spans) {
+            if (!buffer.offer(span)) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private void runWriter() {
+        List<Span> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || buffer.size() > 0) {
+            buffer.drainTo(batch, BATCH_SIZE);
+            if (batch.isEmpty()) {
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS));
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Failed to close trace file {}", path, e);
+        }
+    }
+
+    private void write(List<Span> spans) {
+        try {
+            for (Span span : spans) {
+                String line = objectMapper.writeValueAsString(toJson(span)) + "\n";
+                writer.write(line);
+                fileBytes += line.length();
+            }
+            writer.flush();
+            exported.addAndGet(spans.size());
+            if (fileBytes > fileMaxMb * 1024 * 1024) {
+                roll();
+            }
+        } catch (IOException e) {
+            dropped.addAndGet(spans.size());
+            log.warn("Failed to write {} spans to {}", spans.size(), path, e);
+        }
+    }
+
+    private static Map<String, Object> toJson(Span span) {
+        Trace trace = span.getTrace();
+        long start = trace.epochNanos(span.getStartNanos());
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", trace.getTraceId());
+        json.put("spanId", span.getSpanId());
+        json.put("parentSpanId", span.getParentSpanId());
+        json.put("name", span.getName());
+        json.put("kind", span.getKind().name());
+        json.put("startTimeUnixNano", start);
+        json.put("endTimeUnixNano", start + span.getDurationNanos());
+        json.put("status", span.isError() ? "ERROR" : "OK");
+        json.put("thread", span.getThread());
+        json.put("attributes", span.getAttributes());
+        return json;
+    }
+
+    private void open() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(path);
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        Files.move(path, path.resolveSibling(path.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+}
@@ -0,0 +1,232 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import com.marketplace.StoneRidgeMarketplace.dto.response.TraceDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.TraceListDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.TraceSpanDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.TraceSummaryDto;
+import com.marketplace.StoneRidgeMarketplace.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/**
+ * Starts sampled traces and keeps the most recent app.tracing.buffer-size of them in an
+ * in-memory ring for the admin trace endpoints; finished spans also go to the
+ * {@link TraceFileExporter} when app.tracing.file is set.
+ * <p>
+ * The sampling decision is made once per root (request or scheduled run) from
+ * app.tracing.sample-rate. An incoming W3C traceparent header only supplies the trace id
+ * and remote parent, so clients cannot force sampling on.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class Tracer {
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}");
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+
+    private final TraceFileExporter fileExporter;
+
+    @Value("${app.tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.tracing.sample-rate:0.1}")
+    private volatile double sampleRate;
+
+    @Value("${app.tracing.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.tracing.max-spans-per-trace:1000}")
+    private int maxSpansPerTrace;
+
+    private AtomicReferenceArray<Trace> recent;
+    private final AtomicLong cursor = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        bufferSize = Math.max(1, bufferSize);
+        recent = new AtomicReferenceArray<>(bufferSize);
+        sampleRate = clamp(sampleRate);
+        if (enabled) {
+            log.info("Tracing enabled: sample rate {}, keeping the last {} traces", sampleRate, bufferSize);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /** Takes effect for roots started after the call. */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = clamp(sampleRate);
+        log.info("Trace sample rate set to {}", this.sampleRate);
+    }
+
+    /**
+     * Root span for an incoming request, continuing the caller's trace id when a valid
+     * traceparent is given. {@link Span#NOOP} when not sampled.
+     */
+    public Span startRequest(String name, String traceparent) {
+        if (!sampled()) {
+            return Span.NOOP;
+        }
+        String traceId = null;
+        String remoteParent = null;
+        if (traceparent != null) {
+            var matcher = TRACEPARENT.matcher(traceparent.trim().toLowerCase(Locale.ROOT));
+            if (matcher.matches() && !INVALID_TRACE_ID.equals(matcher.group(1))) {
+                traceId = matcher.group(1);
+                remoteParent = matcher.group(2);
+            }
+        }
+        if (traceId == null) {
+            traceId = Span.newId() + Span.newId();
+        }
+        return start(new Trace(this, traceId, false, maxSpansPerTrace), remoteParent, name, Span.Kind.SERVER);
+    }
+
+    /**
+     * Root span for a scheduled run, or a plain child when one is already open (a scheduled
+     * method called directly from a request). Runs that open no child span are discarded.
+     */
+    public Span startScheduled(String name) {
+        if (Span.isRecording()) {
+            return Span.child(name, Span.Kind.INTERNAL);
+        }
+        if (!sampled()) {
+            return Span.NOOP;
+        }
+        return start(new Trace(this, Span.newId() + Span.newId(), true, maxSpansPerTrace), null, name, Span.Kind.INTERNAL);
+    }
+
+    private Span start(Trace trace, String remoteParent, String name, Span.Kind kind) {
+        Span root = Span.root(trace, remoteParent, name, kind);
+        trace.start(root);
+        return root;
+    }
+
+    private boolean sampled() {
+        double rate = sampleRate;
+        return enabled && rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    void complete(Trace trace) {
+        if (trace.isIdle()) {
+            return;
+        }
+        recent.set((int) (cursor.getAndIncrement() % bufferSize), trace);
+        fileExporter.export(trace.getSpans());
+    }
+
+    void completeLate(Span span) {
+        fileExporter.export(List.of(span));
+    }
+
+    // ---------- Admin views ----------
+
+    public TraceListDto getTraces(double minDurationMillis, String name, int limit) {
+        String filter = name == null || name.isBlank() ? null : name.toLowerCase(Locale.ROOT);
+        List<TraceSummaryDto> traces = snapshot().stream()
+                .filter(trace -> millis(trace.getRoot().getDurationNanos()) >= minDurationMillis)
+                .filter(trace -> filter == null || trace.getRoot().getName().toLowerCase(Locale.ROOT).contains(filter))
+                .sorted(Comparator.comparing(Trace::getStartedAt).reversed())
+                .limit(Math.max(1, limit))
+                .map(Tracer::toSummary)
+                .toList();
+        return TraceListDto.builder()
+                .enabled(enabled)
+                .sampleRate(sampleRate)
+                .bufferSize(bufferSize)
+                .traces(traces)
+                .build();
+    }
+
+    public TraceDto getTrace(String traceId) {
+        Trace trace = snapshot().stream()
+                .filter(candidate -> candidate.getTraceId().equalsIgnoreCase(traceId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Trace not found"));
+        List<TraceSpanDto> spans = trace.getSpans().stream()
+                .sorted(Comparator.comparingLong(Span::getStartNanos))
+                .map(span -> TraceSpanDto.builder()
+                        .spanId(span.getSpanId())
+                        .parentSpanId(span.getParentSpanId())
+                        .name(span.getName())
+                        .kind(span.getKind().name())
+                        .thread(span.getThread())
+                        .offsetMillis(millis(span.getStartNanos() - trace.getStartNanos()))
+                        .durationMillis(millis(span.getDurationNanos()))
+                        .error(span.isError())
+                        .attributes(span.getAttributes())
+                        .build())
+                .toList();
+        return TraceDto.builder()
+                .traceId(trace.getTraceId())
+                .name(trace.getRoot().getName())
+                .startedAt(startedAt(trace))
+                .durationMillis(millis(trace.getRoot().getDurationNanos()))
+                .droppedSpans(trace.getDropped())
+                .spans(spans)
+                .build();
+    }
+
+    public void clear() {
+        for (int i = 0; i < bufferSize; i++) {
+            recent.set(i, null);
+        }
+    }
+
+    private List<Trace> snapshot() {
+        List<Trace> traces = new ArrayList<>(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            Trace trace = recent.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    private static TraceSummaryDto toSummary(Trace trace) {
+        List<Span> spans = trace.getSpans();
+        return TraceSummaryDto.builder()
+                .traceId(trace.getTraceId())
+                .name(trace.getRoot().getName())
+                .startedAt(startedAt(trace))
+                .durationMillis(millis(trace.getRoot().getDurationNanos()))
+                .spans(spans.size())
+                .droppedSpans(trace.getDropped())
+                .error(spans.stream().anyMatch(Span::isError))
+                .build();
+    }
+
+    private static LocalDateTime startedAt(Trace trace) {
+        return LocalDateTime.ofInstant(trace.getStartedAt(), ZoneId.systemDefault());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double clamp(double rate) {
+        return Double.isNaN(rate) ? 0 : Math.min(1, Math.max(0, rate));
+    }
+}
@@ -0,0 +1,92 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spans for controller, service and repository calls, and a root span for each
+ * {@code @Scheduled} run. Only registered when app.tracing.enabled is true; in an unsampled
+ * request each advised call costs one thread-local read on top of the proxy hop.
+ * <p>
+ * Advice order follows declaration order, so a scheduled service method gets its root span
+ * before its service span.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TracingAspect {
+
+    private static final String BASE_PACKAGE = "com.marketplace.StoneRidgeMarketplace";
+
+    private final Tracer tracer;
+
+    private final Map<Class<?>, String> names = new ConcurrentHashMap<>();
+
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object scheduled(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span span = tracer.startScheduled("scheduled " + targetName(joinPoint) + "." + joinPoint.getSignature().getName());
+        return proceed(joinPoint, span);
+    }
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController com.marketplace.StoneRidgeMarketplace..*) "
+            + "&& execution(public * *(..))")
+    public Object controller(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller");
+    }
+
+    @Around("within(@org.springframework.stereotype.Service com.marketplace.StoneRidgeMarketplace..*) "
+            + "&& execution(public * *(..))")
+    public Object service(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service");
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "repository");
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        if (!Span.isRecording()) {
+            return joinPoint.proceed();
+        }
+        Span span = Span.child(targetName(joinPoint) + "." + joinPoint.getSignature().getName(), Span.Kind.INTERNAL)
+                .attribute("layer", layer);
+        return proceed(joinPoint, span);
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint, Span span) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Simple name of the advised bean: the application interface for repository proxies
+     * (whose methods are mostly declared on Spring Data's base interfaces), else the class.
+     */
+    private String targetName(ProceedingJoinPoint joinPoint) {
+        Object proxy = joinPoint.getThis();
+        return names.computeIfAbsent(proxy.getClass(), type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith(BASE_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return ClassUtils.getUserClass(type).getSimpleName();
+        });
+    }
+}
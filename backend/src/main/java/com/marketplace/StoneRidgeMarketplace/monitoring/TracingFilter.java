@@ -0,0 +1,62 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens the root span of each sampled request, just inside {@link SqlStatementFilter} and
+ * ahead of the security filters, and names it after the matched route once the handler has
+ * run. Sampled responses carry the trace id in X-Trace-Id so a slow call can be looked up
+ * under /api/admin/system/traces.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final Tracer tracer;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !tracer.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        Span span = tracer.startRequest(request.getMethod() + " " + request.getRequestURI(), request.getHeader("traceparent"));
+        if (span == Span.NOOP) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        response.setHeader(TRACE_ID_HEADER, span.getTraceId());
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.rename(SqlStatementFilter.endpoint(request));
+            span.attribute("http.method", request.getMethod())
+                    .attribute("url.path", request.getRequestURI())
+                    .attribute("http.status_code", response.getStatus());
+            if (response.getStatus() >= 500) {
+                span.markError();
+            }
+            span.close();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.marketplace.StoneRidgeMarketplace.repository;
+
+import com.marketplace.StoneRidgeMarketplace.entity.AnalyticsDailyRollup;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AnalyticsDailyRollupRepository extends JpaRepository<AnalyticsDailyRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE AnalyticsDailyRollup r SET r.count = r.count + :delta WHERE r.day = :day " +
+            "AND r.metric = :metric AND r.categoryId = :categoryId AND r.building = :building")
+    int increment(@Param("day") LocalDate day, @Param("metric") AnalyticsMetric metric,
+            @Param("categoryId") long categoryId, @Param("building") String building, @Param("delta") long delta);
+
+    @Query("SELECT r FROM AnalyticsDailyRollup r WHERE r.day >= :from AND r.day <= :to " +
+            "AND (:metric IS NULL OR r.metric = :metric) " +
+            "AND (:categoryId IS NULL OR r.categoryId = :categoryId) " +
+            "AND (:building IS NULL OR r.building = :building)")
+    List<AnalyticsDailyRollup> findInRange(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("metric") AnalyticsMetric metric, @Param("categoryId") Long categoryId,
+            @Param("building") String building);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsDailyRollup r WHERE r.day < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff);
+}
@@ -0,0 +1,37 @@
+package com.marketplace.StoneRidgeMarketplace.repository;
+
+import com.marketplace.StoneRidgeMarketplace.entity.AnalyticsHourlyRollup;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnalyticsHourlyRollupRepository extends JpaRepository<AnalyticsHourlyRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE AnalyticsHourlyRollup r SET r.count = r.count + :delta WHERE r.bucketStart = :bucketStart " +
+            "AND r.metric = :metric AND r.categoryId = :categoryId AND r.building = :building")
+    int increment(@Param("bucketStart") LocalDateTime bucketStart, @Param("metric") AnalyticsMetric metric,
+            @Param("categoryId") long categoryId, @Param("building") String building, @Param("delta") long delta);
+
+    @Query("SELECT r FROM AnalyticsHourlyRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to " +
+            "AND (:metric IS NULL OR r.metric = :metric) " +
+            "AND (:categoryId IS NULL OR r.categoryId = :categoryId) " +
+            "AND (:building IS NULL OR r.building = :building)")
+    List<AnalyticsHourlyRollup> findInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("metric") AnalyticsMetric metric, @Param("categoryId") Long categoryId,
+            @Param("building") String building);
+
+    List<AnalyticsHourlyRollup> findByBucketStartBefore(LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsHourlyRollup r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
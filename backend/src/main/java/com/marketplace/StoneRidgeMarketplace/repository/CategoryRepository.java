@@ -2,10 +2,12 @@ package com.marketplace.StoneRidgeMarketplace.repository;
 
 import com.marketplace.StoneRidgeMarketplace.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,10 +24,21 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT c FROM Category c WHERE c.parent.id = :parentId AND c.active = true ORDER BY c.name")
     List<Category> findSubcategories(@Param("parentId") Long parentId);
     
-    @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId AND p.status = 'ACTIVE'")
-    Integer countActiveProductsByCategory(@Param("categoryId") Long categoryId);
+    // (category id, active product count) for a whole category tree; categories without
+    // active products are absent
+    @Query("SELECT p.category.id, COUNT(p) FROM Product p WHERE p.category.id IN :categoryIds AND p.status = 'ACTIVE' " +
+           "GROUP BY p.category.id")
+    List<Object[]> countActiveProductsByCategoryIn(@Param("categoryIds") Collection<Long> categoryIds);
     
     boolean existsByNameIgnoreCaseAndActiveTrue(String name);
 
     long countByActiveTrue();
+
+    @Modifying
+    @Query("UPDATE Category c SET c.createdBy = NULL WHERE c.createdBy.id IN :userIds")
+    int clearCreatedByIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("UPDATE Category c SET c.approvedBy = NULL WHERE c.approvedBy.id IN :userIds")
+    int clearApprovedByIdIn(@Param("userIds") Collection<Long> userIds);
 }
@@ -6,10 +6,12 @@ import com.marketplace.StoneRidgeMarketplace.entity.enums.CategoryStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,4 +30,12 @@ public interface CategoryRequestRepository extends JpaRepository<CategoryRequest
     Integer countPendingRequestsByUser(@Param("userId") Long userId);
 
     long countByStatus(CategoryStatus status);
+
+    @Modifying
+    @Query("DELETE FROM CategoryRequest cr WHERE cr.requestedBy.id IN :userIds")
+    int deleteByRequestedByIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("UPDATE CategoryRequest cr SET cr.reviewedBy = NULL WHERE cr.reviewedBy.id IN :userIds")
+    int clearReviewedByIdIn(@Param("userIds") Collection<Long> userIds);
 }
@@ -4,10 +4,12 @@ import com.marketplace.StoneRidgeMarketplace.entity.ChatMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,9 +20,26 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     @Query("SELECT cm FROM ChatMessage cm WHERE cm.chat.id = :chatId ORDER BY cm.createdAt ASC")
     List<ChatMessage> findByChatIdOrderByCreatedAtAsc(@Param("chatId") Long chatId);
     
-    @Query("SELECT cm FROM ChatMessage cm WHERE cm.chat.id = :chatId ORDER BY cm.createdAt DESC")
-    List<ChatMessage> findRecentMessages(@Param("chatId") Long chatId, Pageable pageable);
+    // The newest perChat messages of each chat, newest first, for a page of chats in one query
+    @Query(value = "SELECT * FROM (SELECT cm.*, ROW_NUMBER() OVER (PARTITION BY cm.chat_id ORDER BY cm.created_at DESC) AS rn " +
+                   "FROM chat_messages cm WHERE cm.chat_id IN (:chatIds)) recent " +
+                   "WHERE recent.rn <= :perChat ORDER BY recent.chat_id, recent.created_at DESC",
+            nativeQuery = true)
+    List<ChatMessage> findRecentMessagesByChatIdIn(@Param("chatIds") Collection<Long> chatIds, @Param("perChat") int perChat);
     
     @Query("SELECT cm FROM ChatMessage cm WHERE cm.chat.id = :chatId ORDER BY cm.createdAt DESC LIMIT 1")
     ChatMessage findLastMessageByChat(@Param("chatId") Long chatId);
+
+    @Modifying
+    @Query("DELETE FROM ChatMessage cm WHERE cm.chat.id IN (SELECT c.id FROM Chat c WHERE c.product.id IN :productIds)")
+    int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    // Two statements rather than one OR: an OR across a subquery can only be planned as a full scan
+    @Modifying
+    @Query("DELETE FROM ChatMessage cm WHERE cm.sender.id IN :userIds")
+    int deleteBySenderIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM ChatMessage cm WHERE cm.chat.id IN (SELECT c.id FROM Chat c WHERE c.buyer.id IN :userIds OR c.seller.id IN :userIds)")
+    int deleteByChatParticipantIdIn(@Param("userIds") Collection<Long> userIds);
 }
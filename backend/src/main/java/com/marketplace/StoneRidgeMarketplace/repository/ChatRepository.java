@@ -7,10 +7,13 @@ import com.marketplace.StoneRidgeMarketplace.entity.enums.ChatStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,4 +35,16 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
            "((c.buyer.id = :userId AND c.buyerLastReadAt < c.lastMessageAt) OR " +
            "(c.seller.id = :userId AND c.sellerLastReadAt < c.lastMessageAt))")
     List<Chat> findChatsWithUnreadMessages(@Param("userId") Long userId);
+
+    // Analytics backfill: (timestamp, category id, seller building)
+    @Query("SELECT c.createdAt, p.category.id, s.buildingName FROM Chat c JOIN c.product p JOIN p.seller s WHERE c.createdAt >= :since")
+    List<Object[]> findCreatedSinceForAnalytics(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM Chat c WHERE c.product.id IN :productIds")
+    int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query("DELETE FROM Chat c WHERE c.buyer.id IN :userIds OR c.seller.id IN :userIds")
+    int deleteByParticipantIdIn(@Param("userIds") Collection<Long> userIds);
 }
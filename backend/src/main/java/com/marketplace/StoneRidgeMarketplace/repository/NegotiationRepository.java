@@ -3,11 +3,13 @@ package com.marketplace.StoneRidgeMarketplace.repository;
 import com.marketplace.StoneRidgeMarketplace.entity.Negotiation;
 import com.marketplace.StoneRidgeMarketplace.entity.enums.NegotiationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,4 +25,24 @@ public interface NegotiationRepository extends JpaRepository<Negotiation, Long>
     
     @Query("SELECT n FROM Negotiation n WHERE n.chat.seller.id = :sellerId AND n.status = 'PENDING' AND n.expiresAt > :now")
     List<Negotiation> findPendingOffersForSeller(@Param("sellerId") Long sellerId, @Param("now") LocalDateTime now);
+
+    // Analytics backfill: (timestamp, category id, seller building)
+    @Query("SELECT n.createdAt, p.category.id, s.buildingName FROM Negotiation n JOIN n.chat c JOIN c.product p JOIN p.seller s WHERE n.createdAt >= :since")
+    List<Object[]> findCreatedSinceForAnalytics(@Param("since") LocalDateTime since);
+
+    @Query("SELECT n.respondedAt, p.category.id, s.buildingName FROM Negotiation n JOIN n.chat c JOIN c.product p JOIN p.seller s WHERE n.status = 'ACCEPTED' AND n.respondedAt >= :since")
+    List<Object[]> findAcceptedSinceForAnalytics(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM Negotiation n WHERE n.chat.id IN (SELECT c.id FROM Chat c WHERE c.product.id IN :productIds)")
+    int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    // Two statements rather than one OR: an OR across a subquery can only be planned as a full scan
+    @Modifying
+    @Query("DELETE FROM Negotiation n WHERE n.offeredBy.id IN :userIds")
+    int deleteByOfferedByIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM Negotiation n WHERE n.chat.id IN (SELECT c.id FROM Chat c WHERE c.buyer.id IN :userIds OR c.seller.id IN :userIds)")
+    int deleteByChatParticipantIdIn(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,24 @@
+package com.marketplace.StoneRidgeMarketplace.repository;
+
+import com.marketplace.StoneRidgeMarketplace.entity.PrincipalInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PrincipalInvalidationRepository extends JpaRepository<PrincipalInvalidation, Long> {
+
+    List<PrincipalInvalidation> findByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Query("SELECT COALESCE(MAX(pi.id), 0) FROM PrincipalInvalidation pi")
+    Long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM PrincipalInvalidation pi WHERE pi.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,23 +1,44 @@
 package com.marketplace.StoneRidgeMarketplace.repository;
 
 import com.marketplace.StoneRidgeMarketplace.entity.ProductImage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
     
     List<ProductImage> findByProductIdOrderByDisplayOrderAsc(Long productId);
     
-    Optional<ProductImage> findByProductIdAndPrimaryTrue(Long productId);
+    // Primary images for a page of listings or chats in one query
+    List<ProductImage> findByProductIdInAndPrimaryTrue(Collection<Long> productIds);
     
     @Query("SELECT pi FROM ProductImage pi WHERE pi.product.id = :productId ORDER BY pi.displayOrder ASC")
     List<ProductImage> findProductImages(@Param("productId") Long productId);
     
     void deleteByProductId(Long productId);
+
+    @Modifying
+    @Query("UPDATE ProductImage pi SET pi.thumbnailUrl = :thumbnailUrl, pi.cardUrl = :cardUrl, pi.fullUrl = :fullUrl, " +
+           "pi.width = :width, pi.height = :height WHERE pi.imageUrl = :imageUrl")
+    int updateVariants(@Param("imageUrl") String imageUrl, @Param("thumbnailUrl") String thumbnailUrl,
+                       @Param("cardUrl") String cardUrl, @Param("fullUrl") String fullUrl,
+                       @Param("width") Integer width, @Param("height") Integer height);
+
+    @Query("SELECT DISTINCT pi.imageUrl FROM ProductImage pi WHERE pi.thumbnailUrl IS NULL AND pi.createdAt > :since")
+    List<String> findUnprocessedImageUrls(@Param("since") LocalDateTime since, Pageable pageable);
+
+    @Query("SELECT pi.imageUrl FROM ProductImage pi WHERE pi.product.id IN :productIds")
+    List<String> findImageUrlsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query("DELETE FROM ProductImage pi WHERE pi.product.id IN :productIds")
+    int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
 }
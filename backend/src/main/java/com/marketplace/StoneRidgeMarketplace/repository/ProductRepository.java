@@ -6,11 +6,14 @@ import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -55,4 +58,35 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
        Page<Product> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
        long countByStatus(ProductStatus status);
+
+       // Analytics backfill: (timestamp, category id, seller building)
+       @Query("SELECT p.createdAt, p.category.id, s.buildingName FROM Product p JOIN p.seller s WHERE p.createdAt >= :since")
+       List<Object[]> findCreatedSinceForAnalytics(@Param("since") LocalDateTime since);
+
+       @Query("SELECT p.soldAt, p.category.id, s.buildingName FROM Product p JOIN p.seller s WHERE p.soldAt >= :since")
+       List<Object[]> findSoldSinceForAnalytics(@Param("since") LocalDateTime since);
+
+    // Admin bulk moderation: optional filters, null means "any"
+    @Query("SELECT p.id FROM Product p WHERE (:sellerId IS NULL OR p.seller.id = :sellerId) " +
+           "AND (:status IS NULL OR p.status = :status) AND (:categoryId IS NULL OR p.category.id = :categoryId) ORDER BY p.id")
+    List<Long> findIdsForBulk(@Param("sellerId") Long sellerId, @Param("status") ProductStatus status,
+                              @Param("categoryId") Long categoryId);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Product p WHERE p.seller.id IN :sellerIds")
+    List<Long> findIdsBySellerIdIn(@Param("sellerIds") Collection<Long> sellerIds);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.status = :status, p.updatedAt = :now WHERE p.id IN :ids AND p.status <> :status")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") ProductStatus status, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.buyer = NULL WHERE p.buyer.id IN :buyerIds")
+    int clearBuyerByBuyerIdIn(@Param("buyerIds") Collection<Long> buyerIds);
+
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,42 @@
+package com.marketplace.StoneRidgeMarketplace.repository;
+
+import com.marketplace.StoneRidgeMarketplace.entity.RateLimitBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    /**
+     * Refill and take one token in a single statement. Returns 0 if the bucket is
+     * missing or does not hold a whole token.
+     */
+    @Modifying
+    @Query(value = "UPDATE rate_limit_buckets SET " +
+            "tokens = LEAST(:capacity, tokens + (:now - updated_at) * :refill / :period) - 1000, " +
+            "updated_at = :now " +
+            "WHERE bucket_key = :key " +
+            "AND LEAST(:capacity, tokens + (:now - updated_at) * :refill / :period) >= 1000",
+            nativeQuery = true)
+    int tryConsume(@Param("key") String key,
+            @Param("capacity") long capacity,
+            @Param("refill") long refill,
+            @Param("period") long period,
+            @Param("now") long now);
+
+    /**
+     * Plain INSERT (not a merge) so a concurrent creator causes a constraint violation
+     * instead of silently resetting the bucket.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO rate_limit_buckets (bucket_key, tokens, updated_at) VALUES (:key, :tokens, :now)",
+            nativeQuery = true)
+    int insertBucket(@Param("key") String key, @Param("tokens") long tokens, @Param("now") long now);
+
+    @Modifying
+    @Query("DELETE FROM RateLimitBucket b WHERE b.updatedAt < :cutoff")
+    int deleteIdle(@Param("cutoff") long cutoff);
+}
@@ -0,0 +1,46 @@
+package com.marketplace.StoneRidgeMarketplace.repository;
+
+import com.marketplace.StoneRidgeMarketplace.entity.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, Long> {
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.lastUploadedAt = :now WHERE b.path = :path")
+    int touch(@Param("path") String path, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + :delta WHERE b.path = :path")
+    int adjustRefCount(@Param("path") String path, @Param("delta") int delta);
+
+    @Query("SELECT DISTINCT b.digest FROM StoredBlob b WHERE b.digest IN :digests AND b.refCount > 0")
+    List<String> findReferencedDigests(@Param("digests") Collection<String> digests);
+
+    /** Digests still referenced or uploaded since cutoff; object stores without a cheap touch rely on the latter. */
+    @Query("SELECT DISTINCT b.digest FROM StoredBlob b WHERE b.digest IN :digests AND (b.refCount > 0 OR b.lastUploadedAt > :cutoff)")
+    List<String> findLiveDigests(@Param("digests") Collection<String> digests, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM StoredBlob b WHERE b.path IN :paths")
+    int deleteByPathIn(@Param("paths") Collection<String> paths);
+
+    /**
+     * The row, locked until the caller's transaction ends: an upload of the same blob waits in
+     * {@link #touch} (or on the unique path when inserting) until the caller has finished.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.path = :path")
+    Optional<StoredBlob> findByPathForUpdate(@Param("path") String path);
+}
@@ -3,10 +3,13 @@ package com.marketplace.StoneRidgeMarketplace.repository;
 import com.marketplace.StoneRidgeMarketplace.entity.TrustedDevice;
 import com.marketplace.StoneRidgeMarketplace.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +22,32 @@ public interface TrustedDeviceRepository extends JpaRepository<TrustedDevice, Lo
 
     @Query("SELECT td FROM TrustedDevice td WHERE td.user = :user")
     List<TrustedDevice> findByUser(@Param("user") User user);
+
+    @Query("SELECT td FROM TrustedDevice td WHERE td.user.id = :userId AND td.active = true AND td.expiresAt > :now ORDER BY td.lastUsedAt DESC")
+    List<TrustedDevice> findActiveByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT td FROM TrustedDevice td WHERE td.id = :id AND td.user.id = :userId AND td.active = true")
+    Optional<TrustedDevice> findActiveByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("SELECT COUNT(td) FROM TrustedDevice td WHERE td.user.id = :userId AND td.active = true")
+    long countActiveByUserId(@Param("userId") Long userId);
+
+    Optional<TrustedDevice> findFirstByUserIdAndActiveTrueOrderByLastUsedAtAsc(Long userId);
+
+    @Modifying
+    @Query("UPDATE TrustedDevice td SET td.active = false WHERE td.user.id = :userId AND td.active = true")
+    int deactivateAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE TrustedDevice td SET td.active = false WHERE td.id = :id")
+    int deactivateById(@Param("id") Long id);
+
+    /** Only moves lastUsedAt forward, so a late flush never overwrites a newer value. */
+    @Modifying
+    @Query("UPDATE TrustedDevice td SET td.lastUsedAt = :usedAt WHERE td.id = :id AND (td.lastUsedAt IS NULL OR td.lastUsedAt < :usedAt)")
+    int touchLastUsedAt(@Param("id") Long id, @Param("usedAt") LocalDateTime usedAt);
+
+    @Modifying
+    @Query("DELETE FROM TrustedDevice td WHERE td.user.id IN :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,24 @@
+package com.marketplace.StoneRidgeMarketplace.repository;
+
+import com.marketplace.StoneRidgeMarketplace.entity.UploadInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadInvalidationRepository extends JpaRepository<UploadInvalidation, Long> {
+
+    List<UploadInvalidation> findByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Query("SELECT COALESCE(MAX(ui.id), 0) FROM UploadInvalidation ui")
+    Long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM UploadInvalidation ui WHERE ui.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -5,10 +5,14 @@ import com.marketplace.StoneRidgeMarketplace.entity.enums.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -34,4 +38,38 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE u.email = :email AND u.id != :userId")
     boolean existsByEmailAndIdNot(@Param("email") String email, @Param("userId") Long userId);
+
+    // User search index build: (id, email, username)
+    @Query("SELECT u.id, u.email, u.username FROM User u")
+    List<Object[]> findAllForSearchIndex();
+
+    // Analytics backfill: (timestamp, building)
+    @Query("SELECT u.createdAt, u.buildingName FROM User u WHERE u.createdAt >= :since")
+    List<Object[]> findCreatedSinceForAnalytics(@Param("since") LocalDateTime since);
+
+    // Admin bulk moderation: ids resolved up front, then processed in chunks
+    @Query("SELECT u.id FROM User u WHERE LOWER(u.email) LIKE LOWER(CONCAT('%', :q, '%')) OR LOWER(u.username) LIKE LOWER(CONCAT('%', :q, '%')) ORDER BY u.id")
+    List<Long> findIdsBySearch(@Param("q") String q);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.username FROM User u WHERE u.id IN :ids")
+    List<String> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE User u SET u.enabled = :enabled, u.updatedAt = :now WHERE u.id IN :ids AND u.enabled <> :enabled")
+    int updateEnabledByIdIn(@Param("ids") Collection<Long> ids, @Param("enabled") boolean enabled, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE User u SET u.accountNonLocked = false, u.updatedAt = :now WHERE u.id IN :ids AND u.accountNonLocked = true")
+    int lockByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE User u SET u.accountNonLocked = true, u.failedLoginAttempts = 0, u.lockTime = NULL, u.updatedAt = :now WHERE u.id IN :ids")
+    int unlockByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
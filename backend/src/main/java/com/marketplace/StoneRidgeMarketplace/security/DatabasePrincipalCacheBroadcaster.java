@@ -0,0 +1,107 @@
+package com.marketplace.StoneRidgeMarketplace.security;
+
+import com.marketplace.StoneRidgeMarketplace.entity.PrincipalInvalidation;
+import com.marketplace.StoneRidgeMarketplace.repository.PrincipalInvalidationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares principal cache invalidations between backend nodes through the
+ * principal_invalidations table. Enabled with app.security.principal-cache.broadcast=database.
+ * <p>
+ * Ids are taken at insert time, not commit time, so a row can become visible after rows with
+ * higher ids have already been read. Every id skipped below the highest one seen is kept as a
+ * gap and looked up again on each poll until it shows up or is old enough to have been rolled
+ * back.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.principal-cache.broadcast", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class DatabasePrincipalCacheBroadcaster {
+
+    // An invalidation is written in its own short transaction; a gap still empty after this
+    // long belongs to a rolled-back insert
+    private static final long GAP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+    // Bounds the gaps recorded for one jump in ids (e.g. after a sequence reset)
+    private static final int MAX_GAPS = 1000;
+
+    private final PrincipalInvalidationRepository invalidationRepository;
+    private final PrincipalCache principalCache;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile long lastSeenId = -1;
+    // Ids below lastSeenId not seen yet -> when they were first missed; poller thread only
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Anything already in the table predates this node's cache
+        lastSeenId = invalidationRepository.findMaxId();
+    }
+
+    // Runs from afterCommit of the invalidating transaction, so it needs its own
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPrincipalInvalidated(PrincipalInvalidatedEvent event) {
+        invalidationRepository.save(PrincipalInvalidation.builder()
+                .subject(event.getSubject())
+                .originNode(nodeId)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.principal-cache.broadcast-poll-ms:2000}")
+    @Transactional(readOnly = true)
+    public void applyRemoteInvalidations() {
+        if (lastSeenId < 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (!gaps.isEmpty()) {
+            for (PrincipalInvalidation late : invalidationRepository.findAllById(List.copyOf(gaps.keySet()))) {
+                gaps.remove(late.getId());
+                apply(late);
+            }
+            gaps.values().removeIf(missedAt -> now - missedAt > GAP_TIMEOUT_NANOS);
+        }
+        List<PrincipalInvalidation> pending = invalidationRepository.findByIdGreaterThanOrderByIdAsc(lastSeenId);
+        for (PrincipalInvalidation invalidation : pending) {
+            long id = invalidation.getId();
+            for (long missing = Math.max(lastSeenId + 1, id - MAX_GAPS); missing < id; missing++) {
+                gaps.put(missing, now);
+            }
+            apply(invalidation);
+            lastSeenId = id;
+        }
+    }
+
+    private void apply(PrincipalInvalidation invalidation) {
+        if (!nodeId.equals(invalidation.getOriginNode())) {
+            principalCache.evictLocal(invalidation.getSubject());
+        }
+    }
+
+    @Scheduled(fixedDelay = 600000)
+    @Transactional
+    public void purgeOldInvalidations() {
+        int purged = invalidationRepository.deleteOlderThan(LocalDateTime.now().minusHours(1));
+        if (purged > 0) {
+            log.debug("Purged {} principal invalidations", purged);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.marketplace.StoneRidgeMarketplace.security;
+
+import com.marketplace.StoneRidgeMarketplace.config.RateLimitProperties;
+import com.marketplace.StoneRidgeMarketplace.entity.RateLimitBucket;
+import com.marketplace.StoneRidgeMarketplace.repository.RateLimitBucketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Token buckets shared by all nodes through the rate_limit_buckets table. The refill and
+ * the take happen in one conditional UPDATE, so concurrent nodes cannot overdraw a bucket.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.mode", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseRateLimiter implements RateLimiter {
+
+    private static final long MILLI = 1000;
+
+    private final RateLimitBucketRepository bucketRepository;
+    private final RateLimitProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Policy policy) {
+        long capacity = policy.getCapacity() * MILLI;
+        long refill = policy.getRefillTokens() * MILLI;
+        long period = Math.max(1, policy.getRefillPeriod().toMillis());
+        long now = System.currentTimeMillis();
+
+        Long waitMillis = transactionTemplate.execute(status -> {
+            if (bucketRepository.tryConsume(key, capacity, refill, period, now) == 1) {
+                return 0L;
+            }
+            RateLimitBucket bucket = bucketRepository.findById(key).orElse(null);
+            if (bucket == null) {
+                return null;
+            }
+            long available = Math.min(capacity, bucket.getTokens() + (now - bucket.getUpdatedAt()) * refill / period);
+            return Math.max(1, ((MILLI - available) * period + refill - 1) / refill);
+        });
+        if (waitMillis != null) {
+            return waitMillis;
+        }
+
+        // First request for this key: create a full bucket minus this request's token
+        try {
+            transactionTemplate.executeWithoutResult(status -> bucketRepository.insertBucket(key, capacity - MILLI, now));
+            return 0;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first; go through the normal path
+            return tryAcquire(key, policy);
+        }
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    public void evictIdleBuckets() {
+        long cutoff = System.currentTimeMillis() - properties.getIdleEviction().toMillis();
+        Integer evicted = transactionTemplate.execute(status -> bucketRepository.deleteIdle(cutoff));
+        if (evicted != null && evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.marketplace.StoneRidgeMarketplace.security;
 
-import com.marketplace.StoneRidgeMarketplace.service.DeviceFingerprintService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -18,8 +17,6 @@ import java.io.IOException;
 @Slf4j
 public class DeviceTrustFilter extends OncePerRequestFilter {
 
-    private final DeviceFingerprintService deviceFingerprintService;
-
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -44,12 +41,10 @@ public class DeviceTrustFilter extends OncePerRequestFilter {
             }
         }
 
-        // Generate device fingerprint
-        String deviceFingerprint = deviceFingerprintService.generateFingerprint(request);
-
-        // Store in request attributes for use in controllers/services
+        // Store in request attributes for use in controllers/services. The fingerprint is
+        // not computed here; callers use DeviceFingerprintService.getFingerprint(request),
+        // which hashes on first access and caches it under "device_fingerprint".
         request.setAttribute("device_token", deviceToken);
-        request.setAttribute("device_fingerprint", deviceFingerprint);
 
         filterChain.doFilter(request, response);
     }
@@ -21,8 +21,9 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final JwtTokenVerifier tokenVerifier;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -32,7 +33,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -49,12 +49,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         try {
-            username = jwtService.extractUsername(jwt);
+            // Signature and expiry are checked here, once per token
+            VerifiedToken token = tokenVerifier.verify(jwt);
+            String username = token.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
 
-                if (jwtService.validateToken(jwt, userDetails.getUsername())) {
+                if (username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
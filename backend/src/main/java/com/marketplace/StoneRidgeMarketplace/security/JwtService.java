@@ -5,6 +5,7 @@ import com.marketplace.StoneRidgeMarketplace.entity.User;
 import com.marketplace.StoneRidgeMarketplace.entity.enums.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -27,8 +28,20 @@ public class JwtService {
     @Value("${app.security.jwt.refresh-token-expiration:604800000}") // 7 days default
     private long refreshTokenExpiration;
 
+    // Built once; both are immutable and thread-safe.
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateAccessToken(User user) {
@@ -92,11 +105,26 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    /**
+     * Parse and verify a token exactly once. Throws {@link JwtException} if the signature
+     * is invalid or the token has expired.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        Number userId = claims.get("userId", Number.class);
+        if (userId == null) {
+            userId = claims.get("adminId", Number.class);
+        }
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                claims.get("role", String.class),
+                claims.getExpiration().toInstant());
     }
 
     public Boolean isTokenExpired(String token) {
@@ -104,8 +132,8 @@ public class JwtService {
     }
 
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(username) && !claims.getExpiration().before(new Date()));
     }
 
     public long getAccessTokenExpiration() {
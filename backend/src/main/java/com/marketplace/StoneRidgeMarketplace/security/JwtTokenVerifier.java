@@ -0,0 +1,117 @@
+package com.marketplace.StoneRidgeMarketplace.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.marketplace.StoneRidgeMarketplace.monitoring.TokenVerificationEvent;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Verifies bearer tokens for the authentication filter. A token is parsed and
+ * HMAC-checked once; the verified claims are then cached under the token's SHA-256
+ * digest until the token expires, so repeat requests skip parsing entirely.
+ * The raw token is never kept as a cache key.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtTokenVerifier {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtService jwtService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.jwt.verified-cache-size:10000}")
+    private long maxEntries;
+
+    private Cache<String, VerifiedToken> verifiedTokens;
+    private Timer parseTimer;
+
+    @PostConstruct
+    public void init() {
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.getExpiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-verified-tokens");
+        parseTimer = Timer.builder("marketplace.jwt.verify")
+                .description("Parsing and HMAC verification of bearer tokens missing from the verified cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the verified claims for a token, parsing it only on a cache miss.
+     * Throws {@link io.jsonwebtoken.JwtException} if the token is invalid or expired.
+     */
+    public VerifiedToken verify(String token) {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                event.finish(true, "valid");
+                return cached;
+            }
+            verifiedTokens.invalidate(digest);
+            event.finish(true, "expired");
+            throw new ExpiredJwtException(null, null, "JWT expired at " + cached.getExpiresAt());
+        }
+        VerifiedToken verified;
+        try {
+            verified = parseTimer.record(() -> jwtService.verify(token));
+        } catch (JwtException e) {
+            event.finish(false, e instanceof ExpiredJwtException ? "expired" : "invalid");
+            throw e;
+        }
+        verifiedTokens.put(digest, verified);
+        event.finish(false, "valid");
+        return verified;
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+}
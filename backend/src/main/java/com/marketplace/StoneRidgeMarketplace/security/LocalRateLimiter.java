@@ -0,0 +1,77 @@
+package com.marketplace.StoneRidgeMarketplace.security;
+
+import com.marketplace.StoneRidgeMarketplace.config.RateLimitProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token buckets. Each bucket is a single AtomicLong packing the last refill
+ * time (high 42 bits, ms since this limiter started) and the remaining tokens
+ * (low 22 bits, in thousandths of a token), updated with a CAS loop - no locks and
+ * no per-bucket objects beyond the AtomicLong.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.mode", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class LocalRateLimiter implements RateLimiter {
+
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+    /** Largest capacity that fits in the token field. */
+    public static final int MAX_CAPACITY = (int) (TOKEN_MASK / MILLI);
+
+    private final RateLimitProperties properties;
+
+    private final long epochMillis = System.currentTimeMillis();
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Policy policy) {
+        long capacity = Math.min(policy.getCapacity(), MAX_CAPACITY) * MILLI;
+        long periodMillis = Math.max(1, policy.getRefillPeriod().toMillis());
+        long refillMilli = policy.getRefillTokens() * MILLI;
+        long now = System.currentTimeMillis() - epochMillis;
+
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(pack(now, capacity)));
+        while (true) {
+            long state = bucket.get();
+            long last = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+            long elapsed = Math.max(0, now - last);
+            long available = Math.min(capacity, tokens + elapsed * refillMilli / periodMillis);
+            if (available < MILLI) {
+                return Math.max(1, ((MILLI - available) * periodMillis + refillMilli - 1) / refillMilli);
+            }
+            if (bucket.compareAndSet(state, pack(Math.max(now, last), available - MILLI))) {
+                return 0;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long cutoff = System.currentTimeMillis() - epochMillis - properties.getIdleEviction().toMillis();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> (bucket.get() >>> TOKEN_BITS) < cutoff);
+        int evicted = before - buckets.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private static long pack(long time, long tokens) {
+        return (time << TOKEN_BITS) | tokens;
+    }
+}
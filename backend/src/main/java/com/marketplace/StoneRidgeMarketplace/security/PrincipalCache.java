@@ -0,0 +1,98 @@
+package com.marketplace.StoneRidgeMarketplace.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by JWT subject
+ * ("username" for users, "admin:username" for admins). Keeps the auth filter off the
+ * database for steady-state traffic. Services that change anything a principal carries
+ * (enabled, locked, role, account existence) must call {@link #invalidate(String)}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrincipalCache {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<String, UserDetails> principals;
+
+    @PostConstruct
+    public void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    /**
+     * Return the cached principal for a subject, loading it on a miss. Loader exceptions
+     * (e.g. UsernameNotFoundException) propagate and nothing is cached.
+     */
+    public UserDetails get(String subject, Function<String, UserDetails> loader) {
+        return principals.get(subject, loader);
+    }
+
+    public void invalidateUser(String username) {
+        invalidate(username);
+    }
+
+    public void invalidateAdmin(String username) {
+        invalidate(AdminPrincipal.ADMIN_PREFIX + username);
+    }
+
+    /**
+     * Evict a subject on this node and announce it to other nodes. Inside a transaction
+     * the eviction happens after commit, so a concurrent request cannot re-cache the
+     * pre-change state.
+     */
+    public void invalidate(String subject) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndPublish(subject);
+                }
+            });
+        } else {
+            evictAndPublish(subject);
+        }
+    }
+
+    /**
+     * Evict a subject on this node only (used when applying invalidations from other nodes).
+     */
+    public void evictLocal(String subject) {
+        principals.invalidate(subject);
+    }
+
+    private void evictAndPublish(String subject) {
+        principals.invalidate(subject);
+        eventPublisher.publishEvent(new PrincipalInvalidatedEvent(subject));
+        log.debug("Principal cache invalidated for: {}", subject);
+    }
+}
@@ -0,0 +1,13 @@
+package com.marketplace.StoneRidgeMarketplace.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a principal is evicted locally so other nodes can be told about it.
+ */
+@Getter
+@AllArgsConstructor
+public class PrincipalInvalidatedEvent {
+    private final String subject;
+}
@@ -0,0 +1,92 @@
+package com.marketplace.StoneRidgeMarketplace.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.StoneRidgeMarketplace.config.RateLimitProperties;
+import com.marketplace.StoneRidgeMarketplace.service.DeviceFingerprintService;
+import com.marketplace.StoneRidgeMarketplace.util.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Applies the configured per-route token buckets. Runs after the JWT filter so USER-keyed
+ * policies can use the principal id; anonymous requests fall back to the client IP.
+ * Limited requests get 429 with a Retry-After header.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final DeviceFingerprintService deviceFingerprintService;
+    private final ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || properties.getPolicies().isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        String method = request.getMethod();
+
+        for (Map.Entry<String, RateLimitProperties.Policy> entry : properties.getPolicies().entrySet()) {
+            RateLimitProperties.Policy policy = entry.getValue();
+            if (!policy.getMethod().equalsIgnoreCase(method) || !pathMatcher.match(policy.getPath(), uri)) {
+                continue;
+            }
+            String key = entry.getKey() + ":" + resolveKey(policy, request);
+            long waitMillis = rateLimiter.tryAcquire(key, policy);
+            if (waitMillis > 0) {
+                log.warn("Rate limit '{}' exceeded for {}", entry.getKey(), key);
+                reject(response, waitMillis);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String resolveKey(RateLimitProperties.Policy policy, HttpServletRequest request) {
+        if (policy.getKey() == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof PrincipalWithId principal) {
+                return "u" + principal.getId();
+            }
+        }
+        return "ip" + deviceFingerprintService.getClientIP(request);
+    }
+
+    private void reject(HttpServletResponse response, long waitMillis) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf((waitMillis + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.<Void>builder()
+                        .success(false)
+                        .message("Too many requests, please try again later")
+                        .timestamp(System.currentTimeMillis())
+                        .build());
+    }
+}
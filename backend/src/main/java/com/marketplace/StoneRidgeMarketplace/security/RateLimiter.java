@@ -0,0 +1,16 @@
+package com.marketplace.StoneRidgeMarketplace.security;
+
+import com.marketplace.StoneRidgeMarketplace.config.RateLimitProperties;
+
+/**
+ * Token-bucket rate limiter.
+ */
+public interface RateLimiter {
+
+    /**
+     * Take one token from the bucket for {@code key}.
+     *
+     * @return 0 if the request may proceed, otherwise milliseconds until a token is available
+     */
+    long tryAcquire(String key, RateLimitProperties.Policy policy);
+}
@@ -0,0 +1,24 @@
+package com.marketplace.StoneRidgeMarketplace.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ * Id is the userId claim for users and the adminId claim for admins.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final String subject;
+    private final Long id;
+    private final String role;
+    private final Instant expiresAt;
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
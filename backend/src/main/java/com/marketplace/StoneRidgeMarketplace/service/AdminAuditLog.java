@@ -0,0 +1,162 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.StoneRidgeMarketplace.dto.response.AdminAuditEntryDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.AdminAuditPageDto;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AuditAction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structured trail of admin actions: who (actor), what (action), on what (target) and the
+ * relevant state before and after. Entries are recorded after the surrounding transaction
+ * commits, so rolled-back actions leave no trace, and are written asynchronously by
+ * {@link AdminAuditWriter}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminAuditLog {
+
+    public static final String USER = "USER";
+    public static final String PRODUCT = "PRODUCT";
+    public static final String CATEGORY = "CATEGORY";
+    public static final String CATEGORY_REQUEST = "CATEGORY_REQUEST";
+    public static final String BULK_JOB = "BULK_JOB";
+
+    private final AdminAuditWriter writer;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * State maps are serialized later on the writer thread; pass fresh maps (see {@link #state}),
+     * never live entities.
+     */
+    public void record(Long actorId, AuditAction action, String targetType, Long targetId,
+                       Map<String, Object> before, Map<String, Object> after) {
+        AdminAuditWriter.Entry entry = new AdminAuditWriter.Entry(
+                LocalDateTime.now(), actorId, action, targetType, targetId, before, after);
+        afterCommit(() -> writer.append(entry));
+    }
+
+    /**
+     * One entry per target with the same states, for set-based changes such as a bulk job's
+     * chunk. The entries reach the writer together once the surrounding transaction commits.
+     */
+    public void recordAll(Long actorId, AuditAction action, String targetType, Collection<Long> targetIds,
+                          Map<String, Object> before, Map<String, Object> after) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<AdminAuditWriter.Entry> entries = new ArrayList<>(targetIds.size());
+        for (Long targetId : targetIds) {
+            entries.add(new AdminAuditWriter.Entry(now, actorId, action, targetType, targetId, before, after));
+        }
+        afterCommit(() -> writer.appendAll(entries));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /** Builds a state map from key/value pairs; unlike Map.of it allows null values. */
+    public static Map<String, Object> state(Object... keysAndValues) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+            state.put(String.valueOf(keysAndValues[i]), keysAndValues[i + 1]);
+        }
+        return state;
+    }
+
+    /**
+     * Newest first, keyset paged on id: pass the previous page's nextCursor to continue.
+     * Filters are optional; targetId narrows targetType.
+     */
+    public AdminAuditPageDto find(String targetType, Long targetId, Long actorId, Long cursor, int size) {
+        int limit = Math.max(1, Math.min(size, 200));
+        StringBuilder sql = new StringBuilder("SELECT id, created_at, actor_id, action, target_type, target_id, "
+                + "before_state, after_state FROM " + AdminAuditWriter.TABLE + " WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (targetType != null && !targetType.isBlank()) {
+            sql.append(" AND target_type = ?");
+            args.add(targetType.trim().toUpperCase());
+            if (targetId != null) {
+                sql.append(" AND target_id = ?");
+                args.add(targetId);
+            }
+        }
+        if (actorId != null) {
+            sql.append(" AND actor_id = ?");
+            args.add(actorId);
+        }
+        if (cursor != null) {
+            sql.append(" AND id < ?");
+            args.add(cursor);
+        }
+        sql.append(" ORDER BY id DESC LIMIT ?");
+        args.add(limit + 1);
+
+        List<AdminAuditEntryDto> entries = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapEntry(rs), args.toArray());
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        return AdminAuditPageDto.builder()
+                .entries(entries)
+                .nextCursor(hasMore ? entries.get(entries.size() - 1).getId() : null)
+                .build();
+    }
+
+    private AdminAuditEntryDto mapEntry(ResultSet rs) throws SQLException {
+        long actorId = rs.getLong("actor_id");
+        boolean actorNull = rs.wasNull();
+        long targetId = rs.getLong("target_id");
+        boolean targetNull = rs.wasNull();
+        return AdminAuditEntryDto.builder()
+                .id(rs.getLong("id"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .actorId(actorNull ? null : actorId)
+                .action(AuditAction.valueOf(rs.getString("action")))
+                .targetType(rs.getString("target_type"))
+                .targetId(targetNull ? null : targetId)
+                .before(readJson(rs.getString("before_state")))
+                .after(readJson(rs.getString("after_state")))
+                .build();
+    }
+
+    private JsonNode readJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return objectMapper.getNodeFactory().textNode(json);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AuditAction;
+import com.marketplace.StoneRidgeMarketplace.util.MpscRingBuffer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the admin_audit_log table from a single writer thread. Producers hand entries over
+ * through a {@link MpscRingBuffer}; the writer drains it and inserts in JDBC batches, so an
+ * admin request pays for one CAS, not an INSERT. When the buffer is full the entry is written
+ * synchronously on the caller's thread rather than dropped.
+ * <p>
+ * The table is append-only and keyed (id, created_at), range-partitioned by month, so inserts
+ * always hit a small current partition and old months can be detached or dropped without
+ * touching the rest. Migration V12 creates it with its indexes and a DEFAULT partition as a
+ * safety net; this class only creates the monthly partitions ahead of time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdminAuditWriter {
+
+    public record Entry(LocalDateTime createdAt, Long actorId, AuditAction action, String targetType,
+                        Long targetId, Map<String, Object> before, Map<String, Object> after) {
+    }
+
+    static final String TABLE = "admin_audit_log";
+
+    private static final String INSERT = "INSERT INTO " + TABLE
+            + " (created_at, actor_id, action, target_type, target_id, before_state, after_state) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.audit.buffer-capacity:8192}")
+    private int bufferCapacity;
+
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    private MpscRingBuffer<Entry> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+    private boolean partitioned;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writtenInline = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        partitioned = "PostgreSQL".equalsIgnoreCase(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()));
+        ensurePartitions();
+        buffer = new MpscRingBuffer<>(Integer.highestOneBit(Math.max(2, bufferCapacity - 1)) << 1);
+        running = true;
+        writerThread = new Thread(this::runWriter, "admin-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        Gauge.builder("marketplace.audit.buffer.depth", buffer, MpscRingBuffer::size)
+                .description("Admin audit entries waiting for the writer")
+                .register(meterRegistry);
+        FunctionCounter.builder("marketplace.audit.entries", written, AtomicLong::get).tag("outcome", "written").register(meterRegistry);
+        FunctionCounter.builder("marketplace.audit.entries", failed, AtomicLong::get).tag("outcome", "failed").register(meterRegistry);
+        log.info("Admin audit log ready: {}table, buffer {}", partitioned ? "month-partitioned " : "", buffer.capacity());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        log.info("Admin audit writer stopped: {} written ({} inline), {} failed", written.get(), writtenInline.get(), failed.get());
+    }
+
+    public void append(Entry entry) {
+        if (!buffer.offer(entry)) {
+            // Back-pressure: a full buffer means the database is behind; keep the entry
+            writtenInline.incrementAndGet();
+            write(List.of(entry));
+        }
+    }
+
+    /** Many entries at once, e.g. a bulk job's chunk; whatever the buffer cannot take is written inline in one batch. */
+    public void appendAll(List<Entry> entries) {
+        List<Entry> overflow = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (!buffer.offer(entry)) {
+                overflow.add(entry);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            writtenInline.addAndGet(overflow.size());
+            write(overflow);
+        }
+    }
+
+    private void runWriter() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            buffer.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Entry> entries) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(entry.createdAt()));
+                if (entry.actorId() != null) {
+                    ps.setLong(2, entry.actorId());
+                } else {
+                    ps.setNull(2, Types.BIGINT);
+                }
+                ps.setString(3, entry.action().name());
+                ps.setString(4, entry.targetType());
+                if (entry.targetId() != null) {
+                    ps.setLong(5, entry.targetId());
+                } else {
+                    ps.setNull(5, Types.BIGINT);
+                }
+                ps.setString(6, toJson(entry.before()));
+                ps.setString(7, toJson(entry.after()));
+            });
+            written.addAndGet(entries.size());
+        } catch (RuntimeException e) {
+            failed.addAndGet(entries.size());
+            log.error("Failed to write {} admin audit entries", entries.size(), e);
+        }
+    }
+
+    private String toJson(Map<String, Object> state) {
+        if (state == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(state);
+        }
+    }
+
+    // ---------- Partitions ----------
+
+    /**
+     * Keeps the current month and the next few partitions in place, so inserts never
+     * land in the DEFAULT partition.
+     */
+    @Scheduled(cron = "0 15 3 * * *")
+    public void ensurePartitions() {
+        if (!partitioned) {
+            return;
+        }
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= partitionsAhead; i++) {
+            LocalDate from = month.plusMonths(i);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + "_p" + from.format(PARTITION_SUFFIX)
+                        + " PARTITION OF " + TABLE + " FOR VALUES FROM ('" + from + "') TO ('" + from.plusMonths(1) + "')");
+            } catch (RuntimeException e) {
+                log.warn("Could not create audit partition for {}: {}", from, e.getMessage());
+            }
+        }
+    }
+}
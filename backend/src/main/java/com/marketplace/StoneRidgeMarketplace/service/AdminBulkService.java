@@ -0,0 +1,368 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.marketplace.StoneRidgeMarketplace.dto.request.AdminBulkProductRequest;
+import com.marketplace.StoneRidgeMarketplace.dto.request.AdminBulkUserRequest;
+import com.marketplace.StoneRidgeMarketplace.dto.response.AdminBulkJobDto;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AuditAction;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.BulkJobStatus;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.BulkProductAction;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.BulkUserAction;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductStatus;
+import com.marketplace.StoneRidgeMarketplace.exception.ResourceNotFoundException;
+import com.marketplace.StoneRidgeMarketplace.exception.ServiceBusyException;
+import com.marketplace.StoneRidgeMarketplace.monitoring.Span;
+import com.marketplace.StoneRidgeMarketplace.repository.*;
+import com.marketplace.StoneRidgeMarketplace.security.PrincipalCache;
+import com.marketplace.StoneRidgeMarketplace.websocket.ChatWebSocketHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bulk moderation (suspend/lock/delete users, deactivate/delete products) run as background
+ * jobs. Target ids are resolved once, then processed in chunks: each chunk is one
+ * transaction of set-based UPDATE/DELETE statements (including the chat, offer and image
+ * cascade), so a spam wave of thousands of rows costs a few dozen statements instead of
+ * thousands of load-modify-save round trips. Caches, sessions and files are cleaned up, and
+ * each target's audit entry written, after its chunk commits; dashboard counters are
+ * reconciled once at the end.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminBulkService {
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final ProductImageRepository productImageRepository;
+    private final ChatRepository chatRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final NegotiationRepository negotiationRepository;
+    private final TrustedDeviceRepository trustedDeviceRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryRequestRepository categoryRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PrincipalCache principalCache;
+    private final TrustedDeviceCache trustedDeviceCache;
+    private final UserSearchIndex userSearchIndex;
+    private final AdminMetricsRegistry metricsRegistry;
+    private final FileStorageService fileStorageService;
+    private final ChatWebSocketHandler chatWebSocketHandler;
+    private final AdminAuditLog auditLog;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.admin.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.admin.bulk.threads:1}")
+    private int threads;
+
+    @Value("${app.admin.bulk.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${app.admin.bulk.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private ThreadPoolExecutor executor;
+    private Cache<String, BulkJob> jobs;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "admin-bulk-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "admin-bulk", List.of()).bindTo(meterRegistry);
+        jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(jobRetentionMinutes))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public AdminBulkJobDto submitUserJob(AdminBulkUserRequest request, Long adminId) {
+        List<Long> ids = request.getUserIds();
+        String search = request.getSearch() != null ? request.getSearch().trim() : null;
+        if ((ids == null || ids.isEmpty()) == (search == null || search.isEmpty())) {
+            throw new IllegalArgumentException("Provide either userIds or a search filter");
+        }
+        BulkUserAction action = request.getAction();
+        Supplier<List<Long>> resolver = ids != null && !ids.isEmpty()
+                ? () -> existing(ids, userRepository::findExistingIds)
+                : () -> userRepository.findIdsBySearch(search);
+        AdminBulkJobDto job = submit("USERS", action.name(), adminId, resolver, (bulkJob, chunk) -> applyUserAction(bulkJob, action, chunk));
+        auditLog.record(adminId, AuditAction.BULK_JOB_SUBMITTED, AdminAuditLog.BULK_JOB, null, null,
+                AdminAuditLog.state("jobId", job.getId(), "target", "USERS", "action", action,
+                        "userIdCount", ids != null ? ids.size() : null, "search", search));
+        return job;
+    }
+
+    public AdminBulkJobDto submitProductJob(AdminBulkProductRequest request, Long adminId) {
+        List<Long> ids = request.getProductIds();
+        boolean hasFilter = request.getSellerId() != null || request.getStatus() != null || request.getCategoryId() != null;
+        if ((ids == null || ids.isEmpty()) == !hasFilter) {
+            throw new IllegalArgumentException("Provide either productIds or at least one filter (sellerId, status, categoryId)");
+        }
+        BulkProductAction action = request.getAction();
+        Supplier<List<Long>> resolver = ids != null && !ids.isEmpty()
+                ? () -> existing(ids, productRepository::findExistingIds)
+                : () -> productRepository.findIdsForBulk(request.getSellerId(), request.getStatus(), request.getCategoryId());
+        AdminBulkJobDto job = submit("PRODUCTS", action.name(), adminId, resolver, (bulkJob, chunk) -> applyProductAction(bulkJob, action, chunk));
+        auditLog.record(adminId, AuditAction.BULK_JOB_SUBMITTED, AdminAuditLog.BULK_JOB, null, null,
+                AdminAuditLog.state("jobId", job.getId(), "target", "PRODUCTS", "action", action, "productIdCount", ids != null ? ids.size() : null,
+                        "sellerId", request.getSellerId(), "status", request.getStatus(), "categoryId", request.getCategoryId()));
+        return job;
+    }
+
+    public AdminBulkJobDto getJob(String jobId) {
+        BulkJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Bulk job not found");
+        }
+        return job.toDto();
+    }
+
+    public List<AdminBulkJobDto> getRecentJobs() {
+        return jobs.asMap().values().stream()
+                .sorted(Comparator.comparing((BulkJob job) -> job.createdAt).reversed())
+                .map(BulkJob::toDto)
+                .toList();
+    }
+
+    // ---------- Job execution ----------
+
+    private AdminBulkJobDto submit(String target, String action, Long adminId,
+                                   Supplier<List<Long>> resolver, ChunkAction chunkAction) {
+        BulkJob job = new BulkJob(UUID.randomUUID().toString(), target, action, adminId);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(Span.wrap("admin-bulk", () -> run(job, resolver, chunkAction)));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            throw new ServiceBusyException("Too many bulk jobs queued, please try again shortly");
+        }
+        log.info("Bulk job {} queued: {} {} by admin {}", job.id, action, target, adminId);
+        return job.toDto();
+    }
+
+    private void run(BulkJob job, Supplier<List<Long>> resolver, ChunkAction chunkAction) {
+        long start = System.nanoTime();
+        job.startedAt = LocalDateTime.now();
+        job.status = BulkJobStatus.RUNNING;
+        try {
+            List<Long> ids = resolver.get();
+            job.total = ids.size();
+            for (List<Long> chunk : chunks(ids)) {
+                Integer affected = transactionTemplate.execute(status -> chunkAction.apply(job, chunk));
+                job.processed.addAndGet(chunk.size());
+                job.affected.addAndGet(affected != null ? affected : 0);
+                jobs.put(job.id, job); // keeps long-running jobs from expiring
+            }
+            job.status = BulkJobStatus.COMPLETED;
+        } catch (RuntimeException e) {
+            // Chunks already committed stay committed; progress shows how far the job got
+            job.status = BulkJobStatus.FAILED;
+            job.error = e.getMessage();
+            log.error("Bulk job {} failed after {} of {} rows", job.id, job.processed.get(), job.total, e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            jobs.put(job.id, job);
+            metricsRegistry.reconcile();
+        }
+        log.info("Bulk job {} {}: {} {} on {} rows ({} changed) in {} ms", job.id, job.status, job.action,
+                job.target, job.processed.get(), job.affected.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int applyUserAction(BulkJob job, BulkUserAction action, List<Long> userIds) {
+        List<String> usernames = userRepository.findUsernamesByIdIn(userIds);
+        LocalDateTime now = LocalDateTime.now();
+        int affected = switch (action) {
+            case SUSPEND -> userRepository.updateEnabledByIdIn(userIds, false, now);
+            case UNSUSPEND -> userRepository.updateEnabledByIdIn(userIds, true, now);
+            case LOCK -> userRepository.lockByIdIn(userIds, now);
+            case UNLOCK -> userRepository.unlockByIdIn(userIds, now);
+            case DELETE -> deleteUsers(job, userIds);
+        };
+        switch (action) {
+            case SUSPEND -> audit(job, AuditAction.USER_SUSPENDED, AdminAuditLog.USER, userIds, "enabled", false);
+            case UNSUSPEND -> audit(job, AuditAction.USER_UNSUSPENDED, AdminAuditLog.USER, userIds, "enabled", true);
+            case LOCK -> audit(job, AuditAction.USER_LOCKED, AdminAuditLog.USER, userIds, "accountNonLocked", false);
+            case UNLOCK -> audit(job, AuditAction.USER_UNLOCKED, AdminAuditLog.USER, userIds,
+                    "accountNonLocked", true, "failedLoginAttempts", 0, "lockTime", null);
+            case DELETE -> audit(job, AuditAction.USER_DELETED, AdminAuditLog.USER, userIds);
+        }
+        usernames.forEach(principalCache::invalidateUser);
+        if (action == BulkUserAction.SUSPEND || action == BulkUserAction.LOCK || action == BulkUserAction.DELETE) {
+            afterCommit(() -> userIds.forEach(chatWebSocketHandler::closeUserSession));
+        }
+        return affected;
+    }
+
+    private int applyProductAction(BulkJob job, BulkProductAction action, List<Long> productIds) {
+        return switch (action) {
+            case DEACTIVATE -> {
+                int deactivated = productRepository.updateStatusByIdIn(productIds, ProductStatus.INACTIVE, LocalDateTime.now());
+                audit(job, AuditAction.PRODUCT_DEACTIVATED, AdminAuditLog.PRODUCT, productIds, "status", ProductStatus.INACTIVE);
+                yield deactivated;
+            }
+            case DELETE -> deleteProducts(job, productIds);
+        };
+    }
+
+    /**
+     * One entry per target of the chunk, written once the chunk commits. The jobId ties them
+     * to the job's BULK_JOB_SUBMITTED entry; there is no per-row before state, since the
+     * statements are set-based.
+     */
+    private void audit(BulkJob job, AuditAction action, String targetType, List<Long> ids, Object... after) {
+        Object[] state = new Object[after.length + 2];
+        state[0] = "jobId";
+        state[1] = job.id;
+        System.arraycopy(after, 0, state, 2, after.length);
+        auditLog.recordAll(job.adminId, action, targetType, ids, null, AdminAuditLog.state(state));
+    }
+
+    /**
+     * Children first: offers and messages of the users' chats, the chats, their listings
+     * (with those listings' own cascade), devices and category requests, then the users.
+     */
+    private int deleteUsers(BulkJob job, List<Long> userIds) {
+        for (List<Long> productIds : chunks(productRepository.findIdsBySellerIdIn(userIds))) {
+            deleteProducts(job, productIds);
+        }
+        productRepository.clearBuyerByBuyerIdIn(userIds);
+        negotiationRepository.deleteByChatParticipantIdIn(userIds);
+        negotiationRepository.deleteByOfferedByIdIn(userIds);
+        chatMessageRepository.deleteByChatParticipantIdIn(userIds);
+        chatMessageRepository.deleteBySenderIdIn(userIds);
+        chatRepository.deleteByParticipantIdIn(userIds);
+        trustedDeviceRepository.deleteByUserIdIn(userIds);
+        categoryRequestRepository.deleteByRequestedByIdIn(userIds);
+        categoryRequestRepository.clearReviewedByIdIn(userIds);
+        categoryRepository.clearCreatedByIdIn(userIds);
+        categoryRepository.clearApprovedByIdIn(userIds);
+        int deleted = userRepository.deleteByIdIn(userIds);
+        userIds.forEach(userId -> {
+            userSearchIndex.remove(userId);
+            trustedDeviceCache.invalidateUser(userId);
+        });
+        return deleted;
+    }
+
+    private int deleteProducts(BulkJob job, List<Long> productIds) {
+        List<String> imageUrls = productImageRepository.findImageUrlsByProductIdIn(productIds);
+        negotiationRepository.deleteByProductIdIn(productIds);
+        chatMessageRepository.deleteByProductIdIn(productIds);
+        chatRepository.deleteByProductIdIn(productIds);
+        productImageRepository.deleteByProductIdIn(productIds);
+        int deleted = productRepository.deleteByIdIn(productIds);
+        audit(job, AuditAction.PRODUCT_DELETED, AdminAuditLog.PRODUCT, productIds);
+        // Shared blobs stay while other listings use them; the rest go once this chunk commits
+        fileStorageService.releaseUrls(imageUrls);
+        return deleted;
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += chunkSize) {
+            chunks.add(List.copyOf(ids.subList(i, Math.min(i + chunkSize, ids.size()))));
+        }
+        return chunks;
+    }
+
+    /** Drop duplicates and ids that do not exist, looking them up a chunk at a time. */
+    private List<Long> existing(List<Long> ids, Function<Collection<Long>, List<Long>> lookup) {
+        List<Long> result = new ArrayList<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(new TreeSet<>(ids)))) {
+            result.addAll(lookup.apply(chunk));
+        }
+        return result;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkAction {
+        int apply(BulkJob job, List<Long> ids);
+    }
+
+    private static final class BulkJob {
+        private final String id;
+        private final String target;
+        private final String action;
+        private final Long adminId;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger affected = new AtomicInteger();
+        private volatile BulkJobStatus status = BulkJobStatus.QUEUED;
+        private volatile int total;
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        private BulkJob(String id, String target, String action, Long adminId) {
+            this.id = id;
+            this.target = target;
+            this.action = action;
+            this.adminId = adminId;
+        }
+
+        private AdminBulkJobDto toDto() {
+            return AdminBulkJobDto.builder()
+                    .id(id)
+                    .target(target)
+                    .action(action)
+                    .status(status)
+                    .total(total)
+                    .processed(processed.get())
+                    .affected(affected.get())
+                    .error(error)
+                    .requestedByAdminId(adminId)
+                    .createdAt(createdAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.dto.response.AdminDashboardDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Server-sent event stream of dashboard counters for the admin portal. Changes are
+ * coalesced: at most one "dashboard" event per push interval, carrying the full
+ * snapshot, plus a comment heartbeat so idle connections survive proxies.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdminDashboardStream {
+
+    private final AdminMetricsRegistry metricsRegistry;
+
+    @Value("${app.admin.dashboard.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private long lastPushedVersion = -1;
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        // Initial state so the client does not need a separate GET
+        if (!send(emitter, metricsRegistry.snapshot())) {
+            emitters.remove(emitter);
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.admin.dashboard.push-interval-ms:1000}")
+    public void pushChanges() {
+        long version = metricsRegistry.getVersion();
+        if (version == lastPushedVersion || emitters.isEmpty()) {
+            lastPushedVersion = version;
+            return;
+        }
+        lastPushedVersion = version;
+        AdminDashboardDto snapshot = metricsRegistry.snapshot();
+        emitters.removeIf(emitter -> !send(emitter, snapshot));
+    }
+
+    @Scheduled(fixedDelay = 25000)
+    public void heartbeat() {
+        emitters.removeIf(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+                return false;
+            } catch (IOException | IllegalStateException e) {
+                return true;
+            }
+        });
+    }
+
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    private boolean send(SseEmitter emitter, AdminDashboardDto snapshot) {
+        try {
+            emitter.send(SseEmitter.event().name("dashboard").data(snapshot));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping dashboard stream subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+}
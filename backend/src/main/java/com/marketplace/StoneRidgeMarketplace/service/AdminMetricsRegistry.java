@@ -0,0 +1,143 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.dto.response.AdminDashboardDto;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.CategoryStatus;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductStatus;
+import com.marketplace.StoneRidgeMarketplace.repository.CategoryRepository;
+import com.marketplace.StoneRidgeMarketplace.repository.CategoryRequestRepository;
+import com.marketplace.StoneRidgeMarketplace.repository.ProductRepository;
+import com.marketplace.StoneRidgeMarketplace.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory dashboard counters. Seeded from the database at startup, adjusted by the
+ * user, product and category write paths after their transaction commits, and
+ * periodically reconciled against COUNT queries to correct drift (rollbacks that raced a
+ * reconcile, writes from other nodes, direct SQL).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdminMetricsRegistry {
+
+    public enum Counter {
+        TOTAL_USERS,
+        TOTAL_PRODUCTS,
+        ACTIVE_PRODUCTS,
+        ACTIVE_CATEGORIES,
+        PENDING_CATEGORY_REQUESTS
+    }
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryRequestRepository categoryRequestRepository;
+
+    private final Map<Counter, AtomicLong> counters = new EnumMap<>(Counter.class);
+    /** Bumped on every change so the SSE stream can tell whether to push. */
+    private final AtomicLong version = new AtomicLong();
+
+    {
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new AtomicLong());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+        log.info("Admin dashboard counters seeded: {}", snapshot());
+    }
+
+    @Scheduled(initialDelayString = "${app.admin.dashboard.reconcile-ms:300000}",
+            fixedDelayString = "${app.admin.dashboard.reconcile-ms:300000}")
+    public void reconcile() {
+        set(Counter.TOTAL_USERS, userRepository.count());
+        set(Counter.TOTAL_PRODUCTS, productRepository.count());
+        set(Counter.ACTIVE_PRODUCTS, productRepository.countByStatus(ProductStatus.ACTIVE));
+        set(Counter.ACTIVE_CATEGORIES, categoryRepository.countByActiveTrue());
+        set(Counter.PENDING_CATEGORY_REQUESTS, categoryRequestRepository.countByStatus(CategoryStatus.PENDING));
+    }
+
+    /**
+     * Apply a delta once the surrounding transaction commits (immediately outside one).
+     */
+    public void adjust(Counter counter, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(counter, delta);
+                }
+            });
+        } else {
+            apply(counter, delta);
+        }
+    }
+
+    public void productCreated(ProductStatus status) {
+        adjust(Counter.TOTAL_PRODUCTS, 1);
+        productStatusChanged(null, status);
+    }
+
+    public void productDeleted(ProductStatus status) {
+        adjust(Counter.TOTAL_PRODUCTS, -1);
+        productStatusChanged(status, null);
+    }
+
+    public void productStatusChanged(ProductStatus from, ProductStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (from == ProductStatus.ACTIVE) {
+            adjust(Counter.ACTIVE_PRODUCTS, -1);
+        } else if (to == ProductStatus.ACTIVE) {
+            adjust(Counter.ACTIVE_PRODUCTS, 1);
+        }
+    }
+
+    public long get(Counter counter) {
+        return counters.get(counter).get();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public AdminDashboardDto snapshot() {
+        return AdminDashboardDto.builder()
+                .totalUsers(get(Counter.TOTAL_USERS))
+                .totalProducts(get(Counter.TOTAL_PRODUCTS))
+                .activeProducts(get(Counter.ACTIVE_PRODUCTS))
+                .totalCategories(get(Counter.ACTIVE_CATEGORIES))
+                .pendingCategoryRequests(get(Counter.PENDING_CATEGORY_REQUESTS))
+                .build();
+    }
+
+    private void apply(Counter counter, long delta) {
+        counters.get(counter).addAndGet(delta);
+        version.incrementAndGet();
+    }
+
+    private void set(Counter counter, long value) {
+        long previous = counters.get(counter).getAndSet(value);
+        if (previous != value) {
+            version.incrementAndGet();
+            log.debug("Dashboard counter {} reconciled: {} -> {}", counter, previous, value);
+        }
+    }
+}
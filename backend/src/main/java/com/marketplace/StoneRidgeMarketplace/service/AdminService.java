@@ -2,21 +2,26 @@ package com.marketplace.StoneRidgeMarketplace.service;
 
 import com.marketplace.StoneRidgeMarketplace.dto.response.AdminDashboardDto;
 import com.marketplace.StoneRidgeMarketplace.dto.response.AdminUserDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.AdminUserSearchDto;
 import com.marketplace.StoneRidgeMarketplace.entity.User;
-import com.marketplace.StoneRidgeMarketplace.entity.enums.CategoryStatus;
-import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductStatus;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AuditAction;
 import com.marketplace.StoneRidgeMarketplace.exception.ResourceNotFoundException;
-import com.marketplace.StoneRidgeMarketplace.repository.CategoryRepository;
-import com.marketplace.StoneRidgeMarketplace.repository.CategoryRequestRepository;
-import com.marketplace.StoneRidgeMarketplace.repository.ProductRepository;
 import com.marketplace.StoneRidgeMarketplace.repository.UserRepository;
+import com.marketplace.StoneRidgeMarketplace.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -24,24 +29,17 @@ import org.springframework.transaction.annotation.Transactional;
 public class AdminService {
 
     private final UserRepository userRepository;
-    private final ProductRepository productRepository;
-    private final CategoryRepository categoryRepository;
-    private final CategoryRequestRepository categoryRequestRepository;
+    private final PrincipalCache principalCache;
+    private final AdminMetricsRegistry metricsRegistry;
+    private final UserSearchIndex userSearchIndex;
+    private final AdminAuditLog auditLog;
 
+    /**
+     * Served from the in-memory counters (no database access); see {@link AdminMetricsRegistry}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AdminDashboardDto getDashboardStats() {
-        long totalUsers = userRepository.count();
-        long totalProducts = productRepository.count();
-        long activeProducts = productRepository.countByStatus(ProductStatus.ACTIVE);
-        long totalCategories = categoryRepository.countByActiveTrue();
-        long pendingCategoryRequests = categoryRequestRepository.countByStatus(CategoryStatus.PENDING);
-
-        return AdminDashboardDto.builder()
-                .totalUsers(totalUsers)
-                .totalProducts(totalProducts)
-                .activeProducts(activeProducts)
-                .totalCategories(totalCategories)
-                .pendingCategoryRequests(pendingCategoryRequests)
-                .build();
+        return metricsRegistry.snapshot();
     }
 
     public Page<AdminUserDto> getUsers(String search, Pageable pageable) {
@@ -52,37 +50,84 @@ public class AdminService {
         return users.map(this::mapToAdminUserDto);
     }
 
+    /**
+     * Fuzzy search ranked by trigram similarity, paged by an opaque "score:id" cursor
+     * (no OFFSET, no count query).
+     */
+    @Transactional(readOnly = true)
+    public AdminUserSearchDto searchUsers(String query, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, 100));
+        // One extra hit tells us whether there is a next page
+        List<UserSearchIndex.Hit> hits = userSearchIndex.search(query, UserSearchIndex.Cursor.parse(cursor), limit + 1);
+        boolean hasMore = hits.size() > limit;
+        if (hasMore) {
+            hits = hits.subList(0, limit);
+        }
+
+        Map<Long, User> byId = userRepository.findAllById(hits.stream().map(UserSearchIndex.Hit::userId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<AdminUserDto> users = hits.stream()
+                .map(hit -> byId.get(hit.userId()))
+                .filter(Objects::nonNull)
+                .map(this::mapToAdminUserDto)
+                .collect(Collectors.toList());
+
+        return AdminUserSearchDto.builder()
+                .users(users)
+                .nextCursor(hasMore ? UserSearchIndex.Cursor.format(hits.get(hits.size() - 1)) : null)
+                .mode(userSearchIndex.getMode())
+                .build();
+    }
+
     public void suspendUser(Long userId, Long adminId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        boolean wasEnabled = user.isEnabled();
         user.setEnabled(false);
         userRepository.save(user);
+        principalCache.invalidateUser(user.getUsername());
+        auditLog.record(adminId, AuditAction.USER_SUSPENDED, AdminAuditLog.USER, userId,
+                AdminAuditLog.state("enabled", wasEnabled), AdminAuditLog.state("enabled", false));
         log.info("User {} suspended by admin {}", user.getUsername(), adminId);
     }
 
     public void unsuspendUser(Long userId, Long adminId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        boolean wasEnabled = user.isEnabled();
         user.setEnabled(true);
         userRepository.save(user);
+        principalCache.invalidateUser(user.getUsername());
+        auditLog.record(adminId, AuditAction.USER_UNSUSPENDED, AdminAuditLog.USER, userId,
+                AdminAuditLog.state("enabled", wasEnabled), AdminAuditLog.state("enabled", true));
         log.info("User {} unsuspended by admin {}", user.getUsername(), adminId);
     }
 
     public void lockUser(Long userId, Long adminId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        boolean wasNonLocked = user.isAccountNonLocked();
         user.setAccountNonLocked(false);
         userRepository.save(user);
+        principalCache.invalidateUser(user.getUsername());
+        auditLog.record(adminId, AuditAction.USER_LOCKED, AdminAuditLog.USER, userId,
+                AdminAuditLog.state("accountNonLocked", wasNonLocked), AdminAuditLog.state("accountNonLocked", false));
         log.info("User {} locked by admin {}", user.getUsername(), adminId);
     }
 
     public void unlockUser(Long userId, Long adminId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        Map<String, Object> before = AdminAuditLog.state("accountNonLocked", user.isAccountNonLocked(),
+                "failedLoginAttempts", user.getFailedLoginAttempts(), "lockTime", user.getLockTime());
         user.setAccountNonLocked(true);
         user.setFailedLoginAttempts(0);
         user.setLockTime(null);
         userRepository.save(user);
+        principalCache.invalidateUser(user.getUsername());
+        auditLog.record(adminId, AuditAction.USER_UNLOCKED, AdminAuditLog.USER, userId, before,
+                AdminAuditLog.state("accountNonLocked", true, "failedLoginAttempts", 0, "lockTime", null));
         log.info("User {} unlocked by admin {}", user.getUsername(), adminId);
     }
 
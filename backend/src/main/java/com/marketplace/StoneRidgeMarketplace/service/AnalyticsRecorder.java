@@ -0,0 +1,137 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.entity.AnalyticsHourlyRollup;
+import com.marketplace.StoneRidgeMarketplace.entity.Product;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
+import com.marketplace.StoneRidgeMarketplace.repository.AnalyticsHourlyRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Folds analytics events into in-memory hourly counters and periodically adds them to
+ * analytics_hourly. Events are counted only if the recording transaction commits.
+ * Charts therefore lag by at most one flush interval.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsRecorder {
+
+    /** Hour bucket plus dimensions; category 0 and building "" mean "none". */
+    public record RollupKey(LocalDateTime bucketStart, AnalyticsMetric metric, long categoryId, String building) {
+    }
+
+    /** Matches the building column length of the rollup tables. */
+    private static final int MAX_BUILDING_LENGTH = 100;
+
+    private final AnalyticsHourlyRollupRepository hourlyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<RollupKey, Long> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Record a product-scoped event (listing, sale, chat, offer), dimensioned by the
+     * product's category and the seller's building.
+     */
+    public void record(AnalyticsMetric metric, Product product) {
+        record(metric,
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getSeller() != null ? product.getSeller().getBuildingName() : null);
+    }
+
+    public void record(AnalyticsMetric metric, Long categoryId, String building) {
+        RollupKey key = key(LocalDateTime.now(), metric, categoryId, building);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.merge(key, 1L, Long::sum);
+                }
+            });
+        } else {
+            pending.merge(key, 1L, Long::sum);
+        }
+    }
+
+    public static RollupKey key(LocalDateTime at, AnalyticsMetric metric, Long categoryId, String building) {
+        String normalizedBuilding = building != null ? building.trim() : "";
+        if (normalizedBuilding.length() > MAX_BUILDING_LENGTH) {
+            normalizedBuilding = normalizedBuilding.substring(0, MAX_BUILDING_LENGTH);
+        }
+        return new RollupKey(
+                at.truncatedTo(ChronoUnit.HOURS),
+                metric,
+                categoryId != null ? categoryId : 0L,
+                normalizedBuilding);
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.flush-ms:60000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // remove() is atomic per key: an event merged after it starts a fresh entry
+        List<Map.Entry<RollupKey, Long>> batch = new ArrayList<>(pending.size());
+        for (RollupKey key : pending.keySet()) {
+            Long count = pending.remove(key);
+            if (count != null) {
+                batch.add(Map.entry(key, count));
+            }
+        }
+        int failed = 0;
+        for (Map.Entry<RollupKey, Long> entry : batch) {
+            try {
+                addToHourly(entry.getKey(), entry.getValue());
+            } catch (RuntimeException e) {
+                // Keep the counts for the next run
+                pending.merge(entry.getKey(), entry.getValue(), Long::sum);
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            log.warn("Analytics flush: {} of {} buckets failed and will be retried", failed, batch.size());
+        } else {
+            log.debug("Analytics flush: {} buckets written", batch.size());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void addToHourly(RollupKey key, long count) {
+        boolean updated = Boolean.TRUE.equals(transactionTemplate.execute(status -> hourlyRepository.increment(
+                key.bucketStart(), key.metric(), key.categoryId(), key.building(), count) == 1));
+        if (updated) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> hourlyRepository.save(AnalyticsHourlyRollup.builder()
+                    .bucketStart(key.bucketStart())
+                    .metric(key.metric())
+                    .categoryId(key.categoryId())
+                    .building(key.building())
+                    .count(count)
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the row first
+            transactionTemplate.executeWithoutResult(status -> hourlyRepository.increment(
+                    key.bucketStart(), key.metric(), key.categoryId(), key.building(), count));
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.dto.response.AnalyticsPointDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.AnalyticsResponseDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.AnalyticsSeriesDto;
+import com.marketplace.StoneRidgeMarketplace.entity.AnalyticsDailyRollup;
+import com.marketplace.StoneRidgeMarketplace.entity.AnalyticsHourlyRollup;
+import com.marketplace.StoneRidgeMarketplace.entity.Category;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
+import com.marketplace.StoneRidgeMarketplace.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Admin time-series analytics served from the rollup tables only: hourly rows for the
+ * recent window, daily rows beyond it. Hourly rows past the retention window are
+ * compacted into daily rows by {@link #compact()}; source tables are read only once,
+ * to backfill empty rollups on first start.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsService {
+
+    public enum Granularity { HOUR, DAY }
+
+    public enum GroupBy { NONE, CATEGORY, BUILDING }
+
+    private static final int DELETE_CHUNK = 1000;
+
+    private final AnalyticsHourlyRollupRepository hourlyRepository;
+    private final AnalyticsDailyRollupRepository dailyRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ChatRepository chatRepository;
+    private final NegotiationRepository negotiationRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.analytics.hourly-retention-days:14}")
+    private int hourlyRetentionDays;
+
+    @Value("${app.analytics.daily-retention-days:400}")
+    private int dailyRetentionDays;
+
+    @Value("${app.analytics.backfill-days:90}")
+    private int backfillDays;
+
+    @Value("${app.analytics.backfill-on-empty:true}")
+    private boolean backfillOnEmpty;
+
+    /** One rollup row, hourly or daily, with its bucket start. */
+    private record Row(LocalDateTime bucket, AnalyticsMetric metric, long categoryId, String building, long count) {
+    }
+
+    private record SeriesKey(AnalyticsMetric metric, String key) {
+    }
+
+    /**
+     * Chart data for [from, to] (inclusive days). Defaults: the last 90 days by day, or the
+     * last two days by hour. A null metric returns every metric.
+     */
+    @Transactional(readOnly = true)
+    public AnalyticsResponseDto getAnalytics(AnalyticsMetric metric, Granularity granularity, GroupBy groupBy,
+            LocalDate from, LocalDate to, Long categoryId, String building) {
+        Granularity gran = granularity != null ? granularity : Granularity.DAY;
+        GroupBy group = groupBy != null ? groupBy : GroupBy.NONE;
+        LocalDate today = LocalDate.now();
+        LocalDate end = to != null ? to : today;
+        LocalDate start = from != null ? from : (gran == Granularity.DAY ? end.minusDays(89) : end.minusDays(1));
+
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (gran == Granularity.HOUR && start.isBefore(today.minusDays(hourlyRetentionDays))) {
+            throw new IllegalArgumentException(
+                    String.format("Hourly data is kept for %d days; use DAY granularity", hourlyRetentionDays));
+        }
+        if (gran == Granularity.DAY && ChronoUnit.DAYS.between(start, end) >= dailyRetentionDays) {
+            throw new IllegalArgumentException(
+                    String.format("Range is limited to %d days", dailyRetentionDays));
+        }
+
+        String buildingFilter = building != null && !building.isBlank() ? building.trim() : null;
+        LocalDateTime rangeStart = start.atStartOfDay();
+        LocalDateTime rangeEnd = end.plusDays(1).atStartOfDay();
+        ChronoUnit unit = gran == Granularity.DAY ? ChronoUnit.DAYS : ChronoUnit.HOURS;
+
+        List<Row> rows = new ArrayList<>();
+        for (AnalyticsHourlyRollup r : hourlyRepository.findInRange(rangeStart, rangeEnd, metric, categoryId, buildingFilter)) {
+            rows.add(new Row(r.getBucketStart().truncatedTo(unit), r.getMetric(), r.getCategoryId(), r.getBuilding(), r.getCount()));
+        }
+        if (gran == Granularity.DAY) {
+            for (AnalyticsDailyRollup r : dailyRepository.findInRange(start, end, metric, categoryId, buildingFilter)) {
+                rows.add(new Row(r.getDay().atStartOfDay(), r.getMetric(), r.getCategoryId(), r.getBuilding(), r.getCount()));
+            }
+        }
+
+        Function<Row, String> keyOf = switch (group) {
+            case NONE -> row -> null;
+            case CATEGORY -> row -> String.valueOf(row.categoryId());
+            case BUILDING -> Row::building;
+        };
+        Map<SeriesKey, Map<LocalDateTime, Long>> grouped = new LinkedHashMap<>();
+        for (Row row : rows) {
+            grouped.computeIfAbsent(new SeriesKey(row.metric(), keyOf.apply(row)), k -> new HashMap<>())
+                    .merge(row.bucket(), row.count(), Long::sum);
+        }
+        // Ungrouped charts show every requested metric even when it has no events yet
+        if (group == GroupBy.NONE) {
+            for (AnalyticsMetric m : metric != null ? List.of(metric) : List.of(AnalyticsMetric.values())) {
+                grouped.computeIfAbsent(new SeriesKey(m, null), k -> new HashMap<>());
+            }
+        }
+
+        Map<String, String> labels = labels(group, grouped.keySet());
+        List<AnalyticsSeriesDto> series = grouped.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<SeriesKey, Map<LocalDateTime, Long>> e) -> e.getKey().metric())
+                        .thenComparing(e -> Objects.toString(e.getKey().key(), "")))
+                .map(e -> toSeries(e.getKey(), e.getValue(), labels, rangeStart, rangeEnd, unit))
+                .collect(Collectors.toList());
+
+        return AnalyticsResponseDto.builder()
+                .granularity(gran.name())
+                .groupBy(group.name())
+                .from(start)
+                .to(end)
+                .series(series)
+                .build();
+    }
+
+    private AnalyticsSeriesDto toSeries(SeriesKey key, Map<LocalDateTime, Long> counts, Map<String, String> labels,
+            LocalDateTime rangeStart, LocalDateTime rangeEnd, ChronoUnit unit) {
+        // Dense series: every bucket in range, zero-filled
+        List<AnalyticsPointDto> points = new ArrayList<>();
+        long total = 0;
+        for (LocalDateTime bucket = rangeStart; bucket.isBefore(rangeEnd); bucket = bucket.plus(1, unit)) {
+            long count = counts.getOrDefault(bucket, 0L);
+            total += count;
+            points.add(AnalyticsPointDto.builder().bucket(bucket).count(count).build());
+        }
+        return AnalyticsSeriesDto.builder()
+                .metric(key.metric())
+                .key(key.key())
+                .label(key.key() == null ? "All" : labels.getOrDefault(key.key(), key.key()))
+                .total(total)
+                .points(points)
+                .build();
+    }
+
+    private Map<String, String> labels(GroupBy group, Set<SeriesKey> keys) {
+        Map<String, String> labels = new HashMap<>();
+        if (group == GroupBy.CATEGORY) {
+            Set<Long> ids = keys.stream().map(k -> Long.valueOf(k.key())).filter(id -> id != 0).collect(Collectors.toSet());
+            for (Category category : categoryRepository.findAllById(ids)) {
+                labels.put(String.valueOf(category.getId()), category.getName());
+            }
+            labels.put("0", "Uncategorized");
+        } else if (group == GroupBy.BUILDING) {
+            labels.put("", "Unknown building");
+        }
+        return labels;
+    }
+
+    /**
+     * Fold hourly rows older than the hourly retention window into daily rows and purge
+     * daily rows past their retention. The hourly rows are deleted first and the deleted
+     * count checked, so two nodes compacting at once cannot both add the same rows.
+     */
+    @Scheduled(cron = "${app.analytics.compaction-cron:0 15 * * * *}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(hourlyRetentionDays).atStartOfDay();
+        Integer folded = transactionTemplate.execute(status -> {
+            List<AnalyticsHourlyRollup> hourly = hourlyRepository.findByBucketStartBefore(cutoff);
+            if (hourly.isEmpty()) {
+                return 0;
+            }
+            List<Long> ids = hourly.stream().map(AnalyticsHourlyRollup::getId).collect(Collectors.toList());
+            int deleted = 0;
+            for (int i = 0; i < ids.size(); i += DELETE_CHUNK) {
+                deleted += hourlyRepository.deleteByIds(ids.subList(i, Math.min(ids.size(), i + DELETE_CHUNK)));
+            }
+            if (deleted != ids.size()) {
+                throw new IllegalStateException("Hourly rollups changed during compaction; will retry");
+            }
+
+            Map<AnalyticsRecorder.RollupKey, Long> daily = new HashMap<>();
+            for (AnalyticsHourlyRollup r : hourly) {
+                daily.merge(new AnalyticsRecorder.RollupKey(r.getBucketStart().truncatedTo(ChronoUnit.DAYS),
+                        r.getMetric(), r.getCategoryId(), r.getBuilding()), r.getCount(), Long::sum);
+            }
+            daily.forEach(this::addToDaily);
+            return hourly.size();
+        });
+        Integer purged = transactionTemplate.execute(status ->
+                dailyRepository.deleteOlderThan(LocalDate.now().minusDays(dailyRetentionDays)));
+        if ((folded != null && folded > 0) || (purged != null && purged > 0)) {
+            log.info("Analytics compaction: {} hourly rows folded into daily, {} expired daily rows purged",
+                    folded, purged);
+        }
+    }
+
+    private void addToDaily(AnalyticsRecorder.RollupKey key, long count) {
+        LocalDate day = key.bucketStart().toLocalDate();
+        if (dailyRepository.increment(day, key.metric(), key.categoryId(), key.building(), count) == 0) {
+            dailyRepository.save(AnalyticsDailyRollup.builder()
+                    .day(day)
+                    .metric(key.metric())
+                    .categoryId(key.categoryId())
+                    .building(key.building())
+                    .count(count)
+                    .build());
+        }
+    }
+
+    /**
+     * First start with empty rollup tables: aggregate the last backfill-days of history
+     * from the source tables once, straight into hourly/daily rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnEmpty || hourlyRepository.count() > 0 || dailyRepository.count() > 0) {
+            return;
+        }
+        LocalDateTime since = LocalDate.now().minusDays(backfillDays).atStartOfDay();
+        Map<AnalyticsRecorder.RollupKey, Long> counts = new HashMap<>();
+        accumulate(counts, AnalyticsMetric.LISTINGS_CREATED, productRepository.findCreatedSinceForAnalytics(since));
+        accumulate(counts, AnalyticsMetric.ITEMS_SOLD, productRepository.findSoldSinceForAnalytics(since));
+        accumulate(counts, AnalyticsMetric.CHATS_STARTED, chatRepository.findCreatedSinceForAnalytics(since));
+        accumulate(counts, AnalyticsMetric.OFFERS_MADE, negotiationRepository.findCreatedSinceForAnalytics(since));
+        accumulate(counts, AnalyticsMetric.OFFERS_ACCEPTED, negotiationRepository.findAcceptedSinceForAnalytics(since));
+        for (Object[] row : userRepository.findCreatedSinceForAnalytics(since)) {
+            if (row[0] != null) {
+                counts.merge(AnalyticsRecorder.key((LocalDateTime) row[0], AnalyticsMetric.SIGNUPS, null, (String) row[1]),
+                        1L, Long::sum);
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDate.now().minusDays(hourlyRetentionDays).atStartOfDay();
+        List<AnalyticsHourlyRollup> hourly = new ArrayList<>();
+        Map<AnalyticsRecorder.RollupKey, Long> daily = new HashMap<>();
+        counts.forEach((key, count) -> {
+            if (key.bucketStart().isBefore(cutoff)) {
+                daily.merge(new AnalyticsRecorder.RollupKey(key.bucketStart().truncatedTo(ChronoUnit.DAYS),
+                        key.metric(), key.categoryId(), key.building()), count, Long::sum);
+            } else {
+                hourly.add(AnalyticsHourlyRollup.builder()
+                        .bucketStart(key.bucketStart())
+                        .metric(key.metric())
+                        .categoryId(key.categoryId())
+                        .building(key.building())
+                        .count(count)
+                        .build());
+            }
+        });
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                hourlyRepository.saveAll(hourly);
+                dailyRepository.saveAll(daily.entrySet().stream()
+                        .map(e -> AnalyticsDailyRollup.builder()
+                                .day(e.getKey().bucketStart().toLocalDate())
+                                .metric(e.getKey().metric())
+                                .categoryId(e.getKey().categoryId())
+                                .building(e.getKey().building())
+                                .count(e.getValue())
+                                .build())
+                        .collect(Collectors.toList()));
+            });
+            log.info("Analytics rollups backfilled: {} hourly and {} daily rows from the last {} days",
+                    hourly.size(), daily.size(), backfillDays);
+        } catch (RuntimeException e) {
+            // Most likely another node backfilled concurrently (unique key violation)
+            log.warn("Analytics backfill skipped: {}", e.getMessage());
+        }
+    }
+
+    private void accumulate(Map<AnalyticsRecorder.RollupKey, Long> counts, AnalyticsMetric metric, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts.merge(AnalyticsRecorder.key((LocalDateTime) row[0], metric, (Long) row[1], (String) row[2]),
+                        1L, Long::sum);
+            }
+        }
+    }
+}
@@ -5,19 +5,23 @@ import com.marketplace.StoneRidgeMarketplace.dto.response.*;
 import com.marketplace.StoneRidgeMarketplace.dto.response.RefreshTokenResponse;
 import com.marketplace.StoneRidgeMarketplace.entity.Admin;
 import com.marketplace.StoneRidgeMarketplace.entity.*;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
 import com.marketplace.StoneRidgeMarketplace.entity.enums.Role;
 import com.marketplace.StoneRidgeMarketplace.exception.*;
 import com.marketplace.StoneRidgeMarketplace.repository.*;
 import com.marketplace.StoneRidgeMarketplace.security.AdminPrincipal;
 import com.marketplace.StoneRidgeMarketplace.security.JwtService;
+import com.marketplace.StoneRidgeMarketplace.security.PasswordHashingService;
+import com.marketplace.StoneRidgeMarketplace.security.PrincipalCache;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.*;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
@@ -33,11 +37,17 @@ public class AuthService {
     private final UserRepository userRepository;
     private final AdminRepository adminRepository;
     private final TrustedDeviceRepository trustedDeviceRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final DeviceFingerprintService deviceFingerprintService;
+    private final PrincipalCache principalCache;
+    private final TrustedDeviceTouchBuffer trustedDeviceTouchBuffer;
+    private final TrustedDeviceCache trustedDeviceCache;
+    private final AdminMetricsRegistry metricsRegistry;
+    private final AnalyticsRecorder analyticsRecorder;
+    private final UserSearchIndex userSearchIndex;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.security.max-failed-attempts:5}")
     private int maxFailedAttempts;
@@ -55,8 +65,10 @@ public class AuthService {
     private int maxTrustedDevices;
 
     /**
-     * Register new Stoneridge resident
+     * Register new Stoneridge resident. The password is hashed before the transaction opens,
+     * so a queue on the hashing pool never holds a database connection.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public RegistrationResponse register(RegistrationRequest request) {
         log.info("Processing registration for email: {}", request.getEmail());
 
@@ -67,6 +79,11 @@ public class AuthService {
             throw new DuplicateResourceException("Email or username already taken");
         }
 
+        String passwordHash = passwordHashingService.encode(request.getPassword());
+        return transactionTemplate.execute(status -> createUser(request, passwordHash));
+    }
+
+    private RegistrationResponse createUser(RegistrationRequest request, String passwordHash) {
         // Build user entity
         User user = User.builder()
                 .firstName(request.getFirstName().trim())
@@ -74,7 +91,7 @@ public class AuthService {
                 .displayName(determineDisplayName(request))
                 .email(request.getEmail().toLowerCase())
                 .username(request.getUsername().toLowerCase())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHash)
                 .apartmentNumber(request.getApartmentNumber())
                 .buildingName(request.getBuildingName())
                 .phoneNumber(request.getPhoneNumber())
@@ -92,6 +109,9 @@ public class AuthService {
                 LocalDateTime.now().plusHours(emailVerificationExpiryHours));
 
         user = userRepository.save(user);
+        metricsRegistry.adjust(AdminMetricsRegistry.Counter.TOTAL_USERS, 1);
+        analyticsRecorder.record(AnalyticsMetric.SIGNUPS, null, user.getBuildingName());
+        userSearchIndex.upsert(user.getId(), user.getEmail(), user.getUsername());
 
         // Send verification email
         emailService.sendVerificationEmail(
@@ -113,8 +133,11 @@ public class AuthService {
     }
 
     /**
-     * Login with device trust support
+     * Login with device trust support. BCrypt runs on the password hashing pool outside any
+     * transaction, so logins queued there hold no database connection; only the writes that
+     * follow the verdict run in a (short) transaction.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LoginResponse login(LoginRequest request, HttpServletRequest httpRequest) {
         String userIdentifier = request.getUsernameOrEmail().toLowerCase();
 
@@ -132,23 +155,38 @@ public class AuthService {
         checkAccountLockStatus(user);
 
         // Authenticate
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            user.getUsername(),
-                            request.getPassword()));
-        } catch (BadCredentialsException e) {
-            handleFailedLogin(user);
+        if (!user.isEnabled()) {
+            throw new DisabledException("User is disabled");
+        }
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
+            int failedAttempts = transactionTemplate.execute(status -> handleFailedLogin(user.getId()));
             throw new BadCredentialsException(
                     String.format("Invalid credentials. %d attempts remaining",
-                            maxFailedAttempts - user.getFailedLoginAttempts()));
+                            maxFailedAttempts - failedAttempts));
+        }
+
+        // Re-hash with the current cost if the stored hash is weaker; saved with the login
+        String upgradedHash = passwordHashingService.needsUpgrade(user.getPassword())
+                ? passwordHashingService.encode(request.getPassword())
+                : null;
+
+        return transactionTemplate.execute(status -> completeLogin(user.getId(), upgradedHash, request, httpRequest));
+    }
+
+    private LoginResponse completeLogin(Long userId, String upgradedHash, LoginRequest request,
+                                        HttpServletRequest httpRequest) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
+        if (upgradedHash != null) {
+            user.setPassword(upgradedHash);
+            log.info("Password hash upgraded for user: {}", user.getUsername());
         }
 
         // Handle successful login
         handleSuccessfulLogin(user, httpRequest);
 
         // Check device trust
-        String deviceFingerprint = deviceFingerprintService.generateFingerprint(httpRequest);
+        String deviceFingerprint = deviceFingerprintService.getFingerprint(httpRequest);
         boolean isDeviceTrusted = isDeviceTrusted(user, deviceFingerprint);
 
         // Create trusted device if requested
@@ -162,7 +200,7 @@ public class AuthService {
         String refreshToken = jwtService.generateRefreshToken(user);
 
         // Get trusted devices
-        List<TrustedDeviceDto> trustedDevices = getTrustedDevices(user.getId());
+        List<TrustedDeviceDto> trustedDevices = findActiveTrustedDevices(user.getId());
 
         return LoginResponse.builder()
                 .accessToken(accessToken)
@@ -178,7 +216,9 @@ public class AuthService {
 
     /**
      * Admin login: authenticate against admins table and return JWT with admin identity.
+     * Like {@link #login}, hashing runs outside any transaction.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LoginResponse adminLogin(LoginRequest request) {
         String identifier = request.getUsernameOrEmail().trim().toLowerCase();
         Admin admin = adminRepository.findByUsernameOrEmail(identifier)
@@ -186,9 +226,15 @@ public class AuthService {
         if (!admin.isEnabled()) {
             throw new BadCredentialsException("Account is disabled");
         }
-        if (!passwordEncoder.matches(request.getPassword(), admin.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), admin.getPassword())) {
             throw new BadCredentialsException("Invalid credentials");
         }
+        if (passwordHashingService.needsUpgrade(admin.getPassword())) {
+            String upgradedHash = passwordHashingService.encode(request.getPassword());
+            transactionTemplate.executeWithoutResult(status -> adminRepository.findById(admin.getId())
+                    .ifPresent(current -> current.setPassword(upgradedHash)));
+            log.info("Password hash upgraded for admin: {}", admin.getUsername());
+        }
         String accessToken = jwtService.generateAccessTokenForAdmin(admin);
         String refreshToken = jwtService.generateRefreshTokenForAdmin(admin);
         UserDto adminAsUserDto = mapAdminToUserDto(admin);
@@ -293,12 +339,14 @@ public class AuthService {
      * Get user's trusted devices
      */
     public List<TrustedDeviceDto> getTrustedDevices(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        return findActiveTrustedDevices(userId);
+    }
 
-        return user.getTrustedDevices().stream()
-                .filter(TrustedDevice::isActive)
-                .filter(device -> device.getExpiresAt().isAfter(LocalDateTime.now()))
+    private List<TrustedDeviceDto> findActiveTrustedDevices(Long userId) {
+        return trustedDeviceRepository.findActiveByUserId(userId, LocalDateTime.now()).stream()
                 .map(this::mapToTrustedDeviceDto)
                 .collect(Collectors.toList());
     }
@@ -308,7 +356,7 @@ public class AuthService {
                 .id(device.getId())
                 .deviceName(device.getDeviceName())
                 .deviceType(device.getDeviceType())
-                .lastUsedAt(device.getLastUsedAt())
+                .lastUsedAt(trustedDeviceTouchBuffer.lastUsedAt(device))
                 .location(device.getIpAddress()) // Could enhance with geolocation
                 .expiresAt(device.getExpiresAt())
                 .build();
@@ -323,23 +371,36 @@ public class AuthService {
         return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
+    /**
+     * Rejects a locked account before its password is checked. An expired lock passes here and
+     * is cleared by whichever write follows the verdict.
+     */
     private void checkAccountLockStatus(User user) {
-        if (!user.isAccountNonLocked()) {
-            if (user.getLockTime() != null &&
-                    user.getLockTime().plusMinutes(lockDurationMinutes).isBefore(LocalDateTime.now())) {
-                // Unlock account
-                user.setAccountNonLocked(true);
-                user.setFailedLoginAttempts(0);
-                user.setLockTime(null);
-                userRepository.save(user);
-            } else {
-                throw new LockedException(
-                        "Account is locked due to too many failed attempts. Please try again later.");
-            }
+        if (!user.isAccountNonLocked() && !lockExpired(user)) {
+            throw new LockedException(
+                    "Account is locked due to too many failed attempts. Please try again later.");
+        }
+    }
+
+    private boolean lockExpired(User user) {
+        return user.getLockTime() != null &&
+                user.getLockTime().plusMinutes(lockDurationMinutes).isBefore(LocalDateTime.now());
+    }
+
+    private void clearExpiredLock(User user) {
+        if (!user.isAccountNonLocked() && lockExpired(user)) {
+            // Unlock account
+            user.setAccountNonLocked(true);
+            user.setFailedLoginAttempts(0);
+            user.setLockTime(null);
         }
     }
 
-    private void handleFailedLogin(User user) {
+    /** Records a failed attempt and returns the attempt count. */
+    private int handleFailedLogin(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
+        clearExpiredLock(user);
         user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
 
         if (user.getFailedLoginAttempts() >= maxFailedAttempts) {
@@ -353,52 +414,44 @@ public class AuthService {
         }
 
         userRepository.save(user);
+        return user.getFailedLoginAttempts();
     }
 
     private void handleSuccessfulLogin(User user, HttpServletRequest request) {
+        clearExpiredLock(user);
         user.setFailedLoginAttempts(0);
         user.setLockTime(null);
         user.setLastLoginAt(LocalDateTime.now());
-        user.setLastLoginIp(getClientIP(request));
+        user.setLastLoginIp(deviceFingerprintService.getClientIP(request));
         userRepository.save(user);
     }
 
-    private String getClientIP(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader == null || xfHeader.isEmpty()) {
-            return request.getRemoteAddr();
-        }
-        return xfHeader.split(",")[0].trim();
-    }
-
     private boolean isDeviceTrusted(User user, String fingerprint) {
-        return trustedDeviceRepository
-                .findByUserAndDeviceFingerprintAndActiveTrue(user, fingerprint)
-                .map(device -> {
-                    if (device.getExpiresAt().isBefore(LocalDateTime.now())) {
-                        device.setActive(false);
-                        trustedDeviceRepository.save(device);
-                        return false;
-                    }
-                    device.setLastUsedAt(LocalDateTime.now());
-                    trustedDeviceRepository.save(device);
-                    return true;
-                })
-                .orElse(false);
+        TrustedDeviceCache.Match match = trustedDeviceCache.get(user.getId(), fingerprint,
+                () -> trustedDeviceRepository.findByUserAndDeviceFingerprintAndActiveTrue(user, fingerprint)
+                        .map(device -> new TrustedDeviceCache.Match(device.getId(), device.getExpiresAt()))
+                        .orElse(TrustedDeviceCache.Match.NONE));
+        if (!match.isPresent()) {
+            return false;
+        }
+        if (match.expiresAt().isBefore(LocalDateTime.now())) {
+            trustedDeviceRepository.deactivateById(match.deviceId());
+            trustedDeviceCache.invalidateUser(user.getId());
+            return false;
+        }
+        // Coalesced and written out by the touch buffer
+        trustedDeviceTouchBuffer.touch(match.deviceId(), LocalDateTime.now());
+        return true;
     }
 
     private String createTrustedDevice(User user, String fingerprint, HttpServletRequest request) {
         // Remove oldest device if limit reached
-        if (user.getTrustedDevices().size() >= maxTrustedDevices) {
-            TrustedDevice oldestDevice = user.getTrustedDevices().stream()
-                    .filter(TrustedDevice::isActive)
-                    .min(Comparator.comparing(TrustedDevice::getLastUsedAt))
-                    .orElse(null);
-
-            if (oldestDevice != null) {
-                oldestDevice.setActive(false);
-                trustedDeviceRepository.save(oldestDevice);
-            }
+        if (trustedDeviceRepository.countActiveByUserId(user.getId()) >= maxTrustedDevices) {
+            trustedDeviceRepository.findFirstByUserIdAndActiveTrueOrderByLastUsedAtAsc(user.getId())
+                    .ifPresent(oldestDevice -> {
+                        oldestDevice.setActive(false);
+                        trustedDeviceRepository.save(oldestDevice);
+                    });
         }
 
         String deviceToken = generateSecureToken();
@@ -411,7 +464,7 @@ public class AuthService {
                 .deviceName(deviceFingerprintService.extractDeviceName(userAgent))
                 .deviceType(deviceFingerprintService.detectDeviceType(userAgent))
                 .userAgent(userAgent)
-                .ipAddress(getClientIP(request))
+                .ipAddress(deviceFingerprintService.getClientIP(request))
                 .createdAt(LocalDateTime.now())
                 .lastUsedAt(LocalDateTime.now())
                 .expiresAt(LocalDateTime.now().plusDays(trustedDeviceExpiryDays))
@@ -419,6 +472,7 @@ public class AuthService {
                 .build();
 
         trustedDeviceRepository.save(trustedDevice);
+        trustedDeviceCache.invalidateUser(user.getId());
 
         // Notify user of new device
         emailService.sendNewDeviceAlert(
@@ -462,18 +516,14 @@ public class AuthService {
      * Revoke trusted device
      */
     public void revokeTrustedDevice(Long userId, Long deviceId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        TrustedDevice device = user.getTrustedDevices().stream()
-                .filter(d -> d.getId().equals(deviceId) && d.isActive())
-                .findFirst()
+        TrustedDevice device = trustedDeviceRepository.findActiveByIdAndUserId(deviceId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Device not found"));
 
         device.setActive(false);
         trustedDeviceRepository.save(device);
+        trustedDeviceCache.invalidateUser(userId);
 
-        log.info("Device {} revoked for user: {}", deviceId, user.getUsername());
+        log.info("Device {} revoked for user: {}", deviceId, userId);
     }
 
     /**
@@ -491,14 +541,11 @@ public class AuthService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        user.getTrustedDevices().stream()
-                .filter(TrustedDevice::isActive)
-                .forEach(device -> {
-                    device.setActive(false);
-                    trustedDeviceRepository.save(device);
-                });
+        int deactivated = trustedDeviceRepository.deactivateAllByUserId(userId);
+        trustedDeviceCache.invalidateUser(userId);
+        principalCache.invalidateUser(user.getUsername());
 
-        log.info("User {} logged out from all devices", userId);
+        log.info("User {} logged out from all devices ({} devices deactivated)", userId, deactivated);
     }
 
     /**
@@ -522,6 +569,10 @@ public class AuthService {
 
         // Now delete the user
         userRepository.delete(user);
+        principalCache.invalidateUser(user.getUsername());
+        metricsRegistry.adjust(AdminMetricsRegistry.Counter.TOTAL_USERS, -1);
+        userSearchIndex.remove(userId);
+        trustedDeviceCache.invalidateUser(userId);
 
         log.info("User account deleted successfully: {}", user.getUsername());
     }
@@ -534,14 +585,12 @@ public class AuthService {
             throw new BadCredentialsException("Refresh token is required");
         }
         try {
-            String subject = jwtService.extractUsername(refreshToken);
+            // Parse once: throws JwtException if the signature is bad or the token expired
+            String subject = jwtService.verify(refreshToken).getSubject();
             if (subject != null && subject.startsWith(AdminPrincipal.ADMIN_PREFIX)) {
                 String adminUsername = subject.substring(AdminPrincipal.ADMIN_PREFIX.length());
                 Admin admin = adminRepository.findByUsername(adminUsername)
                         .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
-                if (!jwtService.validateToken(refreshToken, subject)) {
-                    throw new BadCredentialsException("Invalid or expired refresh token");
-                }
                 if (!admin.isEnabled()) {
                     throw new BadCredentialsException("Account is disabled");
                 }
@@ -555,9 +604,6 @@ public class AuthService {
             }
             User user = userRepository.findByUsername(subject)
                     .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
-            if (!jwtService.validateToken(refreshToken, subject)) {
-                throw new BadCredentialsException("Invalid or expired refresh token");
-            }
             if (!user.isEnabled()) {
                 throw new BadCredentialsException("Account is disabled");
             }
@@ -599,9 +645,28 @@ public class AuthService {
     }
 
     /**
-     * Reset password with token
+     * Reset password with token. The new password is hashed outside any transaction.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void resetPassword(String token, String newPassword) {
+        findValidResetToken(token);
+        String passwordHash = passwordHashingService.encode(newPassword);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Looked up again: a concurrent reset may have used the token while we were hashing
+            User user = findValidResetToken(token);
+
+            // Update password
+            user.setPassword(passwordHash);
+            user.setPasswordResetToken(null);
+            user.setPasswordResetTokenExpiry(null);
+            userRepository.save(user);
+
+            log.info("Password reset for user: {}", user.getUsername());
+        });
+    }
+
+    private User findValidResetToken(String token) {
         User user = userRepository.findByPasswordResetToken(token)
                 .orElseThrow(() -> new InvalidTokenException("Invalid password reset token"));
 
@@ -609,14 +674,7 @@ public class AuthService {
         if (user.getPasswordResetTokenExpiry().isBefore(LocalDateTime.now())) {
             throw new TokenExpiredException("Password reset token has expired");
         }
-
-        // Update password
-        user.setPassword(passwordEncoder.encode(newPassword));
-        user.setPasswordResetToken(null);
-        user.setPasswordResetTokenExpiry(null);
-        userRepository.save(user);
-
-        log.info("Password reset for user: {}", user.getUsername());
+        return user;
     }
 
     /**
@@ -659,6 +717,8 @@ public class AuthService {
         user.setPhoneNumber(request.getPhoneNumber());
 
         user = userRepository.save(user);
+        userSearchIndex.upsert(user.getId(), user.getEmail(), user.getUsername());
+        principalCache.invalidateUser(user.getUsername());
 
         log.info("Profile updated for user: {}", user.getUsername());
 
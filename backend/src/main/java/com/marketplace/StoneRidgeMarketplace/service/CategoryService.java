@@ -6,6 +6,7 @@ import com.marketplace.StoneRidgeMarketplace.dto.request.CategoryRequestDto;
 import com.marketplace.StoneRidgeMarketplace.dto.response.CategoryDto;
 import com.marketplace.StoneRidgeMarketplace.entity.Admin;
 import com.marketplace.StoneRidgeMarketplace.entity.*;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AuditAction;
 import com.marketplace.StoneRidgeMarketplace.entity.enums.CategoryStatus;
 import com.marketplace.StoneRidgeMarketplace.exception.DuplicateResourceException;
 import com.marketplace.StoneRidgeMarketplace.exception.ResourceNotFoundException;
@@ -17,7 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,15 +33,15 @@ public class CategoryService {
     private final CategoryRequestRepository categoryRequestRepository;
     private final UserRepository userRepository;
     private final AdminRepository adminRepository;
+    private final AdminMetricsRegistry metricsRegistry;
+    private final AdminAuditLog auditLog;
 
     /**
      * Get all active categories in hierarchical structure
      */
     public List<CategoryDto> getAllCategories() {
         List<Category> rootCategories = categoryRepository.findRootCategories();
-        return rootCategories.stream()
-                .map(this::mapToCategoryDto)
-                .collect(Collectors.toList());
+        return mapToCategoryDtos(rootCategories);
     }
 
     /**
@@ -89,6 +92,7 @@ public class CategoryService {
                 .build();
 
         categoryRequestRepository.save(categoryRequest);
+        metricsRegistry.adjust(AdminMetricsRegistry.Counter.PENDING_CATEGORY_REQUESTS, 1);
 
         log.info("Category creation requested: {} by user: {}", request.getName(), user.getUsername());
     }
@@ -147,8 +151,10 @@ public class CategoryService {
             categoryBuilder.approvedBy(userAdmin);
         }
         Category category = categoryRepository.save(categoryBuilder.build());
+        metricsRegistry.adjust(AdminMetricsRegistry.Counter.ACTIVE_CATEGORIES, 1);
 
         request.setStatus(CategoryStatus.APPROVED);
+        metricsRegistry.adjust(AdminMetricsRegistry.Counter.PENDING_CATEGORY_REQUESTS, -1);
         request.setReviewedAt(LocalDateTime.now());
         if (adminEntity != null) {
             request.setReviewedByAdmin(adminEntity);
@@ -157,6 +163,10 @@ public class CategoryService {
         }
         categoryRequestRepository.save(request);
 
+        auditLog.record(adminId, AuditAction.CATEGORY_REQUEST_APPROVED, AdminAuditLog.CATEGORY_REQUEST, requestId,
+                AdminAuditLog.state("status", CategoryStatus.PENDING),
+                AdminAuditLog.state("status", CategoryStatus.APPROVED, "categoryId", category.getId(), "name", category.getName()));
+
         String adminName = adminEntity != null ? adminEntity.getUsername() : userAdmin.getUsername();
         log.info("Category approved: {} by admin: {}", category.getName(), adminName);
 
@@ -179,6 +189,7 @@ public class CategoryService {
         }
 
         request.setStatus(CategoryStatus.REJECTED);
+        metricsRegistry.adjust(AdminMetricsRegistry.Counter.PENDING_CATEGORY_REQUESTS, -1);
         request.setReviewedAt(LocalDateTime.now());
         request.setReviewNotes(reviewNotes);
         if (adminEntity != null) {
@@ -188,6 +199,10 @@ public class CategoryService {
         }
         categoryRequestRepository.save(request);
 
+        auditLog.record(adminId, AuditAction.CATEGORY_REQUEST_REJECTED, AdminAuditLog.CATEGORY_REQUEST, requestId,
+                AdminAuditLog.state("status", CategoryStatus.PENDING),
+                AdminAuditLog.state("status", CategoryStatus.REJECTED, "reviewNotes", reviewNotes));
+
         String adminName = adminEntity != null ? adminEntity.getUsername() : userAdmin.getUsername();
         log.info("Category rejected: {} by admin: {}", request.getName(), adminName);
     }
@@ -221,6 +236,10 @@ public class CategoryService {
             b.createdBy(userAdmin).approvedBy(userAdmin);
         }
         Category category = categoryRepository.save(b.build());
+        metricsRegistry.adjust(AdminMetricsRegistry.Counter.ACTIVE_CATEGORIES, 1);
+        auditLog.record(adminId, AuditAction.CATEGORY_CREATED, AdminAuditLog.CATEGORY, category.getId(), null,
+                AdminAuditLog.state("name", category.getName(), "description", category.getDescription(),
+                        "parentId", parent != null ? parent.getId() : null));
         String adminName = adminEntity != null ? adminEntity.getUsername() : userAdmin.getUsername();
         log.info("Category {} created by admin: {}", category.getName(), adminName);
         return mapToCategoryDto(category);
@@ -232,6 +251,7 @@ public class CategoryService {
     public CategoryDto updateCategory(Long categoryId, AdminCategoryUpdateRequest request, Long adminId) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+        Map<String, Object> before = AdminAuditLog.state("name", category.getName(), "description", category.getDescription());
 
         if (request.getName() != null && !request.getName().isBlank()) {
             if (!request.getName().trim().equalsIgnoreCase(category.getName())
@@ -245,6 +265,8 @@ public class CategoryService {
         }
 
         category = categoryRepository.save(category);
+        auditLog.record(adminId, AuditAction.CATEGORY_UPDATED, AdminAuditLog.CATEGORY, categoryId, before,
+                AdminAuditLog.state("name", category.getName(), "description", category.getDescription()));
         log.info("Category {} updated by admin: {}", category.getName(), adminId);
         return mapToCategoryDto(category);
     }
@@ -255,8 +277,14 @@ public class CategoryService {
     public void deactivateCategory(Long categoryId, Long adminId) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+        boolean wasActive = category.isActive();
+        if (wasActive) {
+            metricsRegistry.adjust(AdminMetricsRegistry.Counter.ACTIVE_CATEGORIES, -1);
+        }
         category.setActive(false);
         categoryRepository.save(category);
+        auditLog.record(adminId, AuditAction.CATEGORY_DEACTIVATED, AdminAuditLog.CATEGORY, categoryId,
+                AdminAuditLog.state("active", wasActive), AdminAuditLog.state("active", false));
         log.info("Category {} deactivated by admin: {}", category.getName(), adminId);
     }
 
@@ -265,19 +293,51 @@ public class CategoryService {
      */
     public List<CategoryDto> searchCategories(String keyword) {
         List<Category> categories = categoryRepository.findByActiveTrue();
-        return categories.stream()
+        return mapToCategoryDtos(categories.stream()
                 .filter(category -> category.getName().toLowerCase().contains(keyword.toLowerCase()))
-                .map(this::mapToCategoryDto)
+                .collect(Collectors.toList()));
+    }
+
+    CategoryDto mapToCategoryDto(Category category) {
+        return mapToCategoryDtos(List.of(category)).get(0);
+    }
+
+    /**
+     * Maps categories with their active subtrees. Product counts for every category in the
+     * trees come from one grouped query; subcategory collections are batch fetched a level at
+     * a time.
+     */
+    private List<CategoryDto> mapToCategoryDtos(List<Category> categories) {
+        List<Long> categoryIds = new ArrayList<>();
+        categories.forEach(category -> collectTreeIds(category, categoryIds));
+        Map<Long, Integer> productCounts = new HashMap<>();
+        if (!categoryIds.isEmpty()) {
+            for (Object[] row : categoryRepository.countActiveProductsByCategoryIn(categoryIds)) {
+                productCounts.put((Long) row[0], ((Number) row[1]).intValue());
+            }
+        }
+        return categories.stream()
+                .map(category -> mapToCategoryDto(category, productCounts))
                 .collect(Collectors.toList());
     }
 
-    private CategoryDto mapToCategoryDto(Category category) {
-        List<CategoryDto> subcategories = (category.getSubcategories() != null) ? category.getSubcategories().stream()
+    private void collectTreeIds(Category category, List<Long> ids) {
+        ids.add(category.getId());
+        activeSubcategories(category).forEach(subcategory -> collectTreeIds(subcategory, ids));
+    }
+
+    private static List<Category> activeSubcategories(Category category) {
+        return category.getSubcategories() != null ? category.getSubcategories().stream()
                 .filter(Category::isActive)
-                .map(this::mapToCategoryDto)
                 .collect(Collectors.toList()) : new ArrayList<>();
+    }
+
+    private CategoryDto mapToCategoryDto(Category category, Map<Long, Integer> productCounts) {
+        List<CategoryDto> subcategories = activeSubcategories(category).stream()
+                .map(subcategory -> mapToCategoryDto(subcategory, productCounts))
+                .collect(Collectors.toList());
 
-        Integer productCount = categoryRepository.countActiveProductsByCategory(category.getId());
+        Integer productCount = productCounts.getOrDefault(category.getId(), 0);
 
         return CategoryDto.builder()
                 .id(category.getId())
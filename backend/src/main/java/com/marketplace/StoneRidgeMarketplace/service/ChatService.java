@@ -4,19 +4,24 @@ import com.marketplace.StoneRidgeMarketplace.dto.request.ChatMessageRequest;
 import com.marketplace.StoneRidgeMarketplace.dto.response.ChatDto;
 import com.marketplace.StoneRidgeMarketplace.dto.response.ChatMessageDto;
 import com.marketplace.StoneRidgeMarketplace.entity.*;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
 import com.marketplace.StoneRidgeMarketplace.entity.enums.ChatStatus;
 import com.marketplace.StoneRidgeMarketplace.exception.ResourceNotFoundException;
+import com.marketplace.StoneRidgeMarketplace.monitoring.ChatSendEvent;
 import com.marketplace.StoneRidgeMarketplace.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -26,11 +31,14 @@ import java.util.stream.Collectors;
 @Transactional
 public class ChatService {
     
+    private static final int RECENT_MESSAGES = 5;
+    
     private final ChatRepository chatRepository;
     private final ChatMessageRepository chatMessageRepository;
     private final ProductRepository productRepository;
     private final ProductImageRepository productImageRepository;
     private final UserRepository userRepository;
+    private final AnalyticsRecorder analyticsRecorder;
     
     /**
      * Start or get existing chat for a product
@@ -62,6 +70,7 @@ public class ChatService {
                     .status(ChatStatus.ACTIVE)
                     .build();
             chat = chatRepository.save(chat);
+            analyticsRecorder.record(AnalyticsMetric.CHATS_STARTED, product);
             
             // Send welcome message
             sendSystemMessage(chat, String.format("%s is interested in your product: %s", 
@@ -78,6 +87,8 @@ public class ChatService {
      * Send message in chat
      */
     public ChatMessageDto sendMessage(Long chatId, ChatMessageRequest request, Long senderId) {
+        ChatSendEvent event = new ChatSendEvent();
+        event.begin();
         Chat chat = chatRepository.findById(chatId)
                 .orElseThrow(() -> new ResourceNotFoundException("Chat not found"));
         
@@ -110,7 +121,9 @@ public class ChatService {
         log.info("Message sent in chat {}: {} characters by user: {}", 
                 chatId, request.getContent().length(), sender.getUsername());
         
-        return mapToChatMessageDto(message, senderId);
+        ChatMessageDto dto = mapToChatMessageDto(message, senderId);
+        event.finish(chatId, senderId, request.getContent().length());
+        return dto;
     }
     
     /**
@@ -118,7 +131,7 @@ public class ChatService {
      */
     public Page<ChatDto> getUserChats(Long userId, Pageable pageable) {
         Page<Chat> chats = chatRepository.findUserChats(userId, ChatStatus.ACTIVE, pageable);
-        return chats.map(chat -> mapToChatDto(chat, userId));
+        return new PageImpl<>(mapToChatDtos(chats.getContent(), userId), chats.getPageable(), chats.getTotalElements());
     }
     
     /**
@@ -200,9 +213,7 @@ public class ChatService {
      */
     public List<ChatDto> getChatsWithUnreadMessages(Long userId) {
         List<Chat> chats = chatRepository.findChatsWithUnreadMessages(userId);
-        return chats.stream()
-                .map(chat -> mapToChatDto(chat, userId))
-                .collect(Collectors.toList());
+        return mapToChatDtos(chats, userId);
     }
     
     private void sendSystemMessage(Chat chat, String content) {
@@ -221,12 +232,40 @@ public class ChatService {
     }
     
     private ChatDto mapToChatDto(Chat chat, Long currentUserId) {
-        ProductImage primaryImage = productImageRepository.findByProductIdAndPrimaryTrue(chat.getProduct().getId()).orElse(null);
+        return mapToChatDtos(List.of(chat), currentUserId).get(0);
+    }
+    
+    /**
+     * Maps a page of chats with a fixed number of queries: primary images and the recent
+     * messages of every chat are fetched in one query each, products and participants by
+     * Hibernate's batch fetching.
+     */
+    private List<ChatDto> mapToChatDtos(List<Chat> chats, Long currentUserId) {
+        if (chats.isEmpty()) {
+            return new ArrayList<>();
+        }
+        User currentUser = userRepository.findById(currentUserId).orElse(null);
         
-        // Get recent messages (last 5)
-        Pageable recentMessagesPageable = PageRequest.of(0, 5);
-        List<ChatMessage> recentMessages = chatMessageRepository.findRecentMessages(chat.getId(), recentMessagesPageable);
+        Map<Long, ProductImage> primaryImages = new HashMap<>();
+        List<Long> productIds = chats.stream().map(chat -> chat.getProduct().getId()).distinct().collect(Collectors.toList());
+        for (ProductImage image : productImageRepository.findByProductIdInAndPrimaryTrue(productIds)) {
+            primaryImages.putIfAbsent(image.getProduct().getId(), image);
+        }
+        
+        Map<Long, List<ChatMessage>> recentMessages = new HashMap<>();
+        List<Long> chatIds = chats.stream().map(Chat::getId).collect(Collectors.toList());
+        for (ChatMessage message : chatMessageRepository.findRecentMessagesByChatIdIn(chatIds, RECENT_MESSAGES)) {
+            recentMessages.computeIfAbsent(message.getChat().getId(), id -> new ArrayList<>()).add(message);
+        }
         
+        return chats.stream()
+                .map(chat -> mapToChatDto(chat, primaryImages.get(chat.getProduct().getId()),
+                        recentMessages.getOrDefault(chat.getId(), List.of()), currentUser, currentUserId))
+                .collect(Collectors.toList());
+    }
+    
+    private ChatDto mapToChatDto(Chat chat, ProductImage primaryImage, List<ChatMessage> recentMessages,
+            User currentUser, Long currentUserId) {
         ChatMessage lastMessage = recentMessages.isEmpty() ? null : recentMessages.get(0);
         
         return ChatDto.builder()
@@ -241,7 +280,7 @@ public class ChatService {
                 .sellerName(chat.getSeller().getFullName())
                 .sellerDisplayName(chat.getSeller().getEffectiveDisplayName())
                 .status(chat.getStatus())
-                .hasUnreadMessages(chat.hasUnreadMessages(userRepository.findById(currentUserId).orElse(null)))
+                .hasUnreadMessages(chat.hasUnreadMessages(currentUser))
                 .lastMessage(lastMessage != null ? mapToChatMessageDto(lastMessage, currentUserId) : null)
                 .recentMessages(recentMessages.stream()
                         .map(msg -> mapToChatMessageDto(msg, currentUserId))
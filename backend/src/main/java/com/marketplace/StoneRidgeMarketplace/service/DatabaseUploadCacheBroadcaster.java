@@ -0,0 +1,103 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.entity.UploadInvalidation;
+import com.marketplace.StoneRidgeMarketplace.repository.UploadInvalidationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares upload deletions between backend nodes through the upload_invalidations table, so
+ * every node drops its hot copy (and its local copy of a remote object), not just the node
+ * that deleted the file. Enabled with app.uploads.hot-cache.broadcast=database.
+ * <p>
+ * Polls like {@link com.marketplace.StoneRidgeMarketplace.security.DatabasePrincipalCacheBroadcaster}:
+ * ids skipped below the highest one seen may still commit, so they are looked up again until
+ * they show up or are old enough to have been rolled back.
+ */
+@Component
+@ConditionalOnProperty(name = "app.uploads.hot-cache.broadcast", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseUploadCacheBroadcaster {
+
+    private static final long GAP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final int MAX_GAPS = 1000;
+
+    private final UploadInvalidationRepository invalidationRepository;
+    private final UploadServingService uploadServingService;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile long lastSeenId = -1;
+    // Ids below lastSeenId not seen yet -> when they were first missed; poller thread only
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Anything already in the table predates this node's caches
+        lastSeenId = invalidationRepository.findMaxId();
+    }
+
+    // The file is already gone whether or not the caller's transaction commits
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUploadDeleted(UploadDeletedEvent event) {
+        invalidationRepository.save(UploadInvalidation.builder()
+                .uploadKey(event.getRelativePath())
+                .originNode(nodeId)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${app.uploads.hot-cache.broadcast-poll-ms:2000}")
+    @Transactional(readOnly = true)
+    public void applyRemoteInvalidations() {
+        if (lastSeenId < 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (!gaps.isEmpty()) {
+            for (UploadInvalidation late : invalidationRepository.findAllById(List.copyOf(gaps.keySet()))) {
+                gaps.remove(late.getId());
+                apply(late);
+            }
+            gaps.values().removeIf(missedAt -> now - missedAt > GAP_TIMEOUT_NANOS);
+        }
+        for (UploadInvalidation invalidation : invalidationRepository.findByIdGreaterThanOrderByIdAsc(lastSeenId)) {
+            long id = invalidation.getId();
+            for (long missing = Math.max(lastSeenId + 1, id - MAX_GAPS); missing < id; missing++) {
+                gaps.put(missing, now);
+            }
+            apply(invalidation);
+            lastSeenId = id;
+        }
+    }
+
+    private void apply(UploadInvalidation invalidation) {
+        if (!nodeId.equals(invalidation.getOriginNode())) {
+            uploadServingService.evictLocal(invalidation.getUploadKey());
+        }
+    }
+
+    @Scheduled(fixedDelay = 600000)
+    @Transactional
+    public void purgeOldInvalidations() {
+        int purged = invalidationRepository.deleteOlderThan(LocalDateTime.now().minusHours(1));
+        if (purged > 0) {
+            log.debug("Purged {} upload invalidations", purged);
+        }
+    }
+}
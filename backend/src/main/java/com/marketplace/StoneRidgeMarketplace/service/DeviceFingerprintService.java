@@ -3,7 +3,13 @@ package com.marketplace.StoneRidgeMarketplace.service;
 import jakarta.servlet.http.HttpServletRequest;
 
 public interface DeviceFingerprintService {
+    /** Request attribute holding the fingerprint once it has been computed. */
+    String FINGERPRINT_ATTRIBUTE = "device_fingerprint";
+
     String generateFingerprint(HttpServletRequest request);
+    /** Fingerprint for this request, computed on first call and cached on the request. */
+    String getFingerprint(HttpServletRequest request);
     String extractDeviceName(String userAgent);
     String detectDeviceType(String userAgent);
+    String getClientIP(HttpServletRequest request);
 }
@@ -3,14 +3,35 @@ package com.marketplace.StoneRidgeMarketplace.service;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
-import java.util.stream.Collectors;
 
 @Service
 public class DeviceFingerprintServiceImpl implements DeviceFingerprintService {
 
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // MessageDigest is not thread-safe; one per thread avoids a provider lookup per call
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    });
+
+    @Override
+    public String getFingerprint(HttpServletRequest request) {
+        Object cached = request.getAttribute(FINGERPRINT_ATTRIBUTE);
+        if (cached instanceof String fingerprint) {
+            return fingerprint;
+        }
+        String fingerprint = generateFingerprint(request);
+        request.setAttribute(FINGERPRINT_ATTRIBUTE, fingerprint);
+        return fingerprint;
+    }
+
     @Override
     public String generateFingerprint(HttpServletRequest request) {
         String userAgent = request.getHeader("User-Agent");
@@ -64,7 +85,8 @@ public class DeviceFingerprintServiceImpl implements DeviceFingerprintService {
         }
     }
 
-    private String getClientIP(HttpServletRequest request) {
+    @Override
+    public String getClientIP(HttpServletRequest request) {
         String xfHeader = request.getHeader("X-Forwarded-For");
         if (xfHeader == null || xfHeader.isEmpty()) {
             return request.getRemoteAddr();
@@ -73,21 +95,17 @@ public class DeviceFingerprintServiceImpl implements DeviceFingerprintService {
     }
 
     private String hashString(String input) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(input.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
+        MessageDigest md = SHA256.get();
+        if (md == null) {
             // Fallback to simple hash
             return String.valueOf(input.hashCode());
         }
+        byte[] hash = md.digest(input.getBytes(StandardCharsets.UTF_8));
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX[(hash[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[hash[i] & 0xf];
+        }
+        return new String(hex);
     }
 }
@@ -1,5 +1,8 @@
 package com.marketplace.StoneRidgeMarketplace.service;
 
+import com.marketplace.StoneRidgeMarketplace.monitoring.Span;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,12 +10,15 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -40,7 +46,7 @@ public class EmailServiceImpl implements EmailService {
 
             message.setText(emailContent);
 
-            mailSender.send(message);
+            send(message, "verification");
             log.info("Verification email sent successfully to: {}", email);
 
         } catch (Exception e) {
@@ -58,7 +64,7 @@ public class EmailServiceImpl implements EmailService {
             mailMessage.setSubject("Security Alert - StoneRidge Marketplace");
             mailMessage.setText(message);
 
-            mailSender.send(mailMessage);
+            send(mailMessage, "security_alert");
             log.info("Security alert email sent successfully to: {}", email);
 
         } catch (Exception e) {
@@ -87,7 +93,7 @@ public class EmailServiceImpl implements EmailService {
 
             mailMessage.setText(messageContent);
 
-            mailSender.send(mailMessage);
+            send(mailMessage, "new_device");
             log.info("New device alert email sent successfully to: {}", email);
 
         } catch (Exception e) {
@@ -118,7 +124,7 @@ public class EmailServiceImpl implements EmailService {
 
             message.setText(emailContent);
 
-            mailSender.send(message);
+            send(message, "password_reset");
             log.info("Password reset email sent successfully to: {}", email);
 
         } catch (Exception e) {
@@ -150,11 +156,35 @@ public class EmailServiceImpl implements EmailService {
 
             message.setText(emailContent);
 
-            mailSender.send(message);
+            send(message, "verification_resend");
             log.info("Resend verification email sent successfully to: {}", email);
 
         } catch (Exception e) {
             log.error("Failed to send resend verification email to: {}", email, e);
         }
     }
+
+    /**
+     * Sends and records latency under marketplace.email.send, tagged by type and outcome, and
+     * as an SMTP span when the caller is being traced.
+     */
+    private void send(SimpleMailMessage message, String type) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        Span span = Span.child("email.send", Span.Kind.CLIENT).attribute("email.type", type);
+        try {
+            mailSender.send(message);
+            outcome = "success";
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.close();
+            Timer.builder("marketplace.email.send")
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 }
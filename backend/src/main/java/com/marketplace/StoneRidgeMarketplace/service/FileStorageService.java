@@ -1,89 +1,428 @@
 package com.marketplace.StoneRidgeMarketplace.service;
 
+import com.marketplace.StoneRidgeMarketplace.entity.StoredBlob;
+import com.marketplace.StoneRidgeMarketplace.repository.StoredBlobRepository;
+import com.marketplace.StoneRidgeMarketplace.util.ImageSniffer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Content-addressed upload storage on top of {@link ObjectStorage}. Files are named by the
+ * SHA-256 of their bytes, computed while the upload streams to a staging file, and sharded two levels deep by digest prefix
+ * ({@code products/ab/cd/abcd...ef.jpg}), so re-uploading the same photo costs no extra
+ * disk. Each blob is tracked in {@link StoredBlob} with a reference count of the rows that
+ * point at it; a blob's file is removed only once the last reference is released.
+ */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class FileStorageService {
     
-    @Value("${app.file.upload-dir:./uploads}")
-    private String uploadDir;
+    private static final HexFormat HEX = HexFormat.of();
+    
+    private final ObjectStorage objectStorage;
+    private final StoredBlobRepository storedBlobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
     
     @Value("${app.file.max-size:5242880}") // 5MB default
     private long maxFileSize;
     
+    @Value("${app.file.blob-grace-minutes:60}")
+    private long blobGraceMinutes;
+    
+    private TransactionTemplate requiresNew;
+    private DistributionSummary uploadBytes;
+    
+    @PostConstruct
+    public void init() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        uploadBytes = DistributionSummary.builder("marketplace.uploads.size")
+                .baseUnit("bytes")
+                .description("Size of files uploaded through the server")
+                .register(meterRegistry);
+    }
+    
     public String storeFile(MultipartFile file, String category) {
-        try {
-            // Validate file
-            if (file.isEmpty()) {
-                throw new IllegalArgumentException("Cannot store empty file");
+        validateSize(file);
+        try (InputStream in = file.getInputStream()) {
+            String extension = extensionOf(file.getOriginalFilename());
+            return store(in, category, extension, contentTypeOf(extension), file.getOriginalFilename());
+        } catch (IOException e) {
+            log.error("Error storing file: {}", file.getOriginalFilename(), e);
+            throw new RuntimeException("Failed to store file", e);
+        }
+    }
+    
+    /**
+     * Store an image after sniffing its format from the first bytes of the stream; the
+     * client's Content-Type and file name are not trusted. The stored extension comes from
+     * the sniffed format, so the same photo always lands on the same path.
+     */
+    public String storeImage(MultipartFile file, String category) {
+        validateSize(file);
+        try (BufferedInputStream in = new BufferedInputStream(file.getInputStream())) {
+            in.mark(ImageSniffer.HEADER_BYTES);
+            byte[] header = in.readNBytes(ImageSniffer.HEADER_BYTES);
+            ImageSniffer.ImageType type = ImageSniffer.sniff(header, header.length);
+            if (type == null) {
+                throw new IllegalArgumentException("Not a supported image (JPEG, PNG, GIF, WebP or HEIC): " + file.getOriginalFilename());
             }
+            in.reset();
+            return store(in, category, type.extension, type.contentType, file.getOriginalFilename());
+        } catch (IOException e) {
+            log.error("Error storing file: {}", file.getOriginalFilename(), e);
+            throw new RuntimeException("Failed to store file", e);
+        }
+    }
+    
+    private void validateSize(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Cannot store empty file");
+        }
+        if (file.getSize() > maxFileSize) {
+            throw new IllegalArgumentException("File size exceeds maximum allowed size");
+        }
+    }
+    
+    private String store(InputStream content, String category, String extension, String contentType,
+                         String originalFilename) throws IOException {
+        Path temp = null;
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            // Hash while copying: one pass over the upload, no second read to name the file
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            temp = objectStorage.stagingDir().resolve(UUID.randomUUID() + ".tmp");
+            long size = Files.copy(new DigestInputStream(content, sha256), temp);
+            String digest = HEX.formatHex(sha256.digest());
+            String key = blobKey(category, digest, extension);
             
-            if (file.getSize() > maxFileSize) {
-                throw new IllegalArgumentException("File size exceeds maximum allowed size");
+            // Register before looking for the file: once the row is fresh, deleteUnreferenced
+            // leaves the blob alone, and one it is already removing finishes before this returns
+            registerUpload(key, digest, size);
+            boolean deduplicated = objectStorage.stat(key) != null;
+            if (deduplicated) {
+                Files.delete(temp);
+                // Fresh mtime: the upload GC's grace period must cover this upload too
+                objectStorage.touch(key);
+                log.debug("Upload {} deduplicated to {}", originalFilename, key);
+            } else {
+                // Same digest means same bytes, so a concurrent identical upload winning the write is harmless
+                objectStorage.put(key, temp, contentType);
             }
-            
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir, category);
-            Files.createDirectories(uploadPath);
-            
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null ? 
-                originalFilename.substring(originalFilename.lastIndexOf(".")) : "";
-            String filename = UUID.randomUUID().toString() + fileExtension;
-            
-            // Store file
-            Path targetLocation = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+            uploadBytes.record(size);
+            outcome = deduplicated ? "deduplicated" : "stored";
             
             // Return relative path for URL generation
-            return "/" + category + "/" + filename;
+            return "/" + key;
             
-        } catch (IOException e) {
-            log.error("Error storing file: {}", file.getOriginalFilename(), e);
-            throw new RuntimeException("Failed to store file", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            Timer.builder("marketplace.uploads.store")
+                    .description("Streaming, hashing and storing one upload")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not remove temporary upload {}", temp);
+                }
+            }
         }
     }
     
-    public void deleteFile(String filePath) {
+    /**
+     * Presign a direct-to-storage upload of an image the client has already hashed, so the
+     * bytes never pass through this server. When the blob is already stored there is nothing
+     * to upload and the result carries no presigned request.
+     */
+    public DirectUpload presignImageUpload(String category, String contentType, long size, String sha256Hex,
+                                           Duration ttl) throws IOException {
+        ImageSniffer.ImageType type = Arrays.stream(ImageSniffer.ImageType.values())
+                .filter(candidate -> candidate.contentType.equalsIgnoreCase(contentType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Not a supported image type: " + contentType));
+        if (size <= 0 || size > maxFileSize) {
+            throw new IllegalArgumentException("File size exceeds maximum allowed size");
+        }
+        if (sha256Hex == null || !sha256Hex.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("sha256 must be 64 lower-case hex digits");
+        }
+        String key = blobKey(category, sha256Hex, type.extension);
+        // Registered first for the same reason as in store(); an unused row is collected like any other
+        registerUpload(key, sha256Hex, size);
+        if (objectStorage.stat(key) != null) {
+            return new DirectUpload(key, null);
+        }
+        ObjectStorage.PresignedUpload upload = objectStorage.presignPut(key, type.contentType, size, sha256Hex, ttl);
+        if (upload == null) {
+            throw new IllegalStateException("Direct uploads need an object storage backend (app.storage.type=s3)");
+        }
+        return new DirectUpload(key, upload);
+    }
+    
+    /**
+     * Accept a direct upload once the client reports it done: the object must exist, sniff as
+     * an image of the type its key claims and hash to the digest in its name. Anything else is
+     * deleted. Returns the stored path ("/products/ab/cd/...").
+     */
+    public String completeImageUpload(String category, String key) throws IOException {
+        String relative = blobPath("/uploads/" + key);
+        if (relative == null || !relative.startsWith(category + "/")) {
+            throw new IllegalArgumentException("Not an upload key: " + key);
+        }
+        String digest = relative.substring(relative.lastIndexOf('/') + 1, relative.lastIndexOf('/') + 65);
+        String problem = null;
+        long size;
+        try (ObjectStorage.LocalObject local = objectStorage.openLocal(key)) {
+            if (local == null) {
+                throw new IllegalArgumentException("Nothing was uploaded to " + key);
+            }
+            size = Files.size(local.path());
+            if (size > maxFileSize) {
+                problem = "File size exceeds maximum allowed size";
+            } else {
+                byte[] header = new byte[ImageSniffer.HEADER_BYTES];
+                MessageDigest sha256;
+                try {
+                    sha256 = MessageDigest.getInstance("SHA-256");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException("SHA-256 not available", e);
+                }
+                int headerLength;
+                try (InputStream in = new DigestInputStream(Files.newInputStream(local.path()), sha256)) {
+                    headerLength = in.readNBytes(header, 0, header.length);
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
+                ImageSniffer.ImageType type = ImageSniffer.sniff(header, headerLength);
+                if (type == null || !key.endsWith(type.extension)) {
+                    problem = "Not a supported image (JPEG, PNG, GIF, WebP or HEIC): " + key;
+                } else if (!HEX.formatHex(sha256.digest()).equals(digest)) {
+                    problem = "Uploaded bytes do not match their digest: " + key;
+                }
+            }
+        }
+        if (problem != null) {
+            // Only delete what nobody references: an identical earlier upload may own this key
+            if (storedBlobRepository.findReferencedDigests(List.of(digest)).isEmpty()) {
+                deleteByUrl("/uploads/" + key);
+            }
+            throw new IllegalArgumentException(problem);
+        }
+        registerUpload(key, digest, size);
+        // The blob may have been released and removed between the checks above and the registration
+        if (objectStorage.stat(key) == null) {
+            throw new IllegalArgumentException("Nothing was uploaded to " + key);
+        }
+        return "/" + key;
+    }
+    
+    /** Key and presigned request of a direct upload; upload is null when the blob is already stored. */
+    public record DirectUpload(String key, ObjectStorage.PresignedUpload upload) {
+    }
+    
+    private static String blobKey(String category, String digest, String extension) {
+        return category + "/" + digest.substring(0, 2) + "/" + digest.substring(2, 4) + "/" + digest + extension;
+    }
+    
+    private static String contentTypeOf(String extension) {
+        return MediaTypeFactory.getMediaType("file" + extension).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+    }
+    
+    /**
+     * Record the blob, or refresh its upload time if it already exists: a fresh upload is
+     * about to be referenced, so it must not be collected while the listing form is filled in.
+     */
+    private void registerUpload(String relative, String digest, long size) {
+        LocalDateTime now = LocalDateTime.now();
         try {
-            Path path = Paths.get(uploadDir + filePath);
-            Files.deleteIfExists(path);
-        } catch (IOException e) {
-            log.error("Error deleting file: {}", filePath, e);
+            requiresNew.executeWithoutResult(status -> {
+                if (storedBlobRepository.touch(relative, now) == 0) {
+                    storedBlobRepository.save(StoredBlob.builder()
+                            .path(relative)
+                            .digest(digest)
+                            .sizeBytes(size)
+                            .refCount(0)
+                            .createdAt(now)
+                            .lastUploadedAt(now)
+                            .build());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // An identical upload inserted the row first
+            requiresNew.executeWithoutResult(status -> storedBlobRepository.touch(relative, now));
         }
     }
     
-    private static final java.util.Set<String> ALLOWED_IMAGE_TYPES = java.util.Set.of(
-        "image/jpeg", "image/png", "image/gif", "image/webp",
-        "image/heic", "image/heif"  // Apple iPhone photos
-    );
-
-    private static final java.util.Set<String> ALLOWED_IMAGE_EXTENSIONS = java.util.Set.of(
-        ".jpg", ".jpeg", ".png", ".gif", ".webp", ".heic", ".heif"
-    );
-
-    public boolean isValidImageFile(MultipartFile file) {
-        String contentType = file.getContentType();
-        if (contentType != null && ALLOWED_IMAGE_TYPES.contains(contentType.toLowerCase())) {
-            return true;
+    /** Count new references to the given upload URLs; legacy (non content-addressed) URLs are ignored. */
+    @Transactional
+    public void retainUrls(Collection<String> urls) {
+        blobPathCounts(urls).forEach((path, count) -> storedBlobRepository.adjustRefCount(path, count));
+    }
+    
+    /**
+     * Drop references to the given upload URLs. Once the surrounding transaction commits,
+     * blobs left without references (and not uploaded again within the grace period) are
+     * deleted along with their image variants.
+     */
+    @Transactional
+    public void releaseUrls(Collection<String> urls) {
+        Map<String, Integer> counts = blobPathCounts(urls);
+        if (counts.isEmpty()) {
+            return;
+        }
+        counts.forEach((path, count) -> storedBlobRepository.adjustRefCount(path, -count));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteUnreferenced(counts.keySet());
+                }
+            });
+        } else {
+            deleteUnreferenced(counts.keySet());
+        }
+    }
+    
+    /**
+     * Files are deleted while the blob's row is locked and still unreferenced, and the row goes
+     * last. An identical upload registering meanwhile blocks on the lock, then finds neither
+     * row nor file and stores both again; one that registered first keeps the row fresh, and
+     * nothing is deleted.
+     */
+    private void deleteUnreferenced(Collection<String> paths) {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(blobGraceMinutes);
+        for (String path : paths) {
+            try {
+                requiresNew.executeWithoutResult(status -> storedBlobRepository.findByPathForUpdate(path)
+                        .filter(blob -> blob.getRefCount() <= 0 && blob.getLastUploadedAt().isBefore(cutoff))
+                        .ifPresent(blob -> {
+                            deleteBlobFiles(path);
+                            storedBlobRepository.delete(blob);
+                        }));
+            } catch (RuntimeException e) {
+                log.warn("Could not release blob {}: {}", path, e.getMessage());
+            }
+        }
+    }
+    
+    /** The blob file and any image variants derived from it. */
+    void deleteBlobFiles(String relative) {
+        String url = "/uploads/" + relative;
+        deleteByUrl(url);
+        ImageProcessingService.variantUrls(url).forEach(this::deleteByUrl);
+    }
+    
+    private static Map<String, Integer> blobPathCounts(Collection<String> urls) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String url : urls) {
+            String path = blobPath(url);
+            if (path != null) {
+                counts.merge(path, 1, Integer::sum);
+            }
         }
-        String name = file.getOriginalFilename();
-        if (name != null && name.contains(".")) {
-            String ext = name.substring(name.lastIndexOf(".")).toLowerCase();
-            return ALLOWED_IMAGE_EXTENSIONS.contains(ext);
+        return counts;
+    }
+    
+    /** Upload-relative path of a content-addressed URL, or null for anything else. */
+    static String blobPath(String url) {
+        int index = url != null ? url.indexOf("/uploads/") : -1;
+        if (index < 0 || url.contains("..")) {
+            return null;
+        }
+        String relative = url.substring(index + "/uploads/".length());
+        String name = relative.substring(relative.lastIndexOf('/') + 1);
+        int dot = name.indexOf('.');
+        String stem = dot >= 0 ? name.substring(0, dot) : name;
+        if (stem.length() != 64 || !stem.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+            return null;
+        }
+        return relative;
+    }
+    
+    private static String extensionOf(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            return "";
+        }
+        String extension = filename.substring(filename.lastIndexOf('.')).toLowerCase();
+        return extension.length() <= 6 && extension.substring(1).chars().allMatch(Character::isLetterOrDigit) ? extension : "";
+    }
+    
+    public void deleteFile(String filePath) {
+        deleteByUrl("/uploads" + filePath);
+    }
+    
+    /**
+     * Delete a stored file given its public URL (".../uploads/products/x.jpg"). URLs that do
+     * not point into the upload storage are ignored.
+     */
+    public void deleteByUrl(String url) {
+        String key = keyOf(url);
+        if (key != null) {
+            try {
+                if (objectStorage.delete(key)) {
+                    eventPublisher.publishEvent(new UploadDeletedEvent(key));
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Error deleting file: {}", url, e);
+            }
+        }
+    }
+    
+    /**
+     * Map a public upload URL (".../uploads/products/x.jpg") to its storage key, or null if the
+     * URL does not point into the upload storage.
+     */
+    public static String keyOf(String url) {
+        int index = url != null ? url.indexOf("/uploads/") : -1;
+        if (index < 0 || url.contains("..")) {
+            return null;
         }
-        return false;
+        String key = url.substring(index + "/uploads/".length());
+        return key.isEmpty() || key.startsWith("/") || key.contains("\\") ? null : key;
     }
 }
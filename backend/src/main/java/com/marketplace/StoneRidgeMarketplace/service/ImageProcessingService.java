@@ -0,0 +1,386 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.marketplace.StoneRidgeMarketplace.entity.ProductImage;
+import com.marketplace.StoneRidgeMarketplace.monitoring.Span;
+import com.marketplace.StoneRidgeMarketplace.repository.ProductImageRepository;
+import com.marketplace.StoneRidgeMarketplace.util.ExifOrientation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns uploaded product photos into resized, recompressed JPEG variants (thumb, card, full)
+ * on a bounded background pool, so the upload request returns as soon as the original is
+ * stored. Re-encoding drops all metadata (EXIF, GPS); the EXIF orientation is applied to the
+ * pixels first. Variants sit next to the original as {@code <name>-<variant>.jpg} and are
+ * recorded on {@link ProductImage}.
+ * <p>
+ * Only formats the JDK decodes (JPEG, PNG, GIF, BMP) are processed; others such as HEIC or
+ * WebP keep serving the original. A periodic sweep picks up images whose row was saved after
+ * processing finished, or whose processing was rejected because the queue was full.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageProcessingService {
+
+    public enum Variant {
+        THUMB("thumb"),
+        CARD("card"),
+        FULL("full");
+
+        private final String suffix;
+
+        Variant(String suffix) {
+            this.suffix = suffix;
+        }
+    }
+
+    private final ObjectStorage objectStorage;
+    private final ProductImageRepository productImageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.images.threads:0}")
+    private int configuredThreads;
+
+    @Value("${app.images.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.images.thumb-size:200}")
+    private int thumbSize;
+
+    @Value("${app.images.card-size:480}")
+    private int cardSize;
+
+    @Value("${app.images.full-size:1600}")
+    private int fullSize;
+
+    @Value("${app.images.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${app.images.max-pixels:50000000}")
+    private long maxPixels;
+
+    private ThreadPoolExecutor executor;
+    /** Originals queued or being processed, so neither the sweep nor a second upload queues them twice. */
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    /** Uploads that cannot be decoded, so the sweep does not retry them every run. */
+    private final Cache<String, Boolean> undecodable = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofDays(1))
+            .maximumSize(10_000)
+            .build();
+
+    @PostConstruct
+    public void init() {
+        int threads = configuredThreads > 0 ? configuredThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-processing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "image-processing", List.of()).bindTo(meterRegistry);
+        log.info("Image processing pool started: {} threads, queue capacity {}", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue an uploaded original for processing. Never blocks or fails the caller: when the
+     * queue is full the image is left for the sweep. An image already queued or in progress
+     * is not queued again.
+     */
+    public void submit(String imageUrl) {
+        if (!inFlight.add(imageUrl)) {
+            return;
+        }
+        try {
+            executor.execute(Span.wrap("image-processing", () -> {
+                try {
+                    process(imageUrl);
+                } finally {
+                    inFlight.remove(imageUrl);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(imageUrl);
+            log.warn("Image processing queue full, deferring {}", imageUrl);
+        }
+    }
+
+    /** Public URL of a variant, derived from the original's URL. */
+    public static String variantUrl(String imageUrl, Variant variant) {
+        int slash = imageUrl.lastIndexOf('/');
+        int dot = imageUrl.lastIndexOf('.');
+        String base = dot > slash ? imageUrl.substring(0, dot) : imageUrl;
+        return base + "-" + variant.suffix + ".jpg";
+    }
+
+    public static List<String> variantUrls(String imageUrl) {
+        return List.of(variantUrl(imageUrl, Variant.THUMB), variantUrl(imageUrl, Variant.CARD), variantUrl(imageUrl, Variant.FULL));
+    }
+
+    /**
+     * Fill in variant URLs on a not-yet-saved image if processing already finished (the
+     * common case: the seller uploads, then fills in the listing form).
+     */
+    public void applyReadyVariants(ProductImage image) {
+        if (exists(variantUrl(image.getImageUrl(), Variant.FULL))) {
+            image.setThumbnailUrl(variantUrl(image.getImageUrl(), Variant.THUMB));
+            image.setCardUrl(variantUrl(image.getImageUrl(), Variant.CARD));
+            image.setFullUrl(variantUrl(image.getImageUrl(), Variant.FULL));
+        }
+    }
+
+    private boolean exists(String url) {
+        String key = FileStorageService.keyOf(url);
+        try {
+            return key != null && objectStorage.stat(key) != null;
+        } catch (IOException e) {
+            log.warn("Could not check {}: {}", url, e.getMessage());
+            return false;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.images.sweep-ms:300000}", fixedDelayString = "${app.images.sweep-ms:300000}")
+    public void sweep() {
+        List<String> pending = productImageRepository.findUnprocessedImageUrls(
+                LocalDateTime.now().minusDays(1), PageRequest.of(0, queueCapacity / 2));
+        for (String imageUrl : pending) {
+            // Still unprocessed in the database may just mean still in the queue
+            if (!inFlight.contains(imageUrl) && undecodable.getIfPresent(imageUrl) == null) {
+                submit(imageUrl);
+            }
+        }
+    }
+
+    private void process(String imageUrl) {
+        long start = System.nanoTime();
+        String key = FileStorageService.keyOf(imageUrl);
+        if (key == null) {
+            return;
+        }
+        try {
+            String fullKey = FileStorageService.keyOf(variantUrl(imageUrl, Variant.FULL));
+            if (objectStorage.stat(fullKey) != null) {
+                // Deduplicated upload: the blob's variants were generated the first time round
+                try (ObjectStorage.LocalObject existingFull = objectStorage.openLocal(fullKey)) {
+                    if (existingFull != null) {
+                        recordExistingVariants(imageUrl, existingFull.path());
+                    }
+                }
+                return;
+            }
+            byte[] bytes;
+            try (ObjectStorage.LocalObject original = objectStorage.openLocal(key)) {
+                if (original == null) {
+                    return;
+                }
+                bytes = Files.readAllBytes(original.path());
+            }
+            BufferedImage source = decode(bytes, fullSize, maxPixels);
+            if (source == null) {
+                undecodable.put(imageUrl, Boolean.TRUE);
+                log.debug("Image {} is not in a decodable format, serving the original only", imageUrl);
+                return;
+            }
+            source = orient(source, ExifOrientation.read(bytes));
+
+            writeVariant(source, thumbSize, imageUrl, Variant.THUMB);
+            writeVariant(source, cardSize, imageUrl, Variant.CARD);
+            // FULL last: its presence is what applyReadyVariants checks
+            BufferedImage full = writeVariant(source, fullSize, imageUrl, Variant.FULL);
+
+            transactionTemplate.executeWithoutResult(status -> productImageRepository.updateVariants(imageUrl,
+                    variantUrl(imageUrl, Variant.THUMB), variantUrl(imageUrl, Variant.CARD), variantUrl(imageUrl, Variant.FULL),
+                    full.getWidth(), full.getHeight()));
+            log.debug("Image {} processed in {} ms", imageUrl, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Image processing failed for {}: {}", imageUrl, e.getMessage());
+        }
+    }
+
+    private void recordExistingVariants(String imageUrl, Path full) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(full.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                transactionTemplate.executeWithoutResult(status -> productImageRepository.updateVariants(imageUrl,
+                        variantUrl(imageUrl, Variant.THUMB), variantUrl(imageUrl, Variant.CARD), variantUrl(imageUrl, Variant.FULL),
+                        width, height));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Decode with a pixel budget, subsampling very large sources on read so a 48 MP photo
+     * never materialises at full size when the biggest variant is 1600 px. The factor keeps
+     * the long edge at maxSize or more, so the largest variant is still a downscale.
+     */
+    static BufferedImage decode(byte[] bytes, int maxSize, long maxPixels) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsample = Math.max(1, Math.max(width, height) / maxSize);
+                if (subsample > 1) {
+                    param.setSourceSubsampling(subsample, subsample, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage writeVariant(BufferedImage source, int maxSize, String imageUrl, Variant variant) throws IOException {
+        BufferedImage resized = resize(source, maxSize);
+        // Own temp name rather than createTempFile, which would leave the variant owner-read-only
+        Path temp = objectStorage.stagingDir().resolve("variant-" + UUID.randomUUID() + ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                // No metadata passed: the file carries only the JFIF header
+                writer.write(null, new IIOImage(resized, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            objectStorage.put(FileStorageService.keyOf(variantUrl(imageUrl, variant)), temp, "image/jpeg");
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return resized;
+    }
+
+    /**
+     * Fit within maxSize x maxSize (never upscale) onto an opaque RGB canvas. Halves the image
+     * in steps before the final bilinear pass, which keeps quality close to area averaging
+     * at a fraction of the cost.
+     */
+    static BufferedImage resize(BufferedImage source, int maxSize) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, targetWidth, targetHeight);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE); // transparent PNG/GIF areas
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /** Apply an EXIF orientation (1-8) to the pixels. */
+    static BufferedImage orient(BufferedImage source, int orientation) {
+        if (orientation <= ExifOrientation.NORMAL || orientation > 8) {
+            return source;
+        }
+        int w = source.getWidth();
+        int h = source.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);  // mirror horizontal
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h); // rotate 180
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);  // mirror vertical
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);   // transpose
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);  // rotate 90 clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w); // transverse
+            default -> new AffineTransform(0, -1, 1, 0, 0, w); // 8: rotate 90 counter-clockwise
+        };
+        BufferedImage target = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, target.getWidth(), target.getHeight());
+            g.drawImage(source, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+}
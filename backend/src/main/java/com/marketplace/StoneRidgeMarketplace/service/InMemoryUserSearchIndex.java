@@ -0,0 +1,242 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trigram index held in memory, for databases without pg_trgm (H2, tests). Each trigram
+ * maps to a sorted array of user ids; a query counts, per user, how many of its trigrams
+ * the user's email/username contain, and scores by that fraction (roughly pg_trgm's
+ * word_similarity). Posting arrays are replaced, never mutated, so searches run without
+ * locks. Rebuilt periodically to pick up writes from other nodes.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryUserSearchIndex implements UserSearchIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final UserRepository userRepository;
+    private final double threshold;
+
+    private volatile Map<String, long[]> postings = new ConcurrentHashMap<>();
+    /** Indexed text per user, kept only to diff trigrams on update (a String, not a Set, per user). */
+    private final ConcurrentHashMap<Long, String> indexedText = new ConcurrentHashMap<>();
+
+    @Override
+    public String getMode() {
+        return "memory";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.search.users.rebuild-ms:600000}",
+            fixedDelayString = "${app.search.users.rebuild-ms:600000}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        Map<String, LongBuffer> building = new HashMap<>();
+        Map<Long, String> texts = new HashMap<>();
+        for (Object[] row : userRepository.findAllForSearchIndex()) {
+            long id = (Long) row[0];
+            String text = text((String) row[1], (String) row[2]);
+            texts.put(id, text);
+            for (String trigram : trigrams(text)) {
+                building.computeIfAbsent(trigram, t -> new LongBuffer()).add(id);
+            }
+        }
+        Map<String, long[]> rebuilt = new ConcurrentHashMap<>(building.size() * 2);
+        building.forEach((trigram, ids) -> rebuilt.put(trigram, ids.toSortedArray()));
+        synchronized (this) {
+            postings = rebuilt;
+            indexedText.clear();
+            indexedText.putAll(texts);
+        }
+        log.info("User search index built: {} users, {} trigrams in {} ms",
+                texts.size(), rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public List<Hit> search(String query, Cursor after, int limit) {
+        Set<String> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<String, long[]> current = postings;
+        long[][] lists = new long[queryTrigrams.size()][];
+        int k = 0;
+        for (String trigram : queryTrigrams) {
+            lists[k++] = current.getOrDefault(trigram, EMPTY);
+        }
+
+        // k-way merge over the sorted posting arrays: each distinct id once, with its hit count.
+        // A bounded heap keeps the best `limit` hits (worst on top).
+        Comparator<Hit> order = Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::userId);
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, order.reversed());
+        int[] pos = new int[lists.length];
+        int total = queryTrigrams.size();
+        while (true) {
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < lists.length; i++) {
+                if (pos[i] < lists[i].length && lists[i][pos[i]] < min) {
+                    min = lists[i][pos[i]];
+                }
+            }
+            if (min == Long.MAX_VALUE) {
+                break;
+            }
+            int hits = 0;
+            for (int i = 0; i < lists.length; i++) {
+                if (pos[i] < lists[i].length && lists[i][pos[i]] == min) {
+                    hits++;
+                    pos[i]++;
+                }
+            }
+            double score = UserSearchIndex.round((double) hits / total);
+            if (score < threshold || !isAfter(score, min, after)) {
+                continue;
+            }
+            best.add(new Hit(min, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Hit> result = new ArrayList<>(best);
+        result.sort(order);
+        return result;
+    }
+
+    @Override
+    public void upsert(Long userId, String email, String username) {
+        afterCommit(() -> apply(userId, text(email, username)));
+    }
+
+    @Override
+    public void remove(Long userId) {
+        afterCommit(() -> apply(userId, null));
+    }
+
+    private synchronized void apply(Long userId, String text) {
+        Set<String> previous = trigrams(indexedText.get(userId));
+        Set<String> trigrams = trigrams(text);
+        for (String trigram : previous) {
+            if (!trigrams.contains(trigram)) {
+                postings.computeIfPresent(trigram, (t, ids) -> without(ids, userId));
+            }
+        }
+        for (String trigram : trigrams) {
+            if (!previous.contains(trigram)) {
+                postings.merge(trigram, new long[]{userId}, (ids, single) -> with(ids, userId));
+            }
+        }
+        if (text == null) {
+            indexedText.remove(userId);
+        } else {
+            indexedText.put(userId, text);
+        }
+    }
+
+    private static boolean isAfter(double score, long userId, Cursor after) {
+        return after == null || score < after.score() || (score == after.score() && userId > after.userId());
+    }
+
+    private static long[] with(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return ids;
+        }
+        int insertAt = -index - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, insertAt);
+        copy[insertAt] = id;
+        System.arraycopy(ids, insertAt, copy, insertAt + 1, ids.length - insertAt);
+        return copy;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null; // drops the trigram
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, index);
+        System.arraycopy(ids, index + 1, copy, index, ids.length - index - 1);
+        return copy;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String text(String email, String username) {
+        return ((email != null ? email : "") + " " + (username != null ? username : "")).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * pg_trgm-style trigrams: lower-cased alphanumeric words, each padded with two spaces
+     * in front and one behind.
+     */
+    static Set<String> trigrams(String value) {
+        Set<String> result = new HashSet<>();
+        if (value == null) {
+            return result;
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < lower.length()) {
+            while (i < lower.length() && !Character.isLetterOrDigit(lower.charAt(i))) {
+                i++;
+            }
+            int end = i;
+            while (end < lower.length() && Character.isLetterOrDigit(lower.charAt(end))) {
+                end++;
+            }
+            if (end > i) {
+                String padded = "  " + lower.substring(i, end) + " ";
+                for (int j = 0; j + 3 <= padded.length(); j++) {
+                    result.add(padded.substring(j, j + 3));
+                }
+            }
+            i = end;
+        }
+        return result;
+    }
+
+    /** Growable primitive list used while building posting arrays. */
+    private static final class LongBuffer {
+        private long[] values = new long[8];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toSortedArray() {
+            long[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
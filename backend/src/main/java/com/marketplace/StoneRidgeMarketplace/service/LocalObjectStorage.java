@@ -0,0 +1,136 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Objects as plain files under app.file.upload-dir. Writes are a rename from the staging
+ * directory, so readers never see a partial file.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalObjectStorage implements ObjectStorage {
+
+    /** The object file itself: nothing to pin, it stays until the object is deleted. */
+    private record LocalFile(Path path) implements LocalObject {
+
+        @Override
+        public boolean cached() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private final Path root;
+
+    public LocalObjectStorage(@Value("${app.file.upload-dir:./uploads}") String uploadDir) {
+        this.root = Paths.get(uploadDir);
+    }
+
+    @Override
+    public Path stagingDir() throws IOException {
+        // Inside the root so the final move is a same-file-system rename; stale files are collected by the upload GC
+        return Files.createDirectories(root.resolve(".incoming"));
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        // Objects are write-once, so a concurrent writer of the same key wrote the same bytes
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public ObjectInfo stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            return attributes.isRegularFile()
+                    ? new ObjectInfo(key, attributes.size(), attributes.lastModifiedTime().toMillis())
+                    : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public LocalObject openLocal(String key) {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? new LocalFile(path) : null;
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.deleteIfExists(path)) {
+            return false;
+        }
+        // Drop emptied digest shard directories (category/ab/cd), never the category itself
+        for (Path dir = path.getParent(); dir != null && root.relativize(dir).getNameCount() >= 2; dir = dir.getParent()) {
+            try {
+                Files.deleteIfExists(dir);
+            } catch (DirectoryNotEmptyException e) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void touch(String key) throws IOException {
+        Files.setLastModifiedTime(resolve(key), FileTime.from(Instant.now()));
+    }
+
+    @Override
+    public void list(Consumer<ObjectInfo> consumer) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    String key = root.relativize(file).toString().replace('\\', '/');
+                    consumer.accept(new ObjectInfo(key, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                log.warn("Could not read {}: {}", file, e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Override
+    public PresignedUpload presignPut(String key, String contentType, long size, String sha256Hex, Duration ttl) {
+        return null;
+    }
+
+    private Path resolve(String key) {
+        return root.resolve(ObjectStorage.requireValidKey(key));
+    }
+}
@@ -3,8 +3,10 @@ package com.marketplace.StoneRidgeMarketplace.service;
 import com.marketplace.StoneRidgeMarketplace.dto.request.NegotiationRequest;
 import com.marketplace.StoneRidgeMarketplace.dto.response.NegotiationDto;
 import com.marketplace.StoneRidgeMarketplace.entity.*;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
 import com.marketplace.StoneRidgeMarketplace.entity.enums.NegotiationStatus;
 import com.marketplace.StoneRidgeMarketplace.exception.ResourceNotFoundException;
+import com.marketplace.StoneRidgeMarketplace.monitoring.OfferAcceptEvent;
 import com.marketplace.StoneRidgeMarketplace.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +28,7 @@ public class NegotiationService {
     private final ChatMessageRepository chatMessageRepository;
     private final UserRepository userRepository;
     private final ProductService productService;
+    private final AnalyticsRecorder analyticsRecorder;
     
     /**
      * Make a price offer
@@ -72,6 +75,7 @@ public class NegotiationService {
                 .build();
         
         negotiation = negotiationRepository.save(negotiation);
+        analyticsRecorder.record(AnalyticsMetric.OFFERS_MADE, chat.getProduct());
         
         // Send notification message in chat
         String offerMessage = String.format("💰 %s made an offer of $%.2f%s", 
@@ -91,6 +95,8 @@ public class NegotiationService {
      * Accept an offer
      */
     public void acceptOffer(Long negotiationId, Long userId) {
+        OfferAcceptEvent event = new OfferAcceptEvent();
+        event.begin();
         Negotiation negotiation = negotiationRepository.findById(negotiationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Negotiation not found"));
         
@@ -111,6 +117,7 @@ public class NegotiationService {
         negotiation.setStatus(NegotiationStatus.ACCEPTED);
         negotiation.setRespondedAt(LocalDateTime.now());
         negotiationRepository.save(negotiation);
+        analyticsRecorder.record(AnalyticsMetric.OFFERS_ACCEPTED, chat.getProduct());
         
         // Mark product as sold
         productService.markProductAsSold(
@@ -138,6 +145,8 @@ public class NegotiationService {
         
         log.info("Offer accepted: ${} for product: {} by seller: {}", 
                 negotiation.getOfferedPrice(), chat.getProduct().getTitle(), user.getUsername());
+        event.finish(negotiationId, chat.getProduct().getId(), negotiation.getOfferedPrice().doubleValue(),
+                (int) otherOffers.stream().filter(offer -> !offer.getId().equals(negotiationId)).count());
     }
     
     /**
@@ -0,0 +1,86 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Where upload bytes live. Keys are upload-relative paths such as
+ * {@code products/ab/cd/abcd...ef.jpg}; the public URL of a key is {@code <base-url>/uploads/<key>}
+ * whichever backend holds it. Objects are written once and never modified in place.
+ */
+public interface ObjectStorage {
+
+    record ObjectInfo(String key, long size, long lastModified) {
+    }
+
+    /**
+     * A local file holding an object's bytes, readable until closed. Callers must only read it,
+     * and must open it before they close the handle.
+     */
+    interface LocalObject extends AutoCloseable {
+
+        Path path();
+
+        /**
+         * True for a cached copy of a remote object, which may be removed as soon as the handle
+         * is closed; false when the file is the object itself and stays until it is deleted.
+         */
+        boolean cached();
+
+        @Override
+        void close();
+    }
+
+    /** A direct-to-storage upload the client performs itself: PUT uploadUrl with exactly these headers. */
+    record PresignedUpload(String uploadUrl, Map<String, String> headers, Instant expiresAt) {
+    }
+
+    /** Scratch directory for staging files before {@link #put}; on the same file system as local objects. */
+    Path stagingDir() throws IOException;
+
+    /** Store a staged file under key. The source file is consumed (moved or deleted). */
+    void put(String key, Path source, String contentType) throws IOException;
+
+    /** Size and modification time, or null if there is no such object. */
+    ObjectInfo stat(String key) throws IOException;
+
+    /**
+     * The object's bytes as a local file - the object itself, or a cached copy of a remote one
+     * pinned until the handle is closed - or null if there is no such object.
+     */
+    LocalObject openLocal(String key) throws IOException;
+
+    /** True if an object was removed. */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * Drop any local copy of key kept by this node, e.g. after another node deleted the object.
+     * Backends that keep no copies have nothing to do.
+     */
+    default void evictCached(String key) {
+    }
+
+    /** Mark the object as freshly uploaded, where the backend can do that cheaply. */
+    void touch(String key) throws IOException;
+
+    /** Every stored object, in no particular order. */
+    void list(Consumer<ObjectInfo> consumer) throws IOException;
+
+    /**
+     * Presign a PUT of size bytes whose SHA-256 is sha256Hex, or null if the backend does not
+     * support direct uploads (the local file system).
+     */
+    PresignedUpload presignPut(String key, String contentType, long size, String sha256Hex, Duration ttl);
+
+    /** Rejects keys that could escape the storage root. */
+    static String requireValidKey(String key) {
+        if (key == null || key.isEmpty() || key.startsWith("/") || key.contains("..") || key.contains("\\")) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return key;
+    }
+}
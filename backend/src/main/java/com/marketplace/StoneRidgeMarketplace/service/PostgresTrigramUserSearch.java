@@ -0,0 +1,96 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * User search on PostgreSQL with pg_trgm. GIN trigram indexes on lower(email) and
+ * lower(username) serve the word-similarity operator (<%), so a search touches only
+ * candidate rows; ranking uses word_similarity and paging is keyset on (score, id).
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresTrigramUserSearch implements UserSearchIndex {
+
+    private static final String SCORED = """
+            SELECT id, score FROM (
+                SELECT u.id,
+                       ROUND(CAST(GREATEST(word_similarity(?, lower(u.email)),
+                                           word_similarity(?, lower(u.username))) AS numeric), 4) AS score
+                FROM users u
+                WHERE ? <% lower(u.email) OR ? <% lower(u.username)
+            ) m
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final double threshold;
+
+    @Override
+    public String getMode() {
+        return "trigram";
+    }
+
+    /**
+     * Whether the extension and both indexes (migrations V13 and V14) are in place and valid.
+     * Returns false (caller falls back to the in-memory index) otherwise, e.g. after a failed
+     * concurrent build left an invalid index behind.
+     */
+    public boolean initialize() {
+        try {
+            Integer valid = jdbcTemplate.queryForObject("""
+                    SELECT count(*) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+                    WHERE c.relname IN ('idx_users_email_trgm', 'idx_users_username_trgm') AND i.indisvalid
+                    """, Integer.class);
+            if (valid != null && valid == 2) {
+                return true;
+            }
+            log.warn("pg_trgm indexes missing or invalid, user search falls back to the in-memory index");
+        } catch (RuntimeException e) {
+            log.warn("pg_trgm unavailable, user search falls back to the in-memory index: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public List<Hit> search(String query, Cursor after, int limit) {
+        String q = query.trim().toLowerCase();
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        StringBuilder sql = new StringBuilder(SCORED);
+        List<Object> args = new ArrayList<>(List.of(q, q, q, q));
+        if (after != null) {
+            sql.append(" WHERE m.score < ? OR (m.score = ? AND m.id > ?)");
+            args.add(after.score());
+            args.add(after.score());
+            args.add(after.userId());
+        }
+        sql.append(" ORDER BY m.score DESC, m.id ASC LIMIT ?");
+        args.add(limit);
+
+        // The <% operator reads its cut-off from this setting; is_local = true scopes it to the transaction
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                    String.class, String.valueOf(threshold));
+            return jdbcTemplate.query(sql.toString(),
+                    (rs, rowNum) -> new Hit(rs.getLong("id"), rs.getDouble("score")),
+                    args.toArray());
+        });
+    }
+
+    @Override
+    public void upsert(Long userId, String email, String username) {
+        // Maintained by the GIN indexes
+    }
+
+    @Override
+    public void remove(Long userId) {
+        // Maintained by the GIN indexes
+    }
+}
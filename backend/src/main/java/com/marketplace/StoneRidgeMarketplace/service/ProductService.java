@@ -6,12 +6,16 @@ import com.marketplace.StoneRidgeMarketplace.dto.response.ProductDto;
 import com.marketplace.StoneRidgeMarketplace.dto.response.ProductSummaryDto;
 import com.marketplace.StoneRidgeMarketplace.dto.response.ProductImageDto;
 import com.marketplace.StoneRidgeMarketplace.entity.*;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AuditAction;
 import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductStatus;
 import com.marketplace.StoneRidgeMarketplace.exception.ResourceNotFoundException;
+import com.marketplace.StoneRidgeMarketplace.monitoring.ListingQueryEvent;
 import com.marketplace.StoneRidgeMarketplace.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,7 +23,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +41,11 @@ public class ProductService {
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final ChatRepository chatRepository;
+    private final AdminMetricsRegistry metricsRegistry;
+    private final AnalyticsRecorder analyticsRecorder;
+    private final AdminAuditLog auditLog;
+    private final ImageProcessingService imageProcessingService;
+    private final FileStorageService fileStorageService;
 
     /**
      * Create new product listing
@@ -59,6 +72,8 @@ public class ProductService {
                 .build();
 
         product = productRepository.save(product);
+        metricsRegistry.productCreated(product.getStatus());
+        analyticsRecorder.record(AnalyticsMetric.LISTINGS_CREATED, product);
 
         // Handle images
         if (request.getImageUrls() != null && !request.getImageUrls().isEmpty()) {
@@ -90,25 +105,23 @@ public class ProductService {
      * Get all active products with pagination
      */
     public Page<ProductSummaryDto> getAllProducts(Pageable pageable, Long currentUserId) {
-        Page<Product> products = productRepository.findByStatusOrderByCreatedAtDesc(ProductStatus.ACTIVE, pageable);
-        return products.map(product -> mapToProductSummaryDto(product, currentUserId));
+        return listing("all", currentUserId,
+                () -> productRepository.findByStatusOrderByCreatedAtDesc(ProductStatus.ACTIVE, pageable));
     }
 
     /**
      * Get products by category
      */
     public Page<ProductSummaryDto> getProductsByCategory(Long categoryId, Pageable pageable, Long currentUserId) {
-        Page<Product> products = productRepository.findByCategoryIdAndStatusOrderByCreatedAtDesc(
-                categoryId, ProductStatus.ACTIVE, pageable);
-        return products.map(product -> mapToProductSummaryDto(product, currentUserId));
+        return listing("category", currentUserId, () -> productRepository.findByCategoryIdAndStatusOrderByCreatedAtDesc(
+                categoryId, ProductStatus.ACTIVE, pageable));
     }
 
     /**
      * Search products by keyword
      */
     public Page<ProductSummaryDto> searchProducts(String keyword, Pageable pageable, Long currentUserId) {
-        Page<Product> products = productRepository.searchProducts(keyword, pageable);
-        return products.map(product -> mapToProductSummaryDto(product, currentUserId));
+        return listing("search", currentUserId, () -> productRepository.searchProducts(keyword, pageable));
     }
 
     /**
@@ -116,17 +129,15 @@ public class ProductService {
      */
     public Page<ProductSummaryDto> getProductsByFilters(Long categoryId, BigDecimal minPrice,
             BigDecimal maxPrice, Pageable pageable, Long currentUserId) {
-        Page<Product> products = productRepository.findByCategoryAndPriceRange(
-                categoryId, minPrice, maxPrice, pageable);
-        return products.map(product -> mapToProductSummaryDto(product, currentUserId));
+        return listing("filters", currentUserId, () -> productRepository.findByCategoryAndPriceRange(
+                categoryId, minPrice, maxPrice, pageable));
     }
 
     /**
      * Get products from same building
      */
     public Page<ProductSummaryDto> getProductsByBuilding(String building, Pageable pageable, Long currentUserId) {
-        Page<Product> products = productRepository.findBySellerBuilding(building, pageable);
-        return products.map(product -> mapToProductSummaryDto(product, currentUserId));
+        return listing("building", currentUserId, () -> productRepository.findBySellerBuilding(building, pageable));
     }
 
     /**
@@ -137,7 +148,7 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         Page<Product> products = productRepository.findBySellerAndStatusOrderByCreatedAtDesc(user, status, pageable);
-        return products.map(product -> mapToProductSummaryDto(product, userId));
+        return mapToProductSummaryPage(products, userId);
     }
 
     /**
@@ -171,6 +182,10 @@ public class ProductService {
             product.setCondition(request.getCondition());
         }
         if (request.getStatus() != null) {
+            metricsRegistry.productStatusChanged(product.getStatus(), request.getStatus());
+            if (request.getStatus() == ProductStatus.SOLD && product.getStatus() != ProductStatus.SOLD) {
+                analyticsRecorder.record(AnalyticsMetric.ITEMS_SOLD, product);
+            }
             product.setStatus(request.getStatus());
         }
         if (request.getCategoryId() != null) {
@@ -187,7 +202,8 @@ public class ProductService {
 
         // Handle image updates
         if (request.getImageUrls() != null) {
-            // Delete existing images
+            // Delete existing images; blobs the new list still uses keep their files
+            fileStorageService.releaseUrls(productImageRepository.findImageUrlsByProductIdIn(List.of(productId)));
             productImageRepository.deleteByProductId(productId);
             // Save new images
             saveProductImages(product, request.getImageUrls());
@@ -217,6 +233,8 @@ public class ProductService {
             throw new IllegalStateException("Only the seller can mark the product as sold");
         }
 
+        metricsRegistry.productStatusChanged(product.getStatus(), ProductStatus.SOLD);
+        analyticsRecorder.record(AnalyticsMetric.ITEMS_SOLD, product);
         product.setStatus(ProductStatus.SOLD);
         product.setBuyer(buyer);
         product.setSoldAt(LocalDateTime.now());
@@ -241,7 +259,9 @@ public class ProductService {
             throw new IllegalStateException("You can only delete your own products");
         }
 
+        fileStorageService.releaseUrls(productImageRepository.findImageUrlsByProductIdIn(List.of(productId)));
         productRepository.delete(product);
+        metricsRegistry.productDeleted(product.getStatus());
 
         log.info("Product deleted: {} by user: {}", product.getTitle(), user.getUsername());
     }
@@ -251,27 +271,36 @@ public class ProductService {
      */
     public Page<ProductSummaryDto> getAllProductsForAdmin(Pageable pageable) {
         Page<Product> products = productRepository.findAllByOrderByCreatedAtDesc(pageable);
-        return products.map(product -> mapToProductSummaryDto(product, null));
+        return mapToProductSummaryPage(products, null);
     }
 
     /**
      * Admin: Deactivate a product (hide from listing)
      */
-    public void adminDeactivateProduct(Long productId) {
+    public void adminDeactivateProduct(Long productId, Long adminId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        ProductStatus previous = product.getStatus();
+        metricsRegistry.productStatusChanged(previous, ProductStatus.INACTIVE);
         product.setStatus(ProductStatus.INACTIVE);
         productRepository.save(product);
+        auditLog.record(adminId, AuditAction.PRODUCT_DEACTIVATED, AdminAuditLog.PRODUCT, productId,
+                AdminAuditLog.state("status", previous), AdminAuditLog.state("status", ProductStatus.INACTIVE));
         log.info("Product {} deactivated by admin", product.getTitle());
     }
 
     /**
      * Admin: Delete any product
      */
-    public void adminDeleteProduct(Long productId) {
+    public void adminDeleteProduct(Long productId, Long adminId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        fileStorageService.releaseUrls(productImageRepository.findImageUrlsByProductIdIn(List.of(productId)));
         productRepository.delete(product);
+        auditLog.record(adminId, AuditAction.PRODUCT_DELETED, AdminAuditLog.PRODUCT, productId,
+                AdminAuditLog.state("title", product.getTitle(), "status", product.getStatus(),
+                        "sellerId", product.getSeller().getId(), "price", product.getPrice()), null);
+        metricsRegistry.productDeleted(product.getStatus());
         log.info("Product {} deleted by admin", product.getTitle());
     }
 
@@ -281,9 +310,7 @@ public class ProductService {
     public List<ProductSummaryDto> getMostViewedProducts(int limit, Long currentUserId) {
         Pageable pageable = PageRequest.of(0, limit);
         List<Product> products = productRepository.findMostViewedProducts(pageable);
-        return products.stream()
-                .map(product -> mapToProductSummaryDto(product, currentUserId))
-                .collect(Collectors.toList());
+        return mapToProductSummaryDtos(products, currentUserId);
     }
 
     /**
@@ -293,12 +320,23 @@ public class ProductService {
         Pageable pageable = PageRequest.of(0, limit);
         LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
         List<Product> products = productRepository.findRecentProducts(sevenDaysAgo, pageable);
-        return products.stream()
-                .map(product -> mapToProductSummaryDto(product, currentUserId))
-                .collect(Collectors.toList());
+        return mapToProductSummaryDtos(products, currentUserId);
+    }
+
+    /**
+     * Runs a public listing query and maps the page, timed as a {@link ListingQueryEvent} so
+     * per-row lookups during mapping count towards it.
+     */
+    private Page<ProductSummaryDto> listing(String query, Long currentUserId, Supplier<Page<Product>> finder) {
+        ListingQueryEvent event = new ListingQueryEvent();
+        event.begin();
+        Page<ProductSummaryDto> page = mapToProductSummaryPage(finder.get(), currentUserId);
+        event.finish(query, page.getNumber(), page.getSize(), page.getNumberOfElements(), page.getTotalElements());
+        return page;
     }
 
     private void saveProductImages(Product product, List<String> imageUrls) {
+        List<ProductImage> images = new ArrayList<>(imageUrls.size());
         for (int i = 0; i < imageUrls.size(); i++) {
             ProductImage image = ProductImage.builder()
                     .product(product)
@@ -307,11 +345,15 @@ public class ProductService {
                     .primary(i == 0) // First image is primary
                     .displayOrder(i + 1)
                     .build();
-            productImageRepository.save(image);
+            imageProcessingService.applyReadyVariants(image);
+            images.add(image);
         }
+        // One batched insert for all of a listing's images
+        productImageRepository.saveAll(images);
+        fileStorageService.retainUrls(imageUrls);
     }
 
-    private ProductDto mapToProductDto(Product product, Long currentUserId) {
+    ProductDto mapToProductDto(Product product, Long currentUserId) {
         List<ProductImage> images = productImageRepository.findByProductIdOrderByDisplayOrderAsc(product.getId());
         Integer activeChatsCount = chatRepository.countActiveChatsForProduct(product.getId());
 
@@ -352,8 +394,30 @@ public class ProductService {
                 .build();
     }
 
-    private ProductSummaryDto mapToProductSummaryDto(Product product, Long currentUserId) {
-        ProductImage primaryImage = productImageRepository.findByProductIdAndPrimaryTrue(product.getId()).orElse(null);
+    private Page<ProductSummaryDto> mapToProductSummaryPage(Page<Product> products, Long currentUserId) {
+        return new PageImpl<>(mapToProductSummaryDtos(products.getContent(), currentUserId),
+                products.getPageable(), products.getTotalElements());
+    }
+
+    /**
+     * Maps a page of listings with a fixed number of queries: primary images are fetched for
+     * the whole page at once, sellers and categories by Hibernate's batch fetching.
+     */
+    List<ProductSummaryDto> mapToProductSummaryDtos(List<Product> products, Long currentUserId) {
+        if (products.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ProductImage> primaryImages = new HashMap<>();
+        List<Long> productIds = products.stream().map(Product::getId).collect(Collectors.toList());
+        for (ProductImage image : productImageRepository.findByProductIdInAndPrimaryTrue(productIds)) {
+            primaryImages.putIfAbsent(image.getProduct().getId(), image);
+        }
+        return products.stream()
+                .map(product -> mapToProductSummaryDto(product, primaryImages.get(product.getId()), currentUserId))
+                .collect(Collectors.toList());
+    }
+
+    private ProductSummaryDto mapToProductSummaryDto(Product product, ProductImage primaryImage, Long currentUserId) {
         boolean isOwner = currentUserId != null && product.getSeller().getId().equals(currentUserId);
 
         return ProductSummaryDto.builder()
@@ -362,7 +426,8 @@ public class ProductService {
                 .price(product.getPrice())
                 .condition(product.getCondition())
                 .status(product.getStatus())
-                .primaryImageUrl(primaryImage != null ? primaryImage.getImageUrl() : null)
+                .primaryImageUrl(primaryImage != null ? orOriginal(primaryImage.getCardUrl(), primaryImage) : null)
+                .primaryThumbnailUrl(primaryImage != null ? orOriginal(primaryImage.getThumbnailUrl(), primaryImage) : null)
                 .categoryName(product.getCategory().getName())
                 .sellerName(product.getSeller().getEffectiveDisplayName())
                 .sellerBuilding(product.getSeller().getBuildingName() != null ? product.getSeller().getBuildingName() : "—")
@@ -377,9 +442,19 @@ public class ProductService {
         return ProductImageDto.builder()
                 .id(image.getId())
                 .imageUrl(image.getImageUrl())
+                .thumbnailUrl(orOriginal(image.getThumbnailUrl(), image))
+                .cardUrl(orOriginal(image.getCardUrl(), image))
+                .fullUrl(orOriginal(image.getFullUrl(), image))
+                .width(image.getWidth())
+                .height(image.getHeight())
                 .fileName(image.getFileName())
                 .primary(image.isPrimary())
                 .displayOrder(image.getDisplayOrder())
                 .build();
     }
+
+    // Variants may not exist yet (still processing, or a format the pipeline cannot decode)
+    private static String orOriginal(String variantUrl, ProductImage image) {
+        return variantUrl != null ? variantUrl : image.getImageUrl();
+    }
 }
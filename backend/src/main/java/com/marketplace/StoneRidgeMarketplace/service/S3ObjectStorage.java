@@ -0,0 +1,519 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.marketplace.StoneRidgeMarketplace.util.AwsSigV4;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Objects in an S3-compatible bucket (AWS S3, MinIO, Ceph RGW, R2...), spoken to directly over
+ * HTTP with SigV4 signing, so several backend nodes can share uploads. Large objects go up as
+ * multipart uploads streamed from the staged file a part at a time. Reads go through a
+ * size-bounded local disk cache: objects never change, so a cached copy stays valid until it
+ * is evicted or the object is deleted, and the hot set is served from local disk without a
+ * round trip to the bucket. Cached files are pinned while readers hold them, so eviction never
+ * deletes a file a reader is about to open.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+@Slf4j
+public class S3ObjectStorage implements ObjectStorage {
+
+    /**
+     * A file in the local cache. Readers pin it while they use it; once evicted (size bound,
+     * replacement or delete) the file goes when the last reader lets go, not before, so a
+     * path handed out is never removed under a reader that has yet to open it.
+     */
+    private static final class CachedObject {
+
+        private final Path path;
+        private final long size;
+        private int pins;
+        private boolean evicted;
+
+        CachedObject(Path path, long size) {
+            this.path = path;
+            this.size = size;
+        }
+
+        /** False once evicted: the caller must look the key up again. */
+        synchronized boolean pin() {
+            if (evicted) {
+                return false;
+            }
+            pins++;
+            return true;
+        }
+
+        synchronized void unpin() {
+            if (--pins == 0 && evicted) {
+                remove();
+            }
+        }
+
+        synchronized void evict() {
+            evicted = true;
+            if (pins == 0) {
+                remove();
+            }
+        }
+
+        private void remove() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.debug("Could not remove cached object {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    /** A reader's pin on a cached file; closing twice releases once. */
+    private static final class PinnedObject implements LocalObject {
+
+        private final CachedObject cached;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        PinnedObject(CachedObject cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Path path() {
+            return cached.path;
+        }
+
+        @Override
+        public boolean cached() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                cached.unpin();
+            }
+        }
+    }
+
+    @Value("${app.storage.s3.endpoint:https://s3.amazonaws.com}")
+    private String endpoint;
+
+    @Value("${app.storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${app.storage.s3.bucket:}")
+    private String bucket;
+
+    @Value("${app.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${app.storage.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${app.storage.s3.path-style:true}")
+    private boolean pathStyle;
+
+    @Value("${app.storage.s3.key-prefix:}")
+    private String keyPrefix;
+
+    @Value("${app.storage.s3.multipart-threshold-bytes:16777216}")
+    private long multipartThreshold;
+
+    @Value("${app.storage.s3.part-size-bytes:8388608}")
+    private int partSize;
+
+    @Value("${app.storage.s3.list-page-size:1000}")
+    private int listPageSize;
+
+    @Value("${app.storage.s3.request-timeout-seconds:30}")
+    private long requestTimeoutSeconds;
+
+    @Value("${app.storage.cache-dir:./storage-cache}")
+    private String cacheDirName;
+
+    @Value("${app.storage.cache-max-bytes:1073741824}")
+    private long cacheMaxBytes;
+
+    private HttpClient http;
+    private AwsSigV4.Credentials credentials;
+    private String baseUri;
+    private String hostHeader;
+    private String bucketPath;
+    private Duration requestTimeout;
+    private Path stagingDir;
+    private Path objectCacheDir;
+    private Cache<String, CachedObject> cache;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (bucket.isBlank() || accessKey.isBlank() || secretKey.isBlank()) {
+            throw new IllegalStateException("app.storage.type=s3 needs app.storage.s3.bucket, access-key and secret-key");
+        }
+        if (partSize < 5 * 1024 * 1024) {
+            throw new IllegalStateException("app.storage.s3.part-size-bytes must be at least 5 MB (S3 minimum)");
+        }
+        URI uri = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        String authority = uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+        hostHeader = pathStyle ? authority : bucket + "." + authority;
+        baseUri = uri.getScheme() + "://" + hostHeader;
+        bucketPath = pathStyle ? "/" + bucket : "";
+        credentials = new AwsSigV4.Credentials(accessKey, secretKey, region, "s3");
+        requestTimeout = Duration.ofSeconds(requestTimeoutSeconds);
+        http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+        Path cacheRoot = Paths.get(cacheDirName).toAbsolutePath();
+        stagingDir = Files.createDirectories(cacheRoot.resolve("incoming"));
+        objectCacheDir = cacheRoot.resolve("objects");
+        // The index below lives in memory only, so files left by a previous run are unreachable
+        FileSystemUtils.deleteRecursively(objectCacheDir);
+        Files.createDirectories(objectCacheDir);
+        cache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((String key, CachedObject cached) -> (int) Math.min(Integer.MAX_VALUE, Math.max(1, cached.size)))
+                .removalListener((String key, CachedObject cached, RemovalCause cause) -> {
+                    if (cached != null) {
+                        cached.evict();
+                    }
+                })
+                .build();
+        log.info("S3 object storage: {}{} (prefix '{}'), local cache {} bytes at {}",
+                baseUri, bucketPath, keyPrefix, cacheMaxBytes, cacheRoot);
+    }
+
+    @Override
+    public Path stagingDir() {
+        return stagingDir;
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        try {
+            long size = Files.size(source);
+            if (size > multipartThreshold) {
+                putMultipart(key, source, size, contentType);
+            } else {
+                HttpResponse<String> response = send("PUT", objectPath(key), Map.of(),
+                        Map.of("content-type", contentType), HttpRequest.BodyPublishers.ofFile(source),
+                        AwsSigV4.UNSIGNED_PAYLOAD, HttpResponse.BodyHandlers.ofString());
+                requireSuccess(response, "PUT " + key);
+            }
+            // We hold the bytes already: keep them as the cached copy rather than re-downloading on first read
+            Path cached = objectCacheDir.resolve(UUID.randomUUID() + ".obj");
+            Files.move(source, cached, StandardCopyOption.ATOMIC_MOVE);
+            cache.put(key, new CachedObject(cached, size));
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    private void putMultipart(String key, Path source, long size, String contentType) throws IOException {
+        String path = objectPath(key);
+        HttpResponse<String> created = send("POST", path, Map.of("uploads", ""), Map.of("content-type", contentType),
+                HttpRequest.BodyPublishers.noBody(), AwsSigV4.EMPTY_PAYLOAD, HttpResponse.BodyHandlers.ofString());
+        requireSuccess(created, "create multipart upload " + key);
+        String uploadId = xmlValues(created.body(), "UploadId").stream().findFirst()
+                .orElseThrow(() -> new IOException("No UploadId for " + key));
+        try {
+            List<String> etags = new ArrayList<>();
+            ByteBuffer buffer = ByteBuffer.allocate(partSize);
+            try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+                for (long offset = 0; offset < size; offset += partSize) {
+                    buffer.clear();
+                    while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                        // fill the part
+                    }
+                    byte[] part = new byte[buffer.position()];
+                    buffer.flip().get(part);
+                    int partNumber = etags.size() + 1;
+                    HttpResponse<String> uploaded = send("PUT", path,
+                            Map.of("partNumber", String.valueOf(partNumber), "uploadId", uploadId), Map.of(),
+                            HttpRequest.BodyPublishers.ofByteArray(part), AwsSigV4.UNSIGNED_PAYLOAD,
+                            HttpResponse.BodyHandlers.ofString());
+                    requireSuccess(uploaded, "upload part " + partNumber + " of " + key);
+                    etags.add(uploaded.headers().firstValue("ETag")
+                            .orElseThrow(() -> new IOException("No ETag for part " + partNumber + " of " + key)));
+                }
+            }
+            StringBuilder complete = new StringBuilder("<CompleteMultipartUpload>");
+            for (int i = 0; i < etags.size(); i++) {
+                complete.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                        .append(etags.get(i).replace("&", "&amp;").replace("\"", "&quot;")).append("</ETag></Part>");
+            }
+            byte[] body = complete.append("</CompleteMultipartUpload>").toString().getBytes(StandardCharsets.UTF_8);
+            HttpResponse<String> completed = send("POST", path, Map.of("uploadId", uploadId), Map.of("content-type", "application/xml"),
+                    HttpRequest.BodyPublishers.ofByteArray(body), AwsSigV4.sha256Hex(body), HttpResponse.BodyHandlers.ofString());
+            // S3 can report a failed completion inside a 200 response
+            if (completed.statusCode() / 100 != 2 || completed.body().contains("<Error>")) {
+                throw new IOException("Complete multipart upload of " + key + " failed: " + completed.statusCode() + " " + completed.body());
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                send("DELETE", path, Map.of("uploadId", uploadId), Map.of(), HttpRequest.BodyPublishers.noBody(),
+                        AwsSigV4.EMPTY_PAYLOAD, HttpResponse.BodyHandlers.discarding());
+            } catch (IOException abortFailure) {
+                e.addSuppressed(abortFailure);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public ObjectInfo stat(String key) throws IOException {
+        HttpResponse<Void> response = send("HEAD", objectPath(key), Map.of(), Map.of(),
+                HttpRequest.BodyPublishers.noBody(), AwsSigV4.EMPTY_PAYLOAD, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        requireSuccess(response, "HEAD " + key);
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(0);
+        long lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli())
+                .orElse(0L);
+        return new ObjectInfo(key, size, lastModified);
+    }
+
+    @Override
+    public LocalObject openLocal(String key) throws IOException {
+        ObjectStorage.requireValidKey(key);
+        try {
+            while (true) {
+                // Loads are per key: concurrent readers of a cold object share one download
+                CachedObject cached = cache.get(key, this::download);
+                if (cached == null) {
+                    return null;
+                }
+                if (cached.pin()) {
+                    return new PinnedObject(cached);
+                }
+                // Evicted between the lookup and the pin; the next lookup loads a fresh copy
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private CachedObject download(String key) {
+        Path target = objectCacheDir.resolve(UUID.randomUUID() + ".obj");
+        try {
+            HttpResponse<Path> response = send("GET", objectPath(key), Map.of(), Map.of(),
+                    HttpRequest.BodyPublishers.noBody(), AwsSigV4.EMPTY_PAYLOAD, HttpResponse.BodyHandlers.ofFile(target));
+            if (response.statusCode() == 404) {
+                Files.deleteIfExists(target);
+                return null;
+            }
+            if (response.statusCode() / 100 != 2) {
+                String error = Files.readString(target);
+                Files.deleteIfExists(target);
+                throw new IOException("GET " + key + " failed: " + response.statusCode() + " " + error);
+            }
+            return new CachedObject(target, Files.size(target));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        cache.invalidate(key);
+        HttpResponse<String> response = send("DELETE", objectPath(key), Map.of(), Map.of(),
+                HttpRequest.BodyPublishers.noBody(), AwsSigV4.EMPTY_PAYLOAD, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        requireSuccess(response, "DELETE " + key);
+        return true;
+    }
+
+    @Override
+    public void evictCached(String key) {
+        cache.invalidate(key);
+    }
+
+    /** Objects cannot be touched without a copy; the upload GC relies on stored_blobs.last_uploaded_at instead. */
+    @Override
+    public void touch(String key) {
+    }
+
+    @Override
+    public void list(Consumer<ObjectInfo> consumer) throws IOException {
+        String continuationToken = null;
+        do {
+            Map<String, String> query = new HashMap<>();
+            query.put("list-type", "2");
+            query.put("max-keys", String.valueOf(listPageSize));
+            if (!keyPrefix.isEmpty()) {
+                query.put("prefix", keyPrefix);
+            }
+            if (continuationToken != null) {
+                query.put("continuation-token", continuationToken);
+            }
+            HttpResponse<String> response = send("GET", bucketPath.isEmpty() ? "/" : bucketPath, query, Map.of(),
+                    HttpRequest.BodyPublishers.noBody(), AwsSigV4.EMPTY_PAYLOAD, HttpResponse.BodyHandlers.ofString());
+            requireSuccess(response, "list " + bucket);
+            continuationToken = parseListing(response.body(), consumer);
+        } while (continuationToken != null);
+    }
+
+    /** Feeds one ListObjectsV2 page to consumer; returns the next continuation token, or null on the last page. */
+    private String parseListing(String xml, Consumer<ObjectInfo> consumer) throws IOException {
+        try {
+            XMLStreamReader reader = xmlReader(xml);
+            Map<String, String> contents = null;
+            String element = null;
+            String nextToken = null;
+            boolean truncated = false;
+            StringBuilder text = new StringBuilder();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    element = reader.getLocalName();
+                    text.setLength(0);
+                    if ("Contents".equals(element)) {
+                        contents = new LinkedHashMap<>();
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("Contents".equals(name) && contents != null) {
+                        String key = contents.get("Key");
+                        if (key != null && key.startsWith(keyPrefix)) {
+                            consumer.accept(new ObjectInfo(key.substring(keyPrefix.length()),
+                                    Long.parseLong(contents.getOrDefault("Size", "0")),
+                                    Instant.parse(contents.get("LastModified")).toEpochMilli()));
+                        }
+                        contents = null;
+                    } else if (contents != null) {
+                        contents.put(name, text.toString());
+                    } else if ("IsTruncated".equals(name)) {
+                        truncated = Boolean.parseBoolean(text.toString().trim());
+                    } else if ("NextContinuationToken".equals(name)) {
+                        nextToken = text.toString();
+                    }
+                    text.setLength(0);
+                }
+            }
+            return truncated ? nextToken : null;
+        } catch (XMLStreamException | RuntimeException e) {
+            throw new IOException("Unreadable bucket listing", e);
+        }
+    }
+
+    @Override
+    public PresignedUpload presignPut(String key, String contentType, long size, String sha256Hex, Duration ttl) {
+        String path = objectPath(key);
+        // Signed headers pin the upload: the client cannot change the type or length, and the
+        // store rejects a body whose checksum differs from the digest the key is named after
+        Map<String, String> signed = new HashMap<>();
+        signed.put("host", hostHeader);
+        signed.put("content-type", contentType);
+        signed.put("content-length", String.valueOf(size));
+        signed.put("x-amz-checksum-sha256", Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256Hex)));
+        Instant now = Instant.now();
+        String query = AwsSigV4.presignedQuery(credentials, "PUT", path, Map.of(), signed, now, ttl);
+        Map<String, String> clientHeaders = new LinkedHashMap<>();
+        clientHeaders.put("Content-Type", contentType);
+        clientHeaders.put("x-amz-checksum-sha256", signed.get("x-amz-checksum-sha256"));
+        return new PresignedUpload(baseUri + AwsSigV4.uriEncode(path, true) + "?" + query, clientHeaders, now.plus(ttl));
+    }
+
+    private String objectPath(String key) {
+        return bucketPath + "/" + keyPrefix + ObjectStorage.requireValidKey(key);
+    }
+
+    private <T> HttpResponse<T> send(String method, String path, Map<String, String> query, Map<String, String> extraHeaders,
+                                     HttpRequest.BodyPublisher body, String payloadHash,
+                                     HttpResponse.BodyHandler<T> handler) throws IOException {
+        Map<String, String> headers = new HashMap<>(extraHeaders);
+        headers.put("host", hostHeader);
+        headers.put("x-amz-date", AwsSigV4.amzDate(Instant.now()));
+        headers.put("x-amz-content-sha256", payloadHash);
+        String authorization = AwsSigV4.authorization(credentials, method, path, query, headers, payloadHash);
+        String uri = baseUri + AwsSigV4.uriEncode(path, true) + (query.isEmpty() ? "" : "?" + AwsSigV4.canonicalQuery(query));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(requestTimeout)
+                .method(method, body)
+                .header("Authorization", authorization);
+        headers.forEach((name, value) -> {
+            if (!"host".equals(name)) {
+                request.header(name, value);
+            }
+        });
+        try {
+            return http.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during " + method + " " + path);
+        }
+    }
+
+    private static void requireSuccess(HttpResponse<?> response, String operation) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            Object body = response.body();
+            throw new IOException(operation + " failed: " + response.statusCode() + (body instanceof String ? " " + body : ""));
+        }
+    }
+
+    private static List<String> xmlValues(String xml, String element) throws IOException {
+        List<String> values = new ArrayList<>();
+        try {
+            XMLStreamReader reader = xmlReader(xml);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && element.equals(reader.getLocalName())) {
+                    values.add(reader.getElementText());
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Unreadable response", e);
+        }
+        return values;
+    }
+
+    private static XMLStreamReader xmlReader(String xml) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory.createXMLStreamReader(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,5 +1,7 @@
 package com.marketplace.StoneRidgeMarketplace.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Component;
 public class ScheduledTasks {
     
     private final NegotiationService negotiationService;
+    private final MeterRegistry meterRegistry;
     
     /**
      * Expire old negotiation offers every hour
@@ -18,6 +21,9 @@ public class ScheduledTasks {
     @Scheduled(cron = "0 0 * * * *") // Every hour at minute 0
     public void expireOldOffers() {
         log.info("Running scheduled task: expire old offers");
-        negotiationService.expireOldOffers();
+        Timer.builder("marketplace.offers.expiry")
+                .description("Duration of the hourly offer-expiry run")
+                .register(meterRegistry)
+                .record(negotiationService::expireOldOffers);
     }
 }
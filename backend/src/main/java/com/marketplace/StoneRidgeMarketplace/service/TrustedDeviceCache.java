@@ -0,0 +1,113 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of trusted-device lookups keyed by (user id, fingerprint), so a user
+ * logging in repeatedly from the same device does not query trusted_devices every time.
+ * Misses are cached too. Entries are grouped per user, so AuthService can drop a user's
+ * entries in one step whenever a device is created, revoked or deactivated; the short TTL
+ * bounds staleness across nodes.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrustedDeviceCache {
+
+    /**
+     * Result of a lookup; {@link #NONE} when the fingerprint has no active device.
+     */
+    public record Match(Long deviceId, LocalDateTime expiresAt) {
+        public static final Match NONE = new Match(null, null);
+
+        public boolean isPresent() {
+            return deviceId != null;
+        }
+    }
+
+    private record Entry(Match match, long loadedAt) {
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.trusted-device-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.security.trusted-device-cache.max-size:10000}")
+    private long maxSize;
+
+    /**
+     * User id to that user's fingerprints. The maps are immutable and replaced on every miss,
+     * so each write re-weighs the user by entry count and the TTL is checked per entry.
+     */
+    private Cache<Long, Map<String, Entry>> users;
+
+    @PostConstruct
+    public void init() {
+        users = Caffeine.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((Long userId, Map<String, Entry> entries) -> entries.size())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "trusted-devices");
+    }
+
+    public Match get(Long userId, String fingerprint, Supplier<Match> loader) {
+        long now = System.nanoTime();
+        Map<String, Entry> entries = users.getIfPresent(userId);
+        Entry entry = entries != null ? entries.get(fingerprint) : null;
+        if (entry != null && !expired(entry, now)) {
+            return entry.match();
+        }
+        Match match = loader.get();
+        users.asMap().compute(userId, (id, current) -> {
+            Map<String, Entry> next = new HashMap<>();
+            if (current != null) {
+                current.forEach((key, value) -> {
+                    if (!expired(value, now)) {
+                        next.put(key, value);
+                    }
+                });
+            }
+            next.put(fingerprint, new Entry(match, now));
+            return Map.copyOf(next);
+        });
+        return match;
+    }
+
+    /**
+     * Drop every cached match for a user, now and again after the surrounding transaction
+     * commits so a concurrent login cannot re-cache the pre-change state.
+     */
+    public void invalidateUser(Long userId) {
+        users.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return now - entry.loadedAt() >= TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+}
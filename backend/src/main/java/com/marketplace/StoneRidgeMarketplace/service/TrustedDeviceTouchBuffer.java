@@ -0,0 +1,75 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.entity.TrustedDevice;
+import com.marketplace.StoneRidgeMarketplace.repository.TrustedDeviceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for TrustedDevice.lastUsedAt. Logins record the touch in memory;
+ * repeated touches of the same device collapse to the latest one and are written out
+ * periodically (and on shutdown) instead of one UPDATE per login.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrustedDeviceTouchBuffer {
+
+    private final TrustedDeviceRepository trustedDeviceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public void touch(Long deviceId, LocalDateTime usedAt) {
+        pending.merge(deviceId, usedAt, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    /**
+     * Last-used time including any touch not yet flushed.
+     */
+    public LocalDateTime lastUsedAt(TrustedDevice device) {
+        LocalDateTime buffered = pending.get(device.getId());
+        if (buffered == null || (device.getLastUsedAt() != null && device.getLastUsedAt().isAfter(buffered))) {
+            return device.getLastUsedAt();
+        }
+        return buffered;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.trusted-device-touch-flush-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, LocalDateTime>> batch = new ArrayList<>(pending.size());
+        for (Long id : pending.keySet()) {
+            LocalDateTime usedAt = pending.remove(id);
+            if (usedAt != null) {
+                batch.add(Map.entry(id, usedAt));
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(
+                    entry -> trustedDeviceRepository.touchLastUsedAt(entry.getKey(), entry.getValue())));
+            log.debug("Flushed {} trusted device touches", batch.size());
+        } catch (RuntimeException e) {
+            // Put them back for the next run; newer touches win
+            batch.forEach(entry -> touch(entry.getKey(), entry.getValue()));
+            log.warn("Failed to flush trusted device touches: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
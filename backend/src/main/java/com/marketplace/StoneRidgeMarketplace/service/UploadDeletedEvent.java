@@ -0,0 +1,14 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a file is removed from the upload directory so in-memory copies can be dropped.
+ */
+@Getter
+@AllArgsConstructor
+public class UploadDeletedEvent {
+    /** Relative to the upload directory, e.g. products/ab/cd/abcd...ef-thumb.jpg */
+    private final String relativePath;
+}
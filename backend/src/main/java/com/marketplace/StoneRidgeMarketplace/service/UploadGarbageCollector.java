@@ -0,0 +1,287 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.dto.response.UploadGcReportDto;
+import com.marketplace.StoneRidgeMarketplace.repository.StoredBlobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Mark-and-sweep collector for upload storage. Mark streams every referenced upload
+ * URL (product images and the variants derived from them, category icons) into a sorted array of 64-bit path
+ * hashes - a few bytes per reference however long the URLs are; a hash collision can only
+ * keep a file, never delete one. Sweep lists the stored objects and deletes those that are neither
+ * referenced nor younger than the grace period, in paced batches. Covers files written
+ * before uploads were reference counted as well as abandoned uploads and temp files.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadGarbageCollector {
+
+    /** Product images count for their original and every variant derived from it. */
+    private static final String PRODUCT_IMAGE_URLS = "SELECT image_url FROM product_images";
+    private static final String CATEGORY_ICON_URLS = "SELECT icon_url FROM categories WHERE icon_url IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StoredBlobRepository storedBlobRepository;
+    private final FileStorageService fileStorageService;
+    private final ObjectStorage objectStorage;
+
+    @Value("${app.uploads.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.uploads.gc.dry-run:false}")
+    private boolean dryRunByDefault;
+
+    @Value("${app.uploads.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${app.uploads.gc.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.uploads.gc.batch-pause-ms:100}")
+    private long batchPauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${app.uploads.gc.cron:0 30 4 * * *}")
+    public void scheduledRun() {
+        if (enabled && !running.get()) {
+            collect(dryRunByDefault);
+        }
+    }
+
+    public UploadGcReportDto collect(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Upload garbage collection is already running");
+        }
+        try {
+            return doCollect(dryRun);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private UploadGcReportDto doCollect(boolean dryRun) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        long[] referenced = markReferences();
+        Sweep sweep = new Sweep(referenced, dryRun, Instant.now().minus(graceHours, ChronoUnit.HOURS));
+        try {
+            objectStorage.list(sweep);
+            sweep.flush();
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Upload sweep aborted", e);
+        }
+        UploadGcReportDto report = UploadGcReportDto.builder()
+                .dryRun(dryRun)
+                .startedAt(startedAt)
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .referencedPaths(referenced.length)
+                .scannedFiles(sweep.scanned)
+                .recentFiles(sweep.recent)
+                .orphanedFiles(sweep.orphaned)
+                .orphanedBytes(sweep.orphanedBytes)
+                .deletedFiles(sweep.deleted)
+                .build();
+        log.info("Upload GC{}: {} files scanned, {} referenced paths, {} orphaned ({} bytes), {} deleted in {} ms",
+                dryRun ? " (dry run)" : "", report.getScannedFiles(), report.getReferencedPaths(),
+                report.getOrphanedFiles(), report.getOrphanedBytes(), report.getDeletedFiles(), report.getDurationMillis());
+        return report;
+    }
+
+    /** Sorted, de-duplicated hashes of every referenced upload-relative path. */
+    private long[] markReferences() {
+        HashBuffer hashes = new HashBuffer();
+        // A transaction lets the driver stream with a cursor instead of loading each result
+        transactionTemplate.executeWithoutResult(status -> {
+            stream(PRODUCT_IMAGE_URLS, rs -> {
+                String url = rs.getString(1);
+                hashes.add(url);
+                if (url != null) {
+                    ImageProcessingService.variantUrls(url).forEach(hashes::add);
+                }
+            });
+            stream(CATEGORY_ICON_URLS, rs -> hashes.add(rs.getString(1)));
+        });
+        return hashes.sortedUnique();
+    }
+
+    private void stream(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(1000);
+            return statement;
+        }, handler);
+    }
+
+    private static final class HashBuffer {
+        private long[] hashes = new long[1024];
+        private int size;
+
+        void add(String url) {
+            String path = relativePath(url);
+            if (path == null) {
+                return;
+            }
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            hashes[size++] = hash(path);
+        }
+
+        long[] sortedUnique() {
+            long[] sorted = Arrays.copyOf(hashes, size);
+            Arrays.sort(sorted);
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[unique++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, unique);
+        }
+    }
+
+    private final class Sweep implements Consumer<ObjectStorage.ObjectInfo> {
+        private final long[] referenced;
+        private final boolean dryRun;
+        private final Instant cutoff;
+        private final Map<String, Long> batch = new LinkedHashMap<>(); // key -> size
+
+        private long scanned;
+        private long recent;
+        private long orphaned;
+        private long orphanedBytes;
+        private long deleted;
+
+        private Sweep(long[] referenced, boolean dryRun, Instant cutoff) {
+            this.referenced = referenced;
+            this.dryRun = dryRun;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        public void accept(ObjectStorage.ObjectInfo object) {
+            scanned++;
+            if (object.lastModified() > cutoff.toEpochMilli()) {
+                recent++;
+                return;
+            }
+            if (Arrays.binarySearch(referenced, hash(object.key())) >= 0) {
+                return;
+            }
+            batch.put(object.key(), object.size());
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<String> doomed = withoutLiveBlobs(batch.keySet(), LocalDateTime.ofInstant(cutoff, ZoneId.systemDefault()));
+            for (String path : doomed) {
+                orphaned++;
+                orphanedBytes += batch.get(path);
+            }
+            if (!dryRun) {
+                for (String path : doomed) {
+                    fileStorageService.deleteByUrl("/uploads/" + path);
+                    deleted++;
+                }
+                if (!doomed.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> storedBlobRepository.deleteByPathIn(doomed));
+                }
+                pause();
+            }
+            batch.clear();
+        }
+
+        private void pause() {
+            if (batchPauseMs > 0) {
+                try {
+                    Thread.sleep(batchPauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-checks content-addressed candidates against live reference counts, which catches a
+     * blob that was referenced between mark and sweep, and against recorded upload times for
+     * stores whose modification time a re-upload cannot refresh.
+     */
+    private List<String> withoutLiveBlobs(Collection<String> paths, LocalDateTime cutoff) {
+        Set<String> digests = new HashSet<>();
+        for (String path : paths) {
+            String digest = digestOf(path);
+            if (digest != null) {
+                digests.add(digest);
+            }
+        }
+        if (digests.isEmpty()) {
+            return new ArrayList<>(paths);
+        }
+        Set<String> live = new HashSet<>(storedBlobRepository.findLiveDigests(digests, cutoff));
+        List<String> result = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            String digest = digestOf(path);
+            if (digest == null || !live.contains(digest)) {
+                result.add(path);
+            }
+        }
+        return result;
+    }
+
+    private static String digestOf(String path) {
+        String contentName = UploadServingService.contentName(path.substring(path.lastIndexOf('/') + 1));
+        return contentName != null ? contentName.substring(0, 64) : null;
+    }
+
+    private static String relativePath(String url) {
+        int index = url != null ? url.indexOf("/uploads/") : -1;
+        return index >= 0 ? url.substring(index + "/uploads/".length()) : null;
+    }
+
+    /** FNV-1a with a final avalanche step; 64 bits keeps collisions negligible at millions of paths. */
+    static long hash(String path) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < path.length(); i++) {
+            h ^= path.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
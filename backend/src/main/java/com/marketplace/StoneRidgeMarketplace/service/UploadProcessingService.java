@@ -0,0 +1,159 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.dto.request.DirectUploadCompleteRequest;
+import com.marketplace.StoneRidgeMarketplace.dto.request.DirectUploadRequest;
+import com.marketplace.StoneRidgeMarketplace.dto.response.FileUploadResultDto;
+import com.marketplace.StoneRidgeMarketplace.dto.response.PresignedUploadDto;
+import com.marketplace.StoneRidgeMarketplace.monitoring.Span;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Stores multi-file image uploads concurrently on a bounded I/O pool. Each file is sniffed,
+ * hashed and written independently and gets its own result, so one bad file does not fail the
+ * batch. When the pool is saturated a file is stored on the request thread instead of being
+ * rejected.
+ * <p>
+ * With an object storage backend, clients can instead upload straight to storage through a
+ * presigned URL and report back once done; the server then only verifies the object.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadProcessingService {
+
+    private final FileStorageService fileStorageService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    @Value("${app.storage.presign-ttl-seconds:900}")
+    private long presignTtlSeconds;
+
+    @Value("${app.uploads.io-threads:4}")
+    private int threads;
+
+    @Value("${app.uploads.io-queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "upload-io-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "upload-io", List.of()).bindTo(meterRegistry);
+        log.info("Upload I/O pool started: {} threads, queue capacity {}", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /** One result per file, in request order. */
+    public List<FileUploadResultDto> storeImages(MultipartFile[] files, String category) {
+        List<CompletableFuture<FileUploadResultDto>> pending = new ArrayList<>(files.length);
+        for (MultipartFile file : files) {
+            CompletableFuture<FileUploadResultDto> result;
+            Supplier<FileUploadResultDto> store = () -> storeImage(file, category);
+            try {
+                result = CompletableFuture.supplyAsync(Span.wrap("upload-io", store), executor);
+            } catch (RejectedExecutionException e) {
+                result = CompletableFuture.completedFuture(store.get());
+            }
+            pending.add(result);
+        }
+        // The request owns the multipart files, so it must not return before every copy is done
+        List<FileUploadResultDto> results = new ArrayList<>(files.length);
+        for (CompletableFuture<FileUploadResultDto> result : pending) {
+            results.add(result.join());
+        }
+        return results;
+    }
+
+    /** Presign a direct-to-storage image upload, or report that the same bytes are already stored. */
+    public PresignedUploadDto presignImage(DirectUploadRequest request, String category) {
+        try {
+            FileStorageService.DirectUpload direct = fileStorageService.presignImageUpload(category,
+                    request.getContentType(), request.getSize(), request.getSha256(), Duration.ofSeconds(presignTtlSeconds));
+            PresignedUploadDto.PresignedUploadDtoBuilder result = PresignedUploadDto.builder()
+                    .key(direct.key())
+                    .url(publicUrl("/" + direct.key()));
+            if (direct.upload() == null) {
+                return result.alreadyStored(true).build();
+            }
+            return result.uploadUrl(direct.upload().uploadUrl())
+                    .method("PUT")
+                    .headers(direct.upload().headers())
+                    .expiresAt(direct.upload().expiresAt())
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Object storage unavailable", e);
+        }
+    }
+
+    /** Verify a finished direct upload; failures are reported in the result like multipart uploads. */
+    public FileUploadResultDto completeImage(DirectUploadCompleteRequest request, String category) {
+        FileUploadResultDto.FileUploadResultDtoBuilder result = FileUploadResultDto.builder()
+                .fileName(request.getFileName());
+        try {
+            String url = publicUrl(fileStorageService.completeImageUpload(category, request.getKey()));
+            return result.success(true).url(url).build();
+        } catch (IllegalArgumentException e) {
+            return result.success(false).error(e.getMessage()).build();
+        } catch (IOException | RuntimeException e) {
+            log.error("Completing direct upload {} failed", request.getKey(), e);
+            return result.success(false).error("Failed to store file").build();
+        }
+    }
+
+    /** Public URL of an upload-relative path returned by {@link FileStorageService}. */
+    public String publicUrl(String storedPath) {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        return base + "/uploads" + storedPath;
+    }
+
+    private FileUploadResultDto storeImage(MultipartFile file, String category) {
+        FileUploadResultDto.FileUploadResultDtoBuilder result = FileUploadResultDto.builder()
+                .fileName(file.getOriginalFilename());
+        try {
+            String url = publicUrl(fileStorageService.storeImage(file, category));
+            return result.success(true).url(url).build();
+        } catch (IllegalArgumentException e) {
+            return result.success(false).error(e.getMessage()).build();
+        } catch (RuntimeException e) {
+            log.error("Upload of {} failed", file.getOriginalFilename(), e);
+            return result.success(false).error("Failed to store file").build();
+        }
+    }
+}
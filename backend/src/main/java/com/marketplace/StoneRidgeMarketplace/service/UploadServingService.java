@@ -0,0 +1,151 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+
+/**
+ * Looks up stored uploads for {@code /uploads/**} requests, as local files: remote objects
+ * come from the storage's disk cache. An original upload, named by the SHA-256 digest of its
+ * bytes, never changes content, so it gets its digest as a strong ETag and can be cached
+ * forever. Variants (digest plus a suffix) and other files get a size/mtime ETag and a short
+ * max-age, since a variant's bytes depend on the image settings it was encoded with. The
+ * smallest content-addressed files - thumbnails, mostly - are kept in memory until deleted
+ * here or, with a broadcaster, on another node.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadServingService {
+
+    /**
+     * A servable file: bytes when it came from (or went into) the hot cache, otherwise an open
+     * local object the caller must close once the body is written.
+     */
+    public record ServedFile(ObjectStorage.LocalObject local, long size, long lastModified, String etag,
+                             boolean immutable, MediaType contentType, byte[] bytes) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            if (local != null) {
+                local.close();
+            }
+        }
+    }
+
+    private final ObjectStorage objectStorage;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.uploads.hot-cache-bytes:16777216}")
+    private long hotCacheBytes;
+
+    @Value("${app.uploads.hot-cache-max-file-bytes:65536}")
+    private long hotCacheMaxFileBytes;
+
+    private Cache<String, ServedFile> hotFiles;
+
+    @PostConstruct
+    public void init() {
+        hotFiles = Caffeine.newBuilder()
+                .maximumWeight(hotCacheBytes)
+                .weigher((String key, ServedFile file) -> file.bytes().length + key.length())
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, hotFiles, "upload-hot-files");
+    }
+
+    /** The file for an upload-relative path, or null if there is none to serve. */
+    public ServedFile lookup(String relativePath) throws IOException {
+        ServedFile cached = hotFiles.getIfPresent(relativePath);
+        if (cached != null) {
+            return cached;
+        }
+        String name = relativePath.substring(relativePath.lastIndexOf('/') + 1);
+        // Dot files and directories hold in-flight temp files (uploads, variants)
+        String key = FileStorageService.keyOf("/uploads/" + relativePath);
+        if (key == null || name.isEmpty() || name.startsWith(".") || key.startsWith(".") || key.contains("/.")) {
+            return null;
+        }
+        ObjectStorage.LocalObject local = objectStorage.openLocal(key);
+        if (local == null) {
+            return null;
+        }
+        boolean handedOver = false;
+        try {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(local.path(), BasicFileAttributes.class);
+            } catch (IOException e) {
+                return null;
+            }
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            String contentName = contentName(name);
+            // Only the original is fixed by its digest; variants (digest-thumb and so on) are
+            // re-encoded from it with whatever the app.images.* settings were at the time
+            boolean immutable = contentName != null && contentName.length() == 64;
+            String etag = immutable
+                    ? "\"" + contentName + "\""
+                    : "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+            MediaType contentType = MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+            if (contentName != null && size <= hotCacheMaxFileBytes) {
+                ServedFile file = new ServedFile(null, size, lastModified, etag, immutable, contentType,
+                        Files.readAllBytes(local.path()));
+                hotFiles.put(relativePath, file);
+                return file;
+            }
+            handedOver = true;
+            return new ServedFile(local, size, lastModified, etag, immutable, contentType, null);
+        } finally {
+            if (!handedOver) {
+                local.close();
+            }
+        }
+    }
+
+    @EventListener
+    public void onUploadDeleted(UploadDeletedEvent event) {
+        hotFiles.invalidate(event.getRelativePath());
+    }
+
+    /** Another node deleted the upload: drop this node's copies too. */
+    public void evictLocal(String relativePath) {
+        hotFiles.invalidate(relativePath);
+        objectStorage.evictCached(relativePath);
+    }
+
+    /** "digest" or "digest-suffix" for content-addressed names, null otherwise. */
+    static String contentName(String fileName) {
+        int dot = fileName.indexOf('.');
+        String stem = dot >= 0 ? fileName.substring(0, dot) : fileName;
+        if (stem.length() < 64) {
+            return null;
+        }
+        for (int i = 0; i < 64; i++) {
+            char c = stem.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return null;
+            }
+        }
+        return stem.length() == 64 || stem.charAt(64) == '-' ? stem : null;
+    }
+}
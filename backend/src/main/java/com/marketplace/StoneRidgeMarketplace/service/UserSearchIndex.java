@@ -0,0 +1,50 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import java.util.List;
+
+/**
+ * Fuzzy, similarity-ranked user search over email and username with keyset paging.
+ * Results are ordered by score descending, then id ascending; scores are rounded to four
+ * decimals so a (score, id) cursor is stable across pages.
+ */
+public interface UserSearchIndex {
+
+    record Hit(long userId, double score) {
+    }
+
+    /**
+     * Keyset position: return only hits strictly after (score, userId) in result order.
+     */
+    record Cursor(double score, long userId) {
+
+        public static Cursor parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            int colon = value.indexOf(':');
+            try {
+                return new Cursor(Double.parseDouble(value.substring(0, colon)),
+                        Long.parseLong(value.substring(colon + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+        }
+
+        public static String format(Hit hit) {
+            return String.format(java.util.Locale.ROOT, "%.4f:%d", hit.score(), hit.userId());
+        }
+    }
+
+    List<Hit> search(String query, Cursor after, int limit);
+
+    /** Index or re-index a user (after the surrounding transaction commits). */
+    void upsert(Long userId, String email, String username);
+
+    void remove(Long userId);
+
+    String getMode();
+
+    static double round(double score) {
+        return Math.round(score * 10000) / 10000.0;
+    }
+}
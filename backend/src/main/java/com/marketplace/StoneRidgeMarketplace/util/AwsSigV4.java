@@ -0,0 +1,152 @@
+package com.marketplace.StoneRidgeMarketplace.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * AWS Signature Version 4 for S3-compatible stores (AWS S3, MinIO, Ceph, R2...), both as an
+ * Authorization header and as a presigned URL. Paths passed in are raw (unencoded) object
+ * paths such as {@code /bucket/products/ab/cd/x.jpg}; header names are lower case.
+ */
+public final class AwsSigV4 {
+
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    public static final String EMPTY_PAYLOAD = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final HexFormat HEX = HexFormat.of();
+
+    public record Credentials(String accessKey, String secretKey, String region, String service) {
+    }
+
+    private AwsSigV4() {
+    }
+
+    public static String amzDate(Instant now) {
+        return AMZ_DATE.format(now);
+    }
+
+    /**
+     * The Authorization header value. headers must contain host, x-amz-date (from
+     * {@link #amzDate}) and x-amz-content-sha256, plus anything else to sign.
+     */
+    public static String authorization(Credentials credentials, String method, String path, Map<String, String> query,
+                                       Map<String, String> headers, String payloadHash) {
+        String amzDate = headers.get("x-amz-date");
+        String scope = scope(credentials, amzDate);
+        Map<String, String> sortedHeaders = new TreeMap<>(headers);
+        String signedHeaders = String.join(";", sortedHeaders.keySet());
+        String signature = signature(credentials, amzDate, scope,
+                canonicalRequest(method, path, query, sortedHeaders, signedHeaders, payloadHash));
+        return ALGORITHM + " Credential=" + credentials.accessKey() + "/" + scope
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
+    }
+
+    /**
+     * Query string (without '?') of a presigned URL. headers are the ones the client must send
+     * unchanged (at least host). Presigned payloads are always UNSIGNED-PAYLOAD; pin the body
+     * with a signed checksum header such as x-amz-checksum-sha256 instead.
+     */
+    public static String presignedQuery(Credentials credentials, String method, String path, Map<String, String> query,
+                                        Map<String, String> headers, Instant now, Duration expires) {
+        String amzDate = amzDate(now);
+        String scope = scope(credentials, amzDate);
+        Map<String, String> sortedHeaders = new TreeMap<>(headers);
+        String signedHeaders = String.join(";", sortedHeaders.keySet());
+        Map<String, String> signedQuery = new TreeMap<>(query);
+        signedQuery.put("X-Amz-Algorithm", ALGORITHM);
+        signedQuery.put("X-Amz-Credential", credentials.accessKey() + "/" + scope);
+        signedQuery.put("X-Amz-Date", amzDate);
+        signedQuery.put("X-Amz-Expires", String.valueOf(expires.toSeconds()));
+        signedQuery.put("X-Amz-SignedHeaders", signedHeaders);
+        String signature = signature(credentials, amzDate, scope,
+                canonicalRequest(method, path, signedQuery, sortedHeaders, signedHeaders, UNSIGNED_PAYLOAD));
+        return canonicalQuery(signedQuery) + "&X-Amz-Signature=" + signature;
+    }
+
+    /** RFC 3986 encoding as SigV4 wants it: unreserved characters stay, everything else is %XX. */
+    public static String uriEncode(String value, boolean keepSlash) {
+        StringBuilder encoded = new StringBuilder(value.length() + 16);
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            int c = b & 0xFF;
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (keepSlash && c == '/')) {
+                encoded.append((char) c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    /** Encoded, sorted query string; also the form to put on the wire. */
+    public static String canonicalQuery(Map<String, String> query) {
+        Map<String, String> encoded = new TreeMap<>();
+        query.forEach((key, value) -> encoded.put(uriEncode(key, false), uriEncode(value, false)));
+        StringBuilder result = new StringBuilder();
+        encoded.forEach((key, value) -> {
+            if (result.length() > 0) {
+                result.append('&');
+            }
+            result.append(key).append('=').append(value);
+        });
+        return result.toString();
+    }
+
+    public static String sha256Hex(byte[] data) {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String canonicalRequest(String method, String path, Map<String, String> query,
+                                           Map<String, String> sortedHeaders, String signedHeaders, String payloadHash) {
+        StringBuilder canonical = new StringBuilder()
+                .append(method).append('\n')
+                .append(uriEncode(path, true)).append('\n')
+                .append(canonicalQuery(query)).append('\n');
+        sortedHeaders.forEach((name, value) -> canonical.append(name).append(':').append(value.trim()).append('\n'));
+        return canonical.append('\n')
+                .append(signedHeaders).append('\n')
+                .append(payloadHash)
+                .toString();
+    }
+
+    private static String scope(Credentials credentials, String amzDate) {
+        return amzDate.substring(0, 8) + "/" + credentials.region() + "/" + credentials.service() + "/aws4_request";
+    }
+
+    private static String signature(Credentials credentials, String amzDate, String scope, String canonicalRequest) {
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+        byte[] key = hmac(("AWS4" + credentials.secretKey()).getBytes(StandardCharsets.UTF_8), amzDate.substring(0, 8));
+        key = hmac(key, credentials.region());
+        key = hmac(key, credentials.service());
+        key = hmac(key, "aws4_request");
+        return HEX.formatHex(hmac(key, stringToSign));
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.marketplace.StoneRidgeMarketplace.util;
+
+/**
+ * Reads the EXIF orientation tag (0x0112) from a JPEG without a metadata library. Phone
+ * cameras store pixels sideways and rely on this tag; once metadata is stripped on
+ * re-encode the rotation has to be applied to the pixels instead.
+ */
+public final class ExifOrientation {
+
+    public static final int NORMAL = 1;
+
+    private static final int TAG_ORIENTATION = 0x0112;
+
+    private ExifOrientation() {
+    }
+
+    /** Orientation 1-8, or {@link #NORMAL} when absent or unreadable. */
+    public static int read(byte[] jpeg) {
+        if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != 0xD8) {
+            return NORMAL;
+        }
+        int offset = 2;
+        while (offset + 4 <= jpeg.length && (jpeg[offset] & 0xFF) == 0xFF) {
+            int marker = jpeg[offset + 1] & 0xFF;
+            if (marker == 0xDA || marker == 0xD9) {
+                break; // start of scan / end of image: metadata segments come before
+            }
+            int length = readUnsignedShort(jpeg, offset + 2, false);
+            if (marker == 0xE1 && isExifHeader(jpeg, offset + 4)) {
+                return readFromTiff(jpeg, offset + 10, Math.min(jpeg.length, offset + 2 + length));
+            }
+            offset += 2 + length;
+        }
+        return NORMAL;
+    }
+
+    private static boolean isExifHeader(byte[] data, int offset) {
+        return offset + 6 <= data.length && data[offset] == 'E' && data[offset + 1] == 'x'
+                && data[offset + 2] == 'i' && data[offset + 3] == 'f' && data[offset + 4] == 0 && data[offset + 5] == 0;
+    }
+
+    private static int readFromTiff(byte[] data, int tiff, int end) {
+        if (tiff + 8 > end) {
+            return NORMAL;
+        }
+        boolean littleEndian = data[tiff] == 'I' && data[tiff + 1] == 'I';
+        int ifd = tiff + readInt(data, tiff + 4, littleEndian);
+        if (ifd < tiff || ifd + 2 > end) {
+            return NORMAL;
+        }
+        int entries = readUnsignedShort(data, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                break;
+            }
+            if (readUnsignedShort(data, entry, littleEndian) == TAG_ORIENTATION) {
+                int value = readUnsignedShort(data, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : NORMAL;
+            }
+        }
+        return NORMAL;
+    }
+
+    private static int readUnsignedShort(byte[] data, int offset, boolean littleEndian) {
+        int a = data[offset] & 0xFF;
+        int b = data[offset + 1] & 0xFF;
+        return littleEndian ? (b << 8) | a : (a << 8) | b;
+    }
+
+    private static int readInt(byte[] data, int offset, boolean littleEndian) {
+        int high = readUnsignedShort(data, littleEndian ? offset + 2 : offset, littleEndian);
+        int low = readUnsignedShort(data, littleEndian ? offset : offset + 2, littleEndian);
+        return (high << 16) | low;
+    }
+}
@@ -0,0 +1,81 @@
+package com.marketplace.StoneRidgeMarketplace.util;
+
+/**
+ * Identifies an image format from its leading bytes instead of trusting the client's
+ * Content-Type or file name. {@link #HEADER_BYTES} bytes are enough for every format here.
+ */
+public final class ImageSniffer {
+
+    public static final int HEADER_BYTES = 16;
+
+    public enum ImageType {
+        JPEG(".jpg", "image/jpeg"),
+        PNG(".png", "image/png"),
+        GIF(".gif", "image/gif"),
+        WEBP(".webp", "image/webp"),
+        HEIC(".heic", "image/heic");
+
+        public final String extension;
+        public final String contentType;
+
+        ImageType(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+    }
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final String[] HEIF_BRANDS = {"heic", "heix", "hevc", "hevx", "heim", "heis", "mif1", "msf1"};
+
+    private ImageSniffer() {
+    }
+
+    /** The format of header[0, length), or null if it is not a supported image. */
+    public static ImageType sniff(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return ImageType.JPEG;
+        }
+        if (startsWith(header, length, 0, PNG_SIGNATURE)) {
+            return ImageType.PNG;
+        }
+        if (ascii(header, length, 0, "GIF87a") || ascii(header, length, 0, "GIF89a")) {
+            return ImageType.GIF;
+        }
+        if (ascii(header, length, 0, "RIFF") && ascii(header, length, 8, "WEBP")) {
+            return ImageType.WEBP;
+        }
+        // ISO base media: box size, "ftyp", then the major brand
+        if (ascii(header, length, 4, "ftyp")) {
+            for (String brand : HEIF_BRANDS) {
+                if (ascii(header, length, 8, brand)) {
+                    return ImageType.HEIC;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int length, int offset, byte[] prefix) {
+        if (offset + prefix.length > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean ascii(byte[] data, int length, int offset, String text) {
+        if (offset + text.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (data[offset + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
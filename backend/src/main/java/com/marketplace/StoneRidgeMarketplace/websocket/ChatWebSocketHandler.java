@@ -1,6 +1,13 @@
 package com.marketplace.StoneRidgeMarketplace.websocket;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.StoneRidgeMarketplace.monitoring.Span;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -9,6 +16,7 @@ import org.springframework.web.socket.*;
 import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
@@ -17,6 +25,21 @@ public class ChatWebSocketHandler implements WebSocketHandler {
     
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    
+    private Timer sendTimer;
+    private Counter sendFailures;
+    
+    @PostConstruct
+    public void init() {
+        Gauge.builder("marketplace.websocket.sessions", sessions, Map::size)
+                .description("Open chat WebSocket sessions")
+                .register(meterRegistry);
+        sendTimer = Timer.builder("marketplace.websocket.send")
+                .description("Serializing and writing one frame to a user's session")
+                .register(meterRegistry);
+        sendFailures = Counter.builder("marketplace.websocket.send.failures").register(meterRegistry);
+    }
     
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
@@ -61,11 +84,39 @@ public class ChatWebSocketHandler implements WebSocketHandler {
     public void sendMessageToUser(String userId, Object message) {
         WebSocketSession session = sessions.get(userId);
         if (session != null && session.isOpen()) {
+            long start = System.nanoTime();
+            Span span = Span.child("websocket.push", Span.Kind.CLIENT);
+            if (message instanceof Map<?, ?> frame) {
+                span.attribute("message.type", frame.get("type"));
+            }
             try {
-                String jsonMessage = objectMapper.writeValueAsString(message);
-                session.sendMessage(new TextMessage(jsonMessage));
+                session.sendMessage(new TextMessage(toJson(message)));
             } catch (IOException e) {
+                sendFailures.increment();
+                span.error(e);
                 log.error("Error sending WebSocket message to user: {}", userId, e);
+            } finally {
+                span.close();
+                sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+    
+    /** The text frame payload for a message. */
+    String toJson(Object message) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(message);
+    }
+    
+    /**
+     * Close a user's live connection (after suspension, lock or deletion)
+     */
+    public void closeUserSession(Long userId) {
+        WebSocketSession session = sessions.remove(String.valueOf(userId));
+        if (session != null && session.isOpen()) {
+            try {
+                session.close(CloseStatus.POLICY_VIOLATION);
+            } catch (IOException e) {
+                log.warn("Error closing WebSocket session for user: {}", userId, e);
             }
         }
     }
@@ -74,28 +125,36 @@ public class ChatWebSocketHandler implements WebSocketHandler {
      * Send chat message notification
      */
     public void sendChatMessage(String recipientUserId, ChatMessageNotification notification) {
-        sendMessageToUser(recipientUserId, Map.of(
+        sendMessageToUser(recipientUserId, chatMessageFrame(notification));
+    }
+    
+    static Map<String, Object> chatMessageFrame(ChatMessageNotification notification) {
+        return Map.of(
                 "type", "new_message",
                 "chatId", notification.getChatId(),
                 "senderId", notification.getSenderId(),
                 "senderName", notification.getSenderName(),
                 "content", notification.getContent(),
                 "timestamp", notification.getTimestamp()
-        ));
+        );
     }
     
     /**
      * Send negotiation notification
      */
     public void sendNegotiationNotification(String recipientUserId, NegotiationNotification notification) {
-        sendMessageToUser(recipientUserId, Map.of(
+        sendMessageToUser(recipientUserId, negotiationFrame(notification));
+    }
+    
+    static Map<String, Object> negotiationFrame(NegotiationNotification notification) {
+        return Map.of(
                 "type", "negotiation_update",
                 "negotiationId", notification.getNegotiationId(),
                 "chatId", notification.getChatId(),
                 "status", notification.getStatus(),
                 "message", notification.getMessage(),
                 "timestamp", notification.getTimestamp()
-        ));
+        );
     }
     
     private String getUserIdFromSession(WebSocketSession session) {
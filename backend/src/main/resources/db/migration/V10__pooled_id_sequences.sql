@@ -0,0 +1,76 @@
+-- Ids come from pooled sequences instead of identity columns, so Hibernate can batch inserts:
+-- with an identity column every insert has to run on its own to read back the generated key.
+-- Each sequence steps by the entities' allocationSize (50) and a node takes the whole block
+-- below the value it fetched. Existing ids are kept; each sequence continues from the
+-- table's highest id. The column default stays on the sequence for rows inserted by plain
+-- SQL (loadtest seeding); those take single sequence values and never fall inside a block.
+--
+-- principal_invalidations keeps its identity column: nodes poll it by id, which needs ids in
+-- insertion order.
+
+-- Dropping the identity first takes the table lock, so no insert can slip in between reading
+-- max(id) and the new default taking over.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50 OWNED BY users.id;
+SELECT setval('users_seq', max(id)) FROM users HAVING max(id) IS NOT NULL;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+ALTER TABLE admins ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS admins_seq INCREMENT BY 50 OWNED BY admins.id;
+SELECT setval('admins_seq', max(id)) FROM admins HAVING max(id) IS NOT NULL;
+ALTER TABLE admins ALTER COLUMN id SET DEFAULT nextval('admins_seq');
+
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50 OWNED BY categories.id;
+SELECT setval('categories_seq', max(id)) FROM categories HAVING max(id) IS NOT NULL;
+ALTER TABLE categories ALTER COLUMN id SET DEFAULT nextval('categories_seq');
+
+ALTER TABLE category_requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS category_requests_seq INCREMENT BY 50 OWNED BY category_requests.id;
+SELECT setval('category_requests_seq', max(id)) FROM category_requests HAVING max(id) IS NOT NULL;
+ALTER TABLE category_requests ALTER COLUMN id SET DEFAULT nextval('category_requests_seq');
+
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50 OWNED BY products.id;
+SELECT setval('products_seq', max(id)) FROM products HAVING max(id) IS NOT NULL;
+ALTER TABLE products ALTER COLUMN id SET DEFAULT nextval('products_seq');
+
+ALTER TABLE product_images ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS product_images_seq INCREMENT BY 50 OWNED BY product_images.id;
+SELECT setval('product_images_seq', max(id)) FROM product_images HAVING max(id) IS NOT NULL;
+ALTER TABLE product_images ALTER COLUMN id SET DEFAULT nextval('product_images_seq');
+
+ALTER TABLE chats ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS chats_seq INCREMENT BY 50 OWNED BY chats.id;
+SELECT setval('chats_seq', max(id)) FROM chats HAVING max(id) IS NOT NULL;
+ALTER TABLE chats ALTER COLUMN id SET DEFAULT nextval('chats_seq');
+
+ALTER TABLE chat_messages ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS chat_messages_seq INCREMENT BY 50 OWNED BY chat_messages.id;
+SELECT setval('chat_messages_seq', max(id)) FROM chat_messages HAVING max(id) IS NOT NULL;
+ALTER TABLE chat_messages ALTER COLUMN id SET DEFAULT nextval('chat_messages_seq');
+
+ALTER TABLE negotiations ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS negotiations_seq INCREMENT BY 50 OWNED BY negotiations.id;
+SELECT setval('negotiations_seq', max(id)) FROM negotiations HAVING max(id) IS NOT NULL;
+ALTER TABLE negotiations ALTER COLUMN id SET DEFAULT nextval('negotiations_seq');
+
+ALTER TABLE trusted_devices ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS trusted_devices_seq INCREMENT BY 50 OWNED BY trusted_devices.id;
+SELECT setval('trusted_devices_seq', max(id)) FROM trusted_devices HAVING max(id) IS NOT NULL;
+ALTER TABLE trusted_devices ALTER COLUMN id SET DEFAULT nextval('trusted_devices_seq');
+
+ALTER TABLE stored_blobs ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS stored_blobs_seq INCREMENT BY 50 OWNED BY stored_blobs.id;
+SELECT setval('stored_blobs_seq', max(id)) FROM stored_blobs HAVING max(id) IS NOT NULL;
+ALTER TABLE stored_blobs ALTER COLUMN id SET DEFAULT nextval('stored_blobs_seq');
+
+ALTER TABLE analytics_hourly ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS analytics_hourly_seq INCREMENT BY 50 OWNED BY analytics_hourly.id;
+SELECT setval('analytics_hourly_seq', max(id)) FROM analytics_hourly HAVING max(id) IS NOT NULL;
+ALTER TABLE analytics_hourly ALTER COLUMN id SET DEFAULT nextval('analytics_hourly_seq');
+
+ALTER TABLE analytics_daily ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS analytics_daily_seq INCREMENT BY 50 OWNED BY analytics_daily.id;
+SELECT setval('analytics_daily_seq', max(id)) FROM analytics_daily HAVING max(id) IS NOT NULL;
+ALTER TABLE analytics_daily ALTER COLUMN id SET DEFAULT nextval('analytics_daily_seq');
@@ -0,0 +1,13 @@
+-- Cross-node upload cache invalidations (app.uploads.hot-cache.broadcast=database): a deleted
+-- upload is dropped from every node's hot-bytes cache and local object cache. Identity ids for
+-- the same reason as principal_invalidations: nodes poll by id.
+
+CREATE TABLE IF NOT EXISTS upload_invalidations (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    upload_key  varchar(512) NOT NULL,
+    origin_node varchar(64)  NOT NULL,
+    created_at  timestamp(6) NOT NULL
+);
+
+-- A new, empty table: no need for CONCURRENTLY
+CREATE INDEX IF NOT EXISTS idx_upload_invalidations_created ON upload_invalidations (created_at);
@@ -0,0 +1,25 @@
+-- Admin audit log, written by AdminAuditWriter. Until now the application created it at
+-- startup (see the V1 header); IF NOT EXISTS because databases that ran that code already
+-- have everything here. Range-partitioned by month on created_at: the writer keeps the
+-- current and next months' partitions in place, and the DEFAULT partition catches anything
+-- outside them.
+
+CREATE SEQUENCE IF NOT EXISTS admin_audit_log_seq;
+
+CREATE TABLE IF NOT EXISTS admin_audit_log (
+    id           bigint      NOT NULL DEFAULT nextval('admin_audit_log_seq'),
+    created_at   timestamp   NOT NULL,
+    actor_id     bigint,
+    action       varchar(64) NOT NULL,
+    target_type  varchar(32) NOT NULL,
+    target_id    bigint,
+    before_state varchar,
+    after_state  varchar,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS admin_audit_log_default PARTITION OF admin_audit_log DEFAULT;
+
+-- On the partitioned parent these cascade to every partition, including later monthly ones
+CREATE INDEX IF NOT EXISTS idx_audit_target ON admin_audit_log (target_type, target_id, id);
+CREATE INDEX IF NOT EXISTS idx_audit_actor ON admin_audit_log (actor_id, id);
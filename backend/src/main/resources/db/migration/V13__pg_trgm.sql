@@ -0,0 +1,6 @@
+-- pg_trgm for the admin user search (PostgresTrigramUserSearch). It is a trusted extension
+-- from PostgreSQL 13, so the database owner can create it; on older servers a superuser has
+-- to create it once before this migration runs. Its own script because V14 must run outside
+-- a transaction.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,8 @@
+-- GIN trigram indexes for the admin user search's word-similarity operator (<%). Built
+-- CONCURRENTLY so the upgrade does not block logins and registrations (Flyway runs this
+-- script outside a transaction).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm
+    ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_trgm
+    ON users USING gin (lower(username) gin_trgm_ops);
@@ -0,0 +1,167 @@
+-- Baseline: the schema the last release before migrations left behind with
+-- ddl-auto=update. Databases created by that release are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and start at V2, so this file must not change;
+-- everything added since has its own migration.
+--
+-- admin_audit_log and its partitions are created and rotated by AdminAuditWriter; the
+-- pg_trgm user search indexes by PostgresTrigramUserSearch, since the extension needs
+-- privileges the application user may not have.
+
+CREATE TABLE users (
+    id                              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name                      varchar(255) NOT NULL,
+    last_name                       varchar(255),
+    display_name                    varchar(255),
+    email                           varchar(255) NOT NULL,
+    username                        varchar(255) NOT NULL,
+    password                        varchar(255) NOT NULL,
+    apartment_number                varchar(255),
+    building_name                   varchar(255),
+    phone_number                    varchar(255),
+    role                            varchar(255) NOT NULL,
+    enabled                         boolean      NOT NULL,
+    email_verified                  boolean      NOT NULL,
+    phone_verified                  boolean      NOT NULL,
+    account_non_locked              boolean      NOT NULL,
+    failed_login_attempts           integer      NOT NULL,
+    lock_time                       timestamp(6),
+    last_login_at                   timestamp(6),
+    last_login_ip                   varchar(255),
+    email_verification_token        varchar(255),
+    email_verification_token_expiry timestamp(6),
+    password_reset_token            varchar(255),
+    password_reset_token_expiry     timestamp(6),
+    created_at                      timestamp(6) NOT NULL,
+    updated_at                      timestamp(6),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE admins (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name varchar(255) NOT NULL,
+    last_name  varchar(255),
+    email      varchar(255) NOT NULL,
+    username   varchar(255) NOT NULL,
+    password   varchar(255) NOT NULL,
+    enabled    boolean      NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    CONSTRAINT uk_admins_email UNIQUE (email),
+    CONSTRAINT uk_admins_username UNIQUE (username)
+);
+
+CREATE TABLE categories (
+    id                   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                 varchar(255) NOT NULL,
+    description          varchar(500),
+    icon_url             varchar(255),
+    parent_id            bigint REFERENCES categories (id),
+    created_by           bigint REFERENCES users (id),
+    created_by_admin_id  bigint REFERENCES admins (id),
+    approved_by          bigint REFERENCES users (id),
+    approved_by_admin_id bigint REFERENCES admins (id),
+    created_at           timestamp(6) NOT NULL,
+    updated_at           timestamp(6),
+    active               boolean      NOT NULL,
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE category_requests (
+    id                   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                 varchar(255)  NOT NULL,
+    description          varchar(500),
+    justification        varchar(1000),
+    parent_category_id   bigint REFERENCES categories (id),
+    requested_by         bigint        NOT NULL REFERENCES users (id),
+    reviewed_by          bigint REFERENCES users (id),
+    reviewed_by_admin_id bigint REFERENCES admins (id),
+    status               varchar(255)  NOT NULL,
+    review_notes         varchar(1000),
+    reviewed_at          timestamp(6),
+    created_at           timestamp(6)  NOT NULL,
+    updated_at           timestamp(6)
+);
+
+CREATE TABLE products (
+    id               bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            varchar(255)   NOT NULL,
+    description      varchar(2000)  NOT NULL,
+    price            numeric(10, 2) NOT NULL,
+    original_price   numeric(10, 2),
+    condition        varchar(255)   NOT NULL,
+    status           varchar(255)   NOT NULL,
+    category_id      bigint         NOT NULL REFERENCES categories (id),
+    seller_id        bigint         NOT NULL REFERENCES users (id),
+    buyer_id         bigint REFERENCES users (id),
+    view_count       integer,
+    is_negotiable    boolean        NOT NULL,
+    location_details varchar(255),
+    sold_at          timestamp(6),
+    sold_price       numeric(10, 2),
+    created_at       timestamp(6)   NOT NULL,
+    updated_at       timestamp(6)
+);
+
+CREATE TABLE product_images (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id    bigint       NOT NULL REFERENCES products (id),
+    image_url     varchar(255) NOT NULL,
+    file_name     varchar(255),
+    file_size     bigint,
+    is_primary    boolean      NOT NULL,
+    display_order integer,
+    created_at    timestamp(6) NOT NULL
+);
+
+CREATE TABLE chats (
+    id                  bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id          bigint       NOT NULL REFERENCES products (id),
+    buyer_id            bigint       NOT NULL REFERENCES users (id),
+    seller_id           bigint       NOT NULL REFERENCES users (id),
+    status              varchar(255) NOT NULL,
+    last_message_at     timestamp(6),
+    buyer_last_read_at  timestamp(6),
+    seller_last_read_at timestamp(6),
+    created_at          timestamp(6) NOT NULL,
+    updated_at          timestamp(6)
+);
+
+CREATE TABLE chat_messages (
+    id                bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    chat_id           bigint        NOT NULL REFERENCES chats (id),
+    sender_id         bigint        NOT NULL REFERENCES users (id),
+    content           varchar(2000) NOT NULL,
+    message_type      varchar(255),
+    is_system_message boolean       NOT NULL,
+    created_at        timestamp(6)  NOT NULL
+);
+
+CREATE TABLE negotiations (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    chat_id       bigint         NOT NULL REFERENCES chats (id),
+    offered_by    bigint         NOT NULL REFERENCES users (id),
+    offered_price numeric(10, 2) NOT NULL,
+    message       varchar(500),
+    status        varchar(255)   NOT NULL,
+    expires_at    timestamp(6),
+    responded_at  timestamp(6),
+    created_at    timestamp(6)   NOT NULL,
+    updated_at    timestamp(6)
+);
+
+CREATE TABLE trusted_devices (
+    id                 bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id            bigint       NOT NULL REFERENCES users (id),
+    device_token       varchar(255) NOT NULL,
+    device_fingerprint varchar(255) NOT NULL,
+    device_name        varchar(255),
+    device_type        varchar(255),
+    user_agent         varchar(500),
+    ip_address         varchar(255),
+    created_at         timestamp(6) NOT NULL,
+    last_used_at       timestamp(6),
+    expires_at         timestamp(6) NOT NULL,
+    active             boolean      NOT NULL,
+    CONSTRAINT uk_trusted_devices_token UNIQUE (device_token)
+);
@@ -0,0 +1,9 @@
+-- Cross-node principal cache invalidations (app.security.principal-cache.broadcast=database).
+-- IF NOT EXISTS: development databases that ran with ddl-auto=update may already have it.
+
+CREATE TABLE IF NOT EXISTS principal_invalidations (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    subject     varchar(255) NOT NULL,
+    origin_node varchar(64)  NOT NULL,
+    created_at  timestamp(6) NOT NULL
+);
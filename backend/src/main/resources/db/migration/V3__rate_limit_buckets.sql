@@ -0,0 +1,7 @@
+-- Shared token buckets for app.rate-limit.mode=database.
+
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key varchar(200) PRIMARY KEY,
+    tokens     bigint NOT NULL,
+    updated_at bigint NOT NULL
+);
@@ -0,0 +1,7 @@
+-- Trusted-device lookups at login and the per-user device list. Built CONCURRENTLY so the
+-- upgrade does not block logins (Flyway runs this script outside a transaction).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_trusted_devices_user_active
+    ON trusted_devices (user_id, active, last_used_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_trusted_devices_user_fingerprint
+    ON trusted_devices (user_id, device_fingerprint);
@@ -0,0 +1,21 @@
+-- Hourly and daily event rollups behind the admin analytics endpoints.
+
+CREATE TABLE IF NOT EXISTS analytics_hourly (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    bucket_start timestamp(6) NOT NULL,
+    metric       varchar(24)  NOT NULL,
+    category_id  bigint       NOT NULL,
+    building     varchar(100) NOT NULL,
+    event_count  bigint       NOT NULL,
+    CONSTRAINT uk_analytics_hourly_key UNIQUE (bucket_start, metric, category_id, building)
+);
+
+CREATE TABLE IF NOT EXISTS analytics_daily (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    bucket_day  date         NOT NULL,
+    metric      varchar(24)  NOT NULL,
+    category_id bigint       NOT NULL,
+    building    varchar(100) NOT NULL,
+    event_count bigint       NOT NULL,
+    CONSTRAINT uk_analytics_daily_key UNIQUE (bucket_day, metric, category_id, building)
+);
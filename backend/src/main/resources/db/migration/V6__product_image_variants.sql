@@ -0,0 +1,8 @@
+-- Resized JPEG variants written by the image pipeline; null until an upload is processed.
+
+ALTER TABLE product_images
+    ADD COLUMN IF NOT EXISTS thumbnail_url varchar(255),
+    ADD COLUMN IF NOT EXISTS card_url      varchar(255),
+    ADD COLUMN IF NOT EXISTS full_url      varchar(255),
+    ADD COLUMN IF NOT EXISTS width         integer,
+    ADD COLUMN IF NOT EXISTS height        integer;
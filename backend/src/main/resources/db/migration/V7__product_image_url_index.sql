@@ -0,0 +1,5 @@
+-- The image pipeline records variants by original URL (updateVariants). Built CONCURRENTLY
+-- so the upgrade does not block listing writes (Flyway runs this script outside a transaction).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_images_url
+    ON product_images (image_url);
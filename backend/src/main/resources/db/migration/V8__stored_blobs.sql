@@ -0,0 +1,16 @@
+-- Content-addressed upload blobs with reference counts; unreferenced ones are collected
+-- after a grace period.
+
+CREATE TABLE IF NOT EXISTS stored_blobs (
+    id               bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    path             varchar(255) NOT NULL,
+    digest           varchar(64)  NOT NULL,
+    size_bytes       bigint       NOT NULL,
+    ref_count        integer      NOT NULL,
+    created_at       timestamp(6) NOT NULL,
+    last_uploaded_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_stored_blobs_path UNIQUE (path)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stored_blobs_digest ON stored_blobs (digest);
+CREATE INDEX IF NOT EXISTS idx_stored_blobs_unreferenced ON stored_blobs (ref_count, last_uploaded_at);
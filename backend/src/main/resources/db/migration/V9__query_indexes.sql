@@ -0,0 +1,99 @@
+-- Indexes for the repository queries, built CONCURRENTLY so upgrading a populated database
+-- does not block writes (Flyway runs this script outside a transaction). Each one names the
+-- queries it serves; RepositoryQueryPlanTests checks none of them falls back to a
+-- sequential scan.
+
+-- findByStatusOrderByCreatedAtDesc, findRecentProducts, countByStatus, searchProducts
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_status_created
+    ON products (status, created_at);
+
+-- findByCategoryIdAndStatusOrderByCreatedAtDesc, findByCategoryAndPriceRange,
+-- countActiveProductsByCategoryIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_category_status_created
+    ON products (category_id, status, created_at);
+
+-- findBySellerAndStatusOrderByCreatedAtDesc, countActiveProductsBySeller,
+-- findBySellerBuilding, findIdsBySellerIdIn, findIdsForBulk
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_seller_status_created
+    ON products (seller_id, status, created_at);
+
+-- findMostViewedProducts
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_status_view_count
+    ON products (status, view_count);
+
+-- findAllByOrderByCreatedAtDesc (admin listing)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_created
+    ON products (created_at);
+
+-- clearBuyerByBuyerIdIn; only sold listings have a buyer
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_buyer
+    ON products (buyer_id) WHERE buyer_id IS NOT NULL;
+
+-- findByProductIdOrderByDisplayOrderAsc, findProductImages, findByProductIdInAndPrimaryTrue,
+-- findImageUrlsByProductIdIn, deleteByProductIdIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_images_product_order
+    ON product_images (product_id, display_order);
+
+-- findUnprocessedImageUrls: the backlog of images without variants stays small
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_images_unprocessed
+    ON product_images (created_at) WHERE thumbnail_url IS NULL;
+
+-- findUserChats, findChatsWithUnreadMessages, findByProductAndBuyerAndStatus,
+-- deleteByParticipantIdIn (one index per side of the buyer/seller OR)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chats_buyer_status_last_message
+    ON chats (buyer_id, status, last_message_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chats_seller_status_last_message
+    ON chats (seller_id, status, last_message_at);
+
+-- findActiveChatsForProduct, countActiveChatsForProduct, deleteByProductIdIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chats_product_status
+    ON chats (product_id, status);
+
+-- findByChatIdOrderByCreatedAtDesc, findByChatIdOrderByCreatedAtAsc, findRecentMessagesByChatIdIn,
+-- findLastMessageByChat, deleteByChatParticipantIdIn, deleteByProductIdIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_messages_chat_created
+    ON chat_messages (chat_id, created_at);
+
+-- deleteBySenderIdIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_messages_sender
+    ON chat_messages (sender_id);
+
+-- findByChatIdOrderByCreatedAtDesc, findActivePendingOffers, findPendingOffersForSeller,
+-- deleteByChatParticipantIdIn, deleteByProductIdIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_negotiations_chat_created
+    ON negotiations (chat_id, created_at);
+
+-- findExpiredOffers
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_negotiations_status_expires
+    ON negotiations (status, expires_at);
+
+-- deleteByOfferedByIdIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_negotiations_offered_by
+    ON negotiations (offered_by);
+
+-- findByEmailVerificationToken, findByPasswordResetToken; tokens are only set while pending
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_verification_token
+    ON users (email_verification_token) WHERE email_verification_token IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_password_reset_token
+    ON users (password_reset_token) WHERE password_reset_token IS NOT NULL;
+
+-- findBySellerBuilding
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_building_name
+    ON users (building_name);
+
+-- findByStatus, findPendingRequests, countByStatus, existsByNameIgnoreCaseAndStatus
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_category_requests_status_created
+    ON category_requests (status, created_at);
+
+-- findByRequestedByAndStatusOrderByCreatedAtDesc, countPendingRequestsByUser,
+-- deleteByRequestedByIdIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_category_requests_requested_by_status
+    ON category_requests (requested_by, status, created_at);
+
+-- clearReviewedByIdIn
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_category_requests_reviewed_by
+    ON category_requests (reviewed_by) WHERE reviewed_by IS NOT NULL;
+
+-- PrincipalInvalidationRepository.deleteOlderThan
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_principal_invalidations_created
+    ON principal_invalidations (created_at);
@@ -0,0 +1,64 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.util.AssertionErrors.fail;
+
+/**
+ * MockMvc matchers for the SQL statements a request executed, as recorded by
+ * {@link SqlStatementFilter}:
+ * <pre>
+ *   mockMvc.perform(get("/api/products/{id}", id))
+ *          .andExpect(status().isOk())
+ *          .andExpect(maxStatements(6))
+ *          .andExpect(maxRepeatedShape(1));
+ * </pre>
+ * Failures list the repeated statement shapes, which is usually where the N+1 is.
+ */
+public final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    /** At most max statements in total. */
+    public static ResultMatcher maxStatements(int max) {
+        return result -> {
+            SqlStatementContext context = context(result);
+            if (context.getStatements() > max) {
+                fail(describe(result, "expected at most " + max + " SQL statements but ran "
+                        + context.getStatements(), context));
+            }
+        };
+    }
+
+    /** No single statement shape executed more than max times. */
+    public static ResultMatcher maxRepeatedShape(int max) {
+        return result -> {
+            SqlStatementContext context = context(result);
+            if (context.maxRepeat() > max) {
+                fail(describe(result, "expected no statement to run more than " + max + " times but one ran "
+                        + context.maxRepeat() + " times", context));
+            }
+        };
+    }
+
+    public static SqlStatementContext context(MvcResult result) {
+        Object context = result.getRequest().getAttribute(SqlStatementContext.REQUEST_ATTRIBUTE);
+        assertTrue("No SQL statement context on the request; is SqlStatementFilter registered and "
+                + "app.monitoring.sql.enabled true?", context instanceof SqlStatementContext);
+        return (SqlStatementContext) context;
+    }
+
+    private static String describe(MvcResult result, String problem, SqlStatementContext context) {
+        StringBuilder message = new StringBuilder()
+                .append(SqlStatementFilter.endpoint(result.getRequest())).append(": ").append(problem);
+        for (Map.Entry<String, Integer> shape : context.repeatedShapes(2).entrySet()) {
+            message.append("\n  ").append(shape.getValue()).append("x ").append(shape.getKey());
+        }
+        return message.toString();
+    }
+}
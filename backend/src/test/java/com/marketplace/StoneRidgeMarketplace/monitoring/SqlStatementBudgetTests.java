@@ -0,0 +1,308 @@
+package com.marketplace.StoneRidgeMarketplace.monitoring;
+
+import com.marketplace.StoneRidgeMarketplace.dto.request.ProductCreateRequest;
+import com.marketplace.StoneRidgeMarketplace.entity.Category;
+import com.marketplace.StoneRidgeMarketplace.entity.Chat;
+import com.marketplace.StoneRidgeMarketplace.entity.ChatMessage;
+import com.marketplace.StoneRidgeMarketplace.entity.Negotiation;
+import com.marketplace.StoneRidgeMarketplace.entity.Product;
+import com.marketplace.StoneRidgeMarketplace.entity.ProductImage;
+import com.marketplace.StoneRidgeMarketplace.entity.User;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.ChatStatus;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.NegotiationStatus;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductCondition;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductStatus;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.Role;
+import com.marketplace.StoneRidgeMarketplace.repository.CategoryRepository;
+import com.marketplace.StoneRidgeMarketplace.repository.ChatMessageRepository;
+import com.marketplace.StoneRidgeMarketplace.repository.ChatRepository;
+import com.marketplace.StoneRidgeMarketplace.repository.NegotiationRepository;
+import com.marketplace.StoneRidgeMarketplace.repository.ProductImageRepository;
+import com.marketplace.StoneRidgeMarketplace.repository.ProductRepository;
+import com.marketplace.StoneRidgeMarketplace.repository.UserRepository;
+import com.marketplace.StoneRidgeMarketplace.security.UserPrincipal;
+import com.marketplace.StoneRidgeMarketplace.service.ProductService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.marketplace.StoneRidgeMarketplace.monitoring.SqlStatementBudget.maxRepeatedShape;
+import static com.marketplace.StoneRidgeMarketplace.monitoring.SqlStatementBudget.maxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the listing, category, chat and negotiation endpoints. Budgets are
+ * fixed: seeding more rows must not change them. Raising a budget should come with a
+ * reason; a budget that scales with the page size is an N+1 waiting to be fixed.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sql-budget;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.mail.username=test",
+        "spring.mail.password=test",
+        "app.security.jwt.secret=c3FsLXN0YXRlbWVudC1idWRnZXQtdGVzdHMtc2VjcmV0LWtleQ==",
+        "app.analytics.backfill-on-empty=false",
+        "app.rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlStatementBudgetTests {
+
+    private static final int PEOPLE = 3;
+    private static final int PRODUCTS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private NegotiationRepository negotiationRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    private final List<User> sellers = new ArrayList<>();
+    private final List<User> buyers = new ArrayList<>();
+    private final List<Category> subcategories = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+    private Chat chat;
+
+    /**
+     * Several sellers, categories and buyers so that every lazy association on a page points
+     * at more than one row; the database is private to this class, so it is seeded once.
+     */
+    @BeforeAll
+    void seed() {
+        for (int i = 0; i < PEOPLE; i++) {
+            sellers.add(userRepository.save(person("seller" + i, "Sam")));
+            buyers.add(userRepository.save(person("buyer" + i, "Bea")));
+        }
+        Category furniture = categoryRepository.save(Category.builder()
+                .name("Furniture")
+                .active(true)
+                .build());
+        for (String name : List.of("Desks", "Chairs", "Shelves")) {
+            subcategories.add(categoryRepository.save(Category.builder()
+                    .name(name)
+                    .parent(furniture)
+                    .active(true)
+                    .build()));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < PRODUCTS; i++) {
+            User seller = sellers.get(i % PEOPLE);
+            Product product = productRepository.save(Product.builder()
+                    .title("Desk " + i)
+                    .description("Oak desk")
+                    .price(new BigDecimal("40.00"))
+                    .condition(ProductCondition.GOOD)
+                    .status(ProductStatus.ACTIVE)
+                    .category(subcategories.get(i % PEOPLE))
+                    .seller(seller)
+                    .viewCount(0)
+                    .build());
+            productImageRepository.save(ProductImage.builder()
+                    .product(product)
+                    .imageUrl("/uploads/products/desk-" + i + ".jpg")
+                    .primary(true)
+                    .displayOrder(0)
+                    .build());
+            productIds.add(product.getId());
+
+            for (User buyer : buyers) {
+                Chat saved = chatRepository.save(Chat.builder()
+                        .product(product)
+                        .buyer(buyer)
+                        .seller(seller)
+                        .status(ChatStatus.ACTIVE)
+                        .lastMessageAt(now)
+                        .build());
+                chatMessageRepository.save(message(saved, buyer, "Is this still available?"));
+                chatMessageRepository.save(message(saved, seller, "Yes, pickup from the lobby"));
+                negotiationRepository.save(Negotiation.builder()
+                        .chat(saved)
+                        .offeredBy(buyer)
+                        .offeredPrice(new BigDecimal("35.00"))
+                        .message("Would you take 35?")
+                        .status(NegotiationStatus.PENDING)
+                        .expiresAt(now.plusDays(1))
+                        .build());
+                if (chat == null) {
+                    chat = saved;
+                }
+            }
+        }
+    }
+
+    @Test
+    void productDetailHasFixedBudget() throws Exception {
+        mockMvc.perform(get("/api/products/{id}", productIds.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(8))
+                .andExpect(maxRepeatedShape(1));
+    }
+
+    @Test
+    void productPageHasFixedBudget() throws Exception {
+        // Page query, primary images, one batch of sellers, one batch of categories.
+        // The page is not full, so Spring Data skips the count query.
+        mockMvc.perform(get("/api/products").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(4))
+                .andExpect(maxRepeatedShape(1));
+    }
+
+    @Test
+    void categoryTreeHasFixedBudget() throws Exception {
+        // Roots, one subcategory batch per tree level (two levels and the empty leaves),
+        // and one grouped product count for the whole tree
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(5));
+    }
+
+    @Test
+    void chatPageHasFixedBudget() throws Exception {
+        // Page query, current user, primary images, recent messages, one batch of
+        // products and one batch of the buyers and sellers on the page
+        mockMvc.perform(get("/api/chats").with(user(UserPrincipal.create(buyers.get(0)))))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(6))
+                .andExpect(maxRepeatedShape(1));
+    }
+
+    @Test
+    void chatMessagesHaveFixedBudget() throws Exception {
+        // Chat, message page, one batch of senders
+        mockMvc.perform(get("/api/chats/{id}/messages", chat.getId())
+                        .with(user(UserPrincipal.create(chat.getBuyer()))))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(3))
+                .andExpect(maxRepeatedShape(1));
+    }
+
+    @Test
+    void chatNegotiationsHaveFixedBudget() throws Exception {
+        // Chat, negotiations, one batch of offering users, the chat's product
+        mockMvc.perform(get("/api/negotiations/chats/{chatId}", chat.getId())
+                        .with(user(UserPrincipal.create(chat.getBuyer()))))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(4))
+                .andExpect(maxRepeatedShape(1));
+    }
+
+    @Test
+    void pendingOffersHaveFixedBudget() throws Exception {
+        // Offers, one batch each of chats, offering users and products
+        mockMvc.perform(get("/api/negotiations/pending-offers")
+                        .with(user(UserPrincipal.create(sellers.get(0)))))
+                .andExpect(status().isOk())
+                .andExpect(maxStatements(4))
+                .andExpect(maxRepeatedShape(1));
+    }
+
+    @Test
+    void repeatedShapesAreDetected() {
+        SqlStatementContext context = SqlStatementContext.begin();
+        try {
+            productIds.forEach(productRepository::findById);
+        } finally {
+            SqlStatementContext.end();
+        }
+
+        assertTrue(context.getStatements() >= PRODUCTS);
+        assertTrue(context.repeatedShapes(PRODUCTS).values().stream().anyMatch(count -> count == PRODUCTS),
+                () -> "product lookup should repeat once per id: " + context.repeatedShapes(2));
+    }
+
+    @Test
+    void listingImagesAreInsertedInOneBatch() {
+        List<String> imageUrls = List.of("/uploads/products/chair-1.jpg", "/uploads/products/chair-2.jpg",
+                "/uploads/products/chair-3.jpg", "/uploads/products/chair-4.jpg", "/uploads/products/chair-5.jpg");
+        ProductCreateRequest request = ProductCreateRequest.builder()
+                .title("Oak chair")
+                .description("Solid oak chair, pickup from the lobby")
+                .price(new BigDecimal("25.00"))
+                .condition(ProductCondition.GOOD)
+                .categoryId(subcategories.get(1).getId())
+                .imageUrls(imageUrls)
+                .build();
+
+        SqlStatementContext context = SqlStatementContext.begin();
+        try {
+            productService.createProduct(request, sellers.get(0).getId());
+        } finally {
+            SqlStatementContext.end();
+        }
+
+        // Identity ids, or batching switched off, would prepare one insert per image
+        int imageInserts = context.repeatedShapes(1).entrySet().stream()
+                .filter(shape -> shape.getKey().startsWith("insert into product_images"))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+        assertEquals(1, imageInserts, () -> "image inserts were not batched: " + context.repeatedShapes(2));
+    }
+
+    private static User person(String username, String firstName) {
+        return User.builder()
+                .firstName(firstName)
+                .lastName(username)
+                .email(username + "@example.com")
+                .username(username)
+                .password("{noop}password")
+                .buildingName("Building A")
+                .apartmentNumber("101")
+                .role(Role.USER)
+                .enabled(true)
+                .emailVerified(true)
+                .accountNonLocked(true)
+                .build();
+    }
+
+    private static ChatMessage message(Chat chat, User sender, String content) {
+        return ChatMessage.builder()
+                .chat(chat)
+                .sender(sender)
+                .content(content)
+                .messageType("text")
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.marketplace.StoneRidgeMarketplace.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Wraps the DataSource so that, while a thread is inside {@link #record}, every prepared
+ * statement it executes is first run through EXPLAIN on the same connection with the same
+ * bound parameters. The plans are what PostgreSQL would pick for exactly those values;
+ * nothing else about the statement changes.
+ */
+public class QueryPlanRecorder implements BeanPostProcessor {
+
+    /** One executed statement and its EXPLAIN (FORMAT JSON) plan. */
+    public record Plan(String sql, JsonNode plan) {
+
+        /** Tables the plan reads with a sequential scan, at any depth. */
+        public Set<String> seqScans() {
+            Set<String> tables = new TreeSet<>();
+            collectSeqScans(plan, tables);
+            return tables;
+        }
+
+        private static void collectSeqScans(JsonNode node, Set<String> tables) {
+            if ("Seq Scan".equals(node.path("Node Type").asText())) {
+                tables.add(node.path("Relation Name").asText());
+            }
+            for (JsonNode child : node.path("Plans")) {
+                collectSeqScans(child, tables);
+            }
+        }
+    }
+
+    private record Binding(Method method, Object[] args) {
+    }
+
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ThreadLocal<List<Plan>> recording = new ThreadLocal<>();
+
+    /** Plans of the statements work executes on this thread, in order. */
+    public List<Plan> record(Runnable work) {
+        List<Plan> plans = new ArrayList<>();
+        recording.set(plans);
+        try {
+            work.run();
+        } finally {
+            recording.remove();
+        }
+        return plans;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+    }
+
+    private DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection ? wrap(connection) : result;
+        });
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return wrap(statement, connection, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement wrap(PreparedStatement statement, Connection connection, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        return proxy(PreparedStatement.class, statement, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bindings.add(new Binding(method, args));
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (EXECUTE.contains(name) && (args == null || args.length == 0)) {
+                List<Plan> plans = recording.get();
+                if (plans != null) {
+                    plans.add(explain(connection, sql, bindings));
+                }
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private Plan explain(Connection connection, String sql, List<Binding> bindings) throws Throwable {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+            for (Binding binding : bindings) {
+                invoke(explain, binding.method(), binding.args());
+            }
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                return new Plan(sql, objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan"));
+            }
+        }
+    }
+
+    /**
+     * Identity equality, so Hibernate can track the wrapped statements in its own maps. The
+     * pool stays closeable so the context still shuts it down.
+     */
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        Class<?>[] interfaces = target instanceof AutoCloseable && !AutoCloseable.class.isAssignableFrom(type)
+                ? new Class<?>[] {type, AutoCloseable.class}
+                : new Class<?>[] {type};
+        return type.cast(Proxy.newProxyInstance(QueryPlanRecorder.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "recording " + target;
+                    default -> handler.invoke(proxy, method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
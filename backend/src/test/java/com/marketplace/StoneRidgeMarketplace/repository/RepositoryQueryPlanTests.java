@@ -0,0 +1,452 @@
+package com.marketplace.StoneRidgeMarketplace.repository;
+
+import com.marketplace.StoneRidgeMarketplace.entity.Product;
+import com.marketplace.StoneRidgeMarketplace.entity.User;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.AnalyticsMetric;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.CategoryStatus;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.ChatStatus;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.ProductStatus;
+import com.marketplace.StoneRidgeMarketplace.entity.enums.Role;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Plans of the SQL behind every repository query method, on a PostgreSQL loaded with
+ * {@code query-plan-data.sql}. A query that reads a large table with a sequential scan fails
+ * unless its case says why that is expected. Each call runs in a rolled-back transaction,
+ * so the modifying queries leave the data as seeded.
+ * <p>
+ * A new repository method fails {@link #everyQueryMethodHasACase()} until it gets a case
+ * here, and then usually needs an index in a new migration.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.password=unused",
+        "spring.mail.username=unused",
+        "spring.mail.password=unused",
+        "app.security.jwt.secret=cXVlcnktcGxhbi10ZXN0cy1zZWNyZXQta2V5LXF1ZXJ5LXBsYW4=",
+        "app.analytics.backfill-on-empty=false",
+        "app.rate-limit.enabled=false",
+        "app.tracing.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@Import(QueryPlanRecorder.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTests {
+
+    /** Tables with at least this many rows must not be read with a sequential scan. */
+    private static final long LARGE_TABLE_ROWS = 10_000;
+
+    private static final long USER = 1234;
+    private static final long SELLER = 7920;
+    private static final long PRODUCT = 4242;
+    private static final long CHAT = 777;
+    private static final long CATEGORY = 25;
+    private static final String BUILDING = "Building 7";
+    private static final List<Long> USERS = List.of(USER, USER + 1);
+    private static final List<Long> PRODUCTS = List.of(PRODUCT, PRODUCT + 1);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private record QueryCase(Runnable call, String fullScanReason) {
+    }
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private QueryPlanRecorder recorder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private AnalyticsDailyRollupRepository dailyRepository;
+
+    @Autowired
+    private AnalyticsHourlyRollupRepository hourlyRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryRequestRepository categoryRequestRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private NegotiationRepository negotiationRepository;
+
+    @Autowired
+    private PrincipalInvalidationRepository invalidationRepository;
+
+    @Autowired
+    private UploadInvalidationRepository uploadInvalidationRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RateLimitBucketRepository rateLimitBucketRepository;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private TrustedDeviceRepository trustedDeviceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<String, QueryCase> cases = new LinkedHashMap<>();
+    private Set<String> largeTables;
+
+    @BeforeAll
+    void seed() {
+        new ResourceDatabasePopulator(new ClassPathResource("query-plan-data.sql")).execute(dataSource);
+        // Autovacuum would get there in production; the visibility map makes index-only scans possible
+        jdbcTemplate.execute("VACUUM ANALYZE");
+        largeTables = new TreeSet<>(jdbcTemplate.queryForList(
+                "SELECT relname FROM pg_class WHERE relkind = 'r' AND relnamespace = 'public'::regnamespace "
+                        + "AND reltuples >= ?", String.class, LARGE_TABLE_ROWS));
+        registerCases();
+    }
+
+    @Test
+    void everyQueryMethodHasACase() {
+        Set<String> missing = new TreeSet<>();
+        Repositories repositories = new Repositories(applicationContext);
+        for (Class<?> domainType : repositories) {
+            Class<?> repository = repositories.getRequiredRepositoryInformation(domainType).getRepositoryInterface();
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isDefault() && !method.isSynthetic()
+                        && !cases.containsKey(repository.getSimpleName() + "." + method.getName())) {
+                    missing.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        assertTrue(missing.isEmpty(), () -> "Repository methods without a query plan case: " + missing);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> queriesUseIndexes() {
+        return cases.entrySet().stream()
+                .map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> check(entry.getKey(), entry.getValue())));
+    }
+
+    private void check(String name, QueryCase queryCase) {
+        List<QueryPlanRecorder.Plan> plans = recorder.record(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    queryCase.call().run();
+                });
+            } catch (DataAccessException e) {
+                // Plans are taken before each statement runs; a bulk delete may still trip a
+                // foreign key on the synthetic rows that a real caller clears first
+            }
+        });
+        assertFalse(plans.isEmpty(), () -> name + " executed no SQL");
+        if (queryCase.fullScanReason() != null) {
+            return;
+        }
+        for (QueryPlanRecorder.Plan plan : plans) {
+            Set<String> scanned = new HashSet<>(plan.seqScans());
+            scanned.retainAll(largeTables);
+            if (!scanned.isEmpty()) {
+                fail(name + " reads " + scanned + " with a sequential scan\n" + plan.sql() + "\n"
+                        + plan.plan().toPrettyString());
+            }
+        }
+    }
+
+    private void query(Class<?> repository, String method, Runnable call) {
+        cases.put(repository.getSimpleName() + "." + method, new QueryCase(call, null));
+    }
+
+    /** A query expected to read most of a table, where an index would not help. */
+    private void fullScan(Class<?> repository, String method, String reason, Runnable call) {
+        cases.put(repository.getSimpleName() + "." + method, new QueryCase(call, reason));
+    }
+
+    private void registerCases() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime backfillSince = LocalDate.now().minusDays(90).atStartOfDay();
+        PageRequest page = PageRequest.of(0, 20);
+        String backfill = "analytics backfill over the last 90 days, reads most rows once at first start";
+
+        query(AdminRepository.class, "findByUsername", () -> adminRepository.findByUsername("admin1"));
+        query(AdminRepository.class, "findByEmail", () -> adminRepository.findByEmail("admin1@example.com"));
+        query(AdminRepository.class, "findByUsernameOrEmail", () -> adminRepository.findByUsernameOrEmail("admin1"));
+        query(AdminRepository.class, "existsByEmail", () -> adminRepository.existsByEmail("admin1@example.com"));
+
+        query(AnalyticsDailyRollupRepository.class, "increment", () -> dailyRepository.increment(
+                LocalDate.now(), AnalyticsMetric.ITEMS_SOLD, CATEGORY, BUILDING, 1));
+        query(AnalyticsDailyRollupRepository.class, "findInRange", () -> dailyRepository.findInRange(
+                LocalDate.now().minusDays(90), LocalDate.now(), AnalyticsMetric.ITEMS_SOLD, null, null));
+        query(AnalyticsDailyRollupRepository.class, "deleteOlderThan",
+                () -> dailyRepository.deleteOlderThan(LocalDate.now().minusDays(400)));
+
+        query(AnalyticsHourlyRollupRepository.class, "increment", () -> hourlyRepository.increment(
+                now.withMinute(0).withSecond(0).withNano(0), AnalyticsMetric.ITEMS_SOLD, CATEGORY, BUILDING, 1));
+        query(AnalyticsHourlyRollupRepository.class, "findInRange", () -> hourlyRepository.findInRange(
+                LocalDate.now().minusDays(1).atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay(), null, CATEGORY, null));
+        query(AnalyticsHourlyRollupRepository.class, "findByBucketStartBefore",
+                () -> hourlyRepository.findByBucketStartBefore(LocalDate.now().minusDays(14).atStartOfDay()));
+        query(AnalyticsHourlyRollupRepository.class, "deleteByIds", () -> hourlyRepository.deleteByIds(List.of(1L, 2L)));
+
+        query(CategoryRepository.class, "findByNameIgnoreCaseAndActiveTrue",
+                () -> categoryRepository.findByNameIgnoreCaseAndActiveTrue("category 25"));
+        query(CategoryRepository.class, "findByActiveTrue", () -> categoryRepository.findByActiveTrue());
+        query(CategoryRepository.class, "findRootCategories", () -> categoryRepository.findRootCategories());
+        query(CategoryRepository.class, "findSubcategories", () -> categoryRepository.findSubcategories(5L));
+        query(CategoryRepository.class, "countActiveProductsByCategoryIn",
+                () -> categoryRepository.countActiveProductsByCategoryIn(List.of(CATEGORY, CATEGORY + 1)));
+        query(CategoryRepository.class, "existsByNameIgnoreCaseAndActiveTrue",
+                () -> categoryRepository.existsByNameIgnoreCaseAndActiveTrue("category 25"));
+        query(CategoryRepository.class, "countByActiveTrue", () -> categoryRepository.countByActiveTrue());
+        query(CategoryRepository.class, "clearCreatedByIdIn", () -> categoryRepository.clearCreatedByIdIn(USERS));
+        query(CategoryRepository.class, "clearApprovedByIdIn", () -> categoryRepository.clearApprovedByIdIn(USERS));
+
+        query(CategoryRequestRepository.class, "findByStatus",
+                () -> categoryRequestRepository.findByStatus(CategoryStatus.PENDING, page));
+        query(CategoryRequestRepository.class, "findByRequestedByAndStatusOrderByCreatedAtDesc",
+                () -> categoryRequestRepository.findByRequestedByAndStatusOrderByCreatedAtDesc(user(USER), CategoryStatus.PENDING));
+        query(CategoryRequestRepository.class, "findPendingRequests", () -> categoryRequestRepository.findPendingRequests());
+        query(CategoryRequestRepository.class, "existsByNameIgnoreCaseAndStatus",
+                () -> categoryRequestRepository.existsByNameIgnoreCaseAndStatus("request 50", CategoryStatus.PENDING));
+        query(CategoryRequestRepository.class, "countPendingRequestsByUser",
+                () -> categoryRequestRepository.countPendingRequestsByUser(USER));
+        query(CategoryRequestRepository.class, "countByStatus",
+                () -> categoryRequestRepository.countByStatus(CategoryStatus.PENDING));
+        query(CategoryRequestRepository.class, "deleteByRequestedByIdIn",
+                () -> categoryRequestRepository.deleteByRequestedByIdIn(USERS));
+        query(CategoryRequestRepository.class, "clearReviewedByIdIn",
+                () -> categoryRequestRepository.clearReviewedByIdIn(USERS));
+
+        query(ChatMessageRepository.class, "findByChatIdOrderByCreatedAtDesc",
+                () -> chatMessageRepository.findByChatIdOrderByCreatedAtDesc(CHAT, page));
+        query(ChatMessageRepository.class, "findByChatIdOrderByCreatedAtAsc",
+                () -> chatMessageRepository.findByChatIdOrderByCreatedAtAsc(CHAT));
+        query(ChatMessageRepository.class, "findRecentMessagesByChatIdIn",
+                () -> chatMessageRepository.findRecentMessagesByChatIdIn(List.of(CHAT, CHAT + 1), 5));
+        query(ChatMessageRepository.class, "findLastMessageByChat", () -> chatMessageRepository.findLastMessageByChat(CHAT));
+        query(ChatMessageRepository.class, "deleteByProductIdIn", () -> chatMessageRepository.deleteByProductIdIn(PRODUCTS));
+        query(ChatMessageRepository.class, "deleteBySenderIdIn", () -> chatMessageRepository.deleteBySenderIdIn(USERS));
+        query(ChatMessageRepository.class, "deleteByChatParticipantIdIn",
+                () -> chatMessageRepository.deleteByChatParticipantIdIn(USERS));
+
+        query(ChatRepository.class, "findByProductAndBuyerAndStatus",
+                () -> chatRepository.findByProductAndBuyerAndStatus(product(PRODUCT), user(USER), ChatStatus.ACTIVE));
+        query(ChatRepository.class, "findUserChats", () -> chatRepository.findUserChats(USER, ChatStatus.ACTIVE, page));
+        query(ChatRepository.class, "findActiveChatsForProduct", () -> chatRepository.findActiveChatsForProduct(PRODUCT));
+        query(ChatRepository.class, "countActiveChatsForProduct", () -> chatRepository.countActiveChatsForProduct(PRODUCT));
+        query(ChatRepository.class, "findChatsWithUnreadMessages", () -> chatRepository.findChatsWithUnreadMessages(USER));
+        fullScan(ChatRepository.class, "findCreatedSinceForAnalytics", backfill,
+                () -> chatRepository.findCreatedSinceForAnalytics(backfillSince));
+        query(ChatRepository.class, "deleteByProductIdIn", () -> chatRepository.deleteByProductIdIn(PRODUCTS));
+        query(ChatRepository.class, "deleteByParticipantIdIn", () -> chatRepository.deleteByParticipantIdIn(USERS));
+
+        query(NegotiationRepository.class, "findByChatIdOrderByCreatedAtDesc",
+                () -> negotiationRepository.findByChatIdOrderByCreatedAtDesc(CHAT));
+        query(NegotiationRepository.class, "findActivePendingOffers",
+                () -> negotiationRepository.findActivePendingOffers(CHAT, now));
+        query(NegotiationRepository.class, "findExpiredOffers", () -> negotiationRepository.findExpiredOffers(now));
+        query(NegotiationRepository.class, "findPendingOffersForSeller",
+                () -> negotiationRepository.findPendingOffersForSeller(USER, now));
+        fullScan(NegotiationRepository.class, "findCreatedSinceForAnalytics", backfill,
+                () -> negotiationRepository.findCreatedSinceForAnalytics(backfillSince));
+        fullScan(NegotiationRepository.class, "findAcceptedSinceForAnalytics", backfill,
+                () -> negotiationRepository.findAcceptedSinceForAnalytics(backfillSince));
+        query(NegotiationRepository.class, "deleteByProductIdIn", () -> negotiationRepository.deleteByProductIdIn(PRODUCTS));
+        query(NegotiationRepository.class, "deleteByOfferedByIdIn", () -> negotiationRepository.deleteByOfferedByIdIn(USERS));
+        query(NegotiationRepository.class, "deleteByChatParticipantIdIn",
+                () -> negotiationRepository.deleteByChatParticipantIdIn(USERS));
+
+        query(PrincipalInvalidationRepository.class, "findByIdGreaterThanOrderByIdAsc",
+                () -> invalidationRepository.findByIdGreaterThanOrderByIdAsc(19_990L));
+        query(PrincipalInvalidationRepository.class, "findMaxId", () -> invalidationRepository.findMaxId());
+        query(PrincipalInvalidationRepository.class, "deleteOlderThan",
+                () -> invalidationRepository.deleteOlderThan(now.minusHours(1)));
+
+        query(UploadInvalidationRepository.class, "findByIdGreaterThanOrderByIdAsc",
+                () -> uploadInvalidationRepository.findByIdGreaterThanOrderByIdAsc(19_990L));
+        query(UploadInvalidationRepository.class, "findMaxId", () -> uploadInvalidationRepository.findMaxId());
+        query(UploadInvalidationRepository.class, "deleteOlderThan",
+                () -> uploadInvalidationRepository.deleteOlderThan(now.minusHours(1)));
+
+        query(ProductImageRepository.class, "findByProductIdOrderByDisplayOrderAsc",
+                () -> productImageRepository.findByProductIdOrderByDisplayOrderAsc(PRODUCT));
+        query(ProductImageRepository.class, "findByProductIdInAndPrimaryTrue",
+                () -> productImageRepository.findByProductIdInAndPrimaryTrue(PRODUCTS));
+        query(ProductImageRepository.class, "findProductImages", () -> productImageRepository.findProductImages(PRODUCT));
+        query(ProductImageRepository.class, "deleteByProductId", () -> productImageRepository.deleteByProductId(PRODUCT));
+        query(ProductImageRepository.class, "updateVariants", () -> productImageRepository.updateVariants(
+                "/uploads/products/missing.jpg", "/t.jpg", "/c.jpg", "/f.jpg", 100, 100));
+        query(ProductImageRepository.class, "findUnprocessedImageUrls",
+                () -> productImageRepository.findUnprocessedImageUrls(now.minusDays(1), PageRequest.of(0, 50)));
+        query(ProductImageRepository.class, "findImageUrlsByProductIdIn",
+                () -> productImageRepository.findImageUrlsByProductIdIn(PRODUCTS));
+        query(ProductImageRepository.class, "deleteByProductIdIn", () -> productImageRepository.deleteByProductIdIn(PRODUCTS));
+
+        query(ProductRepository.class, "findByStatusOrderByCreatedAtDesc",
+                () -> productRepository.findByStatusOrderByCreatedAtDesc(ProductStatus.ACTIVE, page));
+        query(ProductRepository.class, "findByCategoryIdAndStatusOrderByCreatedAtDesc",
+                () -> productRepository.findByCategoryIdAndStatusOrderByCreatedAtDesc(CATEGORY, ProductStatus.ACTIVE, page));
+        query(ProductRepository.class, "findBySellerAndStatusOrderByCreatedAtDesc",
+                () -> productRepository.findBySellerAndStatusOrderByCreatedAtDesc(user(SELLER), ProductStatus.ACTIVE, page));
+        fullScan(ProductRepository.class, "searchProducts",
+                "substring match on title and description; no B-tree index can serve LIKE '%keyword%'",
+                () -> productRepository.searchProducts("oak", page));
+        query(ProductRepository.class, "findByCategoryAndPriceRange", () -> productRepository.findByCategoryAndPriceRange(
+                CATEGORY, new BigDecimal("10.00"), new BigDecimal("200.00"), page));
+        query(ProductRepository.class, "findBySellerBuilding", () -> productRepository.findBySellerBuilding(BUILDING, page));
+        query(ProductRepository.class, "countActiveProductsBySeller", () -> productRepository.countActiveProductsBySeller(SELLER));
+        query(ProductRepository.class, "findMostViewedProducts",
+                () -> productRepository.findMostViewedProducts(PageRequest.of(0, 10)));
+        query(ProductRepository.class, "findRecentProducts",
+                () -> productRepository.findRecentProducts(now.minusDays(7), PageRequest.of(0, 10)));
+        fullScan(ProductRepository.class, "findAllByOrderByCreatedAtDesc",
+                "the page total counts every listing",
+                () -> productRepository.findAllByOrderByCreatedAtDesc(page));
+        query(ProductRepository.class, "countByStatus", () -> productRepository.countByStatus(ProductStatus.ACTIVE));
+        fullScan(ProductRepository.class, "findCreatedSinceForAnalytics", backfill,
+                () -> productRepository.findCreatedSinceForAnalytics(backfillSince));
+        fullScan(ProductRepository.class, "findSoldSinceForAnalytics", backfill,
+                () -> productRepository.findSoldSinceForAnalytics(backfillSince));
+        query(ProductRepository.class, "findIdsForBulk", () -> productRepository.findIdsForBulk(SELLER, null, null));
+        query(ProductRepository.class, "findExistingIds", () -> productRepository.findExistingIds(PRODUCTS));
+        query(ProductRepository.class, "findIdsBySellerIdIn", () -> productRepository.findIdsBySellerIdIn(USERS));
+        query(ProductRepository.class, "updateStatusByIdIn",
+                () -> productRepository.updateStatusByIdIn(PRODUCTS, ProductStatus.INACTIVE, now));
+        query(ProductRepository.class, "clearBuyerByBuyerIdIn", () -> productRepository.clearBuyerByBuyerIdIn(USERS));
+        query(ProductRepository.class, "deleteByIdIn", () -> productRepository.deleteByIdIn(PRODUCTS));
+
+        long nowMillis = System.currentTimeMillis();
+        query(RateLimitBucketRepository.class, "tryConsume",
+                () -> rateLimitBucketRepository.tryConsume("ip:10.0.4.2", 5000, 1000, 1000, nowMillis));
+        query(RateLimitBucketRepository.class, "insertBucket",
+                () -> rateLimitBucketRepository.insertBucket("ip:192.168.0.1", 4000, nowMillis));
+        fullScan(RateLimitBucketRepository.class, "deleteIdle",
+                "periodic sweep; an index on updated_at would rule out HOT updates on every rate-limited request",
+                () -> rateLimitBucketRepository.deleteIdle(nowMillis - 3_600_000));
+
+        String path = "/uploads/products/" + md5Of(42) + ".jpg";
+        query(StoredBlobRepository.class, "touch", () -> storedBlobRepository.touch(path, now));
+        query(StoredBlobRepository.class, "adjustRefCount", () -> storedBlobRepository.adjustRefCount(path, 1));
+        query(StoredBlobRepository.class, "findReferencedDigests",
+                () -> storedBlobRepository.findReferencedDigests(List.of("a".repeat(64), "b".repeat(64))));
+        query(StoredBlobRepository.class, "findLiveDigests",
+                () -> storedBlobRepository.findLiveDigests(List.of("a".repeat(64), "b".repeat(64)), now.minusDays(1)));
+        query(StoredBlobRepository.class, "deleteByPathIn", () -> storedBlobRepository.deleteByPathIn(List.of(path)));
+        query(StoredBlobRepository.class, "findByPathForUpdate", () -> storedBlobRepository.findByPathForUpdate(path));
+
+        query(TrustedDeviceRepository.class, "findByUserAndDeviceFingerprintAndActiveTrue",
+                () -> trustedDeviceRepository.findByUserAndDeviceFingerprintAndActiveTrue(user(USER), "fingerprint"));
+        query(TrustedDeviceRepository.class, "findByUser", () -> trustedDeviceRepository.findByUser(user(USER)));
+        query(TrustedDeviceRepository.class, "findActiveByUserId", () -> trustedDeviceRepository.findActiveByUserId(USER, now));
+        query(TrustedDeviceRepository.class, "findActiveByIdAndUserId",
+                () -> trustedDeviceRepository.findActiveByIdAndUserId(USER, USER));
+        query(TrustedDeviceRepository.class, "countActiveByUserId", () -> trustedDeviceRepository.countActiveByUserId(USER));
+        query(TrustedDeviceRepository.class, "findFirstByUserIdAndActiveTrueOrderByLastUsedAtAsc",
+                () -> trustedDeviceRepository.findFirstByUserIdAndActiveTrueOrderByLastUsedAtAsc(USER));
+        query(TrustedDeviceRepository.class, "deactivateAllByUserId", () -> trustedDeviceRepository.deactivateAllByUserId(USER));
+        query(TrustedDeviceRepository.class, "deactivateById", () -> trustedDeviceRepository.deactivateById(USER));
+        query(TrustedDeviceRepository.class, "touchLastUsedAt", () -> trustedDeviceRepository.touchLastUsedAt(USER, now));
+        query(TrustedDeviceRepository.class, "deleteByUserIdIn", () -> trustedDeviceRepository.deleteByUserIdIn(USERS));
+
+        String verificationToken = md5Of("verify" + 20);
+        String resetToken = md5Of("reset" + 50);
+        query(UserRepository.class, "findByUsernameOrEmail",
+                () -> userRepository.findByUsernameOrEmail("user1234", "user1234@example.com"));
+        fullScan(UserRepository.class, "existsByRole",
+                "no caller; role has two values, so an index would cost every write for one rare lookup",
+                () -> userRepository.existsByRole(Role.ADMIN));
+        query(UserRepository.class, "searchByEmailOrUsername", () -> userRepository.searchByEmailOrUsername("user1234", page));
+        query(UserRepository.class, "findByEmailVerificationToken",
+                () -> userRepository.findByEmailVerificationToken(verificationToken));
+        query(UserRepository.class, "existsByEmailOrUsername",
+                () -> userRepository.existsByEmailOrUsername("user1234@example.com", "user1234"));
+        query(UserRepository.class, "findByUsername", () -> userRepository.findByUsername("user1234"));
+        query(UserRepository.class, "findByEmail", () -> userRepository.findByEmail("user1234@example.com"));
+        query(UserRepository.class, "findByPasswordResetToken",
+                () -> userRepository.findByPasswordResetToken(resetToken));
+        query(UserRepository.class, "existsByEmailAndIdNot",
+                () -> userRepository.existsByEmailAndIdNot("user1234@example.com", USER + 1));
+        fullScan(UserRepository.class, "findAllForSearchIndex", "builds the in-memory search index from every user",
+                () -> userRepository.findAllForSearchIndex());
+        fullScan(UserRepository.class, "findCreatedSinceForAnalytics", backfill,
+                () -> userRepository.findCreatedSinceForAnalytics(backfillSince));
+        query(UserRepository.class, "findIdsBySearch", () -> userRepository.findIdsBySearch("user1234"));
+        query(UserRepository.class, "findExistingIds", () -> userRepository.findExistingIds(USERS));
+        query(UserRepository.class, "findUsernamesByIdIn", () -> userRepository.findUsernamesByIdIn(USERS));
+        query(UserRepository.class, "updateEnabledByIdIn", () -> userRepository.updateEnabledByIdIn(USERS, false, now));
+        query(UserRepository.class, "lockByIdIn", () -> userRepository.lockByIdIn(USERS, now));
+        query(UserRepository.class, "unlockByIdIn", () -> userRepository.unlockByIdIn(USERS, now));
+        query(UserRepository.class, "deleteByIdIn", () -> userRepository.deleteByIdIn(USERS));
+    }
+
+    private User user(long id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    private Product product(long id) {
+        return productRepository.getReferenceById(id);
+    }
+
+    private String md5Of(Object value) {
+        return jdbcTemplate.queryForObject("SELECT md5(?)", String.class, String.valueOf(value));
+    }
+}
@@ -0,0 +1,55 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Decoding of uploaded originals: large sources are subsampled on read, but never below the
+ * size of the largest variant. Sources are 1-bit PNGs so a 48 MP image stays small in the test.
+ */
+class ImageProcessingServiceTests {
+
+    private static final int FULL_SIZE = 1600;
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    @Test
+    void largePhotoIsSubsampledOnRead() throws IOException {
+        BufferedImage decoded = ImageProcessingService.decode(png(8000, 6000), FULL_SIZE, MAX_PIXELS);
+
+        assertEquals(1600, decoded.getWidth());
+        assertEquals(1200, decoded.getHeight());
+    }
+
+    @Test
+    void subsamplingKeepsTheLongEdgeAtLeastTheLargestVariant() throws IOException {
+        BufferedImage panorama = ImageProcessingService.decode(png(7000, 900), FULL_SIZE, MAX_PIXELS);
+        BufferedImage portrait = ImageProcessingService.decode(png(2000, 3100), FULL_SIZE, MAX_PIXELS);
+
+        // 7000 / 4 rounds up to 1750; 3100 is under twice the target, so it is read whole
+        assertEquals(1750, panorama.getWidth());
+        assertEquals(225, panorama.getHeight());
+        assertEquals(2000, portrait.getWidth());
+        assertEquals(3100, portrait.getHeight());
+    }
+
+    @Test
+    void sourcesOverThePixelBudgetAreRejected() throws IOException {
+        byte[] bytes = png(8000, 6000);
+
+        assertThrows(IOException.class, () -> ImageProcessingService.decode(bytes, FULL_SIZE, 40_000_000L));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
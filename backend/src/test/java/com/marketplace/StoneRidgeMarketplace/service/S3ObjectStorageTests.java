@@ -0,0 +1,209 @@
+package com.marketplace.StoneRidgeMarketplace.service;
+
+import com.marketplace.StoneRidgeMarketplace.util.AwsSigV4;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link S3ObjectStorage} against a real S3 API (MinIO). Each test writes through one node and
+ * reads through another with its own empty cache, so reads go to the bucket rather than to
+ * the copy the writer kept.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class S3ObjectStorageTests {
+
+    private static final String BUCKET = "uploads";
+    private static final int MB = 1024 * 1024;
+
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2023-09-04T19-57-37Z");
+
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+
+    @TempDir
+    private Path cacheRoot;
+
+    @BeforeAll
+    static void createBucket() throws Exception {
+        HttpResponse<String> response = signed("PUT", "/" + BUCKET);
+        assertEquals(200, response.statusCode(), response.body());
+    }
+
+    @Test
+    void objectsWrittenByOneNodeAreReadByAnother() throws IOException {
+        S3ObjectStorage writer = storage("writer", "");
+        S3ObjectStorage reader = storage("reader", "");
+        byte[] bytes = randomBytes(64 * 1024);
+
+        writer.put("products/ab/cd/small.jpg", stage(writer, bytes), "image/jpeg");
+
+        ObjectStorage.ObjectInfo info = reader.stat("products/ab/cd/small.jpg");
+        assertNotNull(info);
+        assertEquals(bytes.length, info.size());
+        assertArrayEquals(bytes, read(reader, "products/ab/cd/small.jpg"));
+        assertNull(reader.stat("products/ab/cd/missing.jpg"));
+        assertNull(reader.openLocal("products/ab/cd/missing.jpg"));
+
+        assertTrue(writer.delete("products/ab/cd/small.jpg"));
+        assertNull(reader.stat("products/ab/cd/small.jpg"));
+    }
+
+    @Test
+    void largeObjectsGoUpInParts() throws Exception {
+        S3ObjectStorage writer = storage("writer", "");
+        ReflectionTestUtils.setField(writer, "multipartThreshold", (long) MB);
+        S3ObjectStorage reader = storage("reader", "");
+        // Two full 5 MB parts and a short last one
+        byte[] bytes = randomBytes(11 * MB + 123);
+
+        writer.put("products/ef/01/large.jpg", stage(writer, bytes), "image/jpeg");
+
+        // A multipart object's ETag carries the part count
+        HttpResponse<String> head = signed("HEAD", "/" + BUCKET + "/products/ef/01/large.jpg");
+        assertTrue(head.headers().firstValue("ETag").orElse("").endsWith("-3\""), head.headers().toString());
+        assertArrayEquals(bytes, read(reader, "products/ef/01/large.jpg"));
+    }
+
+    @Test
+    void cachedFilesOutliveEvictionWhilePinned() throws Exception {
+        S3ObjectStorage storage = storage("pinner", "");
+        storage.put("products/99/01/pinned.jpg", stage(storage, randomBytes(1024)), "image/jpeg");
+
+        Path path;
+        try (ObjectStorage.LocalObject local = storage.openLocal("products/99/01/pinned.jpg")) {
+            path = local.path();
+            assertTrue(local.cached());
+            storage.delete("products/99/01/pinned.jpg");
+            Thread.sleep(200); // removal listeners run asynchronously
+            assertTrue(Files.exists(path), "an evicted file was removed while pinned");
+        }
+        for (int i = 0; i < 50 && Files.exists(path); i++) {
+            Thread.sleep(100);
+        }
+        assertFalse(Files.exists(path), "an evicted file was kept after its last reader closed it");
+    }
+
+    @Test
+    void listingFollowsContinuationTokens() throws IOException {
+        S3ObjectStorage storage = storage("lister", "listing/");
+        ReflectionTestUtils.setField(storage, "listPageSize", 2);
+        List<String> keys = List.of("products/00/01/a.jpg", "products/00/02/b.jpg", "products/00/03/c.jpg",
+                "products/00/04/d.jpg", "products/00/05/e.jpg");
+        for (String key : keys) {
+            storage.put(key, stage(storage, randomBytes(16)), "image/jpeg");
+        }
+
+        List<String> listed = new ArrayList<>();
+        storage.list(object -> listed.add(object.key()));
+
+        assertEquals(keys, listed.stream().sorted().toList());
+    }
+
+    @Test
+    void presignedPutAcceptsOnlyTheDeclaredBody() throws Exception {
+        S3ObjectStorage storage = storage("presigner", "");
+        byte[] bytes = randomBytes(32 * 1024);
+        String sha256 = AwsSigV4.sha256Hex(bytes);
+
+        ObjectStorage.PresignedUpload upload = storage.presignPut("products/12/34/direct.jpg", "image/jpeg",
+                bytes.length, sha256, Duration.ofMinutes(5));
+        assertEquals(200, upload(upload, bytes).statusCode());
+        assertEquals(bytes.length, storage.stat("products/12/34/direct.jpg").size());
+
+        ObjectStorage.PresignedUpload other = storage.presignPut("products/12/34/tampered.jpg", "image/jpeg",
+                bytes.length, sha256, Duration.ofMinutes(5));
+        int status = upload(other, randomBytes(bytes.length)).statusCode();
+        assertTrue(status / 100 == 4, "a body with another checksum was accepted: " + status);
+        assertNull(storage.stat("products/12/34/tampered.jpg"));
+    }
+
+    private S3ObjectStorage storage(String node, String keyPrefix) throws IOException {
+        S3ObjectStorage storage = new S3ObjectStorage();
+        ReflectionTestUtils.setField(storage, "endpoint", MINIO.getS3URL());
+        ReflectionTestUtils.setField(storage, "region", "us-east-1");
+        ReflectionTestUtils.setField(storage, "bucket", BUCKET);
+        ReflectionTestUtils.setField(storage, "accessKey", MINIO.getUserName());
+        ReflectionTestUtils.setField(storage, "secretKey", MINIO.getPassword());
+        ReflectionTestUtils.setField(storage, "pathStyle", true);
+        ReflectionTestUtils.setField(storage, "keyPrefix", keyPrefix);
+        ReflectionTestUtils.setField(storage, "multipartThreshold", 16L * MB);
+        ReflectionTestUtils.setField(storage, "partSize", 5 * MB);
+        ReflectionTestUtils.setField(storage, "listPageSize", 1000);
+        ReflectionTestUtils.setField(storage, "requestTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(storage, "cacheDirName", cacheRoot.resolve(node).toString());
+        ReflectionTestUtils.setField(storage, "cacheMaxBytes", 64L * MB);
+        storage.init();
+        return storage;
+    }
+
+    private static Path stage(ObjectStorage storage, byte[] bytes) throws IOException {
+        return Files.write(storage.stagingDir().resolve(UUID.randomUUID() + ".tmp"), bytes);
+    }
+
+    private static byte[] read(ObjectStorage storage, String key) throws IOException {
+        try (ObjectStorage.LocalObject local = storage.openLocal(key)) {
+            assertNotNull(local, key);
+            return Files.readAllBytes(local.path());
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static HttpResponse<String> upload(ObjectStorage.PresignedUpload upload, byte[] body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(upload.uploadUrl()))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(body));
+        upload.headers().forEach(request::header);
+        return HTTP.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** A bodiless request signed with the container's credentials, for setup and inspection. */
+    private static HttpResponse<String> signed(String method, String path) throws Exception {
+        URI endpoint = URI.create(MINIO.getS3URL());
+        Map<String, String> headers = new HashMap<>();
+        headers.put("host", endpoint.getHost() + ":" + endpoint.getPort());
+        headers.put("x-amz-date", AwsSigV4.amzDate(Instant.now()));
+        headers.put("x-amz-content-sha256", AwsSigV4.EMPTY_PAYLOAD);
+        String authorization = AwsSigV4.authorization(
+                new AwsSigV4.Credentials(MINIO.getUserName(), MINIO.getPassword(), "us-east-1", "s3"),
+                method, path, Map.of(), headers, AwsSigV4.EMPTY_PAYLOAD);
+        HttpRequest request = HttpRequest.newBuilder(endpoint.resolve(path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .header("Authorization", authorization)
+                .header("x-amz-date", headers.get("x-amz-date"))
+                .header("x-amz-content-sha256", AwsSigV4.EMPTY_PAYLOAD)
+                .build();
+        return HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,151 @@
+-- Synthetic data for RepositoryQueryPlanTests: sized so every table a request path reads
+-- is far past the point where PostgreSQL stops preferring a sequential scan, with value
+-- distributions shaped like production (most listings sold, few pending offers, tokens
+-- only on unverified accounts, rollup and invalidation tables holding their retention
+-- window). Ids are explicit so the test can refer to rows by id.
+
+INSERT INTO admins (id, first_name, last_name, email, username, password, enabled, created_at)
+SELECT i, 'Admin', 'User ' || i, 'admin' || i || '@example.com', 'admin' || i, '{noop}password', true, localtimestamp
+FROM generate_series(1, 3) AS s(i);
+
+-- 20k users across 40 buildings; 1 in 20 still has an email verification token
+INSERT INTO users (id, first_name, last_name, email, username, password, apartment_number, building_name,
+                   role, enabled, email_verified, phone_verified, account_non_locked, failed_login_attempts,
+                   email_verification_token, email_verification_token_expiry, password_reset_token,
+                   password_reset_token_expiry, created_at, updated_at)
+SELECT i, 'First' || i, 'Last' || i, 'user' || i || '@example.com', 'user' || i, '{noop}password',
+       (100 + i % 400)::text, 'Building ' || (i % 40),
+       CASE WHEN i % 5000 = 0 THEN 'ADMIN' ELSE 'USER' END,
+       i % 20 <> 0, i % 20 <> 0, false, true, 0,
+       CASE WHEN i % 20 = 0 THEN md5('verify' || i) END,
+       CASE WHEN i % 20 = 0 THEN localtimestamp + interval '1 day' END,
+       CASE WHEN i % 50 = 0 THEN md5('reset' || i) END,
+       CASE WHEN i % 50 = 0 THEN localtimestamp + interval '1 hour' END,
+       localtimestamp - i * interval '30 minutes', localtimestamp
+FROM generate_series(1, 20000) AS s(i);
+
+-- 20 root categories with 180 subcategories
+INSERT INTO categories (id, name, description, parent_id, created_at, active)
+SELECT i, 'Category ' || i, 'Synthetic category ' || i, CASE WHEN i > 20 THEN 1 + i % 20 END, localtimestamp, i % 50 <> 0
+FROM generate_series(1, 200) AS s(i);
+
+-- 200k listings, newest first: 20% active, 60% sold
+INSERT INTO products (id, title, description, price, original_price, condition, status, category_id, seller_id,
+                      buyer_id, view_count, is_negotiable, location_details, sold_at, sold_price, created_at, updated_at)
+SELECT i, 'Listing ' || i, repeat('Solid oak, lightly used, pickup from the lobby. ', 8) || i,
+       (i % 500) + 0.99, (i % 500) + 10.99,
+       (ARRAY['NEW', 'LIKE_NEW', 'GOOD', 'FAIR', 'POOR'])[1 + i % 5],
+       CASE WHEN i % 10 < 2 THEN 'ACTIVE' WHEN i % 10 < 8 THEN 'SOLD' WHEN i % 10 = 8 THEN 'INACTIVE'
+            ELSE 'PENDING_APPROVAL' END,
+       21 + i % 180, 1 + (i * 7919) % 20000,
+       CASE WHEN i % 10 BETWEEN 2 AND 7 THEN 1 + (i * 104729) % 20000 END,
+       (i * 37) % 1000, true, 'Apartment ' || (i % 400),
+       CASE WHEN i % 10 BETWEEN 2 AND 7 THEN localtimestamp - i * interval '2 minutes' + interval '1 day' END,
+       CASE WHEN i % 10 BETWEEN 2 AND 7 THEN (i % 500) + 0.99 END,
+       localtimestamp - i * interval '2 minutes', localtimestamp - i * interval '2 minutes'
+FROM generate_series(1, 200000) AS s(i);
+
+-- One image per listing; 1 in 100 is still waiting for its variants
+INSERT INTO product_images (id, product_id, image_url, file_name, file_size, is_primary, display_order,
+                            thumbnail_url, card_url, full_url, width, height, created_at)
+SELECT i, i, '/uploads/products/' || md5(i::text) || '.jpg', md5(i::text) || '.jpg', 250000, true, 0,
+       CASE WHEN i % 100 <> 0 THEN '/uploads/products/' || md5(i::text) || '-thumb.jpg' END,
+       CASE WHEN i % 100 <> 0 THEN '/uploads/products/' || md5(i::text) || '-card.jpg' END,
+       CASE WHEN i % 100 <> 0 THEN '/uploads/products/' || md5(i::text) || '-full.jpg' END,
+       1600, 1200, localtimestamp - i * interval '2 minutes'
+FROM generate_series(1, 200000) AS s(i);
+
+INSERT INTO chats (id, product_id, buyer_id, seller_id, status, last_message_at, buyer_last_read_at,
+                   seller_last_read_at, created_at, updated_at)
+SELECT i, 1 + (i * 13) % 200000, 1 + (i * 31) % 20000, 1 + (i * 7) % 20000,
+       CASE WHEN i % 10 < 7 THEN 'ACTIVE' ELSE 'CLOSED' END,
+       localtimestamp - i * interval '5 minutes' + interval '1 hour',
+       localtimestamp - i * interval '5 minutes' + CASE WHEN i % 3 = 0 THEN interval '30 minutes' ELSE interval '2 hours' END,
+       localtimestamp - i * interval '5 minutes' + interval '2 hours',
+       localtimestamp - i * interval '5 minutes', localtimestamp - i * interval '5 minutes'
+FROM generate_series(1, 50000) AS s(i);
+
+-- Ten messages per chat
+INSERT INTO chat_messages (id, chat_id, sender_id, content, message_type, is_system_message, created_at)
+SELECT i, 1 + i % 50000, 1 + (i * 17) % 20000, 'Is this still available? ' || i, 'text', false,
+       localtimestamp - i * interval '30 seconds'
+FROM generate_series(1, 500000) AS s(i);
+
+-- Offers: only recent ones are still pending, older ones were answered
+INSERT INTO negotiations (id, chat_id, offered_by, offered_price, message, status, expires_at, responded_at,
+                          created_at, updated_at)
+SELECT i, 1 + i % 50000, 1 + (i * 11) % 20000, 25.00, 'Would you take 25?',
+       CASE WHEN i <= 2000 AND i % 4 = 0 THEN 'PENDING'
+            ELSE (ARRAY['ACCEPTED', 'REJECTED', 'COUNTER_OFFERED'])[1 + i % 3] END,
+       localtimestamp - i * interval '10 minutes' + interval '2 days',
+       CASE WHEN NOT (i <= 2000 AND i % 4 = 0) THEN localtimestamp - i * interval '10 minutes' + interval '1 hour' END,
+       localtimestamp - i * interval '10 minutes', localtimestamp - i * interval '10 minutes'
+FROM generate_series(1, 50000) AS s(i);
+
+INSERT INTO trusted_devices (id, user_id, device_token, device_fingerprint, device_name, device_type, user_agent,
+                             ip_address, created_at, last_used_at, expires_at, active)
+SELECT i, 1 + i % 20000, md5('token' || i), md5('fingerprint' || i), 'Device ' || i, 'desktop', 'Mozilla/5.0',
+       '10.0.' || (i % 250) || '.' || (i % 200), localtimestamp - i * interval '1 hour',
+       localtimestamp - i * interval '10 minutes', localtimestamp + interval '30 days', i % 4 <> 0
+FROM generate_series(1, 40000) AS s(i);
+
+-- Category requests: 2% pending review
+INSERT INTO category_requests (id, name, description, justification, requested_by, reviewed_by, status,
+                               review_notes, reviewed_at, created_at, updated_at)
+SELECT i, 'Request ' || i, 'Synthetic request', 'Needed for testing', 1 + (i * 3) % 20000,
+       CASE WHEN i % 50 <> 0 THEN 1 + (i * 7) % 20000 END,
+       CASE WHEN i % 50 = 0 THEN 'PENDING' WHEN i % 2 = 0 THEN 'APPROVED' ELSE 'REJECTED' END,
+       CASE WHEN i % 50 <> 0 THEN 'Reviewed' END,
+       CASE WHEN i % 50 <> 0 THEN localtimestamp - i * interval '1 hour' + interval '1 day' END,
+       localtimestamp - i * interval '1 hour', localtimestamp - i * interval '1 hour'
+FROM generate_series(1, 20000) AS s(i);
+
+-- Invalidations are purged after an hour, so the table only holds the last hour or so
+INSERT INTO principal_invalidations (id, subject, origin_node, created_at)
+SELECT i, 'user' || (i % 20000), 'node-' || (i % 3), localtimestamp - (20000 - i) * interval '200 milliseconds'
+FROM generate_series(1, 20000) AS s(i);
+
+INSERT INTO upload_invalidations (id, upload_key, origin_node, created_at)
+SELECT i, 'products/' || lpad(to_hex(i % 256), 2, '0') || '/' || md5(i::text) || '-thumb.jpg', 'node-' || (i % 3),
+       localtimestamp - (20000 - i) * interval '200 milliseconds'
+FROM generate_series(1, 20000) AS s(i);
+
+INSERT INTO rate_limit_buckets (bucket_key, tokens, updated_at)
+SELECT 'ip:10.0.' || (i / 250) || '.' || (i % 250), 5000,
+       (extract(epoch FROM now()) * 1000)::bigint - i * 10
+FROM generate_series(1, 50000) AS s(i);
+
+INSERT INTO stored_blobs (id, path, digest, size_bytes, ref_count, created_at, last_uploaded_at)
+SELECT i, '/uploads/products/' || md5(i::text) || '.jpg', md5(i::text) || md5('blob' || i), 250000,
+       CASE WHEN i % 50 = 0 THEN 0 ELSE 1 END,
+       localtimestamp - i * interval '2 minutes', localtimestamp - i * interval '2 minutes'
+FROM generate_series(1, 100000) AS s(i);
+
+-- Hourly rollups for the 14-day retention window plus the day compaction has yet to fold
+INSERT INTO analytics_hourly (id, bucket_start, metric, category_id, building, event_count)
+SELECT i, date_trunc('hour', localtimestamp) - (i / 278) * interval '1 hour',
+       (ARRAY['LISTINGS_CREATED', 'ITEMS_SOLD', 'CHATS_STARTED', 'OFFERS_MADE', 'OFFERS_ACCEPTED', 'SIGNUPS'])[1 + i % 6],
+       21 + i % 180, 'Building ' || (i % 40), 1 + i % 7
+FROM generate_series(1, 100000) AS s(i);
+
+-- Daily rollups for the 400-day retention window
+INSERT INTO analytics_daily (id, bucket_day, metric, category_id, building, event_count)
+SELECT i, current_date - i / 125,
+       (ARRAY['LISTINGS_CREATED', 'ITEMS_SOLD', 'CHATS_STARTED', 'OFFERS_MADE', 'OFFERS_ACCEPTED', 'SIGNUPS'])[1 + i % 6],
+       21 + i % 180, 'Building ' || (i % 40), 1 + i % 50
+FROM generate_series(1, 50000) AS s(i);
+
+-- Continue the id sequences after the explicit ids, as V10 does for existing data
+SELECT setval(seq, max_id)
+FROM (VALUES ('users_seq', (SELECT max(id) FROM users)), ('admins_seq', (SELECT max(id) FROM admins)),
+             ('categories_seq', (SELECT max(id) FROM categories)), ('products_seq', (SELECT max(id) FROM products)),
+             ('product_images_seq', (SELECT max(id) FROM product_images)), ('chats_seq', (SELECT max(id) FROM chats)),
+             ('chat_messages_seq', (SELECT max(id) FROM chat_messages)),
+             ('negotiations_seq', (SELECT max(id) FROM negotiations)),
+             ('trusted_devices_seq', (SELECT max(id) FROM trusted_devices)),
+             ('category_requests_seq', (SELECT max(id) FROM category_requests)),
+             ('stored_blobs_seq', (SELECT max(id) FROM stored_blobs)),
+             ('analytics_hourly_seq', (SELECT max(id) FROM analytics_hourly)),
+             ('analytics_daily_seq', (SELECT max(id) FROM analytics_daily))) AS s(seq, max_id);
+SELECT setval(pg_get_serial_sequence('principal_invalidations', 'id'), max(id)) FROM principal_invalidations;
+SELECT setval(pg_get_serial_sequence('upload_invalidations', 'id'), max(id)) FROM upload_invalidations;
@@ -42,8 +42,13 @@ const CreateProductPage = ({ onBack, onProductCreated }) => {
     setLoading(true);
     try {
       const res = await fileAPI.uploadProductImages(Array.from(files));
-      const uploadedUrls = res.data?.data || [];
+      const results = res.data?.data || [];
+      const uploadedUrls = results.filter((r) => r.success).map((r) => r.url);
       setImageUrls((prev) => [...prev, ...uploadedUrls]);
+      const failed = results.filter((r) => !r.success);
+      if (failed.length > 0) {
+        alert('Some images were not uploaded:\n' + failed.map((r) => `${r.fileName}: ${r.error}`).join('\n'));
+      }
     } catch (err) {
       const status = err.response?.status;
       const msg = err.response?.data?.message || err.message;
@@ -0,0 +1,138 @@
+package com.marketplace.StoneRidgeMarketplace.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thin JSON client for the backend's REST and WebSocket APIs that times every call under an
+ * endpoint label with path variables left templated ("GET /api/products/{id}"), so results
+ * aggregate per route rather than per URL.
+ */
+final class ApiClient {
+
+    /** Status plus the ApiResponse "data" node (null on errors or empty bodies). */
+    record Result(int status, JsonNode data) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final Metrics metrics;
+
+    ApiClient(String baseUrl, Duration timeout, int connections, Metrics metrics) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.metrics = metrics;
+        // The JDK client pools HTTP/1.1 connections per host; keep it from opening unbounded sockets
+        System.setProperty("jdk.httpclient.connectionPoolSize", String.valueOf(connections));
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    Result get(String label, String path, String token) {
+        return send(label, "GET", path, null, token);
+    }
+
+    Result post(String label, String path, Object body, String token) {
+        return send(label, "POST", path, body, token);
+    }
+
+    Result send(String label, String method, String path, Object body, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        try {
+            if (body != null) {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unserializable request body for " + label, e);
+        }
+
+        long start = System.nanoTime();
+        int status = 0;
+        byte[] responseBody = null;
+        try {
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            responseBody = response.body();
+        } catch (IOException e) {
+            // Connection refused, reset or timed out: counted as status 0
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            metrics.record(label, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), status);
+        }
+        return new Result(status, data(responseBody));
+    }
+
+    /** Opens a WebSocket, recording the handshake under label and counting every frame received. */
+    WebSocket connectWebSocket(String label, String path, String token) {
+        URI uri = URI.create(baseUrl.replaceFirst("^http", "ws") + path);
+        long start = System.nanoTime();
+        int status = 0;
+        try {
+            WebSocket socket = http.newWebSocketBuilder()
+                    .connectTimeout(timeout)
+                    .header("Authorization", "Bearer " + token)
+                    .buildAsync(uri, new FrameCounter())
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            status = 101;
+            return socket;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        } finally {
+            metrics.record(label, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), status);
+        }
+    }
+
+    private final class FrameCounter implements WebSocket.Listener {
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            if (last) {
+                metrics.webSocketFrame();
+            }
+            webSocket.request(1);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static JsonNode data(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode root = JSON.readTree(body);
+            return root == null ? null : root.get("data");
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.marketplace.StoneRidgeMarketplace.loadtest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * What the virtual users have learned about the marketplace: product ids seen while browsing,
+ * category ids, and which listings belong to a logged-in virtual user (the only ones whose
+ * offers can be accepted, since that needs the seller's token).
+ */
+final class Catalog {
+
+    record Listing(long productId, BigDecimal price, VirtualUser seller) {
+    }
+
+    private static final int MAX_PRODUCTS = 20_000;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<Listing> listings = new ArrayList<>();
+    private final Map<Long, Listing> listingsById = new HashMap<>();
+
+    synchronized void addProduct(long productId) {
+        if (productIds.size() < MAX_PRODUCTS) {
+            productIds.add(productId);
+        } else {
+            productIds.set((int) (productId % MAX_PRODUCTS), productId);
+        }
+    }
+
+    synchronized void addCategory(long categoryId) {
+        categoryIds.add(categoryId);
+    }
+
+    synchronized void addListing(Listing listing) {
+        if (listingsById.putIfAbsent(listing.productId(), listing) == null) {
+            listings.add(listing);
+            addProduct(listing.productId());
+        }
+    }
+
+    /** A known product id, or null before anything was browsed. */
+    synchronized Long randomProduct(Random random) {
+        return productIds.isEmpty() ? null : productIds.get(random.nextInt(productIds.size()));
+    }
+
+    synchronized Long randomCategory(Random random) {
+        return categoryIds.isEmpty() ? null : categoryIds.get(random.nextInt(categoryIds.size()));
+    }
+
+    synchronized boolean ownedBy(long productId, VirtualUser user) {
+        Listing listing = listingsById.get(productId);
+        return listing != null && listing.seller() == user;
+    }
+
+    /** A listing sold by someone other than buyer, or null if there is none left. */
+    synchronized Listing randomListingNotBy(VirtualUser buyer, Random random) {
+        for (int attempt = 0; attempt < 8 && !listings.isEmpty(); attempt++) {
+            Listing listing = listings.get(random.nextInt(listings.size()));
+            if (listing.seller() != buyer) {
+                return listing;
+            }
+        }
+        return null;
+    }
+
+    /** Sold listings leave both pools so nobody keeps offering on them. */
+    synchronized void sold(long productId) {
+        Listing listing = listingsById.remove(productId);
+        if (listing != null) {
+            listings.remove(listing);
+        }
+        productIds.remove(Long.valueOf(productId));
+    }
+
+    synchronized int productCount() {
+        return productIds.size();
+    }
+
+    synchronized int listingCount() {
+        return listings.size();
+    }
+}
@@ -0,0 +1,377 @@
+package com.marketplace.StoneRidgeMarketplace.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Inserts a synthetic marketplace straight into the backend's database with batched JDBC:
+ * verified users spread over buildings, a two-level category tree, active listings with
+ * images, and chat history with messages and offers. Everything is derived from one seed,
+ * so the same options always produce the same dataset. Load-test rows are recognisable
+ * (usernames {@value #USER_PREFIX}*, categories "LT ..."), which is what {@link #reset}
+ * deletes; nothing else in the database is touched.
+ */
+final class DatasetSeeder {
+
+    static final String USER_PREFIX = "lt_user_";
+    static final String PASSWORD = "LoadTest123!";
+    private static final String CATEGORY_PREFIX = "LT ";
+    private static final int BATCH = 500;
+
+    static final String[] WORDS = {
+            "vintage", "oak", "desk", "lamp", "bike", "sofa", "linen", "chair", "monitor", "kettle",
+            "plant", "rug", "bookshelf", "mirror", "blender", "stroller", "guitar", "printer", "dresser", "toaster",
+            "wardrobe", "mattress", "bookcase", "heater", "fan", "shelf", "stool", "speaker", "camera", "scooter"
+    };
+    private static final String[] CONDITIONS = {"NEW", "LIKE_NEW", "GOOD", "FAIR", "POOR"};
+    private static final String[] LINES = {
+            "Hi! Is this still available?", "Could I pick it up this evening?", "Yes, still available.",
+            "Does it come with the original box?", "I'm in the same building, happy to carry it.",
+            "Would Saturday morning work?", "Sure, message me when you're downstairs.", "Any scratches?"
+    };
+
+    private final Connection connection;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    DatasetSeeder(Connection connection, long seed) {
+        this.connection = connection;
+        this.random = new Random(seed);
+    }
+
+    /** Delete every load-test row, children first. */
+    void reset() throws SQLException {
+        String users = "(SELECT id FROM users WHERE username LIKE '" + USER_PREFIX + "%')";
+        String categories = "(SELECT id FROM categories WHERE name LIKE '" + CATEGORY_PREFIX + "%')";
+        String products = "(SELECT id FROM products WHERE seller_id IN " + users + " OR category_id IN " + categories + ")";
+        String chats = "(SELECT id FROM chats WHERE product_id IN " + products
+                + " OR buyer_id IN " + users + " OR seller_id IN " + users + ")";
+        String[] statements = {
+                "DELETE FROM negotiations WHERE chat_id IN " + chats + " OR offered_by IN " + users,
+                "DELETE FROM chat_messages WHERE chat_id IN " + chats + " OR sender_id IN " + users,
+                "DELETE FROM chats WHERE id IN " + chats,
+                "DELETE FROM product_images WHERE product_id IN " + products,
+                "UPDATE products SET buyer_id = NULL WHERE buyer_id IN " + users,
+                "DELETE FROM products WHERE id IN " + products,
+                "DELETE FROM trusted_devices WHERE user_id IN " + users,
+                "DELETE FROM category_requests WHERE requested_by IN " + users,
+                "DELETE FROM categories WHERE name LIKE '" + CATEGORY_PREFIX + "%' AND parent_id IS NOT NULL",
+                "DELETE FROM categories WHERE name LIKE '" + CATEGORY_PREFIX + "%'",
+                "DELETE FROM users WHERE username LIKE '" + USER_PREFIX + "%'"
+        };
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                int rows = statement.executeUpdate(sql);
+                if (rows > 0) {
+                    System.out.printf("  %-16s %,d rows%n", sql.split(" ")[2], rows);
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    void seed(Options options) throws SQLException {
+        int userCount = options.getInt("users", 500);
+        int buildings = options.getInt("buildings", 8);
+        int topCategories = options.getInt("categories", 12);
+        int productCount = options.getInt("products", 5_000);
+        int imagesPerProduct = options.getInt("images-per-product", 3);
+        int chatCount = options.getInt("chats", 2_000);
+        int messagesPerChat = options.getInt("messages-per-chat", 8);
+        int offerCount = options.getInt("offers", 600);
+
+        long start = System.nanoTime();
+        List<Long> users = insertUsers(userCount, buildings);
+        List<Long> categories = insertCategories(topCategories);
+        List<long[]> products = insertProducts(productCount, users, categories); // {id, sellerId, priceCents}
+        insertImages(products, imagesPerProduct);
+        List<long[]> chats = insertChats(chatCount, products, users); // {id, buyerId, sellerId, priceCents}
+        insertMessages(chats, messagesPerChat);
+        insertOffers(chats, offerCount);
+        connection.commit();
+        System.out.printf("Seeded %,d users in %d buildings, %,d categories, %,d products (%,d images), "
+                        + "%,d chats (%,d messages), %,d offers in %.1f s%n",
+                users.size(), buildings, categories.size(), products.size(), products.size() * imagesPerProduct,
+                chats.size(), chats.size() * messagesPerChat, Math.min(offerCount, chats.size()),
+                (System.nanoTime() - start) / 1e9);
+        System.out.printf("Log in as %s1 .. %s%d with password %s%n", USER_PREFIX, USER_PREFIX, userCount, PASSWORD);
+    }
+
+    private List<Long> insertUsers(int count, int buildings) throws SQLException {
+        String sql = "INSERT INTO users (username, email, password, first_name, last_name, display_name, "
+                + "apartment_number, building_name, role, enabled, email_verified, phone_verified, "
+                + "account_non_locked, failed_login_attempts, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'USER', TRUE, TRUE, FALSE, TRUE, 0, ?, ?)";
+        // One hash shared by every user; strength 10 is the backend's default
+        String passwordHash = new BCryptPasswordEncoder(10).encode(PASSWORD);
+        List<Long> ids = new ArrayList<>(count);
+        try (PreparedStatement insert = connection.prepareStatement(sql, new String[]{"id"})) {
+            for (int i = 1; i <= count; i++) {
+                insert.setString(1, USER_PREFIX + i);
+                insert.setString(2, USER_PREFIX + i + "@loadtest.invalid");
+                insert.setString(3, passwordHash);
+                insert.setString(4, "Load");
+                insert.setString(5, "Tester " + i);
+                insert.setString(6, "Neighbour " + i);
+                insert.setString(7, String.valueOf(100 + random.nextInt(900)));
+                insert.setString(8, building(random.nextInt(buildings)));
+                Timestamp created = Timestamp.valueOf(now.minusDays(random.nextInt(365)));
+                insert.setTimestamp(9, created);
+                insert.setTimestamp(10, created);
+                insert.addBatch();
+                if (i % BATCH == 0 || i == count) {
+                    executeBatch(insert, ids);
+                }
+            }
+        }
+        return ids;
+    }
+
+    static String building(int index) {
+        return "Building " + (char) ('A' + index % 26) + (index >= 26 ? String.valueOf(index / 26) : "");
+    }
+
+    /** topCount top-level categories with 2-4 subcategories each; products go into the leaves. */
+    private List<Long> insertCategories(int topCount) throws SQLException {
+        String sql = "INSERT INTO categories (name, description, parent_id, active, created_at, updated_at) "
+                + "VALUES (?, ?, ?, TRUE, ?, ?)";
+        List<Long> leaves = new ArrayList<>();
+        Timestamp created = Timestamp.valueOf(now.minusDays(400));
+        try (PreparedStatement insert = connection.prepareStatement(sql, new String[]{"id"})) {
+            for (int top = 1; top <= topCount; top++) {
+                insert.setString(1, CATEGORY_PREFIX + "Category " + top);
+                insert.setString(2, "Load-test category " + top);
+                insert.setNull(3, java.sql.Types.BIGINT);
+                insert.setTimestamp(4, created);
+                insert.setTimestamp(5, created);
+                insert.executeUpdate();
+                long parentId = generatedId(insert);
+                int children = 2 + random.nextInt(3);
+                for (int child = 1; child <= children; child++) {
+                    insert.setString(1, CATEGORY_PREFIX + "Category " + top + "." + child);
+                    insert.setString(2, "Load-test subcategory " + top + "." + child);
+                    insert.setLong(3, parentId);
+                    insert.executeUpdate();
+                    leaves.add(generatedId(insert));
+                }
+            }
+        }
+        return leaves;
+    }
+
+    private List<long[]> insertProducts(int count, List<Long> users, List<Long> categories) throws SQLException {
+        String sql = "INSERT INTO products (title, description, price, original_price, condition, status, "
+                + "category_id, seller_id, view_count, is_negotiable, location_details, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, 'ACTIVE', ?, ?, ?, ?, ?, ?, ?)";
+        List<long[]> products = new ArrayList<>(count);
+        List<long[]> pending = new ArrayList<>(BATCH);
+        try (PreparedStatement insert = connection.prepareStatement(sql, new String[]{"id"})) {
+            for (int i = 1; i <= count; i++) {
+                long sellerId = users.get(random.nextInt(users.size()));
+                long priceCents = 500 + random.nextInt(60_000);
+                String title = capitalize(word()) + " " + word() + " " + word();
+                insert.setString(1, title);
+                insert.setString(2, "Moving out sale: " + title + ". Lightly used, pick up from the lobby. " + word() + " " + word());
+                insert.setBigDecimal(3, BigDecimal.valueOf(priceCents, 2));
+                if (random.nextBoolean()) {
+                    insert.setBigDecimal(4, BigDecimal.valueOf(priceCents * 2, 2));
+                } else {
+                    insert.setNull(4, java.sql.Types.NUMERIC);
+                }
+                insert.setString(5, CONDITIONS[random.nextInt(CONDITIONS.length)]);
+                insert.setLong(6, categories.get(random.nextInt(categories.size())));
+                insert.setLong(7, sellerId);
+                insert.setInt(8, random.nextInt(500));
+                insert.setBoolean(9, random.nextInt(4) != 0);
+                insert.setString(10, "Lobby pickup");
+                Timestamp created = Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 90)));
+                insert.setTimestamp(11, created);
+                insert.setTimestamp(12, created);
+                insert.addBatch();
+                pending.add(new long[]{0, sellerId, priceCents});
+                if (i % BATCH == 0 || i == count) {
+                    List<Long> ids = new ArrayList<>(pending.size());
+                    executeBatch(insert, ids);
+                    for (int j = 0; j < ids.size(); j++) {
+                        pending.get(j)[0] = ids.get(j);
+                    }
+                    products.addAll(pending);
+                    pending.clear();
+                }
+            }
+        }
+        return products;
+    }
+
+    private void insertImages(List<long[]> products, int perProduct) throws SQLException {
+        if (perProduct <= 0) {
+            return;
+        }
+        String sql = "INSERT INTO product_images (product_id, image_url, thumbnail_url, card_url, full_url, width, height, "
+                + "file_name, file_size, is_primary, display_order, created_at) VALUES (?, ?, ?, ?, ?, 1600, 1200, ?, ?, ?, ?, ?)";
+        Timestamp created = Timestamp.valueOf(now.minusDays(1));
+        int rows = 0;
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (long[] product : products) {
+                for (int i = 0; i < perProduct; i++) {
+                    // Placeholder URLs: scenarios exercise the JSON APIs, not image bytes
+                    String base = "/uploads/products/loadtest/" + product[0] + "-" + i;
+                    insert.setLong(1, product[0]);
+                    insert.setString(2, base + ".jpg");
+                    insert.setString(3, base + "-thumb.jpg");
+                    insert.setString(4, base + "-card.jpg");
+                    insert.setString(5, base + "-full.jpg");
+                    insert.setString(6, "IMG_" + (1000 + i) + ".jpg");
+                    insert.setLong(7, 200_000 + random.nextInt(300_000));
+                    insert.setBoolean(8, i == 0);
+                    insert.setInt(9, i);
+                    insert.setTimestamp(10, created);
+                    insert.addBatch();
+                    if (++rows % BATCH == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private List<long[]> insertChats(int count, List<long[]> products, List<Long> users) throws SQLException {
+        String sql = "INSERT INTO chats (product_id, buyer_id, seller_id, status, created_at, updated_at, last_message_at) "
+                + "VALUES (?, ?, ?, 'ACTIVE', ?, ?, ?)";
+        List<long[]> chats = new ArrayList<>(count);
+        List<long[]> pending = new ArrayList<>(BATCH);
+        Set<String> pairs = new HashSet<>();
+        try (PreparedStatement insert = connection.prepareStatement(sql, new String[]{"id"})) {
+            int attempts = 0;
+            while (chats.size() + pending.size() < count && attempts++ < count * 4) {
+                long[] product = products.get(random.nextInt(products.size()));
+                long buyerId = users.get(random.nextInt(users.size()));
+                if (buyerId == product[1] || !pairs.add(product[0] + ":" + buyerId)) {
+                    continue;
+                }
+                Timestamp created = Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 30)));
+                insert.setLong(1, product[0]);
+                insert.setLong(2, buyerId);
+                insert.setLong(3, product[1]);
+                insert.setTimestamp(4, created);
+                insert.setTimestamp(5, created);
+                insert.setTimestamp(6, created);
+                insert.addBatch();
+                pending.add(new long[]{0, buyerId, product[1], product[2]});
+                if (pending.size() == BATCH) {
+                    flushChats(insert, pending, chats);
+                }
+            }
+            flushChats(insert, pending, chats);
+        }
+        return chats;
+    }
+
+    private void flushChats(PreparedStatement insert, List<long[]> pending, List<long[]> chats) throws SQLException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pending.size());
+        executeBatch(insert, ids);
+        for (int i = 0; i < ids.size(); i++) {
+            pending.get(i)[0] = ids.get(i);
+        }
+        chats.addAll(pending);
+        pending.clear();
+    }
+
+    private void insertMessages(List<long[]> chats, int perChat) throws SQLException {
+        String sql = "INSERT INTO chat_messages (chat_id, sender_id, content, message_type, is_system_message, created_at) "
+                + "VALUES (?, ?, ?, 'text', FALSE, ?)";
+        int rows = 0;
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (long[] chat : chats) {
+                LocalDateTime at = now.minusDays(2);
+                for (int i = 0; i < perChat; i++) {
+                    at = at.plusMinutes(1 + random.nextInt(30));
+                    insert.setLong(1, chat[0]);
+                    insert.setLong(2, i % 2 == 0 ? chat[1] : chat[2]);
+                    insert.setString(3, LINES[random.nextInt(LINES.length)]);
+                    insert.setTimestamp(4, Timestamp.valueOf(at));
+                    insert.addBatch();
+                    if (++rows % BATCH == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /** Offers on the first count chats: mostly rejected or expired history, some still pending. */
+    private void insertOffers(List<long[]> chats, int count) throws SQLException {
+        String sql = "INSERT INTO negotiations (chat_id, offered_by, offered_price, message, status, expires_at, "
+                + "responded_at, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        int rows = 0;
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < Math.min(count, chats.size()); i++) {
+                long[] chat = chats.get(i);
+                boolean pending = random.nextInt(3) == 0;
+                LocalDateTime created = now.minusHours(1 + random.nextInt(72));
+                insert.setLong(1, chat[0]);
+                insert.setLong(2, chat[1]);
+                insert.setBigDecimal(3, BigDecimal.valueOf(Math.max(1, chat[3] * (70 + random.nextInt(25)) / 100), 2));
+                insert.setString(4, "Would you take this?");
+                insert.setString(5, pending ? "PENDING" : "REJECTED");
+                insert.setTimestamp(6, Timestamp.valueOf(created.plusHours(24)));
+                if (pending) {
+                    insert.setNull(7, java.sql.Types.TIMESTAMP);
+                } else {
+                    insert.setTimestamp(7, Timestamp.valueOf(created.plusHours(2)));
+                }
+                insert.setTimestamp(8, Timestamp.valueOf(created));
+                insert.setTimestamp(9, Timestamp.valueOf(created));
+                insert.addBatch();
+                if (++rows % BATCH == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void executeBatch(PreparedStatement insert, List<Long> ids) throws SQLException {
+        insert.executeBatch();
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            while (keys.next()) {
+                ids.add(keys.getLong(1));
+            }
+        }
+    }
+
+    private static long generatedId(PreparedStatement insert) throws SQLException {
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            if (!keys.next()) {
+                throw new SQLException("No generated id");
+            }
+            return keys.getLong(1);
+        }
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
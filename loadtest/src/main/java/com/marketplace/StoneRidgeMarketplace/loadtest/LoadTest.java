@@ -0,0 +1,206 @@
+package com.marketplace.StoneRidgeMarketplace.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load-test entry point.
+ * <pre>
+ *   seed     insert the synthetic dataset into the backend's database
+ *   reset    delete everything seed inserted
+ *   run      drive the mixed scenarios against a running backend and report per endpoint
+ *   compare  compare two saved reports
+ * </pre>
+ * Options are listed by {@code help} and described in the top-level README.
+ */
+public final class LoadTest {
+
+    private static final String DEFAULT_MIX = "browse=40,search=20,detail=25,chat=10,negotiate=5";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || args[0].equals("help") || args[0].equals("--help")) {
+            usage();
+            return;
+        }
+        Options options = Options.parse(args, 1);
+        switch (args[0]) {
+            case "seed" -> {
+                try (Connection connection = connect(options)) {
+                    DatasetSeeder seeder = new DatasetSeeder(connection, options.getLong("seed", 42));
+                    if (options.getBoolean("reset", true)) {
+                        seeder.reset();
+                    }
+                    seeder.seed(options);
+                }
+            }
+            case "reset" -> {
+                try (Connection connection = connect(options)) {
+                    new DatasetSeeder(connection, 0).reset();
+                }
+            }
+            case "run" -> System.exit(run(options) ? 0 : 1);
+            case "compare" -> {
+                JsonNode baseline = Report.load(Path.of(options.require("baseline")));
+                JsonNode current = Report.load(Path.of(options.require("current")));
+                System.exit(Report.compare(baseline, current, tolerance(options), System.out) ? 0 : 1);
+            }
+            default -> {
+                usage();
+                System.exit(2);
+            }
+        }
+    }
+
+    private static boolean run(Options options) throws Exception {
+        String baseUrl = options.get("base-url", "http://localhost:8080");
+        int vus = options.getInt("vus", 50);
+        int seededUsers = options.getInt("users", 500);
+        Duration duration = options.getDuration("duration", "60s");
+        Duration rampUp = options.getDuration("ramp-up", "10s");
+        long thinkMillis = options.getDuration("think", "250ms").toMillis();
+        Map<String, Integer> mix = options.getWeights("mix", DEFAULT_MIX);
+        for (String scenario : mix.keySet()) {
+            if (!List.of(VirtualUser.SCENARIOS).contains(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario in --mix: " + scenario);
+            }
+        }
+
+        Metrics metrics = new Metrics();
+        ApiClient api = new ApiClient(baseUrl, options.getDuration("timeout", "10s"), vus * 2, metrics);
+        Catalog catalog = new Catalog();
+
+        System.out.printf("Running %d virtual users against %s for %s (ramp-up %s, think %d ms, mix %s)%n",
+                vus, baseUrl, duration, rampUp, thinkMillis, mix);
+        long start = System.nanoTime();
+        long deadline = start + rampUp.toNanos() + duration.toNanos();
+        long seed = options.getLong("seed", 42);
+        List<VirtualUser> users = new ArrayList<>(vus);
+        for (int i = 0; i < vus; i++) {
+            String username = DatasetSeeder.USER_PREFIX + (i % seededUsers + 1);
+            users.add(new VirtualUser(username, api, catalog, seed + i, mix, thinkMillis, deadline));
+        }
+
+        // Log everyone in first so sellers can accept offers from the moment the first buyer makes one
+        List<VirtualUser> active = new ArrayList<>(vus);
+        for (VirtualUser user : users) {
+            if (user.login()) {
+                user.loadListings();
+                active.add(user);
+            } else {
+                System.err.println("Login failed for " + user.username() + " - seeded? rate limit disabled?");
+            }
+        }
+        if (active.isEmpty()) {
+            System.err.println("No virtual user could log in; nothing to run.");
+            return false;
+        }
+        discoverCategories(api, active.get(0), catalog);
+        System.out.printf("%d users logged in, %d of their listings available for offers%n", active.size(), catalog.listingCount());
+
+        ExecutorService pool = Executors.newFixedThreadPool(active.size());
+        long stagger = rampUp.toNanos() / active.size();
+        for (int i = 0; i < active.size(); i++) {
+            VirtualUser user = active.get(i);
+            long startAt = start + stagger * i;
+            pool.submit(() -> {
+                TimeUnit.NANOSECONDS.sleep(Math.max(0, startAt - System.nanoTime()));
+                if (options.getBoolean("ws", true)) {
+                    user.openWebSocket();
+                }
+                user.run();
+                return null;
+            });
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(rampUp.plus(duration).toMillis() + 60_000, TimeUnit.MILLISECONDS)) {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("baseUrl", baseUrl);
+        settings.put("vus", String.valueOf(active.size()));
+        settings.put("duration", duration.toString());
+        settings.put("rampUp", rampUp.toString());
+        settings.put("thinkMillis", String.valueOf(thinkMillis));
+        settings.put("mix", mix.toString());
+        ObjectNode report = Report.summarize(metrics, seconds, settings);
+        Report.print(report, System.out);
+        if (options.has("save-baseline")) {
+            Path file = Path.of(options.get("save-baseline", null));
+            Report.save(report, file);
+            System.out.println("Saved report to " + file);
+        }
+        if (options.has("baseline")) {
+            return Report.compare(Report.load(Path.of(options.get("baseline", null))), report, tolerance(options), System.out);
+        }
+        return true;
+    }
+
+    /** Leaf categories give the category browse its targets. */
+    private static void discoverCategories(ApiClient api, VirtualUser user, Catalog catalog) {
+        addCategories(api.get("GET /api/categories", "/api/categories", user.token()).data(), catalog);
+    }
+
+    private static void addCategories(JsonNode categories, Catalog catalog) {
+        if (categories == null) {
+            return;
+        }
+        for (JsonNode category : categories) {
+            JsonNode children = category.path("subcategories");
+            if (children.isArray() && children.size() > 0) {
+                addCategories(children, catalog);
+            } else {
+                catalog.addCategory(category.path("id").asLong());
+            }
+        }
+    }
+
+    private static Connection connect(Options options) throws Exception {
+        Connection connection = DriverManager.getConnection(
+                options.get("jdbc-url", "jdbc:postgresql://localhost:5432/stoneridge_marketplace"),
+                options.get("db-user", "postgres"),
+                options.get("db-password", ""));
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    /** "10%" or "0.1". */
+    private static double tolerance(Options options) {
+        String value = options.get("tolerance", "10%").trim();
+        return value.endsWith("%")
+                ? Double.parseDouble(value.substring(0, value.length() - 1)) / 100
+                : Double.parseDouble(value);
+    }
+
+    private static void usage() {
+        System.out.println("""
+                Usage: mvn -q exec:java -Dexec.args="<command> [--option=value ...]"
+
+                  seed     --jdbc-url --db-user --db-password [--seed=42] [--reset=true]
+                           [--users=500] [--buildings=8] [--categories=12] [--products=5000]
+                           [--images-per-product=3] [--chats=2000] [--messages-per-chat=8] [--offers=600]
+                  reset    --jdbc-url --db-user --db-password
+                  run      [--base-url=http://localhost:8080] [--vus=50] [--users=500] [--duration=60s]
+                           [--ramp-up=10s] [--think=250ms] [--timeout=10s] [--ws=true] [--seed=42]
+                           [--mix=%s]
+                           [--save-baseline=file.json] [--baseline=file.json] [--tolerance=10%%]
+                  compare  --baseline=old.json --current=new.json [--tolerance=10%%]
+                """.formatted(DEFAULT_MIX));
+    }
+}
@@ -0,0 +1,50 @@
+package com.marketplace.StoneRidgeMarketplace.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Per-endpoint latency, request and error counts for one run. */
+final class Metrics {
+
+    static final class Endpoint {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder requests = new LongAdder();
+        final Map<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+
+        long errors() {
+            long total = 0;
+            for (LongAdder adder : errorsByStatus.values()) {
+                total += adder.sum();
+            }
+            return total;
+        }
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder webSocketFrames = new LongAdder();
+
+    /** status is the HTTP status, or 0 when the request never got a response. */
+    void record(String endpoint, long micros, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.requests.increment();
+        stats.latency.record(micros);
+        if (status == 0 || status >= 400) {
+            stats.errorsByStatus.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+    }
+
+    void webSocketFrame() {
+        webSocketFrames.increment();
+    }
+
+    long webSocketFrames() {
+        return webSocketFrames.sum();
+    }
+
+    /** Sorted by endpoint label. */
+    Map<String, Endpoint> endpoints() {
+        return new TreeMap<>(endpoints);
+    }
+}
@@ -0,0 +1,144 @@
+package com.marketplace.StoneRidgeMarketplace.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Summarises a run per endpoint (throughput, error count, latency percentiles in ms), saves it
+ * as a JSON baseline and compares a run against one. A comparison fails when an endpoint's p95
+ * or p99 grew, or its throughput fell, by more than the tolerance, or its error rate rose by
+ * more than the tolerance in percentage points.
+ */
+final class Report {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String[] PERCENTILES = {"p50", "p90", "p95", "p99", "max"};
+
+    private Report() {
+    }
+
+    static ObjectNode summarize(Metrics metrics, double seconds, Map<String, String> settings) {
+        ObjectNode report = JSON.createObjectNode();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("durationSeconds", round(seconds));
+        ObjectNode settingsNode = report.putObject("settings");
+        settings.forEach(settingsNode::put);
+        report.put("webSocketFrames", metrics.webSocketFrames());
+        ObjectNode endpoints = report.putObject("endpoints");
+        metrics.endpoints().forEach((label, stats) -> {
+            long count = stats.requests.sum();
+            ObjectNode endpoint = endpoints.putObject(label);
+            endpoint.put("count", count);
+            endpoint.put("errors", stats.errors());
+            endpoint.put("rps", round(count / seconds));
+            endpoint.put("p50", millis(stats.latency.percentile(0.50)));
+            endpoint.put("p90", millis(stats.latency.percentile(0.90)));
+            endpoint.put("p95", millis(stats.latency.percentile(0.95)));
+            endpoint.put("p99", millis(stats.latency.percentile(0.99)));
+            endpoint.put("max", millis(stats.latency.max()));
+            ObjectNode byStatus = endpoint.putObject("errorsByStatus");
+            stats.errorsByStatus.forEach((status, errors) -> byStatus.put(String.valueOf(status), errors.sum()));
+        });
+        return report;
+    }
+
+    static void print(JsonNode report, PrintStream out) {
+        out.printf("%n%-42s %8s %7s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "rps", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms");
+        long total = 0;
+        long errors = 0;
+        for (Map.Entry<String, JsonNode> entry : report.path("endpoints").properties()) {
+            JsonNode e = entry.getValue();
+            total += e.path("count").asLong();
+            errors += e.path("errors").asLong();
+            out.printf("%-42s %8d %7d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    e.path("count").asLong(), e.path("errors").asLong(), e.path("rps").asDouble(),
+                    e.path("p50").asDouble(), e.path("p90").asDouble(), e.path("p95").asDouble(),
+                    e.path("p99").asDouble(), e.path("max").asDouble());
+            if (e.path("errorsByStatus").size() > 0) {
+                out.printf("%-42s errors by status %s%n", "", e.path("errorsByStatus"));
+            }
+        }
+        double seconds = report.path("durationSeconds").asDouble();
+        out.printf("%ntotal %,d requests, %,d errors, %.1f req/s over %.1f s; %,d WebSocket frames received%n",
+                total, errors, seconds > 0 ? total / seconds : 0, seconds, report.path("webSocketFrames").asLong());
+    }
+
+    static void save(JsonNode report, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        JSON.writeValue(file.toFile(), report);
+    }
+
+    static JsonNode load(Path file) throws IOException {
+        return JSON.readTree(file.toFile());
+    }
+
+    /** Prints current against baseline; returns false if any endpoint regressed past tolerance (a fraction). */
+    static boolean compare(JsonNode baseline, JsonNode current, double tolerance, PrintStream out) {
+        out.printf("%nComparison against baseline from %s (tolerance %.0f%%)%n",
+                baseline.path("finishedAt").asText("?"), tolerance * 100);
+        out.printf("%-42s %17s %17s %17s %15s  %s%n", "endpoint", "rps", "p95 ms", "p99 ms", "error %", "");
+        boolean passed = true;
+        TreeSet<String> labels = new TreeSet<>();
+        baseline.path("endpoints").fieldNames().forEachRemaining(labels::add);
+        current.path("endpoints").fieldNames().forEachRemaining(labels::add);
+        for (String label : labels) {
+            JsonNode before = baseline.path("endpoints").path(label);
+            JsonNode after = current.path("endpoints").path(label);
+            if (before.isMissingNode() || after.isMissingNode()) {
+                out.printf("%-42s %s%n", label, before.isMissingNode() ? "new in this run" : "missing from this run");
+                continue;
+            }
+            StringBuilder verdict = new StringBuilder();
+            double rpsBefore = before.path("rps").asDouble();
+            double rpsAfter = after.path("rps").asDouble();
+            if (rpsAfter < rpsBefore * (1 - tolerance)) {
+                verdict.append(" rps");
+            }
+            for (String percentile : new String[]{"p95", "p99"}) {
+                // Sub-millisecond noise is not a regression
+                double was = Math.max(before.path(percentile).asDouble(), 1.0);
+                if (after.path(percentile).asDouble() > was * (1 + tolerance)) {
+                    verdict.append(' ').append(percentile);
+                }
+            }
+            double errorsBefore = errorRate(before);
+            double errorsAfter = errorRate(after);
+            if (errorsAfter > errorsBefore + tolerance * 100) {
+                verdict.append(" errors");
+            }
+            passed &= verdict.length() == 0;
+            out.printf("%-42s %7.1f -> %7.1f %7.1f -> %7.1f %7.1f -> %7.1f %6.2f -> %6.2f  %s%n", label,
+                    rpsBefore, rpsAfter, before.path("p95").asDouble(), after.path("p95").asDouble(),
+                    before.path("p99").asDouble(), after.path("p99").asDouble(), errorsBefore, errorsAfter,
+                    verdict.length() == 0 ? "ok" : "REGRESSED:" + verdict);
+        }
+        out.println(passed ? "\nNo regressions." : "\nRegressions found.");
+        return passed;
+    }
+
+    static double errorRate(JsonNode endpoint) {
+        long count = endpoint.path("count").asLong();
+        return count == 0 ? 0 : 100.0 * endpoint.path("errors").asLong() / count;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,222 @@
+package com.marketplace.StoneRidgeMarketplace.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.http.WebSocket;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One logged-in seeded user running weighted scenarios until the deadline:
+ * <ul>
+ *   <li>browse - a page of the feed, a category, recent or trending listings</li>
+ *   <li>search - a keyword search</li>
+ *   <li>detail - a product page</li>
+ *   <li>chat - start (or reopen) a chat, send a message, read the thread</li>
+ *   <li>negotiate - chat, make an offer, and have the seller (another virtual user) accept it</li>
+ * </ul>
+ */
+final class VirtualUser implements Runnable {
+
+    static final String[] SCENARIOS = {"browse", "search", "detail", "chat", "negotiate"};
+
+    private final String username;
+    private final ApiClient api;
+    private final Catalog catalog;
+    private final Random random;
+    private final Map<String, Integer> mix;
+    private final int totalWeight;
+    private final long thinkMillis;
+    private final long deadlineNanos;
+
+    private volatile String token;
+    private WebSocket webSocket;
+
+    VirtualUser(String username, ApiClient api, Catalog catalog, long seed, Map<String, Integer> mix,
+                long thinkMillis, long deadlineNanos) {
+        this.username = username;
+        this.api = api;
+        this.catalog = catalog;
+        this.random = new Random(seed);
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.thinkMillis = thinkMillis;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    String username() {
+        return username;
+    }
+
+    String token() {
+        return token;
+    }
+
+    /** Logs in and registers this user's active listings; false if login failed. */
+    boolean login() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("usernameOrEmail", username);
+        body.put("password", DatasetSeeder.PASSWORD);
+        ApiClient.Result result = api.post("POST /api/auth/login", "/api/auth/login", body, null);
+        if (!result.ok() || result.data() == null) {
+            return false;
+        }
+        token = result.data().path("accessToken").asText(null);
+        return token != null;
+    }
+
+    void loadListings() {
+        ApiClient.Result result = call("GET /api/products/my-products", "GET", "/api/products/my-products?size=50", null);
+        for (JsonNode product : items(result.data())) {
+            catalog.addListing(new Catalog.Listing(product.path("id").asLong(), product.path("price").decimalValue(), this));
+        }
+    }
+
+    void openWebSocket() {
+        webSocket = api.connectWebSocket("WS /ws/chat (connect)", "/ws/chat", token);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+                switch (pickScenario()) {
+                    case "browse" -> browse();
+                    case "search" -> search();
+                    case "detail" -> detail();
+                    case "chat" -> chat();
+                    case "negotiate" -> negotiate();
+                    default -> throw new IllegalStateException("Unknown scenario");
+                }
+                think();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (webSocket != null) {
+                webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+            }
+        }
+    }
+
+    private void browse() {
+        ApiClient.Result result;
+        Long categoryId = catalog.randomCategory(random);
+        switch (random.nextInt(4)) {
+            case 0 -> result = call("GET /api/products", "GET", "/api/products?size=20&page=" + random.nextInt(10), null);
+            case 1 -> result = categoryId == null
+                    ? call("GET /api/products", "GET", "/api/products?size=20", null)
+                    : call("GET /api/products/category/{id}", "GET", "/api/products/category/" + categoryId + "?size=20", null);
+            case 2 -> result = call("GET /api/products/recent", "GET", "/api/products/recent?limit=20", null);
+            default -> result = call("GET /api/products/trending", "GET", "/api/products/trending?limit=20", null);
+        }
+        remember(result.data());
+    }
+
+    private void search() {
+        String keyword = DatasetSeeder.WORDS[random.nextInt(DatasetSeeder.WORDS.length)];
+        remember(call("GET /api/products/search", "GET", "/api/products/search?size=20&keyword=" + keyword, null).data());
+    }
+
+    private void detail() {
+        Long productId = catalog.randomProduct(random);
+        if (productId == null) {
+            browse();
+            return;
+        }
+        call("GET /api/products/{id}", "GET", "/api/products/" + productId, null);
+    }
+
+    private void chat() {
+        Long productId = catalog.randomProduct(random);
+        if (productId == null || catalog.ownedBy(productId, this)) {
+            browse();
+            return;
+        }
+        Long chatId = startChat(productId);
+        if (chatId == null) {
+            return;
+        }
+        call("POST /api/chats/{id}/messages", "POST", "/api/chats/" + chatId + "/messages",
+                Map.of("content", "Is this still available? (" + username + ")"));
+        call("GET /api/chats/{id}/messages", "GET", "/api/chats/" + chatId + "/messages?size=50", null);
+    }
+
+    private void negotiate() {
+        Catalog.Listing listing = catalog.randomListingNotBy(this, random);
+        if (listing == null) {
+            chat();
+            return;
+        }
+        Long chatId = startChat(listing.productId());
+        if (chatId == null) {
+            return;
+        }
+        BigDecimal offer = listing.price().multiply(BigDecimal.valueOf(80 + random.nextInt(15)))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP)
+                .max(new BigDecimal("0.01"));
+        ApiClient.Result offered = call("POST /api/negotiations/chats/{id}/offer", "POST",
+                "/api/negotiations/chats/" + chatId + "/offer", Map.of("offeredPrice", offer, "message", "Would you take this?"));
+        if (!offered.ok() || offered.data() == null) {
+            return;
+        }
+        ApiClient.Result accepted = listing.seller().call("POST /api/negotiations/{id}/accept", "POST",
+                "/api/negotiations/" + offered.data().path("id").asLong() + "/accept", null);
+        if (accepted.ok()) {
+            catalog.sold(listing.productId());
+        }
+    }
+
+    private Long startChat(long productId) {
+        ApiClient.Result started = call("POST /api/chats/start/{productId}", "POST", "/api/chats/start/" + productId, null);
+        return started.ok() && started.data() != null ? started.data().path("id").asLong() : null;
+    }
+
+    /** Calls with this user's token, logging in again once if it has expired. */
+    private ApiClient.Result call(String label, String method, String path, Object body) {
+        ApiClient.Result result = api.send(label, method, path, body, token);
+        if (result.status() == 401 && login()) {
+            result = api.send(label, method, path, body, token);
+        }
+        return result;
+    }
+
+    private void remember(JsonNode data) {
+        for (JsonNode product : items(data)) {
+            long id = product.path("id").asLong();
+            if (id > 0) {
+                catalog.addProduct(id);
+            }
+        }
+    }
+
+    /** A page's content, or the node itself when it is already a list. */
+    private static Iterable<JsonNode> items(JsonNode data) {
+        if (data == null) {
+            return java.util.List.of();
+        }
+        return data.isArray() ? data : data.path("content");
+    }
+
+    private String pickScenario() {
+        int ticket = random.nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        return SCENARIOS[0];
+    }
+
+    /** Uniform between half and one and a half times the configured think time. */
+    private void think() throws InterruptedException {
+        if (thinkMillis > 0) {
+            TimeUnit.MILLISECONDS.sleep(thinkMillis / 2 + (long) (random.nextDouble() * thinkMillis));
+        }
+    }
+}